@@ -0,0 +1,63 @@
+package io.github.yeheng.wiremock.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.service.MockEngine;
+import io.github.yeheng.wiremock.service.NearMissSampler;
+import io.github.yeheng.wiremock.service.StubMappingConverter;
+
+/**
+ * 基准测试用的命名空间匹配引擎
+ * 与 WireMockManager 为每个命名空间创建的 {@link MockEngine} 相同：按路由分片、IndexedStubMappingStore 与可选的匹配结果缓存；
+ * 不启用响应体预压缩
+ */
+final class BenchmarkEngine {
+
+    private final MockEngine engine;
+    private final NearMissSampler nearMissSampler;
+
+    /**
+     * @param shards         分片数，对应 wiremock.sharding.shards，1 表示不分片
+     * @param matchCacheSize 匹配结果缓存条数，0 表示关闭，对应 wiremock.match-cache.max-entries
+     */
+    BenchmarkEngine(StubCorpus corpus, int shards, int matchCacheSize) {
+        WireMockProperties properties = new WireMockProperties();
+        properties.getNearMiss().setSampleRate(0);
+        nearMissSampler = new NearMissSampler(properties);
+        engine = new MockEngine("default", new StubMappingConverter(new ObjectMapper()), nearMissSampler, shards, -1,
+                matchCacheSize);
+        engine.start();
+        engine.beginBatch();
+        try {
+            for (StubMapping stub : corpus.stubs) {
+                engine.add(stub);
+            }
+        } finally {
+            engine.endBatch();
+        }
+    }
+
+    Response handle(Request request) {
+        return engine.handle(request);
+    }
+
+    static Request request(String path) {
+        return ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080" + path)
+                .withMethod(RequestMethod.GET)
+                .withProtocol("HTTP/1.1")
+                .withClientIp("127.0.0.1")
+                .build();
+    }
+
+    void stop() {
+        engine.stop();
+        nearMissSampler.shutdown();
+    }
+}
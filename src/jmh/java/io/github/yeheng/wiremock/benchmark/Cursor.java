@@ -0,0 +1,17 @@
+package io.github.yeheng.wiremock.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 每个基准线程独立的样本游标，避免线程间共享计数器带来的干扰
+ */
+@State(Scope.Thread)
+public class Cursor {
+
+    private int position;
+
+    public int next() {
+        return position++ & (StubCorpus.SAMPLES - 1);
+    }
+}
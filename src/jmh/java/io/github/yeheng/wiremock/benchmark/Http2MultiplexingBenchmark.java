@@ -0,0 +1,103 @@
+package io.github.yeheng.wiremock.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+
+/**
+ * 高并发下 HTTP/1.1 keep-alive 与 HTTP/2 多路复用的对比：启动完整应用（内嵌 Undertow），64 个线程共用一个客户端请求同一 mock。
+ * HTTP_1_1 时客户端为每个并发请求维持一条 keep-alive 连接，HTTP_2 时经 h2c 升级后所有请求复用一条连接
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class Http2MultiplexingBenchmark {
+
+    private static final String BODY = "{\"id\": 1, \"name\": \"benchmark\", \"tags\": [\"a\", \"b\", \"c\"]}";
+
+    @Param({"HTTP_1_1", "HTTP_2"})
+    public HttpClient.Version version;
+
+    @Param({"false", "true"})
+    public boolean nativeHandler;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        context = new SpringApplicationBuilder(WiremockUiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench_http2",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.h2.console.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "wiremock.native-handler.enabled=" + nativeHandler)
+                .run();
+        String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        String stub = """
+                {"name": "http2-benchmark", "method": "GET", "url": "/api/bench/item", "urlMatchType": "EQUALS",
+                 "enabled": true, "responseDefinition": %s}
+                """.formatted(new ObjectMapper().writeValueAsString(BODY));
+        HttpResponse<String> created = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(base + "/admin/stubs"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(stub))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (created.statusCode() != 201) {
+            throw new IllegalStateException("创建基准 stub 失败: " + created.body());
+        }
+
+        client = HttpClient.newBuilder().version(version).build();
+        request = HttpRequest.newBuilder(URI.create(base + "/api/bench/item")).GET().build();
+        // HTTP_2 时首个请求完成 h2c 升级，之后的请求都在升级后的连接上多路复用
+        HttpResponse<String> first = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (first.version() != version || !BODY.equals(first.body())) {
+            throw new IllegalStateException("预期协议 " + version + "，实际 " + first.version());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int get() throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.yeheng.wiremock.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.yeheng.wiremock.service.RegexCache;
+
+/**
+ * RegexCache 命中查找与 URL 转义
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegexCacheBenchmark {
+
+    private String[] urls;
+    private String[] patterns;
+
+    @Setup(Level.Trial)
+    public void setUp(StubCorpus corpus) {
+        urls = new String[StubCorpus.SAMPLES];
+        patterns = new String[StubCorpus.SAMPLES];
+        for (int i = 0; i < StubCorpus.SAMPLES; i++) {
+            urls[i] = corpus.stubs.get(i % corpus.stubCount).getUrl();
+            patterns[i] = ".*" + RegexCache.escapeRegex(urls[i]) + ".*";
+        }
+        // 缓存规模与语料一致
+        for (var stub : corpus.stubs) {
+            RegexCache.getPattern(".*" + RegexCache.escapeRegex(stub.getUrl()) + ".*");
+        }
+    }
+
+    @Benchmark
+    public Pattern getPattern(Cursor cursor) {
+        return RegexCache.getPattern(patterns[cursor.next()]);
+    }
+
+    @Benchmark
+    public String escapeRegex(Cursor cursor) {
+        return RegexCache.escapeRegex(urls[cursor.next()]);
+    }
+}
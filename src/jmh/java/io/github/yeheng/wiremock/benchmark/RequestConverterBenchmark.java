@@ -0,0 +1,80 @@
+package io.github.yeheng.wiremock.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+
+import io.github.yeheng.wiremock.service.RequestConverter;
+
+/**
+ * HttpServletRequest 到 WireMock Request 的转换
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestConverterBenchmark {
+
+    private static final byte[] BODY = "{\"orderId\": 42, \"items\": [1, 2, 3]}".getBytes(StandardCharsets.UTF_8);
+
+    private RequestConverter converter;
+    private MockHttpServletRequest[] requests;
+
+    @Setup(Level.Trial)
+    public void setUp(StubCorpus corpus) {
+        converter = new RequestConverter();
+        requests = new MockHttpServletRequest[StubCorpus.SAMPLES];
+        for (int i = 0; i < StubCorpus.SAMPLES; i++) {
+            String path = corpus.requestPaths[i];
+            int query = path.indexOf('?');
+            MockHttpServletRequest request = new MockHttpServletRequest("POST",
+                    query < 0 ? path : path.substring(0, query));
+            if (query >= 0) {
+                request.setQueryString(path.substring(query + 1));
+            }
+            request.setServerName("localhost");
+            request.setServerPort(8080);
+            request.addHeader("Accept", "application/json");
+            request.addHeader("Content-Type", "application/json");
+            request.addHeader("User-Agent", "jmh");
+            request.addHeader("X-Request-Id", "req-" + i);
+            requests[i] = request;
+        }
+    }
+
+    @Benchmark
+    public Request convert(Cursor cursor) throws IOException {
+        MockHttpServletRequest request = requests[cursor.next()];
+        // 重置请求体输入流，使每次调用都读取完整请求体
+        request.setContent(BODY);
+        return converter.convert(request);
+    }
+
+    /**
+     * 转换后由 WireMock 生成请求快照（stubRequest 中的 ServeEvent.of），即请求路径上实际发生的全部读取
+     */
+    @Benchmark
+    public LoggedRequest convertAndSnapshot(Cursor cursor) throws IOException {
+        MockHttpServletRequest request = requests[cursor.next()];
+        request.setContent(BODY);
+        return LoggedRequest.createFrom(converter.convert(request));
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.yeheng.wiremock.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.EqualToJsonPattern;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+
+import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.service.RequestView;
+import io.github.yeheng.wiremock.service.StubMappingConverter;
+
+/**
+ * 同一 URL 下多个 equalToJson 候选 stub：逐个按 WireMock 原方式解析并完整比较，
+ * 与经共享请求视图只解析、规范化一次并按规范形式快速判定的对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestViewBenchmark {
+
+    @Param({"10", "100"})
+    public int candidates;
+
+    private RequestPattern[] plain;
+    private RequestPattern[] viewed;
+    private LoggedRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StubMappingConverter converter = new StubMappingConverter(new ObjectMapper());
+        plain = new RequestPattern[candidates];
+        viewed = new RequestPattern[candidates];
+        for (int i = 0; i < candidates; i++) {
+            String json = body(i);
+            plain[i] = WireMock.post(WireMock.urlPathEqualTo("/orders"))
+                    .withRequestBody(new EqualToJsonPattern(json, true, true))
+                    .build()
+                    .getRequest();
+            viewed[i] = converter.convert(stub(json)).build().getRequest();
+        }
+        // 请求只与最后一个候选匹配，所有候选都要比较一遍
+        request = LoggedRequest.createFrom(ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080/orders")
+                .withMethod(RequestMethod.POST)
+                .withProtocol("HTTP/1.1")
+                .withClientIp("127.0.0.1")
+                .withHeader("Content-Type", "application/json")
+                .withBody(body(candidates - 1).getBytes(StandardCharsets.UTF_8))
+                .build());
+    }
+
+    private static String body(int i) {
+        return "{\"order\": {\"id\": " + i + ", \"items\": [{\"sku\": \"A-1\", \"qty\": 2}, "
+                + "{\"sku\": \"B-2\", \"qty\": 1}], \"customer\": {\"name\": \"user\", \"tier\": \"gold\"}}}";
+    }
+
+    private static StubMapping stub(String json) {
+        StubMapping stub = new StubMapping();
+        stub.setName("order");
+        stub.setMethod("POST");
+        stub.setUrl("/orders");
+        stub.setUrlMatchType(StubMapping.UrlMatchType.EQUALS);
+        stub.setRequestBodyPattern("{\"equalToJson\": " + new ObjectMapper().valueToTree(json) + "}");
+        stub.setResponseDefinition("{}");
+        return stub;
+    }
+
+    @Benchmark
+    public int parsePerCandidate() {
+        int matched = 0;
+        for (RequestPattern pattern : plain) {
+            if (pattern.match(request).isExactMatch()) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int sharedView() {
+        RequestView view = RequestView.of(request);
+        int matched = 0;
+        for (RequestPattern pattern : viewed) {
+            if (view.match(pattern, Map.of()).isExactMatch()) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.yeheng.wiremock.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.github.tomakehurst.wiremock.http.Response;
+
+import io.github.yeheng.wiremock.service.ResponseConverter;
+
+/**
+ * WireMock Response 写回 HttpServletResponse
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseConverterBenchmark {
+
+    private ResponseConverter converter;
+    private Response[] responses;
+    private Response notFound;
+
+    @Setup(Level.Trial)
+    public void setUp(StubCorpus corpus) {
+        converter = new ResponseConverter();
+        BenchmarkEngine engine = new BenchmarkEngine(corpus, 1, 0);
+        try {
+            responses = new Response[StubCorpus.SAMPLES];
+            for (int i = 0; i < StubCorpus.SAMPLES; i++) {
+                responses[i] = engine.handle(BenchmarkEngine.request(corpus.requestPaths[i]));
+            }
+            notFound = engine.handle(BenchmarkEngine.request("/not-configured"));
+        } finally {
+            engine.stop();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        responses = null;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse convert(Cursor cursor) throws IOException {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        converter.convert(responses[cursor.next()], servletResponse);
+        return servletResponse;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse convertNotFound() throws IOException {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        converter.convert(notFound, servletResponse);
+        return servletResponse;
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.yeheng.wiremock.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.service.MockEngine;
+import io.github.yeheng.wiremock.service.NearMissSampler;
+import io.github.yeheng.wiremock.service.ResponseTemplate;
+import io.github.yeheng.wiremock.service.StubMappingConverter;
+
+/**
+ * 模板化响应与静态响应的对比：单独渲染，以及经匹配引擎端到端处理
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseTemplateBenchmark {
+
+    private static final String STATIC_BODY = "{\"id\": 42, \"name\": \"user\", \"trace\": \"trace-1\", "
+            + "\"page\": \"2\", \"status\": \"active\"}";
+    private static final String TEMPLATE = "{\"id\": {{request.path.1}}, \"name\": \"user\", "
+            + "\"trace\": \"{{request.headers.X-Trace-Id}}\", \"page\": \"{{request.query.page}}\", "
+            + "\"status\": \"active\"}";
+    private static final String BODY_TEMPLATE = "{\"id\": {{request.body.user.id}}, \"status\": \"active\"}";
+
+    private NearMissSampler nearMissSampler;
+    private MockEngine engine;
+    private ResponseTemplate template;
+    private ResponseTemplate bodyTemplate;
+    private byte[] staticBytes;
+    private Request staticRequest;
+    private Request templatedRequest;
+    private Request postRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        WireMockProperties properties = new WireMockProperties();
+        properties.getNearMiss().setSampleRate(0);
+        nearMissSampler = new NearMissSampler(properties);
+        engine = new MockEngine("default",
+                new StubMappingConverter(new ObjectMapper()), nearMissSampler);
+        engine.add(stub("/static/{id}", STATIC_BODY, false));
+        engine.add(stub("/users/{id}", TEMPLATE, true));
+
+        template = ResponseTemplate.compile(TEMPLATE);
+        bodyTemplate = ResponseTemplate.compile(BODY_TEMPLATE);
+        staticBytes = STATIC_BODY.getBytes(StandardCharsets.UTF_8);
+        staticRequest = request("/static/42?page=2", null);
+        templatedRequest = request("/users/42?page=2", null);
+        postRequest = request("/users", "{\"user\": {\"id\": 42, \"name\": \"user\"}}");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.stop();
+        nearMissSampler.shutdown();
+    }
+
+    private static StubMapping stub(String url, String body, boolean templated) {
+        StubMapping stub = new StubMapping();
+        stub.setUuid(UUID.randomUUID().toString());
+        stub.setName(url);
+        stub.setMethod("ANY");
+        stub.setUrl(url);
+        stub.setUrlMatchType(StubMapping.UrlMatchType.PATH_TEMPLATE);
+        stub.setResponseDefinition(body);
+        stub.setTemplated(templated);
+        return stub;
+    }
+
+    private static Request request(String url, String body) {
+        return ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080" + url)
+                .withMethod(body != null ? RequestMethod.POST : RequestMethod.GET)
+                .withProtocol("HTTP/1.1")
+                .withClientIp("127.0.0.1")
+                .withHeader("X-Trace-Id", "trace-1")
+                .withBody(body != null ? body.getBytes(StandardCharsets.UTF_8) : null)
+                .build();
+    }
+
+    /**
+     * 基线：复制一份静态响应体
+     */
+    @Benchmark
+    public byte[] copyStatic() {
+        return staticBytes.clone();
+    }
+
+    @Benchmark
+    public byte[] renderTemplate() {
+        return template.render(templatedRequest);
+    }
+
+    @Benchmark
+    public byte[] renderBodyTemplate() {
+        return bodyTemplate.render(postRequest);
+    }
+
+    @Benchmark
+    public Response handleStatic() {
+        return engine.handle(staticRequest);
+    }
+
+    @Benchmark
+    public Response handleTemplated() {
+        return engine.handle(templatedRequest);
+    }
+}
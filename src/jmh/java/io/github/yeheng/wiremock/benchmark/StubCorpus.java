@@ -0,0 +1,83 @@
+package io.github.yeheng.wiremock.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.entity.StubMapping.UrlMatchType;
+
+/**
+ * 基准测试用的合成 stub 语料
+ * 按 stub 数量与 URL 匹配类型组合生成，并预先生成一批能命中这些 stub 的请求路径
+ */
+@State(Scope.Benchmark)
+public class StubCorpus {
+
+    /**
+     * 预生成的请求样本数（2 的幂，便于取模）
+     */
+    public static final int SAMPLES = 1024;
+
+    @Param({ "10", "1000", "10000", "100000" })
+    public int stubCount;
+
+    @Param({ "EQUALS", "CONTAINS", "REGEX", "PATH_TEMPLATE" })
+    public UrlMatchType urlMatchType;
+
+    public List<StubMapping> stubs;
+
+    /**
+     * 与 stubs 中随机位置对应的请求路径（含查询串）
+     */
+    public String[] requestPaths;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        stubs = new ArrayList<>(stubCount);
+        for (int i = 0; i < stubCount; i++) {
+            stubs.add(stub(i, urlMatchType));
+        }
+
+        java.util.Random random = new java.util.Random(42);
+        requestPaths = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            requestPaths[i] = requestPath(random.nextInt(stubCount), urlMatchType);
+        }
+    }
+
+    public static StubMapping stub(int index, UrlMatchType type) {
+        StubMapping stub = new StubMapping();
+        stub.setId((long) index + 1);
+        stub.setUuid(new UUID(0x5EEDL, index).toString());
+        stub.setName("bench-" + index);
+        stub.setMethod("GET");
+        stub.setUrlMatchType(type);
+        stub.setUrl(switch (type) {
+            case EQUALS -> "/api/svc" + (index % 50) + "/items/" + index;
+            case CONTAINS -> "/items/" + index + "/detail";
+            case REGEX -> "/api/svc" + (index % 50) + "/items/" + index + "/[0-9]+";
+            case PATH_TEMPLATE -> "/api/svc" + (index % 50) + "/items/" + index + "/{id}";
+        });
+        stub.setEnabled(true);
+        stub.setPriority(5);
+        stub.setResponseDefinition("{\"id\": " + index + ", \"name\": \"item-" + index
+                + "\", \"tags\": [\"a\", \"b\", \"c\"], \"price\": 12.5}");
+        return stub;
+    }
+
+    public static String requestPath(int index, UrlMatchType type) {
+        return switch (type) {
+            case EQUALS -> "/api/svc" + (index % 50) + "/items/" + index + "?page=1";
+            case CONTAINS -> "/api/shop/items/" + index + "/detail?page=1";
+            case REGEX -> "/api/svc" + (index % 50) + "/items/" + index + "/42";
+            case PATH_TEMPLATE -> "/api/svc" + (index % 50) + "/items/" + index + "/abc?page=1";
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.yeheng.wiremock.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+
+import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.service.StubMappingConverter;
+
+/**
+ * 实体到 WireMock MappingBuilder 的转换（注册/重载路径）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StubMappingConverterBenchmark {
+
+    private StubMappingConverter converter;
+    private StubMapping[] samples;
+
+    @Setup(Level.Trial)
+    public void setUp(StubCorpus corpus) {
+        converter = new StubMappingConverter(new ObjectMapper());
+        samples = new StubMapping[StubCorpus.SAMPLES];
+        for (int i = 0; i < StubCorpus.SAMPLES; i++) {
+            StubMapping stub = corpus.stubs.get(i % corpus.stubCount);
+            stub.setRequestHeadersPattern("{\"Accept\": {\"contains\": \"json\"}}");
+            stub.setQueryParametersPattern("{\"page\": {\"matches\": \"[0-9]+\"}}");
+            samples[i] = stub;
+        }
+        // 预热 RegexCache，使其规模与语料一致
+        for (StubMapping stub : corpus.stubs) {
+            converter.convert(stub);
+        }
+    }
+
+    @Benchmark
+    public MappingBuilder convert(Cursor cursor) {
+        return converter.convert(samples[cursor.next()]);
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.yeheng.wiremock.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+
+/**
+ * 端到端匹配：命名空间引擎 MockEngine.handle（分片路由、索引匹配、匹配结果缓存与响应后处理）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StubRequestBenchmark {
+
+    /**
+     * 每个命名空间的分片数
+     */
+    @Param({ "1", "16" })
+    public int shards;
+
+    /**
+     * 匹配结果缓存条数，0 表示关闭
+     */
+    @Param({ "0", "10000" })
+    public int matchCacheSize;
+
+    private BenchmarkEngine engine;
+    private Request[] matched;
+    private Request[] unmatched;
+
+    @Setup(Level.Trial)
+    public void setUp(StubCorpus corpus) {
+        engine = new BenchmarkEngine(corpus, shards, matchCacheSize);
+        matched = new Request[StubCorpus.SAMPLES];
+        unmatched = new Request[StubCorpus.SAMPLES];
+        for (int i = 0; i < StubCorpus.SAMPLES; i++) {
+            matched[i] = BenchmarkEngine.request(corpus.requestPaths[i]);
+            unmatched[i] = BenchmarkEngine.request("/not-configured/" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.stop();
+    }
+
+    @Benchmark
+    public Response matched(Cursor cursor) {
+        return engine.handle(matched[cursor.next()]);
+    }
+
+    @Benchmark
+    public Response unmatched(Cursor cursor) {
+        return engine.handle(unmatched[cursor.next()]);
+    }
+}
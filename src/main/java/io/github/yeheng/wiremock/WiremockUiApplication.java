@@ -1,5 +1,7 @@
 package io.github.yeheng.wiremock;
 
+import java.util.Arrays;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
@@ -8,6 +10,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.loadgen.LoadGenerator;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -23,6 +26,11 @@ import lombok.extern.slf4j.Slf4j;
 public class WiremockUiApplication {
 
     public static void main(String[] args) {
+        // 压测模式：不启动应用，只向运行中的实例施压
+        if (args.length > 0 && LoadGenerator.COMMAND.equals(args[0])) {
+            System.exit(LoadGenerator.run(Arrays.copyOfRange(args, 1, args.length), System.out));
+        }
+
         SpringApplication.run(WiremockUiApplication.class, args);
         log.info("""
 
@@ -0,0 +1,41 @@
+package io.github.yeheng.wiremock.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.DigestUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 按资源内容生成 ETag
+ * 摘要按资源位置与最后修改时间缓存，资源不变时每个文件只计算一次
+ */
+@Slf4j
+class ContentHashEtagGenerator implements Function<Resource, String> {
+
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    @Override
+    public String apply(Resource resource) {
+        try {
+            String key = resource.getURL() + "@" + resource.lastModified();
+            return etags.computeIfAbsent(key, k -> digest(resource));
+        } catch (IOException e) {
+            log.debug("无法读取资源元数据，不生成 ETag: {}", resource.getDescription());
+            return null;
+        }
+    }
+
+    private static String digest(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return "\"" + DigestUtils.md5DigestAsHex(in) + "\"";
+        } catch (IOException e) {
+            throw new IllegalStateException("计算资源摘要失败: " + resource.getDescription(), e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.yeheng.wiremock.config;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.undertow.UndertowBuilderCustomizer;
+import org.springframework.boot.web.embedded.undertow.UndertowDeploymentInfoCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.github.yeheng.wiremock.filter.MockHttpHandler;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 原生 Undertow mock 入口配置（wiremock.native-handler.enabled=true 时生效）
+ * 共用端口时把 {@link MockHttpHandler} 包装在 servlet 部署的最外层处理链上，mock 请求不再创建 servlet 请求；
+ * 配置了独立端口时额外监听该端口，端口上的请求全部交给 {@link MockHttpHandler}
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "wiremock.native-handler", name = "enabled", havingValue = "true")
+public class NativeHandlerConfig {
+
+    @Bean
+    public MockHttpHandler mockHttpHandler(BeanFactory beanFactory) {
+        return new MockHttpHandler(beanFactory);
+    }
+
+    @Bean
+    public UndertowDeploymentInfoCustomizer nativeMockSharedPortCustomizer(WireMockProperties properties,
+            MockHttpHandler handler) {
+        return deploymentInfo -> {
+            if (properties.getNativeHandler().getPort() <= 0) {
+                deploymentInfo.addInitialHandlerChainWrapper(handler.sharedPort());
+                log.info("原生 Undertow mock 入口: 与应用共用端口");
+            }
+        };
+    }
+
+    @Bean
+    public UndertowBuilderCustomizer nativeMockDedicatedPortCustomizer(WireMockProperties properties,
+            MockHttpHandler handler) {
+        return builder -> {
+            WireMockProperties.NativeHandler config = properties.getNativeHandler();
+            if (config.getPort() > 0) {
+                builder.addHttpListener(config.getPort(), config.getHost(), handler);
+                log.info("原生 Undertow mock 入口: 独立端口 {}:{}", config.getHost(), config.getPort());
+            }
+        };
+    }
+}
@@ -1,15 +1,23 @@
 package io.github.yeheng.wiremock.config;
 
+import java.time.Duration;
+
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.lang.NonNull;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 
 /**
  * Web 配置类
  * 配置静态资源访问和页面路由
+ *
+ * 前端构建产物中 /assets/ 下的文件名带内容哈希，内容变化即换文件名，按一年 immutable 缓存；
+ * index.html 等入口文件不带哈希，每次使用前按内容 ETag 重新验证。
+ * 两类资源都优先返回构建时生成的 .br / .gz 文件
  */
 @Configuration
 @EnableWebMvc
@@ -17,20 +25,20 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
-        // 静态资源处理
+        // 带内容哈希的前端资源
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations("classpath:/static/assets/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+
+        // 入口页面与其他静态资源
         registry.addResourceHandler("/**")
                 .addResourceLocations("classpath:/static/")
-                .setCachePeriod(0);
-
-        // CSS 资源
-        registry.addResourceHandler("/styles/**")
-                .addResourceLocations("classpath:/static/styles/")
-                .setCachePeriod(0);
-
-        // JavaScript 资源
-        registry.addResourceHandler("/scripts/**")
-                .addResourceLocations("classpath:/static/scripts/")
-                .setCachePeriod(0);
+                .setCacheControl(CacheControl.noCache())
+                .setEtagGenerator(new ContentHashEtagGenerator())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
     }
 
     @Override
@@ -1,14 +1,16 @@
 package io.github.yeheng.wiremock.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * WireMock 配置类
  * 简化配置：Filter 现在通过 WireMockServletFilter 处理
  * 不再需要额外的 Filter 配置
+ * 启用定时任务，用于 Stub 命中统计的批量回写
  */
 @Configuration
+@EnableScheduling
 public class WireMockConfig {
-    // 此配置类现在为空，仅作标记用途
     // WireMockServletFilter 已通过 @Component 注解自动注册
 }
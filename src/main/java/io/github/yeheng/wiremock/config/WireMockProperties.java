@@ -1,6 +1,11 @@
 package io.github.yeheng.wiremock.config;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -26,4 +31,359 @@ public class WireMockProperties {
      */
     private boolean requestLoggingEnabled = true;
 
+    /**
+     * Stub 命中统计配置
+     */
+    private HitStats hitStats = new HitStats();
+
+    /**
+     * 未匹配请求的近似匹配分析配置
+     */
+    private NearMiss nearMiss = new NearMiss();
+
+    /**
+     * 命名空间选择配置
+     */
+    private Namespaces namespaces = new Namespaces();
+
+    /**
+     * 匹配引擎分片配置
+     */
+    private Sharding sharding = new Sharding();
+
+    /**
+     * 多节点共享数据库时的变更日志复制配置
+     */
+    private Replication replication = new Replication();
+
+    /**
+     * 静态响应体预压缩配置
+     */
+    private Compression compression = new Compression();
+
+    /**
+     * 匹配结果缓存配置
+     */
+    private MatchCache matchCache = new MatchCache();
+
+    /**
+     * stub 大字段按内容去重存储配置
+     */
+    private Blobs blobs = new Blobs();
+
+    /**
+     * 原生 Undertow mock 入口配置
+     */
+    private NativeHandler nativeHandler = new NativeHandler();
+
+    /**
+     * 按路由类别的自适应并发限制（准入控制）配置
+     */
+    private Admission admission = new Admission();
+
+    /**
+     * 有状态场景配置
+     */
+    private Scenarios scenarios = new Scenarios();
+
+    /**
+     * 未匹配请求转发到上游并录制为 stub 的配置
+     */
+    private Proxy proxy = new Proxy();
+
+    @Data
+    public static class HitStats {
+
+        /**
+         * 是否在 mock 请求路径上记录命中
+         */
+        private boolean enabled = true;
+
+        /**
+         * 命中计数回写数据库的间隔（毫秒）
+         */
+        private long flushIntervalMs = 5000;
+    }
+
+    @Data
+    public static class NearMiss {
+
+        /**
+         * 未匹配请求进入近似匹配分析的采样比例（0 ~ 1）
+         */
+        private double sampleRate = 0.1;
+
+        /**
+         * 保留的最近分析结果条数
+         */
+        private int capacity = 100;
+
+        /**
+         * 等待分析的请求队列长度，队列满时直接丢弃
+         */
+        private int queueSize = 64;
+    }
+
+    @Data
+    public static class Namespaces {
+
+        /**
+         * 指定命名空间的请求头
+         */
+        private String header = "X-Mock-Namespace";
+
+        /**
+         * Host 到命名空间的映射（小写主机名），YAML 中含点的键需写成 "[team-a.mock.local]"
+         */
+        private Map<String, String> hosts = new HashMap<>();
+
+        /**
+         * 路径前缀，/ns/team-a/api/x 路由到 team-a 并按 /api/x 匹配；为空时不按路径选择
+         */
+        private String pathPrefix = "/ns/";
+    }
+
+    @Data
+    public static class Sharding {
+
+        /**
+         * 每个命名空间的路由分片数，按 HTTP 方法 + 第一段路径分布 stub；1 表示不分片
+         */
+        private int shards = 1;
+    }
+
+    @Data
+    public static class Compression {
+
+        /**
+         * 是否在注册 stub 时预压缩静态响应体，并按 Accept-Encoding 返回 gzip / deflate 版本
+         */
+        private boolean enabled = true;
+
+        /**
+         * 响应体不小于该字节数时才预压缩
+         */
+        private int minSize = 1024;
+    }
+
+    @Data
+    public static class MatchCache {
+
+        /**
+         * 是否按请求指纹缓存匹配结果（含未匹配），重复的请求不再经过匹配；stub 变更后缓存整体作废
+         */
+        private boolean enabled = false;
+
+        /**
+         * 每个命名空间最多缓存的请求指纹数，超出后新的请求不再缓存
+         */
+        private int maxEntries = 10000;
+    }
+
+    @Data
+    public static class Blobs {
+
+        /**
+         * 是否把大字段写入 stubStorageDirectory/blobs，数据库中只保存内容哈希引用；
+         * 多节点共享数据库时各节点必须挂载同一目录
+         */
+        private boolean enabled = false;
+
+        /**
+         * 字段不小于该字符数时才按内容去重（内存共享与落盘）
+         */
+        private int minSize = 4096;
+
+        /**
+         * 落盘时是否用 deflate 压缩，压缩后不变小的内容按原文保存
+         */
+        private boolean compress = true;
+    }
+
+    @Data
+    public static class NativeHandler {
+
+        /**
+         * 是否用原生 Undertow 处理器处理 mock 请求，不经过 servlet 与 Spring 过滤器链
+         */
+        private boolean enabled = false;
+
+        /**
+         * 独立监听端口；小于等于 0 时与应用共用端口，只接管 mock 路径，管理 API 与界面仍由 Spring MVC 处理
+         */
+        private int port = -1;
+
+        /**
+         * 独立端口的监听地址
+         */
+        private String host = "0.0.0.0";
+    }
+
+    @Data
+    public static class Admission {
+
+        /**
+         * 是否在 mock、管理与静态资源请求前做并发限制，超过上限的请求立即拒绝
+         */
+        private boolean enabled = false;
+
+        /**
+         * 拒绝时返回的状态码，只能是 503 或 429
+         */
+        private int rejectStatus = 503;
+
+        /**
+         * 拒绝响应的 Retry-After（秒），小于等于 0 时不返回该响应头
+         */
+        private int retryAfterSeconds = 1;
+
+        /**
+         * 每次调整时新上限的权重（0 ~ 1），越小调整越平缓
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * 允许延迟超过长期平均的倍数，超过后才收缩上限
+         */
+        private double tolerance = 2.0;
+
+        /**
+         * mock 请求的并发上限
+         */
+        private Limit mock = new Limit(200, 20, 2000);
+
+        /**
+         * 管理 API 的并发上限
+         */
+        private Limit admin = new Limit(20, 4, 200);
+
+        /**
+         * 静态资源的并发上限
+         */
+        private Limit staticResources = new Limit(50, 10, 500);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /**
+         * 初始并发上限
+         */
+        private int initial;
+
+        /**
+         * 自适应调整的下限
+         */
+        private int min;
+
+        /**
+         * 自适应调整的上限
+         */
+        private int max;
+    }
+
+    @Data
+    public static class Scenarios {
+
+        /**
+         * 场景实例键：header:NAME、cookie:NAME 或 query:NAME，同一场景按该值区分独立实例；
+         * 为空时所有请求共用一个实例
+         */
+        private String instanceKey = "";
+
+        /**
+         * 保留的场景实例上限，超出时淘汰最久未访问的实例
+         */
+        private int maxInstances = 100000;
+
+        /**
+         * 状态存储的分段数，向下取整为 2 的幂
+         */
+        private int stripes = 64;
+    }
+
+    @Data
+    public static class Proxy {
+
+        /**
+         * 是否把未匹配任何 stub 的 mock 请求转发到上游
+         */
+        private boolean enabled = false;
+
+        /**
+         * 上游地址，例如 http://localhost:9000，请求路径与查询串原样拼接在其后
+         */
+        private String targetUrl = "";
+
+        /**
+         * 是否把上游返回的 200 JSON 响应录制为 stub
+         */
+        private boolean record = true;
+
+        /**
+         * 与上游建立连接的超时（毫秒）
+         */
+        private long connectTimeoutMs = 2000;
+
+        /**
+         * 单个上游请求的超时（毫秒），超时返回 502
+         */
+        private long timeoutMs = 10000;
+
+        /**
+         * 每秒最多录制的响应数，超出的响应只转发不录制；小于等于 0 表示不限
+         */
+        private int maxRecordsPerSecond = 100;
+
+        /**
+         * 等待保存的录制队列长度，队列满时丢弃
+         */
+        private int queueSize = 1000;
+
+        /**
+         * 每批保存的 stub 数量
+         */
+        private int batchSize = 100;
+
+        /**
+         * 保存录制队列的间隔（毫秒）
+         */
+        private long flushIntervalMs = 500;
+    }
+
+    @Data
+    public static class Replication {
+
+        /**
+         * 是否记录变更日志并增量拉取其他节点的变更
+         */
+        private boolean enabled = true;
+
+        /**
+         * 节点标识，为空时启动时随机生成
+         */
+        private String nodeId = "";
+
+        /**
+         * 拉取变更日志的间隔（毫秒）
+         */
+        private long pollIntervalMs = 1000;
+
+        /**
+         * 每次最多拉取的变更条数
+         */
+        private int batchSize = 500;
+
+        /**
+         * 版本号空洞（提交较晚的事务）的等待时间（毫秒），超时后视为已回滚
+         */
+        private long gapTimeoutMs = 10000;
+
+        /**
+         * 变更日志保留时长（小时），落后超过保留范围的节点会全量重载
+         */
+        private int retentionHours = 24;
+    }
 }
@@ -19,10 +19,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.github.yeheng.wiremock.entity.StubMapping;
 import io.github.yeheng.wiremock.entity.StubMapping.UrlMatchType;
+import io.github.yeheng.wiremock.service.StubHitTracker;
 import io.github.yeheng.wiremock.service.StubMappingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -39,6 +41,7 @@ import lombok.extern.slf4j.Slf4j;
 public class StubMappingController {
 
     private final StubMappingService stubMappingService;
+    private final StubHitTracker stubHitTracker;
     private final ObjectMapper objectMapper;
 
     private <T> ResponseEntity<T> handleException(Supplier<ResponseEntity<T>> operation) {
@@ -119,11 +122,26 @@ public class StubMappingController {
         // 创建标准化 stub
         StubMapping stub = new StubMapping();
         stub.setName((String) stubData.getOrDefault("name", "Imported-" + System.currentTimeMillis()));
+        stub.setNamespace((String) stubData.get("namespace"));
         stub.setMethod((String) request.getOrDefault("method", "GET"));
         stub.setUrl(url);
         stub.setUrlMatchType(urlMatchType);
         stub.setEnabled(stubData.get("enabled") != null ? (Boolean) stubData.get("enabled") : true);
         stub.setPriority(stubData.get("priority") != null ? ((Number) stubData.get("priority")).intValue() : 0);
+        stub.setScenarioName((String) stubData.get("scenarioName"));
+        stub.setRequiredScenarioState((String) stubData.get("requiredScenarioState"));
+        stub.setNewScenarioState((String) stubData.get("newScenarioState"));
+        stub.setDatasetFile((String) stubData.get("datasetFile"));
+        stub.setDatasetKey((String) stubData.get("datasetKey"));
+        stub.setDatasetKeyField((String) stubData.get("datasetKeyField"));
+        if (stubData.get("throttleBytesPerSecond") != null) {
+            stub.setThrottleBytesPerSecond(((Number) stubData.get("throttleBytesPerSecond")).intValue());
+        }
+        if (response.get("chunkedDribbleDelay") != null) {
+            DribbleDelay dribble = objectMapper.convertValue(response.get("chunkedDribbleDelay"), DribbleDelay.class);
+            stub.setDribbleChunks(dribble.numberOfChunks());
+            stub.setDribbleDurationMs(dribble.totalDuration());
+        }
 
         // 设置为标准格式（使用JSON字符串存储复杂结构）
         stub.setRequestHeadersPattern(objectMapper.valueToTree(requestHeaders).toString());
@@ -310,6 +328,33 @@ public class StubMappingController {
         });
     }
 
+    /**
+     * 只重新加载指定命名空间的 stubs
+     */
+    @PostMapping(value = "/reload", params = "namespace")
+    public ResponseEntity<Void> reloadNamespace(@RequestParam String namespace) {
+        return handleException(() -> {
+            stubMappingService.reloadNamespace(namespace);
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    /**
+     * 按热度获取 stubs
+     * order=asc 时最冷的 stub（包括从未命中的）排在前面，便于清理无用 stub
+     */
+    @GetMapping("/heat")
+    public ResponseEntity<List<StubHitTracker.StubHeat>> getHeat(
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "desc") String order) {
+        return handleException(() -> {
+            if (limit <= 0 || limit > 10000) {
+                throw new IllegalArgumentException("limit 必须在 1 到 10000 之间");
+            }
+            return ResponseEntity.ok(stubHitTracker.heat(limit, "asc".equalsIgnoreCase(order)));
+        });
+    }
+
     /**
      * 获取 stub 统计信息
      */
@@ -320,4 +365,11 @@ public class StubMappingController {
             return ResponseEntity.ok(stats);
         });
     }
+
+    /**
+     * 导入格式中的 chunkedDribbleDelay，缺省字段保持为 null，由服务层校验是否成对出现
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record DribbleDelay(Integer numberOfChunks, Integer totalDuration) {
+    }
 }
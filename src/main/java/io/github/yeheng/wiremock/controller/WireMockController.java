@@ -1,16 +1,35 @@
 package io.github.yeheng.wiremock.controller;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import io.github.yeheng.wiremock.service.AdmissionControl;
+import io.github.yeheng.wiremock.service.FlightRecorderService;
+import io.github.yeheng.wiremock.service.MockEngine;
+import io.github.yeheng.wiremock.service.NamespaceResolver;
+import io.github.yeheng.wiremock.service.NearMissSampler;
+import io.github.yeheng.wiremock.service.ProxyRecorder;
+import io.github.yeheng.wiremock.service.ResponseThrottler;
+import io.github.yeheng.wiremock.service.ScenarioStateStore;
+import io.github.yeheng.wiremock.service.StubReplicator;
 import io.github.yeheng.wiremock.service.WireMockManager;
-
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,7 +43,16 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class WireMockController {
 
+    private static final DateTimeFormatter JFR_FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
     private final WireMockManager wireMockManager;
+    private final NearMissSampler nearMissSampler;
+    private final StubReplicator stubReplicator;
+    private final AdmissionControl admissionControl;
+    private final FlightRecorderService flightRecorderService;
+    private final ScenarioStateStore scenarioStateStore;
+    private final ProxyRecorder proxyRecorder;
+    private final ResponseThrottler responseThrottler;
 
     /**
      * 获取WireMock服务器状态
@@ -36,12 +64,13 @@ public class WireMockController {
         status.put("port", wireMockManager.getPort());
         status.put("serverUrl", String.format("http://localhost:%d", wireMockManager.getPort()));
         status.put("adminUrl", String.format("http://localhost:%d/__admin", wireMockManager.getPort()));
+        status.put("namespaces", wireMockManager.getNamespaceStats());
 
         return ResponseEntity.ok(status);
     }
 
     /**
-     * 重置WireMock服务器
+     * 重置WireMock服务器（全部命名空间）
      */
     @PostMapping("/reset")
     public ResponseEntity<Void> reset() {
@@ -54,4 +83,129 @@ public class WireMockController {
         }
     }
 
+    /**
+     * 只重置指定命名空间，其他命名空间不受影响
+     */
+    @PostMapping(value = "/reset", params = "namespace")
+    public ResponseEntity<Void> resetNamespace(@RequestParam String namespace) {
+        wireMockManager.reset(NamespaceResolver.normalize(namespace));
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * 各命名空间的 stub 数量与请求统计
+     */
+    @GetMapping("/namespaces")
+    public ResponseEntity<List<MockEngine.NamespaceStats>> getNamespaces() {
+        return ResponseEntity.ok(wireMockManager.getNamespaceStats());
+    }
+
+    /**
+     * 本节点的变更日志复制进度，lagVersions 为尚未应用的版本数
+     */
+    @GetMapping("/replication")
+    public ResponseEntity<StubReplicator.ReplicationStatus> getReplication() {
+        return ResponseEntity.ok(stubReplicator.status());
+    }
+
+    /**
+     * 准入控制状态：是否启用以及各路由类别的并发上限、并发数与拒绝次数
+     */
+    @GetMapping("/admission")
+    public ResponseEntity<Map<String, Object>> getAdmission() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", admissionControl.isEnabled());
+        result.put("rejectStatus", admissionControl.getRejectStatus());
+        result.put("limiters", admissionControl.status());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 代理转发与录制统计
+     */
+    @GetMapping("/proxy")
+    public ResponseEntity<ProxyRecorder.ProxyStatus> getProxy() {
+        return ResponseEntity.ok(proxyRecorder.status());
+    }
+
+    /**
+     * 立即保存录制队列中等待的响应，返回保存后的统计
+     */
+    @PostMapping("/proxy/flush")
+    public ResponseEntity<ProxyRecorder.ProxyStatus> flushProxy() {
+        proxyRecorder.flush();
+        return ResponseEntity.ok(proxyRecorder.status());
+    }
+
+    /**
+     * 正在限速写回的响应数
+     */
+    @GetMapping("/throttle")
+    public ResponseEntity<Map<String, Object>> getThrottle() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("activeDeliveries", responseThrottler.getActiveDeliveries());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 各场景实例的当前状态，可按命名空间过滤；从未迁移过的实例处于 Started，不在列表中
+     */
+    @GetMapping("/scenarios")
+    public ResponseEntity<List<ScenarioStateStore.ScenarioState>> getScenarios(
+            @RequestParam(required = false) String namespace) {
+        return ResponseEntity.ok(scenarioStateStore.snapshot(
+                namespace != null ? NamespaceResolver.normalize(namespace) : null));
+    }
+
+    /**
+     * 把场景实例重置回 Started，指定 namespace 时只重置该命名空间
+     */
+    @DeleteMapping("/scenarios")
+    public ResponseEntity<Void> resetScenarios(@RequestParam(required = false) String namespace) {
+        if (namespace != null) {
+            scenarioStateStore.reset(NamespaceResolver.normalize(namespace));
+        } else {
+            scenarioStateStore.reset();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 录制指定秒数的 JFR 记录并作为附件返回；thresholdMs 覆盖 mock 请求路径事件的阈值，0 表示记录全部请求
+     */
+    @GetMapping("/jfr")
+    public ResponseEntity<byte[]> recordFlight(@RequestParam(defaultValue = "30") long seconds,
+            @RequestParam(required = false) Long thresholdMs) throws IOException, InterruptedException {
+        Path file = flightRecorderService.record(Duration.ofSeconds(seconds), thresholdMs);
+        try {
+            String fileName = "wiremock-" + LocalDateTime.now().format(JFR_FILE_TIME) + ".jfr";
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                    .body(Files.readAllBytes(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * 获取采样的未匹配请求及其近似匹配 stub
+     */
+    @GetMapping("/near-misses")
+    public ResponseEntity<Map<String, Object>> getNearMisses() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("unmatchedCount", nearMissSampler.getUnmatchedCount());
+        result.put("droppedCount", nearMissSampler.getDroppedCount());
+        result.put("reports", nearMissSampler.getReports());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 清空近似匹配分析结果
+     */
+    @DeleteMapping("/near-misses")
+    public ResponseEntity<Void> clearNearMisses() {
+        nearMissSampler.clear();
+        return ResponseEntity.noContent().build();
+    }
 }
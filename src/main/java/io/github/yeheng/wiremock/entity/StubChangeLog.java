@@ -0,0 +1,72 @@
+package io.github.yeheng.wiremock.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stub 变更日志
+ * 每次 stub 写操作在同一事务中追加一条记录，自增 ID 即单调递增的版本号，
+ * 共享同一数据库的其他节点按版本号增量拉取并应用变更
+ */
+@Entity
+@Table(name = "stub_change_log", indexes = {
+        @Index(name = "idx_stub_change_log_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+public class StubChangeLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long version;
+
+    @Column(name = "stub_id")
+    private Long stubId;
+
+    @Column(length = 50)
+    private String uuid;
+
+    @Column(nullable = false, length = 100)
+    private String namespace;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Operation operation;
+
+    /**
+     * 产生变更的节点，节点拉取时跳过自己写入的变更
+     */
+    @Column(name = "node_id", nullable = false, length = 100)
+    private String nodeId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public StubChangeLog(StubMapping stub, Operation operation, String nodeId) {
+        this.stubId = stub.getId();
+        this.uuid = stub.getUuid();
+        this.namespace = stub.getNamespace() != null ? stub.getNamespace() : StubMapping.DEFAULT_NAMESPACE;
+        this.operation = operation;
+        this.nodeId = nodeId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public enum Operation {
+        /**
+         * 创建、更新或启用状态切换，应用时以数据库中的最新状态为准
+         */
+        UPSERT,
+        DELETE
+    }
+}
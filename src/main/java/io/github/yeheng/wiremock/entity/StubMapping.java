@@ -6,7 +6,11 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
@@ -14,6 +18,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
@@ -25,7 +30,11 @@ import lombok.NoArgsConstructor;
  * WireMock Stub 映射实体
  */
 @Entity
-@Table(name = "stub_mappings")
+@Table(name = "stub_mappings", indexes = {
+        @Index(name = "idx_stub_mappings_uuid", columnList = "uuid"),
+        @Index(name = "idx_stub_mappings_url_method", columnList = "url, method"),
+        @Index(name = "idx_stub_mappings_namespace", columnList = "namespace")
+})
 @Data
 @EqualsAndHashCode(of = "id")
 @NoArgsConstructor
@@ -33,6 +42,11 @@ import lombok.NoArgsConstructor;
 @EntityListeners(AuditingEntityListener.class)
 public class StubMapping {
 
+    /**
+     * 未指定命名空间的 stub 所属的命名空间
+     */
+    public static final String DEFAULT_NAMESPACE = "default";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -46,6 +60,12 @@ public class StubMapping {
     @Column(length = 50)
     private String uuid;
 
+    /**
+     * 所属命名空间，每个命名空间使用独立的匹配引擎
+     */
+    @Column(nullable = false, length = 100, columnDefinition = "varchar(100) default 'default'")
+    private String namespace = DEFAULT_NAMESPACE;
+
     @Column(nullable = false)
     private Boolean enabled = true;
 
@@ -63,6 +83,7 @@ public class StubMapping {
     private UrlMatchType urlMatchType = UrlMatchType.EQUALS;
 
     @Column(columnDefinition = "CLOB")
+    @Convert(converter = StubPayloadConverter.class)
     private String requestBodyPattern;
 
     @Column(columnDefinition = "CLOB")
@@ -71,9 +92,70 @@ public class StubMapping {
     @Column(columnDefinition = "CLOB")
     private String queryParametersPattern;
 
+    /**
+     * 大响应体按内容去重，启用落盘时列中只保存内容引用，见 {@link StubPayloadConverter}
+     */
     @Column(columnDefinition = "CLOB", nullable = false)
+    @Convert(converter = StubPayloadConverter.class)
     private String responseDefinition;
 
+    /**
+     * 为 true 时响应体按模板渲染，可引用请求路径段、查询参数、请求头与 JSON 请求体字段
+     */
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private Boolean templated = false;
+
+    /**
+     * 所属场景名，为空时不参与场景状态
+     */
+    @Column(length = 200)
+    private String scenarioName;
+
+    /**
+     * 只在场景处于该状态时匹配，为空时不限状态
+     */
+    @Column(length = 200)
+    private String requiredScenarioState;
+
+    /**
+     * 命中后场景迁移到的状态，为空时不改变状态
+     */
+    @Column(length = 200)
+    private String newScenarioState;
+
+    /**
+     * 响应体按该速率（字节/秒）限速写回，为空时不限速
+     */
+    private Integer throttleBytesPerSecond;
+
+    /**
+     * 响应体切成的片数，与 {@link #dribbleDurationMs} 一起设置时在该时长内均匀写回各片
+     */
+    private Integer dribbleChunks;
+
+    /**
+     * 分片写回的总时长（毫秒）
+     */
+    private Integer dribbleDurationMs;
+
+    /**
+     * 数据集文件（相对 stubStorageDirectory/datasets 的路径，.jsonl / .ndjson / .csv），设置后响应体为按键查到的记录
+     */
+    @Column(length = 500)
+    private String datasetFile;
+
+    /**
+     * 从请求中取键的表达式，例如 request.query.id、request.body.customer.id 或 path.id（URL 中的 {id}）
+     */
+    @Column(length = 200)
+    private String datasetKey;
+
+    /**
+     * 数据集中作为键的字段：JSON Lines 的顶层字段名或 CSV 的列名
+     */
+    @Column(length = 200)
+    private String datasetKeyField;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -82,6 +164,27 @@ public class StubMapping {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * 累计命中次数，仅由 StubHitTracker 批量回写，实体保存时不覆盖
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    private Long hitCount = 0L;
+
+    /**
+     * 最近一次命中时间，仅由 StubHitTracker 批量回写
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime lastHitAt;
+
+    /**
+     * 本次写操作对应的变更日志版本号，用于匹配引擎按提交顺序应用变更，不持久化
+     */
+    @Transient
+    @JsonIgnore
+    private Long changeVersion;
+
     public enum UrlMatchType {
         EQUALS,
         CONTAINS,
@@ -0,0 +1,39 @@
+package io.github.yeheng.wiremock.entity;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import io.github.yeheng.wiremock.service.BlobStore;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * stub 大字段的持久化转换
+ * 写入时交给 {@link BlobStore} 决定保存原文还是内容引用，读出时解析引用，并让相同内容共用同一个字符串实例
+ */
+@Converter
+public class StubPayloadConverter implements AttributeConverter<String, String> {
+
+    private final BlobStore blobStore;
+
+    /**
+     * 没有 Spring 容器时（如 JPA 切片测试）只在内存中去重
+     */
+    public StubPayloadConverter() {
+        this(new BlobStore());
+    }
+
+    @Autowired
+    public StubPayloadConverter(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        return blobStore.externalize(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        return blobStore.resolve(dbData);
+    }
+}
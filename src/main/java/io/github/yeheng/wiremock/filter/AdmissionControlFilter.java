@@ -0,0 +1,122 @@
+package io.github.yeheng.wiremock.filter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.github.yeheng.wiremock.service.AdaptiveLimiter;
+import io.github.yeheng.wiremock.service.AdmissionControl;
+import io.github.yeheng.wiremock.service.AdmissionControl.RouteClass;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 准入控制过滤器
+ * 位于 {@link WireMockServletFilter} 之前，按路由类别占用并发名额，超过上限时不进入后续处理，直接返回 503 / 429
+ */
+@Component
+@RequiredArgsConstructor
+@Order(0)
+public class AdmissionControlFilter implements Filter {
+
+    private final AdmissionControl admissionControl;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (!admissionControl.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveLimiter.Permit permit = admissionControl.tryAcquire(
+                routeClass(((HttpServletRequest) request).getRequestURI()));
+        if (permit == null) {
+            reject((HttpServletResponse) response);
+            return;
+        }
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // 异步写回（限速下载等）在 AsyncContext 结束时才归还名额；写回时长由限速配置决定，归还时不记录延迟样本
+                request.getAsyncContext().addListener(new ReleaseOnComplete(permit));
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * 按 {@link WireMockServletFilter} 的路由规则划分类别：mock 请求、静态资源，其余为管理请求
+     */
+    static RouteClass routeClass(String requestURI) {
+        if (WireMockServletFilter.isMockRequest(requestURI)) {
+            return RouteClass.MOCK;
+        }
+        return WireMockServletFilter.isStaticResource(requestURI) ? RouteClass.STATIC : RouteClass.ADMIN;
+    }
+
+    /**
+     * 异步请求完成、出错或超时时归还名额，只归还一次，不记录延迟样本
+     */
+    private static final class ReleaseOnComplete implements AsyncListener {
+
+        private final AdaptiveLimiter.Permit permit;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnComplete(AdaptiveLimiter.Permit permit) {
+            this.permit = permit;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permit.release(false);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 重新开始异步时保持监听，名额在最终完成时归还
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(admissionControl.getRejectStatus());
+        if (admissionControl.getRetryAfterSeconds() > 0) {
+            response.setHeader("Retry-After", Integer.toString(admissionControl.getRetryAfterSeconds()));
+        }
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write(admissionControl.rejectionBody());
+    }
+}
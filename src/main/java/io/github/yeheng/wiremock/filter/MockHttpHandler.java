@@ -0,0 +1,205 @@
+package io.github.yeheng.wiremock.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.BeanFactory;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import io.github.yeheng.wiremock.jfr.RequestConversionEvent;
+import io.github.yeheng.wiremock.service.AdaptiveLimiter;
+import io.github.yeheng.wiremock.service.AdmissionControl;
+import io.github.yeheng.wiremock.service.ExchangeRequestAdapter;
+import io.github.yeheng.wiremock.service.NamespaceResolver;
+import io.github.yeheng.wiremock.service.ResponseConverter;
+import io.github.yeheng.wiremock.service.ResponseThrottler;
+import io.github.yeheng.wiremock.service.StubHitTracker;
+import io.github.yeheng.wiremock.service.WireMockManager;
+import io.undertow.server.HandlerWrapper;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
+import io.undertow.util.Headers;
+import io.undertow.util.SameThreadExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 原生 Undertow mock 请求入口
+ * 不经过 servlet 层、Spring 过滤器链与 {@link WireMockServletFilter}：请求体由 Undertow 的异步接收器读入连接缓冲池中的缓冲区，
+ * 直接从 HttpServerExchange 转换为 WireMock 请求，响应经 {@link ResponseConverter} 异步写回。
+ * 整个过程在 IO 线程上完成，不阻塞；mock 匹配只做内存计算，限速写回的响应体由 {@link ResponseThrottler} 在调度线程上逐片发送，
+ * 启用代理时未匹配的请求异步转发到上游，IO 线程不等待上游响应。
+ * 与应用共用端口时只接管 {@link WireMockServletFilter#isMockRequest} 判定的请求，管理 API 与界面仍由 Spring MVC 处理；
+ * 使用独立端口时该端口上的所有请求都按 mock 处理。启用准入控制时与 servlet 入口共用 mock 类别的并发上限
+ */
+@Slf4j
+public class MockHttpHandler implements HttpHandler {
+
+    /**
+     * 标记限速写回的 exchange，结束时归还名额但不记录延迟样本
+     */
+    private static final AttachmentKey<Boolean> THROTTLED = AttachmentKey.create(Boolean.class);
+
+    private final BeanFactory beanFactory;
+    private final LongAdder served = new LongAdder();
+    private volatile Collaborators collaborators;
+
+    /**
+     * 依赖在首个请求时才从容器获取，避免创建 Web 服务器时提前初始化数据访问相关的 bean
+     */
+    public MockHttpHandler(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    /**
+     * 与应用共用端口时的包装器：mock 请求由本处理器处理，其余交给原有的 servlet 处理链
+     */
+    public HandlerWrapper sharedPort() {
+        return next -> exchange -> {
+            if (WireMockServletFilter.isMockRequest(ExchangeRequestAdapter.requestPath(exchange))) {
+                handleRequest(exchange);
+            } else {
+                next.handleRequest(exchange);
+            }
+        };
+    }
+
+    /**
+     * 经原生入口处理的请求数
+     */
+    public long getServedCount() {
+        return served.sum();
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) {
+        served.increment();
+        long start = System.nanoTime();
+        if (!admit(exchange)) {
+            return;
+        }
+        exchange.getRequestReceiver().receiveFullBytes(
+                (ex, body) -> serve(ex, body, start),
+                (ex, e) -> {
+                    log.warn("读取 mock 请求体失败: {} {}", ex.getRequestMethod(), ex.getRequestURI(), e);
+                    writeError(ex, 500, "Internal server error", e.getMessage());
+                });
+    }
+
+    /**
+     * 启用准入控制时占用一个 mock 并发名额，exchange 结束时归还；超过上限时直接写回拒绝响应。
+     * 限速写回的 exchange 结束时间由 stub 配置的速率决定，归还时不记录延迟样本
+     */
+    private boolean admit(HttpServerExchange exchange) {
+        AdmissionControl admissionControl = collaborators().admissionControl();
+        if (!admissionControl.isEnabled()) {
+            return true;
+        }
+        AdaptiveLimiter.Permit permit = admissionControl.tryAcquire(AdmissionControl.RouteClass.MOCK);
+        if (permit == null) {
+            exchange.setStatusCode(admissionControl.getRejectStatus());
+            if (admissionControl.getRetryAfterSeconds() > 0) {
+                exchange.getResponseHeaders().put(Headers.RETRY_AFTER, admissionControl.getRetryAfterSeconds());
+            }
+            exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "application/json;charset=UTF-8");
+            exchange.getResponseSender().send(admissionControl.rejectionBody(), StandardCharsets.UTF_8);
+            return false;
+        }
+        exchange.addExchangeCompleteListener((ex, next) -> {
+            permit.release(ex.getAttachment(THROTTLED) == null);
+            next.proceed();
+        });
+        return true;
+    }
+
+    private void serve(HttpServerExchange exchange, byte[] body, long start) {
+        Collaborators c = collaborators();
+        if (!c.manager().isRunning()) {
+            writeError(exchange, 503, "Service Unavailable", "WireMock server is not running");
+            return;
+        }
+        try {
+            NamespaceResolver.Resolution resolution = c.namespaceResolver().resolve(
+                    exchange.getRequestHeaders().getFirst(c.namespaceResolver().headerName()),
+                    exchange.getHostName(), ExchangeRequestAdapter.requestPath(exchange));
+            RequestConversionEvent event = new RequestConversionEvent();
+            event.begin();
+            Request request = new ExchangeRequestAdapter(exchange, resolution.strippedPrefix(), body);
+            if (event.shouldCommit()) {
+                event.entryPoint = "native";
+                event.method = exchange.getRequestMethod().toString();
+                event.uri = exchange.getRequestURI();
+                event.bodySize = body.length;
+                event.commit();
+            }
+            CompletableFuture<Response> future = c.manager().serveAsync(resolution.namespace(), request);
+            if (future.isDone()) {
+                Response response = future.join();
+                if (ResponseThrottler.isThrottled(response)) {
+                    // 限速写回在调度线程上逐片发送，exchange 保持已分派状态直到最后一片写出
+                    exchange.dispatch(SameThreadExecutor.INSTANCE, () -> write(c, exchange, response, start));
+                } else {
+                    write(c, exchange, response, start);
+                }
+                return;
+            }
+            // 转发到上游时 IO 线程不等待，上游响应到达后在客户端线程上写回
+            exchange.dispatch(SameThreadExecutor.INSTANCE, () -> future.whenComplete((response, e) -> {
+                if (e != null) {
+                    log.error("转发 mock 请求失败: {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+                    writeError(exchange, 502, "Bad Gateway", e.getMessage());
+                } else {
+                    write(c, exchange, response, start);
+                }
+            }));
+        } catch (Exception e) {
+            log.error("处理 WireMock 请求时出错: {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            writeError(exchange, 500, "Internal server error", e.getMessage());
+        }
+    }
+
+    private static void write(Collaborators c, HttpServerExchange exchange, Response response, long start) {
+        try {
+            if (ResponseThrottler.isThrottled(response)) {
+                exchange.putAttachment(THROTTLED, Boolean.TRUE);
+            }
+            c.responseConverter().convert(response, exchange);
+            c.stubHitTracker().record(response, System.nanoTime() - start);
+        } catch (Exception e) {
+            log.error("写回 WireMock 响应时出错: {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            writeError(exchange, 500, "Internal server error", e.getMessage());
+        }
+    }
+
+    private static void writeError(HttpServerExchange exchange, int status, String error, String message) {
+        if (exchange.isResponseStarted()) {
+            exchange.endExchange();
+            return;
+        }
+        exchange.setStatusCode(status);
+        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "application/json;charset=UTF-8");
+        exchange.getResponseSender().send(
+                "{\"error\": \"" + error + "\", \"message\": \"" + message + "\"}", StandardCharsets.UTF_8);
+    }
+
+    private Collaborators collaborators() {
+        Collaborators c = collaborators;
+        if (c == null) {
+            c = new Collaborators(beanFactory.getBean(WireMockManager.class),
+                    beanFactory.getBean(NamespaceResolver.class),
+                    beanFactory.getBean(ResponseConverter.class),
+                    beanFactory.getBean(StubHitTracker.class),
+                    beanFactory.getBean(AdmissionControl.class));
+            collaborators = c;
+        }
+        return c;
+    }
+
+    private record Collaborators(WireMockManager manager, NamespaceResolver namespaceResolver,
+            ResponseConverter responseConverter, StubHitTracker stubHitTracker,
+            AdmissionControl admissionControl) {
+    }
+}
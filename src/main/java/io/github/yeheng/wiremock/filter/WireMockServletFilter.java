@@ -44,7 +44,7 @@ public class WireMockServletFilter implements Filter {
         String method = httpRequest.getMethod();
 
         // 如果是管理API、静态资源或WireMock管理请求，交给Spring处理
-        if (isAdminApi(requestURI) || isStaticResource(requestURI) || isWireMockAdminRequest(requestURI)) {
+        if (!isMockRequest(requestURI)) {
             chain.doFilter(request, response);
             return;
         }
@@ -62,9 +62,16 @@ public class WireMockServletFilter implements Filter {
     }
     
     /**
-     * 判断是否为静态资源
+     * 是否交给 WireMock 处理；管理 API、静态资源与 WireMock 管理请求交给 Spring。原生 Undertow 入口使用同一规则
      */
-    private boolean isStaticResource(String requestURI) {
+    public static boolean isMockRequest(String requestURI) {
+        return !isAdminApi(requestURI) && !isStaticResource(requestURI) && !isWireMockAdminRequest(requestURI);
+    }
+
+    /**
+     * 判断是否为静态资源，准入控制按此区分静态资源与管理请求
+     */
+    public static boolean isStaticResource(String requestURI) {
         return requestURI.startsWith("/static/") ||
                requestURI.startsWith("/webjars/") ||
                requestURI.startsWith("/h2-console/") ||
@@ -75,7 +82,7 @@ public class WireMockServletFilter implements Filter {
      * 判断是否为管理 API 请求（Spring Boot 应用自己的 API）
      * 管理API使用 /admin/ 前缀，交给 Spring MVC 处理
      */
-    private boolean isAdminApi(String requestURI) {
+    private static boolean isAdminApi(String requestURI) {
         return requestURI.startsWith("/admin/stubs") ||
                requestURI.startsWith("/admin/health") ||
                requestURI.startsWith("/admin/wiremock");
@@ -84,7 +91,7 @@ public class WireMockServletFilter implements Filter {
     /**
      * 判断是否为 WireMock 管理请求（交给 Spring 处理）
      */
-    private boolean isWireMockAdminRequest(String requestURI) {
+    private static boolean isWireMockAdminRequest(String requestURI) {
         return requestURI.startsWith("/__admin/") ||
                requestURI.startsWith("/mappings/") ||
                requestURI.startsWith("/files/");
@@ -0,0 +1,35 @@
+package io.github.yeheng.wiremock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 把 servlet 请求或 Undertow exchange 转换为 WireMock 请求
+ */
+@Name("wiremock.RequestConversion")
+@Label("Request Conversion")
+@Category({"WireMock", "Mock Traffic"})
+@Description("HTTP 请求转换为 WireMock 请求")
+@StackTrace(false)
+public class RequestConversionEvent extends Event {
+
+    @Label("Entry Point")
+    @Description("servlet 或 native")
+    public String entryPoint;
+
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Body Size")
+    @Description("请求体字节数，未声明长度时为 -1")
+    @DataAmount
+    public long bodySize;
+}
@@ -0,0 +1,37 @@
+package io.github.yeheng.wiremock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 把 WireMock 响应写回客户端；原生入口异步发送，事件只覆盖发起发送之前的部分
+ */
+@Name("wiremock.ResponseWrite")
+@Label("Response Write")
+@Category({"WireMock", "Mock Traffic"})
+@Description("WireMock 响应写回客户端")
+@StackTrace(false)
+public class ResponseWriteEvent extends Event {
+
+    @Label("Stub UUID")
+    public String stubUuid;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Body Size")
+    @DataAmount
+    public long bodySize;
+
+    @Label("HTTP/2")
+    public boolean http2;
+
+    @Label("Outcome")
+    @Description("SUCCESS 或 ERROR")
+    public String outcome;
+}
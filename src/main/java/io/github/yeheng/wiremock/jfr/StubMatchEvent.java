@@ -0,0 +1,47 @@
+package io.github.yeheng.wiremock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 在命名空间的匹配引擎中匹配一个请求
+ */
+@Name("wiremock.StubMatch")
+@Label("Stub Match")
+@Category({"WireMock", "Mock Traffic"})
+@Description("mock 请求的 stub 匹配")
+@StackTrace(false)
+public class StubMatchEvent extends Event {
+
+    @Label("Namespace")
+    public String namespace;
+
+    @Label("Method")
+    public String method;
+
+    @Label("URL")
+    public String url;
+
+    @Label("Stub UUID")
+    public String stubUuid;
+
+    @Label("URL Match Type")
+    public String urlMatchType;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Request Body Size")
+    @Description("请求体字节数，未声明长度时为 -1")
+    @DataAmount
+    public long bodySize;
+
+    @Label("Outcome")
+    @Description("MATCHED、UNMATCHED 或 ERROR")
+    public String outcome;
+}
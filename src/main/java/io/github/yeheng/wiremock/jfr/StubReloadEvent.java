@@ -0,0 +1,29 @@
+package io.github.yeheng.wiremock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 全量或按命名空间重载匹配引擎中的 stub
+ */
+@Name("wiremock.StubReload")
+@Label("Stub Reload")
+@Category({"WireMock", "Stubs"})
+@Description("stub 重载")
+public class StubReloadEvent extends Event {
+
+    @Label("Namespace")
+    @Description("只重载一个命名空间时为该命名空间，全量重载时为 *")
+    public String namespace;
+
+    @Label("Stub Count")
+    @Description("重载的已启用 stub 数量")
+    public int stubCount;
+
+    @Label("Outcome")
+    @Description("SUCCESS 或 ERROR")
+    public String outcome;
+}
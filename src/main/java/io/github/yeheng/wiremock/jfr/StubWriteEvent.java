@@ -0,0 +1,82 @@
+package io.github.yeheng.wiremock.jfr;
+
+import io.github.yeheng.wiremock.entity.StubMapping;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 经 StubMappingService 创建、更新、删除或启停 stub；结果在事务完成后按提交或回滚记录
+ */
+@Name("wiremock.StubWrite")
+@Label("Stub Write")
+@Category({"WireMock", "Stubs"})
+@Description("stub 写入（数据库与匹配引擎）")
+public class StubWriteEvent extends Event {
+
+    @Label("Operation")
+    @Description("CREATE、UPDATE、DELETE、TOGGLE 或 BATCH_CREATE")
+    public String operation;
+
+    @Label("Stub ID")
+    public long stubId;
+
+    @Label("Stub UUID")
+    public String stubUuid;
+
+    @Label("URL Match Type")
+    public String urlMatchType;
+
+    @Label("Response Body Size")
+    @Description("响应定义的字符数")
+    @DataAmount
+    public long bodySize;
+
+    @Label("Stub Count")
+    public int stubCount;
+
+    @Label("Outcome")
+    @Description("SUCCESS 或 ERROR")
+    public String outcome;
+
+    /**
+     * @param stubId 写入前已知的 stub ID，创建时为 null
+     */
+    public StubWriteEvent(String operation, Long stubId) {
+        this.operation = operation;
+        this.stubId = stubId != null ? stubId : -1;
+    }
+
+    /**
+     * 写入的单个 stub
+     */
+    public void describe(StubMapping stub) {
+        stubId = stub.getId() != null ? stub.getId() : -1;
+        stubUuid = stub.getUuid();
+        urlMatchType = stub.getUrlMatchType() != null ? stub.getUrlMatchType().name() : null;
+        bodySize = stub.getResponseDefinition() != null ? stub.getResponseDefinition().length() : 0;
+        stubCount = 1;
+    }
+
+    /**
+     * 批量写入的 stub 数
+     */
+    public void describe(int count) {
+        stubId = -1;
+        stubCount = count;
+    }
+
+    /**
+     * 记录写入结果（事件未启用或未超过阈值时不做任何事）
+     */
+    public void end(boolean success) {
+        if (!shouldCommit()) {
+            return;
+        }
+        outcome = success ? "SUCCESS" : "ERROR";
+        commit();
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.yeheng.wiremock.loadgen;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import lombok.Data;
+
+/**
+ * 压测模式命令行参数
+ */
+@Data
+public class LoadGenOptions {
+
+    static final String USAGE = """
+            用法: java -jar wiremock-ui.jar loadgen [选项]
+
+              --target=URL            被测实例地址（默认 http://localhost:8080）
+              --rate=N                恒定到达速率，每秒请求数（默认 100）
+              --duration=T            计量时长，如 30s、2m、500ms（默认 30s）
+              --warmup=T              预热时长，期间的请求不计入统计（默认 5s）
+              --timeout=T             单个请求超时（默认 5s）
+              --max-in-flight=N       未完成请求上限，超出的到达直接记为过载（默认 1000）
+              --http-version=V        1.1 使用 keep-alive 连接池，2 经 h2c 升级后多路复用一条连接（默认 1.1）
+              --include=REGEX         只使用名称或 URL 匹配该正则的 stub
+              --weights=ID=W,...      按 stub ID 指定权重，未指定的为 1，权重 0 表示排除
+              --unmatched-ratio=R     发往不存在路径的请求比例（0 ~ 1，默认 0）
+              --json=FILE             额外把报告以 JSON 写入文件
+              --max-error-rate=R      错误率超过该值时以非 0 退出码结束（默认 1，不检查）
+              --help                  显示本帮助
+            """;
+
+    private String target = "http://localhost:8080";
+    private double rate = 100;
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration warmup = Duration.ofSeconds(5);
+    private Duration timeout = Duration.ofSeconds(5);
+    private int maxInFlight = 1000;
+    private HttpClient.Version httpVersion = HttpClient.Version.HTTP_1_1;
+    private Pattern include;
+    private Map<Long, Double> weights = new HashMap<>();
+    private double unmatchedRatio = 0;
+    private String jsonFile;
+    private double maxErrorRate = 1.0;
+    private boolean help;
+
+    /**
+     * 解析 --key=value 或 --key value 形式的参数
+     */
+    public static LoadGenOptions parse(String[] args) {
+        LoadGenOptions options = new LoadGenOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("无法识别的参数: " + arg);
+            }
+            String key = arg.substring(2);
+            String value = null;
+            int eq = key.indexOf('=');
+            if (eq >= 0) {
+                value = key.substring(eq + 1);
+                key = key.substring(0, eq);
+            } else if (!"help".equals(key)) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("参数缺少取值: --" + key);
+                }
+                value = args[++i];
+            }
+            options.apply(key, value);
+        }
+        options.validate();
+        return options;
+    }
+
+    private void apply(String key, String value) {
+        try {
+            switch (key) {
+                case "target" -> target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "rate" -> rate = Double.parseDouble(value);
+                case "duration" -> duration = parseDuration(value);
+                case "warmup" -> warmup = parseDuration(value);
+                case "timeout" -> timeout = parseDuration(value);
+                case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                case "http-version" -> httpVersion = parseHttpVersion(value);
+                case "include" -> include = Pattern.compile(value);
+                case "weights" -> weights = parseWeights(value);
+                case "unmatched-ratio" -> unmatchedRatio = Double.parseDouble(value);
+                case "json" -> jsonFile = value;
+                case "max-error-rate" -> maxErrorRate = Double.parseDouble(value);
+                case "help" -> help = true;
+                default -> throw new IllegalArgumentException("未知参数: --" + key);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("参数格式无效: --" + key + "=" + value);
+        }
+    }
+
+    private void validate() {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("--rate 必须大于 0");
+        }
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("--duration 必须大于 0");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("--max-in-flight 必须大于 0");
+        }
+        if (unmatchedRatio < 0 || unmatchedRatio > 1) {
+            throw new IllegalArgumentException("--unmatched-ratio 必须在 0 ~ 1 之间");
+        }
+    }
+
+    /**
+     * 解析 500ms、30s、2m 形式的时长，纯数字按秒处理
+     */
+    static Duration parseDuration(String value) {
+        String text = value.trim().toLowerCase();
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(text));
+    }
+
+    private static HttpClient.Version parseHttpVersion(String value) {
+        return switch (value.trim()) {
+            case "1.1" -> HttpClient.Version.HTTP_1_1;
+            case "2" -> HttpClient.Version.HTTP_2;
+            default -> throw new IllegalArgumentException("--http-version 只能是 1.1 或 2: " + value);
+        };
+    }
+
+    private static Map<Long, Double> parseWeights(String value) {
+        Map<Long, Double> result = new HashMap<>();
+        for (String pair : value.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            String[] parts = pair.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("权重格式应为 ID=W: " + pair);
+            }
+            double weight = Double.parseDouble(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("权重不能为负数: " + pair);
+            }
+            result.put(Long.parseLong(parts[0].trim()), weight);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,281 @@
+package io.github.yeheng.wiremock.loadgen;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * 内置压测模式
+ * 以开放模型（恒定到达速率）向运行中的实例发送请求：请求按计划时间发出，不等待前一个请求完成，
+ * 每个请求运行在独立的虚拟线程上。延迟同时按计划发送时间（校正协调遗漏）和实际发出时间统计，
+ * 被测实例变慢时校正后的延迟会如实反映排队等待
+ */
+public class LoadGenerator {
+
+    public static final String COMMAND = "loadgen";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadGenOptions options;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Histogram corrected = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder expectedNotFound = new LongAdder();
+    private final LongAdder overloaded = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private int skippedStubs;
+
+    public LoadGenerator(LoadGenOptions options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .version(options.getHttpVersion())
+                .connectTimeout(options.getTimeout())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * 命令行入口，返回进程退出码
+     */
+    public static int run(String[] args, PrintStream out) {
+        LoadGenOptions options;
+        try {
+            options = LoadGenOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            out.println(e.getMessage());
+            out.print(LoadGenOptions.USAGE);
+            return 1;
+        }
+        if (options.isHelp()) {
+            out.print(LoadGenOptions.USAGE);
+            return 0;
+        }
+
+        try {
+            LoadGenerator generator = new LoadGenerator(options);
+            List<LoadTarget> targets = generator.loadTargets();
+            out.printf("已加载 %d 个压测目标，开始压测: %.0f req/s，预热 %ds，计量 %ds，%s%n", targets.size(),
+                    options.getRate(), options.getWarmup().toSeconds(), options.getDuration().toSeconds(),
+                    options.getHttpVersion());
+            LoadReport report = generator.execute(targets);
+            report.print(out);
+            if (options.getJsonFile() != null) {
+                generator.objectMapper.enable(SerializationFeature.INDENT_OUTPUT)
+                        .writeValue(Path.of(options.getJsonFile()).toFile(), report);
+            }
+            return report.errorRate() > options.getMaxErrorRate() ? 2 : 0;
+        } catch (IOException | IllegalStateException e) {
+            out.println("压测失败: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            out.println("压测被中断");
+            return 1;
+        }
+    }
+
+    /**
+     * 从 /admin/stubs 读取已存储的 stub，按 include 与权重配置生成压测目标
+     */
+    public List<LoadTarget> loadTargets() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.getTarget() + "/admin/stubs"))
+                .timeout(options.getTimeout())
+                .GET()
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("读取 stub 列表失败，状态码: " + response.statusCode());
+        }
+
+        List<LoadTarget> targets = new ArrayList<>();
+        skippedStubs = 0;
+        for (JsonNode stub : objectMapper.readTree(response.body())) {
+            if (options.getInclude() != null
+                    && !options.getInclude().matcher(stub.path("name").asText("")).find()
+                    && !options.getInclude().matcher(stub.path("url").asText("")).find()) {
+                continue;
+            }
+            double weight = options.getWeights().getOrDefault(stub.path("id").asLong(), 1.0);
+            if (weight <= 0) {
+                continue;
+            }
+            LoadTarget.fromStub(stub, weight).ifPresentOrElse(targets::add, () -> skippedStubs++);
+        }
+        if (targets.isEmpty() && options.getUnmatchedRatio() < 1) {
+            throw new IllegalStateException("没有可用的压测目标（跳过 " + skippedStubs + " 个 stub）");
+        }
+        return targets;
+    }
+
+    /**
+     * 按恒定到达速率发送请求，预热期结束后开始计量
+     */
+    public LoadReport execute(List<LoadTarget> targets) throws InterruptedException {
+        double[] cumulative = cumulativeWeights(targets);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.getRate());
+        long start = System.nanoTime();
+        long measureFrom = start + options.getWarmup().toNanos();
+        long end = measureFrom + options.getDuration().toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0;; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = intended >= measureFrom;
+                LoadTarget target = pick(targets, cumulative, i);
+                if (inFlight.get() >= options.getMaxInFlight()) {
+                    if (measured) {
+                        overloaded.increment();
+                    }
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                executor.execute(() -> fire(target, intended, measured));
+            }
+            // close() 等待所有在途请求结束，单个请求最长受 --timeout 限制
+        }
+
+        return buildReport(targets.size());
+    }
+
+    private LoadTarget pick(List<LoadTarget> targets, double[] cumulative, long sequence) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (targets.isEmpty() || random.nextDouble() < options.getUnmatchedRatio()) {
+            return LoadTarget.unmatched(sequence);
+        }
+        double point = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, point);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return targets.get(Math.min(index, targets.size() - 1));
+    }
+
+    private static double[] cumulativeWeights(List<LoadTarget> targets) {
+        double[] cumulative = new double[Math.max(targets.size(), 1)];
+        double total = 0;
+        for (int i = 0; i < targets.size(); i++) {
+            total += targets.get(i).weight();
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    private void fire(LoadTarget target, long intendedNanos, boolean measured) {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.getTarget() + target.path()))
+                    .timeout(options.getTimeout())
+                    .method(target.method(), target.body() != null
+                            ? HttpRequest.BodyPublishers.ofString(target.body())
+                            : HttpRequest.BodyPublishers.noBody());
+            target.headers().forEach(builder::header);
+            HttpRequest request = builder.build();
+
+            if (measured) {
+                sent.increment();
+            }
+            long actualStart = System.nanoTime();
+            int status;
+            try {
+                status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                if (measured) {
+                    failures.increment();
+                }
+                return;
+            }
+            long now = System.nanoTime();
+            if (measured) {
+                completed.increment();
+                statusCounts.computeIfAbsent(status, k -> new LongAdder()).increment();
+                if (status == 404 && target.isUnmatched()) {
+                    expectedNotFound.increment();
+                }
+                corrected.recordValue(toMicros(now - intendedNanos));
+                serviceTime.recordValue(toMicros(now - actualStart));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalArgumentException e) {
+            // stub 中的方法名或请求头无法构造 HTTP 请求
+            if (measured) {
+                failures.increment();
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(Math.max(nanos / 1000, 1), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    private LoadReport buildReport(int targetCount) {
+        Map<Integer, Long> statuses = new TreeMap<>();
+        statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+
+        long completedCount = completed.sum();
+        long notExpected = statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() >= 400)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        // 未匹配流量的 404 属于预期结果，不计为错误；stub 目标返回的 404 仍是错误
+        notExpected -= expectedNotFound.sum();
+        long attempts = sent.sum() + overloaded.sum();
+        long errors = notExpected + failures.sum() + overloaded.sum();
+        double seconds = options.getDuration().toNanos() / 1e9;
+
+        return new LoadReport(
+                options.getTarget(),
+                options.getRate(),
+                seconds,
+                targetCount,
+                skippedStubs,
+                sent.sum(),
+                completedCount,
+                statuses,
+                failures.sum(),
+                overloaded.sum(),
+                completedCount / seconds,
+                attempts == 0 ? 0 : (double) errors / attempts,
+                LoadReport.Latency.of(corrected),
+                LoadReport.Latency.of(serviceTime));
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.yeheng.wiremock.loadgen;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * 压测结果
+ * corrected 为按计划发送时间计算的延迟（已校正协调遗漏），serviceTime 为实际发出到收到响应的耗时
+ */
+public record LoadReport(
+        String target,
+        double targetRate,
+        double durationSeconds,
+        int targets,
+        int skippedStubs,
+        long sent,
+        long completed,
+        Map<Integer, Long> statusCounts,
+        long failures,
+        long overloaded,
+        double throughput,
+        double errorRate,
+        Latency corrected,
+        Latency serviceTime) {
+
+    /**
+     * 延迟分位数（微秒）
+     */
+    public record Latency(long p50, long p90, long p99, long p999, long max, double mean) {
+
+        static Latency of(Histogram histogram) {
+            if (histogram.getTotalCount() == 0) {
+                return new Latency(0, 0, 0, 0, 0, 0);
+            }
+            return new Latency(
+                    histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(90),
+                    histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9),
+                    histogram.getMaxValue(),
+                    histogram.getMean());
+        }
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n目标: %s  计划速率: %.0f req/s  计量时长: %.1fs%n", target, targetRate, durationSeconds);
+        out.printf("压测目标: %d 个 stub（跳过无法合成请求的 stub: %d）%n", targets, skippedStubs);
+        out.printf("请求: 发出 %d，完成 %d，失败 %d，过载丢弃 %d%n", sent, completed, failures, overloaded);
+        out.printf("状态码: %s%n", statusCounts);
+        out.printf("吞吐: %.1f req/s  错误率: %.3f%%%n", throughput, errorRate * 100);
+        out.printf("%n%-18s%10s%10s%10s%10s%10s%10s%n", "延迟 (ms)", "p50", "p90", "p99", "p99.9", "max", "mean");
+        printLatency(out, "校正后", corrected);
+        printLatency(out, "服务时间", serviceTime);
+    }
+
+    private static void printLatency(PrintStream out, String label, Latency latency) {
+        out.printf("%-18s%10.3f%10.3f%10.3f%10.3f%10.3f%10.3f%n", label,
+                latency.p50() / 1000.0, latency.p90() / 1000.0, latency.p99() / 1000.0,
+                latency.p999() / 1000.0, latency.max() / 1000.0, latency.mean() / 1000.0);
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.yeheng.wiremock.loadgen;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 一个压测目标：由已存储的 stub 推导出能命中它的请求
+ */
+public record LoadTarget(Long stubId, String name, String method, String path, Map<String, String> headers,
+        String body, double weight) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * 被测实例按该请求头选择命名空间（wiremock.namespace.header 的默认值）
+     */
+    static final String NAMESPACE_HEADER = "X-Mock-Namespace";
+
+    private static final String DEFAULT_NAMESPACE = "default";
+
+    /**
+     * 不存在的路径，用于模拟未匹配流量
+     */
+    static LoadTarget unmatched(long sequence) {
+        return new LoadTarget(null, "<unmatched>", "GET", "/__loadgen/unmatched/" + sequence, Map.of(), null, 0);
+    }
+
+    /**
+     * 由 {@link #unmatched(long)} 构造的目标，404 是预期结果
+     */
+    boolean isUnmatched() {
+        return stubId == null;
+    }
+
+    /**
+     * 根据 stub 的匹配规则构造请求；REGEX 类型或无法确定取值的规则无法可靠合成，返回空。
+     * 非默认命名空间的 stub 带上命名空间请求头，请求才会路由到该命名空间的匹配引擎
+     */
+    static Optional<LoadTarget> fromStub(JsonNode stub, double weight) {
+        if (!stub.path("enabled").asBoolean(true)) {
+            return Optional.empty();
+        }
+        String url = stub.path("url").asText("");
+        String path = switch (stub.path("urlMatchType").asText("EQUALS")) {
+            case "EQUALS" -> url;
+            case "CONTAINS" -> url.startsWith("/") ? url : "/" + url;
+            case "PATH_TEMPLATE" -> url.replaceAll("\\{[^}]+}", "1");
+            default -> null;
+        };
+        if (path == null || path.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String method = stub.path("method").asText("GET").toUpperCase();
+        if ("ANY".equals(method)) {
+            method = "GET";
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (!literalValues(stub.path("requestHeadersPattern"), headers)) {
+            return Optional.empty();
+        }
+        String namespace = stub.path("namespace").asText(DEFAULT_NAMESPACE);
+        if (!namespace.isBlank() && !DEFAULT_NAMESPACE.equals(namespace)) {
+            headers.put(NAMESPACE_HEADER, namespace);
+        }
+
+        Map<String, String> query = new LinkedHashMap<>();
+        if (!literalValues(stub.path("queryParametersPattern"), query)) {
+            return Optional.empty();
+        }
+        if (!query.isEmpty()) {
+            StringBuilder withQuery = new StringBuilder(path).append(path.contains("?") ? '&' : '?');
+            query.forEach((name, value) -> withQuery.append(encode(name)).append('=').append(encode(value)).append('&'));
+            path = withQuery.substring(0, withQuery.length() - 1);
+        }
+
+        String body = null;
+        JsonNode bodyRule = parse(stub.path("requestBodyPattern"));
+        if (bodyRule != null && !bodyRule.isEmpty()) {
+            if (bodyRule.has("equalToJson")) {
+                body = bodyRule.get("equalToJson").asText();
+                headers.putIfAbsent("Content-Type", "application/json");
+            } else if (bodyRule.has("contains")) {
+                body = bodyRule.get("contains").asText();
+            } else {
+                return Optional.empty();
+            }
+        }
+
+        return Optional.of(new LoadTarget(stub.path("id").asLong(), stub.path("name").asText(), method, path,
+                headers, body, weight));
+    }
+
+    /**
+     * 把 {"name": {"equalTo"|"contains": "v"}} 形式的规则展开为具体取值；含 matches 等规则时返回 false
+     */
+    private static boolean literalValues(JsonNode field, Map<String, String> into) {
+        JsonNode rules = parse(field);
+        if (rules == null) {
+            return true;
+        }
+        for (Map.Entry<String, JsonNode> entry : rules.properties()) {
+            JsonNode rule = entry.getValue();
+            if (rule.has("equalTo")) {
+                into.put(entry.getKey(), rule.get("equalTo").asText());
+            } else if (rule.has("contains")) {
+                into.put(entry.getKey(), rule.get("contains").asText());
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 实体中的匹配规则以 JSON 字符串存储
+     */
+    private static JsonNode parse(JsonNode field) {
+        if (field == null || field.isNull() || field.isMissingNode()) {
+            return null;
+        }
+        if (field.isObject()) {
+            return field;
+        }
+        String text = field.asText();
+        if (text.isBlank() || "null".equals(text)) {
+            return null;
+        }
+        try {
+            JsonNode node = MAPPER.readTree(text);
+            return node != null && node.isObject() ? node : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
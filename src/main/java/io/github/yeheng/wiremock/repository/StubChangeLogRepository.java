@@ -0,0 +1,44 @@
+package io.github.yeheng.wiremock.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.github.yeheng.wiremock.entity.StubChangeLog;
+
+/**
+ * Stub 变更日志数据访问层
+ */
+@Repository
+public interface StubChangeLogRepository extends JpaRepository<StubChangeLog, Long> {
+
+    /**
+     * 按版本号顺序拉取指定版本之后的一批变更
+     */
+    List<StubChangeLog> findByVersionGreaterThanOrderByVersionAsc(Long version, Pageable pageable);
+
+    /**
+     * 重新查询之前跳过的版本号（提交晚于后续版本的事务）
+     */
+    List<StubChangeLog> findByVersionIn(Collection<Long> versions);
+
+    Optional<StubChangeLog> findFirstByVersionGreaterThanOrderByVersionAsc(Long version);
+
+    @Query("SELECT COALESCE(MAX(c.version), 0) FROM StubChangeLog c")
+    long findLatestVersion();
+
+    @Query("SELECT COALESCE(MIN(c.version), 0) FROM StubChangeLog c")
+    long findOldestVersion();
+
+    @Modifying
+    @Query("DELETE FROM StubChangeLog c WHERE c.createdAt < :before")
+    int deleteByCreatedAtBefore(@Param("before") LocalDateTime before);
+}
@@ -1,5 +1,6 @@
 package io.github.yeheng.wiremock.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -54,6 +55,11 @@ public interface StubMappingRepository extends JpaRepository<StubMapping, Long>
     @Query("SELECT s FROM StubMapping s WHERE s.method = :method")
     Page<StubMapping> findByMethodWithPagination(@Param("method") String method, Pageable pageable);
 
+    /**
+     * 根据命名空间查找
+     */
+    List<StubMapping> findByNamespace(String namespace);
+
     /**
      * 根据 UUID 查找
      */
@@ -72,6 +78,12 @@ public interface StubMappingRepository extends JpaRepository<StubMapping, Long>
     @Query("SELECT s FROM StubMapping s WHERE s.method = :method AND s.url = :url")
     List<StubMapping> findByMethodAndUrl(@Param("method") String method, @Param("url") String url);
 
+    /**
+     * 批量查重：一次查询返回给定 URL 集合中已存在 stub 的 [命名空间, 方法, URL, 查询参数规则]
+     */
+    @Query("SELECT s.namespace, s.method, s.url, s.queryParametersPattern FROM StubMapping s WHERE s.url IN :urls")
+    List<Object[]> findDedupeKeysByUrlIn(@Param("urls") Collection<String> urls);
+
     /**
      * 分页获取所有启用的Stub
      */
@@ -0,0 +1,149 @@
+package io.github.yeheng.wiremock.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按观测延迟自适应调整的并发上限（梯度算法）
+ * 长期平均延迟（指数滑动平均）作为基线，每个样本的延迟与之比较得到梯度：延迟上升时梯度小于 1，上限按比例收缩；
+ * 延迟平稳时梯度为 1，上限每次增加约 sqrt(limit) 的排队余量。新上限与旧值按 smoothing 平滑，并限制在 [minLimit, maxLimit]。
+ * 并发数不足上限一半时不调整（此时延迟不反映容量）。超过上限的请求立即拒绝，不排队
+ */
+public final class AdaptiveLimiter {
+
+    /**
+     * 长期平均延迟的样本窗口
+     */
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile double limit;
+    private double longRtt;
+
+    /**
+     * @param smoothing 新上限的权重（0 ~ 1），越小调整越平缓
+     * @param tolerance 允许样本延迟超过长期平均的倍数，超过后才开始收缩
+     */
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("并发上限范围无效: [" + minLimit + ", " + maxLimit + "]");
+        }
+        if (smoothing <= 0 || smoothing > 1 || tolerance < 1) {
+            throw new IllegalArgumentException("smoothing 必须在 (0, 1] 内且 tolerance 不小于 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 未超过当前上限时占用一个并发名额，否则立即返回 null
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return new Permit(this, System.nanoTime(), current + 1);
+            }
+        }
+    }
+
+    /**
+     * 记录一个完成请求的延迟样本并调整上限
+     *
+     * @param inFlightAtStart 该请求开始时的并发数
+     */
+    synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        double rtt = rttNanos;
+        if (longRtt == 0) {
+            longRtt = rtt;
+        } else {
+            longRtt += (rtt - longRtt) / LONG_WINDOW;
+        }
+        // 负载回落后延迟远低于基线时加快基线下降，避免长时间保持过高的基线
+        if (longRtt / rtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double current = limit;
+        if (inFlightAtStart < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * 长期平均延迟（毫秒）
+     */
+    public synchronized double getLongRttMillis() {
+        return longRtt / 1_000_000.0;
+    }
+
+    /**
+     * 已占用的并发名额，请求结束时调用 {@link #release()} 归还并记录延迟
+     */
+    public static final class Permit {
+
+        private final AdaptiveLimiter limiter;
+        private final long startNanos;
+        private final int inFlightAtStart;
+
+        private Permit(AdaptiveLimiter limiter, long startNanos, int inFlightAtStart) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void release() {
+            release(true);
+        }
+
+        /**
+         * 归还名额
+         *
+         * @param sample 是否把占用时长作为延迟样本；限速写回的占用时长由 stub 配置的速率决定，不反映服务端容量，归还时不记录
+         */
+        public void release(boolean sample) {
+            limiter.inFlight.decrementAndGet();
+            if (sample) {
+                limiter.onSample(System.nanoTime() - startNanos, inFlightAtStart);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.yeheng.wiremock.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 按路由类别的准入控制
+ * mock、管理 API 与静态资源各用一个 {@link AdaptiveLimiter}，互不占用对方的并发名额：mock 流量打满时管理界面仍可用。
+ * 各类别的上限、并发数、接受与拒绝次数注册为 Micrometer 指标（wiremock.admission.*，按 route 标签区分），
+ * 并可通过 /admin/wiremock/admission 查看
+ */
+@Slf4j
+@Component
+public class AdmissionControl {
+
+    /**
+     * 路由类别
+     */
+    public enum RouteClass {
+        MOCK, ADMIN, STATIC;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final WireMockProperties.Admission config;
+    private final Map<RouteClass, AdaptiveLimiter> limiters = new EnumMap<>(RouteClass.class);
+
+    public AdmissionControl(WireMockProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.config = properties.getAdmission();
+        if (config.getRejectStatus() != 503 && config.getRejectStatus() != 429) {
+            throw new IllegalArgumentException("wiremock.admission.reject-status 只能是 503 或 429: "
+                    + config.getRejectStatus());
+        }
+        limiters.put(RouteClass.MOCK, limiter(config.getMock()));
+        limiters.put(RouteClass.ADMIN, limiter(config.getAdmin()));
+        limiters.put(RouteClass.STATIC, limiter(config.getStaticResources()));
+        if (config.isEnabled()) {
+            meterRegistry.ifAvailable(this::registerMetrics);
+            log.info("准入控制已启用: 拒绝状态码 {}, mock 上限 {}, 管理 API 上限 {}, 静态资源上限 {}",
+                    config.getRejectStatus(), config.getMock(), config.getAdmin(), config.getStaticResources());
+        }
+    }
+
+    private AdaptiveLimiter limiter(WireMockProperties.Limit limit) {
+        return new AdaptiveLimiter(limit.getInitial(), limit.getMin(), limit.getMax(),
+                config.getSmoothing(), config.getTolerance());
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        limiters.forEach((route, limiter) -> {
+            Gauge.builder("wiremock.admission.limit", limiter, AdaptiveLimiter::getLimit)
+                    .tag("route", route.tag())
+                    .description("当前自适应并发上限")
+                    .register(registry);
+            Gauge.builder("wiremock.admission.in_flight", limiter, AdaptiveLimiter::getInFlight)
+                    .tag("route", route.tag())
+                    .description("正在处理的请求数")
+                    .register(registry);
+            Gauge.builder("wiremock.admission.rtt", limiter, AdaptiveLimiter::getLongRttMillis)
+                    .tag("route", route.tag())
+                    .baseUnit("milliseconds")
+                    .description("长期平均处理延迟")
+                    .register(registry);
+            FunctionCounter.builder("wiremock.admission.accepted", limiter, AdaptiveLimiter::getAccepted)
+                    .tag("route", route.tag())
+                    .register(registry);
+            FunctionCounter.builder("wiremock.admission.rejected", limiter, AdaptiveLimiter::getRejected)
+                    .tag("route", route.tag())
+                    .register(registry);
+        });
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public int getRejectStatus() {
+        return config.getRejectStatus();
+    }
+
+    public int getRetryAfterSeconds() {
+        return config.getRetryAfterSeconds();
+    }
+
+    /**
+     * 为该类别的请求占用一个并发名额；超过上限时返回 null，调用方应立即拒绝。未启用时不应调用
+     */
+    public AdaptiveLimiter.Permit tryAcquire(RouteClass route) {
+        return limiters.get(route).tryAcquire();
+    }
+
+    /**
+     * 拒绝响应的 JSON 内容
+     */
+    public String rejectionBody() {
+        String error = config.getRejectStatus() == 429 ? "Too Many Requests" : "Service Unavailable";
+        return "{\"error\": \"" + error + "\", \"message\": \"Concurrency limit exceeded\"}";
+    }
+
+    /**
+     * 各类别限流器的当前状态
+     */
+    public List<LimiterStatus> status() {
+        List<LimiterStatus> result = new ArrayList<>(limiters.size());
+        limiters.forEach((route, limiter) -> result.add(new LimiterStatus(route.tag(), limiter.getLimit(),
+                limiter.getInFlight(), limiter.getAccepted(), limiter.getRejected(), limiter.getLongRttMillis())));
+        return result;
+    }
+
+    public record LimiterStatus(String route, int limit, int inFlight, long accepted, long rejected,
+            double rttMillis) {
+    }
+}
@@ -0,0 +1,332 @@
+package io.github.yeheng.wiremock.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 按内容寻址的 stub 大字段存储
+ * 不小于 minSize 的响应体与请求体匹配规则按 SHA-256 去重：内存中同一内容只保留一份文本、UTF-8 字节与派生结果
+ * （预压缩响应体、已编译的匹配规则），没有引用后随 GC 回收；启用落盘后，数据库中只保存引用，
+ * 内容以 {@code <stubStorageDirectory>/blobs/<前两位>/<hash>} 存储一次，可压缩
+ */
+@Slf4j
+@Component
+public class BlobStore {
+
+    /**
+     * 数据库中引用的前缀，后接 64 位十六进制 SHA-256
+     */
+    public static final String REFERENCE_PREFIX = "@blob:sha256:";
+
+    private static final int HASH_LENGTH = 64;
+    private static final byte RAW = 0;
+    private static final byte DEFLATE = 1;
+
+    private final boolean enabled;
+    private final int minSize;
+    private final boolean compress;
+    private final Path directory;
+    private final Map<String, PayloadReference> payloads = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Payload> collected = new ReferenceQueue<>();
+
+    /**
+     * 只在内存中去重，不落盘
+     */
+    public BlobStore() {
+        this(false, new WireMockProperties.Blobs().getMinSize(), false, null);
+    }
+
+    @Autowired
+    public BlobStore(WireMockProperties properties) {
+        this(properties.getBlobs().isEnabled(), properties.getBlobs().getMinSize(),
+                properties.getBlobs().isCompress(), Path.of(properties.getStubStorageDirectory(), "blobs"));
+    }
+
+    BlobStore(boolean enabled, int minSize, boolean compress, Path directory) {
+        this.enabled = enabled;
+        this.minSize = minSize;
+        this.compress = compress;
+        this.directory = directory;
+        if (enabled) {
+            log.info("Stub 大字段落盘存储: 目录={}, 阈值={} 字符, 压缩={}", directory.toAbsolutePath(), minSize, compress);
+        }
+    }
+
+    public static boolean isReference(String value) {
+        return value != null
+                && value.length() == REFERENCE_PREFIX.length() + HASH_LENGTH
+                && value.startsWith(REFERENCE_PREFIX);
+    }
+
+    /**
+     * 返回内容对应的共享实例；小于阈值的内容不去重，每次返回新的实例
+     */
+    public Payload intern(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (text.length() < minSize) {
+            return new Payload(null, text, bytes);
+        }
+        return intern(hash(bytes), text, bytes);
+    }
+
+    private Payload intern(String hash, String text, byte[] bytes) {
+        expunge();
+        while (true) {
+            PayloadReference reference = payloads.get(hash);
+            Payload existing = reference != null ? reference.get() : null;
+            if (existing != null) {
+                return existing;
+            }
+            Payload created = new Payload(hash, text, bytes);
+            PayloadReference added = new PayloadReference(created, collected);
+            if (reference == null ? payloads.putIfAbsent(hash, added) == null : payloads.replace(hash, reference, added)) {
+                return created;
+            }
+        }
+    }
+
+    private void expunge() {
+        PayloadReference reference;
+        while ((reference = (PayloadReference) collected.poll()) != null) {
+            payloads.remove(reference.hash, reference);
+        }
+    }
+
+    /**
+     * 写入数据库前调用：启用落盘且内容不小于阈值时写入存储并返回引用，否则原样返回
+     */
+    public String externalize(String text) {
+        if (!enabled || text == null || text.length() < minSize) {
+            return text;
+        }
+        Payload payload = intern(text);
+        write(payload);
+        return REFERENCE_PREFIX + payload.hash();
+    }
+
+    /**
+     * 从数据库读出后调用：引用解析为共享的文本，内联的大字段同样去重
+     */
+    public String resolve(String value) {
+        if (!isReference(value)) {
+            Payload payload = intern(value);
+            return payload != null ? payload.text() : null;
+        }
+        String hash = value.substring(REFERENCE_PREFIX.length());
+        PayloadReference reference = payloads.get(hash);
+        Payload existing = reference != null ? reference.get() : null;
+        if (existing != null) {
+            return existing.text();
+        }
+        byte[] bytes = read(hash);
+        return intern(hash, new String(bytes, StandardCharsets.UTF_8), bytes).text();
+    }
+
+    /**
+     * 当前内存中共享的内容数
+     */
+    public int size() {
+        expunge();
+        return payloads.size();
+    }
+
+    private Path file(String hash) {
+        if (directory == null) {
+            throw new IllegalStateException("未配置 stub 存储目录，无法读取内容: " + hash);
+        }
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private void write(Payload payload) {
+        Path target = file(payload.hash());
+        if (Files.exists(target)) {
+            return;
+        }
+        byte[] encoded = encode(payload.bytes());
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), payload.hash(), ".tmp");
+            try {
+                Files.write(temp, encoded);
+                move(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // 其他线程或节点已写入相同内容
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入 stub 内容失败: " + target, e);
+        }
+    }
+
+    private static void move(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target);
+        }
+    }
+
+    private byte[] read(String hash) {
+        Path source = file(hash);
+        byte[] encoded;
+        try {
+            encoded = Files.readAllBytes(source);
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("stub 内容不存在: " + source, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取 stub 内容失败: " + source, e);
+        }
+        byte[] bytes = decode(encoded, source);
+        if (!hash.equals(hash(bytes))) {
+            throw new IllegalStateException("stub 内容校验失败: " + source);
+        }
+        return bytes;
+    }
+
+    private byte[] encode(byte[] bytes) {
+        if (compress) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            out.write(DEFLATE);
+            try (OutputStream stream = new DeflaterOutputStream(out)) {
+                stream.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException("压缩 stub 内容失败", e);
+            }
+            if (out.size() < bytes.length + 1) {
+                return out.toByteArray();
+            }
+        }
+        byte[] encoded = new byte[bytes.length + 1];
+        encoded[0] = RAW;
+        System.arraycopy(bytes, 0, encoded, 1, bytes.length);
+        return encoded;
+    }
+
+    private static byte[] decode(byte[] encoded, Path source) {
+        if (encoded.length == 0) {
+            throw new IllegalStateException("stub 内容为空: " + source);
+        }
+        return switch (encoded[0]) {
+            case RAW -> Arrays.copyOfRange(encoded, 1, encoded.length);
+            case DEFLATE -> {
+                try (InputStream stream = new InflaterInputStream(
+                        new ByteArrayInputStream(encoded, 1, encoded.length - 1))) {
+                    yield stream.readAllBytes();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("解压 stub 内容失败: " + source, e);
+                }
+            }
+            default -> throw new IllegalStateException("未知的 stub 内容编码: " + source);
+        };
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 共享的内容：文本、UTF-8 字节与按 key 缓存的派生结果。字节数组由多个 stub 共用，调用方不得修改
+     */
+    public static final class Payload {
+
+        private final String hash;
+        private final String text;
+        private final byte[] bytes;
+        private volatile Map<Object, Object> derived;
+
+        private Payload(String hash, String text, byte[] bytes) {
+            this.hash = hash;
+            this.text = text;
+            this.bytes = bytes;
+        }
+
+        /**
+         * 内容的 SHA-256，未去重的小内容为 null
+         */
+        public String hash() {
+            return hash;
+        }
+
+        public String text() {
+            return text;
+        }
+
+        public byte[] bytes() {
+            return bytes;
+        }
+
+        /**
+         * 按 key 计算一次并缓存派生结果，派生结果必须是不可变的；计算结果为 null 时不缓存
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T derive(Object key, Function<Payload, T> factory) {
+            Map<Object, Object> cache = derived;
+            if (cache == null) {
+                synchronized (this) {
+                    cache = derived;
+                    if (cache == null) {
+                        cache = new ConcurrentHashMap<>(2);
+                        derived = cache;
+                    }
+                }
+            }
+            Object value = cache.get(key);
+            if (value == null) {
+                value = factory.apply(this);
+                if (value != null) {
+                    Object previous = cache.putIfAbsent(key, value);
+                    if (previous != null) {
+                        value = previous;
+                    }
+                }
+            }
+            return (T) value;
+        }
+    }
+
+    private static final class PayloadReference extends WeakReference<Payload> {
+
+        private final String hash;
+
+        PayloadReference(Payload payload, ReferenceQueue<Payload> queue) {
+            super(payload, queue);
+            this.hash = payload.hash();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package io.github.yeheng.wiremock.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * JSON 的规范形式与哈希，用于 equalToJson 的快速判定
+ * 对象键按字典序排列，数字按去掉末尾零后的十进制值输出（与 WireMock 的 NormalisedNumberComparator 一致，1 与 1.0 相同），
+ * 忽略数组顺序时数组元素按各自的规范形式排序。两个 JSON 规范形式相同即按 equalToJson 语义相等。
+ * 同时记录不在数组内的标量叶子的「路径 + 值」指纹，忽略多余字段时期望的每个叶子都必须原样出现在请求中，
+ * 缺少任一指纹即可判定不匹配；指纹碰撞只会让判定落回完整比较，不会误拒。
+ * 含 JsonUnit 占位符（如 {@code ${json-unit.any-string}}）的叶子不参与指纹，整体也不能按规范形式直接判定相等
+ */
+public final class CanonicalJson {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final String PLACEHOLDER_MARK = "json-unit.";
+
+    private final String text;
+    private final int hash;
+    private final long[] leaves;
+    private final boolean placeholders;
+
+    private CanonicalJson(String text, long[] leaves, boolean placeholders) {
+        this.text = text;
+        this.hash = text.hashCode();
+        this.leaves = leaves;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * 计算规范形式
+     *
+     * @param sortArrays 是否按元素规范形式对数组排序（忽略数组顺序）
+     */
+    public static CanonicalJson of(JsonNode node, boolean sortArrays) {
+        Canonicalizer canonicalizer = new Canonicalizer(sortArrays);
+        StringBuilder text = new StringBuilder();
+        canonicalizer.write(node, text, FNV_OFFSET, false);
+        long[] leaves = canonicalizer.leaves();
+        Arrays.sort(leaves);
+        return new CanonicalJson(text.toString(), leaves, canonicalizer.placeholders);
+    }
+
+    public String text() {
+        return text;
+    }
+
+    /**
+     * 是否含 JsonUnit 占位符，含占位符时规范形式不能用于判定
+     */
+    public boolean hasPlaceholders() {
+        return placeholders;
+    }
+
+    /**
+     * 本 JSON 是否包含 expected 的全部标量叶子指纹；返回 false 时 expected 在忽略多余字段的语义下也不可能匹配
+     */
+    public boolean containsLeavesOf(CanonicalJson expected) {
+        for (long leaf : expected.leaves) {
+            if (Arrays.binarySearch(leaves, leaf) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof CanonicalJson other && hash == other.hash && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private static long fnv(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static void quote(String value, StringBuilder out) {
+        out.append('"').append(JsonStringEncoder.getInstance().quoteAsString(value)).append('"');
+    }
+
+    private static final class Canonicalizer {
+
+        private final boolean sortArrays;
+        private long[] leaves = new long[16];
+        private int leafCount;
+        private boolean placeholders;
+
+        Canonicalizer(boolean sortArrays) {
+            this.sortArrays = sortArrays;
+        }
+
+        /**
+         * @param path    从根到当前节点的路径哈希
+         * @param inArray 当前节点是否位于数组内（数组内的叶子位置不确定，不记录指纹）
+         */
+        void write(JsonNode node, StringBuilder out, long path, boolean inArray) {
+            if (node.isObject()) {
+                List<String> keys = new ArrayList<>(node.size());
+                for (Iterator<String> names = node.fieldNames(); names.hasNext();) {
+                    keys.add(names.next());
+                }
+                keys.sort(null);
+                out.append('{');
+                for (int i = 0; i < keys.size(); i++) {
+                    String key = keys.get(i);
+                    if (i > 0) {
+                        out.append(',');
+                    }
+                    quote(key, out);
+                    out.append(':');
+                    write(node.get(key), out, fnv(fnv(path, "/"), key), inArray);
+                }
+                out.append('}');
+            } else if (node.isArray()) {
+                writeArray(node, out, path);
+            } else {
+                String value = scalar(node);
+                out.append(value);
+                if (node.isTextual() && node.textValue().contains(PLACEHOLDER_MARK)) {
+                    placeholders = true;
+                } else if (!inArray) {
+                    addLeaf(fnv(fnv(path, "="), value));
+                }
+            }
+        }
+
+        private void writeArray(JsonNode node, StringBuilder out, long path) {
+            out.append('[');
+            if (sortArrays) {
+                List<String> elements = new ArrayList<>(node.size());
+                for (JsonNode element : node) {
+                    StringBuilder item = new StringBuilder();
+                    write(element, item, path, true);
+                    elements.add(item.toString());
+                }
+                elements.sort(null);
+                out.append(String.join(",", elements));
+            } else {
+                int i = 0;
+                for (JsonNode element : node) {
+                    if (i++ > 0) {
+                        out.append(',');
+                    }
+                    write(element, out, path, true);
+                }
+            }
+            out.append(']');
+        }
+
+        private static String scalar(JsonNode node) {
+            if (node.isNumber()) {
+                return node.decimalValue().stripTrailingZeros().toString();
+            }
+            if (node.isTextual()) {
+                StringBuilder quoted = new StringBuilder(node.textValue().length() + 2);
+                quote(node.textValue(), quoted);
+                return quoted.toString();
+            }
+            return node.toString();
+        }
+
+        private void addLeaf(long fingerprint) {
+            if (leafCount == leaves.length) {
+                leaves = Arrays.copyOf(leaves, leafCount * 2);
+            }
+            leaves[leafCount++] = fingerprint;
+        }
+
+        long[] leaves() {
+            return Arrays.copyOf(leaves, leafCount);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package io.github.yeheng.wiremock.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 按键查找记录的数据集文件
+ * 数据文件（JSON Lines 或带表头的 CSV）与其哈希索引都以只读方式内存映射，记录与索引不占用堆内存。
+ * 索引是开放寻址的哈希表，每个槽位 16 字节：键的 64 位哈希、记录在数据文件中的偏移与长度；
+ * 构建一次后写入索引文件，数据文件大小与修改时间不变时直接复用。查找按哈希探测，哈希相同时再从映射的数据文件
+ * 取出该记录的键与请求的键逐字节比较，不同则继续探测，哈希冲突不会返回其他键的记录
+ */
+@Slf4j
+public final class DatasetIndex {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final long MAGIC = 0x4D4F434B49445832L;
+    private static final int HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 16;
+
+    /**
+     * 数据文件格式，按扩展名区分
+     */
+    public enum Format {
+        JSON_LINES, CSV;
+
+        static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+                return JSON_LINES;
+            }
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            throw new IllegalArgumentException("不支持的数据集格式（支持 .jsonl、.ndjson、.csv）: " + file.getFileName());
+        }
+    }
+
+    private final Format format;
+    private final MappedByteBuffer data;
+    private final MappedByteBuffer index;
+    private final int mask;
+    @Getter
+    private final long size;
+    private final String[] columns;
+    private final KeyReader keyReader;
+
+    private DatasetIndex(Format format, MappedByteBuffer data, MappedByteBuffer index, String[] columns,
+            KeyReader keyReader) {
+        this.format = format;
+        this.data = data;
+        this.index = index;
+        this.mask = (int) index.getLong(8) - 1;
+        this.size = index.getLong(16);
+        this.columns = columns;
+        this.keyReader = keyReader;
+    }
+
+    /**
+     * 映射数据文件并打开索引；索引文件不存在或与数据文件不一致时重新构建
+     *
+     * @param keyField JSON Lines 中作为键的顶层字段，或 CSV 中作为键的列名
+     */
+    public static DatasetIndex open(Path dataFile, String keyField, Path indexFile) throws IOException {
+        Format format = Format.of(dataFile);
+        MappedByteBuffer data = map(dataFile);
+        String[] columns = format == Format.CSV ? parseCsvLine(firstLine(data)).toArray(String[]::new) : null;
+        if (columns != null && !Arrays.asList(columns).contains(keyField)) {
+            throw new IllegalArgumentException("CSV 表头中没有键列: " + keyField);
+        }
+        KeyReader keyReader = new KeyReader(format, data, keyField,
+                columns != null ? Arrays.asList(columns).indexOf(keyField) : -1);
+        MappedByteBuffer index = Files.isRegularFile(indexFile) ? map(indexFile) : null;
+        if (!isValid(index, data.capacity())) {
+            build(data, columns != null, keyReader, indexFile);
+            index = map(indexFile);
+        }
+        return new DatasetIndex(format, data, index, columns, keyReader);
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("文件超过 2GB，无法映射: " + file);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static boolean isValid(ByteBuffer header, long dataSize) {
+        if (header == null || header.capacity() < HEADER_SIZE) {
+            return false;
+        }
+        long capacity = header.getLong(8);
+        return header.getLong(0) == MAGIC
+                && header.getLong(24) == dataSize
+                && Long.bitCount(capacity) == 1
+                && header.capacity() == HEADER_SIZE + capacity * SLOT_SIZE;
+    }
+
+    private static void build(MappedByteBuffer data, boolean hasHeader, KeyReader keyReader, Path indexFile)
+            throws IOException {
+        long started = System.nanoTime();
+        int lines = countLines(data);
+        long capacity = Long.highestOneBit(Math.max(16, (long) lines * 2) - 1) << 1;
+        long fileSize = HEADER_SIZE + capacity * SLOT_SIZE;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("数据集记录过多，索引超过 2GB: " + lines);
+        }
+
+        Files.createDirectories(indexFile.getParent());
+        Path temp = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+        try {
+            long indexed = 0;
+            long skipped = 0;
+            long duplicates = 0;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+                int mask = (int) capacity - 1;
+                int position = hasHeader ? nextLine(data, 0) : 0;
+                while (position < data.capacity()) {
+                    int end = lineEnd(data, position);
+                    int next = end < data.capacity() ? end + 1 : end;
+                    int length = trimmedLength(data, position, end);
+                    if (length > 0) {
+                        byte[] key = keyReader.read(position, length);
+                        if (key == null) {
+                            skipped++;
+                        } else if (insert(index, mask, keyReader, key, position, length)) {
+                            indexed++;
+                        } else {
+                            duplicates++;
+                        }
+                    }
+                    position = next;
+                }
+                index.putLong(0, MAGIC);
+                index.putLong(8, capacity);
+                index.putLong(16, indexed);
+                index.putLong(24, data.capacity());
+                index.force();
+            }
+            move(temp, indexFile);
+            log.info("数据集索引已构建: {}, 记录数={}, 无键={}, 重复键={}, 耗时 {} ms", indexFile.getFileName(),
+                    indexed, skipped, duplicates, (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void move(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 插入槽位；相同的键已存在时保留先出现的记录并返回 false，哈希相同而键不同时继续探测
+     */
+    private static boolean insert(ByteBuffer index, int mask, KeyReader keyReader, byte[] key, int offset,
+            int length) {
+        long hash = hash(key);
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            int at = HEADER_SIZE + slot * SLOT_SIZE;
+            long existing = index.getLong(at);
+            if (existing == 0) {
+                index.putLong(at, hash);
+                index.putInt(at + 8, offset);
+                index.putInt(at + 12, length);
+                return true;
+            }
+            if (existing == hash && Arrays.equals(key, keyReader.read(index.getInt(at + 8), index.getInt(at + 12)))) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 按键查找记录，JSON Lines 返回该行原文，CSV 返回以表头为字段名的 JSON 对象；不存在时返回 null
+     */
+    public byte[] lookup(byte[] key) {
+        int at = find(key);
+        return at >= 0 ? record(at) : null;
+    }
+
+    public boolean contains(byte[] key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * 键所在槽位，不存在时返回 -1；槽位可交给 {@link #record(int)} 取出记录，避免重复探测
+     */
+    int find(byte[] key) {
+        if (key == null || key.length == 0) {
+            return -1;
+        }
+        long hash = hash(key);
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            int at = HEADER_SIZE + slot * SLOT_SIZE;
+            long existing = index.getLong(at);
+            if (existing == 0) {
+                return -1;
+            }
+            if (existing == hash && Arrays.equals(key, keyReader.read(index.getInt(at + 8), index.getInt(at + 12)))) {
+                return at;
+            }
+        }
+    }
+
+    /**
+     * 槽位对应的记录，JSON Lines 返回该行原文，CSV 返回以表头为字段名的 JSON 对象
+     */
+    byte[] record(int at) {
+        byte[] record = new byte[index.getInt(at + 12)];
+        data.get(index.getInt(at + 8), record);
+        return format == Format.CSV ? csvRecord(record) : record;
+    }
+
+    /**
+     * FNV-1a 后做一次 64 位混合，0 保留给空槽位
+     */
+    static long hash(byte[] key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+
+    /**
+     * 从数据文件中的一行取出键的 UTF-8 字节，行中没有键时返回 null
+     */
+    private record KeyReader(Format format, ByteBuffer data, String keyField, int keyColumn) {
+
+        byte[] read(int offset, int length) {
+            byte[] line = new byte[length];
+            data.get(offset, line);
+            String key = format == Format.JSON_LINES ? jsonKey(line) : csvKey(line);
+            return key != null ? key.getBytes(StandardCharsets.UTF_8) : null;
+        }
+
+        /**
+         * 只流式读取到键字段为止，不构建整行的树
+         */
+        private String jsonKey(byte[] line) {
+            try (JsonParser parser = JSON.getFactory().createParser(line)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return null;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if (!keyField.equals(name)) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    if (value == JsonToken.VALUE_NULL) {
+                        return null;
+                    }
+                    return value.isScalarValue() ? parser.getText() : JSON.readTree(parser).toString();
+                }
+                return null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        private String csvKey(byte[] line) {
+            List<String> values = parseCsvLine(new String(line, StandardCharsets.UTF_8));
+            return keyColumn < values.size() ? values.get(keyColumn) : null;
+        }
+    }
+
+    private byte[] csvRecord(byte[] line) {
+        List<String> values = parseCsvLine(new String(line, StandardCharsets.UTF_8));
+        ObjectNode record = JSON.createObjectNode();
+        for (int i = 0; i < columns.length; i++) {
+            record.put(columns[i], i < values.size() ? values.get(i) : null);
+        }
+        try {
+            return JSON.writeValueAsBytes(record);
+        } catch (IOException e) {
+            throw new IllegalStateException("序列化数据集记录失败", e);
+        }
+    }
+
+    /**
+     * 解析一行 CSV：逗号分隔，双引号包裹的字段中 "" 表示一个双引号；不支持跨行的字段
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static String firstLine(ByteBuffer data) {
+        int end = lineEnd(data, 0);
+        byte[] line = new byte[trimmedLength(data, 0, end)];
+        data.get(0, line);
+        String header = new String(line, StandardCharsets.UTF_8);
+        // 去掉 UTF-8 BOM
+        return header.startsWith("\uFEFF") ? header.substring(1) : header;
+    }
+
+    private static int countLines(ByteBuffer data) {
+        int lines = 1;
+        for (int i = 0; i < data.capacity(); i++) {
+            if (data.get(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private static int lineEnd(ByteBuffer data, int position) {
+        int end = position;
+        while (end < data.capacity() && data.get(end) != '\n') {
+            end++;
+        }
+        return end;
+    }
+
+    private static int nextLine(ByteBuffer data, int position) {
+        int end = lineEnd(data, position);
+        return end < data.capacity() ? end + 1 : end;
+    }
+
+    /**
+     * 去掉行尾的 \r 与空白后的长度
+     */
+    private static int trimmedLength(ByteBuffer data, int start, int end) {
+        while (end > start && (data.get(end - 1) == '\r' || data.get(end - 1) == ' ' || data.get(end - 1) == '\t')) {
+            end--;
+        }
+        return end - start;
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.yeheng.wiremock.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.github.tomakehurst.wiremock.http.Request;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 数据集 stub 的文件与索引管理
+ * 数据集文件放在 {@code <stubStorageDirectory>/datasets} 下，索引写入同目录的 {@code .index}，
+ * 按数据文件路径、键字段、大小与修改时间命名，文件不变时重启后直接复用。同一数据集与键字段的多个 stub 共用一个 {@link DatasetIndex}
+ */
+@Slf4j
+@Component
+public class DatasetStore {
+
+    private final Path directory;
+    private final Map<String, Opened> datasets = new ConcurrentHashMap<>();
+
+    public DatasetStore() {
+        this(Path.of(new WireMockProperties().getStubStorageDirectory(), "datasets"));
+    }
+
+    @Autowired
+    public DatasetStore(WireMockProperties properties) {
+        this(Path.of(properties.getStubStorageDirectory(), "datasets"));
+    }
+
+    DatasetStore(Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+    }
+
+    /**
+     * 数据集 stub 的查找绑定：按 stub 的键表达式从请求中取键，在数据集中查找记录；普通 stub 返回 null
+     */
+    public Binding bind(StubMapping stub) {
+        if (stub.getDatasetFile() == null) {
+            return null;
+        }
+        // 键按原值查找，不做 JSON 转义
+        ResponseTemplate key = ResponseTemplate.compile("{{{" + keyExpression(stub) + "}}}");
+        return new Binding(open(stub.getDatasetFile(), stub.getDatasetKeyField()), key);
+    }
+
+    /**
+     * 键表达式使用响应模板的取值语法（request.path.N、request.query.name、request.headers.name、request.body.a.b），
+     * 另外支持 path.name 引用 stub URL 中的 {name} 路径变量
+     */
+    static String keyExpression(StubMapping stub) {
+        String expression = stub.getDatasetKey().trim();
+        while (expression.startsWith("{") && expression.endsWith("}")) {
+            expression = expression.substring(1, expression.length() - 1).trim();
+        }
+        if (!expression.startsWith("path.")) {
+            return expression;
+        }
+        String name = expression.substring("path.".length());
+        String[] segments = stub.getUrl().startsWith("/") ? stub.getUrl().substring(1).split("/") : stub.getUrl().split("/");
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i].equals("{" + name + "}")) {
+                return "request.path." + i;
+            }
+        }
+        throw new IllegalArgumentException("URL 中没有路径变量: {" + name + "}");
+    }
+
+    private DatasetIndex open(String file, String keyField) {
+        Path dataFile = resolve(file);
+        try {
+            long size = Files.size(dataFile);
+            long modified = Files.getLastModifiedTime(dataFile).toMillis();
+            String cacheKey = dataFile + "\n" + keyField;
+            Opened opened = datasets.get(cacheKey);
+            if (opened != null && opened.size() == size && opened.modified() == modified) {
+                return opened.index();
+            }
+            synchronized (this) {
+                opened = datasets.get(cacheKey);
+                if (opened == null || opened.size() != size || opened.modified() != modified) {
+                    Path indexFile = directory.resolve(".index")
+                            .resolve(indexName(cacheKey + "\n" + size + "\n" + modified) + ".idx");
+                    Opened previous = opened;
+                    opened = new Opened(DatasetIndex.open(dataFile, keyField, indexFile), size, modified, indexFile);
+                    datasets.put(cacheKey, opened);
+                    log.info("已加载数据集: {}, 键字段={}, 记录数={}", dataFile, keyField, opened.index().getSize());
+                    if (previous != null) {
+                        deleteIndex(previous.indexFile());
+                    }
+                }
+                return opened.index();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("加载数据集失败: " + file, e);
+        }
+    }
+
+    /**
+     * 数据文件变化后旧索引不会再被复用，删除以免 .index 目录随每次修改增长；已映射的旧索引在仍引用它的 stub 重新加载前保持可读
+     */
+    private static void deleteIndex(Path indexFile) {
+        try {
+            Files.deleteIfExists(indexFile);
+        } catch (IOException e) {
+            log.warn("删除过期的数据集索引失败: {}", indexFile, e);
+        }
+    }
+
+    /**
+     * 数据集路径相对于数据集目录解析，不允许指向目录之外
+     */
+    Path resolve(String file) {
+        Path resolved = directory.resolve(file).normalize();
+        if (!resolved.startsWith(directory)) {
+            throw new IllegalArgumentException("数据集文件必须位于 " + directory + " 下: " + file);
+        }
+        if (!Files.isRegularFile(resolved)) {
+            throw new IllegalArgumentException("数据集文件不存在: " + resolved);
+        }
+        return resolved;
+    }
+
+    private static String indexName(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private record Opened(DatasetIndex index, long size, long modified, Path indexFile) {
+    }
+
+    /**
+     * stub 注册时绑定一次，匹配与写回共用；同一线程上匹配阶段探测到的槽位在写回时直接复用，不再探测索引。
+     * 解析结果只在一次请求内有效，请求处理结束时由 {@link MockEngine} 调用 {@link #clearResolved()} 清除，
+     * 线程上不保留已移除 stub 的绑定与数据集
+     */
+    public record Binding(DatasetIndex index, ResponseTemplate key) {
+
+        private static final ThreadLocal<Resolved> RESOLVED = ThreadLocal.withInitial(Resolved::new);
+
+        public boolean contains(Request request) {
+            return resolve(request) >= 0;
+        }
+
+        /**
+         * 请求对应的记录，数据集中没有该键时返回 null
+         */
+        public byte[] lookup(Request request) {
+            int at = resolve(request);
+            return at >= 0 ? index.record(at) : null;
+        }
+
+        /**
+         * 清除当前线程的解析结果
+         */
+        static void clearResolved() {
+            Resolved last = RESOLVED.get();
+            last.binding = null;
+            last.key = null;
+        }
+
+        /**
+         * 当前线程最近一次解析所用的绑定，请求结束后为 null
+         */
+        static Binding lastResolved() {
+            return RESOLVED.get().binding;
+        }
+
+        private int resolve(Request request) {
+            byte[] rendered = key.render(request);
+            Resolved last = RESOLVED.get();
+            if (last.binding != this || !Arrays.equals(last.key, rendered)) {
+                last.binding = this;
+                last.key = rendered;
+                last.slot = index.find(rendered);
+            }
+            return last.slot;
+        }
+    }
+
+    /**
+     * 当前线程最近一次解析的键与槽位
+     */
+    private static final class Resolved {
+        private Binding binding;
+        private byte[] key;
+        private int slot;
+    }
+}
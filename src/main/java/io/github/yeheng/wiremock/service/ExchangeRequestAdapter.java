@@ -0,0 +1,254 @@
+package io.github.yeheng.wiremock.service;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.github.tomakehurst.wiremock.common.Encoding;
+import com.github.tomakehurst.wiremock.common.Strings;
+import com.github.tomakehurst.wiremock.common.Urls;
+import com.github.tomakehurst.wiremock.http.ContentTypeHeader;
+import com.github.tomakehurst.wiremock.http.Cookie;
+import com.github.tomakehurst.wiremock.http.FormParameter;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderValues;
+
+/**
+ * 直接包装 Undertow HttpServerExchange 的 WireMock 请求，供原生 Undertow 入口使用
+ * 与 {@link ServletRequestAdapter} 相同，URL、请求头与 Cookie 在首次读取时才从 exchange 中取出并缓存；
+ * 请求体由调用方以非阻塞方式读完后传入
+ */
+public final class ExchangeRequestAdapter implements Request {
+
+    private final HttpServerExchange exchange;
+    private final String strippedPrefix;
+    private final byte[] body;
+
+    private String url;
+    private String absoluteUrl;
+    private RequestMethod method;
+    private HttpHeaders headers;
+    private Map<String, Cookie> cookies;
+    private Map<String, QueryParameter> queryParameters;
+    private String bodyAsString;
+
+    /**
+     * @param strippedPrefix 不为空时从路径中去掉该前缀（命名空间路径前缀）
+     */
+    public ExchangeRequestAdapter(HttpServerExchange exchange, String strippedPrefix, byte[] body) {
+        this.exchange = exchange;
+        this.strippedPrefix = strippedPrefix;
+        this.body = body != null ? body : new byte[0];
+    }
+
+    /**
+     * 不含协议与主机的原始路径（客户端以绝对形式发送请求行时去掉协议与主机）
+     */
+    public static String requestPath(HttpServerExchange exchange) {
+        String uri = exchange.getRequestURI();
+        if (exchange.isHostIncludedInRequestURI()) {
+            int pathStart = uri.indexOf('/', uri.indexOf("://") + 3);
+            return pathStart < 0 ? "/" : uri.substring(pathStart);
+        }
+        return uri;
+    }
+
+    @Override
+    public String getUrl() {
+        if (url == null) {
+            String path = requestPath(exchange);
+            if (strippedPrefix != null && path.startsWith(strippedPrefix)) {
+                path = path.substring(strippedPrefix.length());
+            }
+            if (path.isEmpty()) {
+                path = "/";
+            }
+            String queryString = exchange.getQueryString();
+            url = queryString == null || queryString.isEmpty() ? path : path + '?' + queryString;
+        }
+        return url;
+    }
+
+    @Override
+    public String getAbsoluteUrl() {
+        if (absoluteUrl == null) {
+            absoluteUrl = exchange.getRequestScheme() + "://" + exchange.getHostAndPort() + getUrl();
+        }
+        return absoluteUrl;
+    }
+
+    @Override
+    public RequestMethod getMethod() {
+        if (method == null) {
+            method = RequestMethod.fromString(exchange.getRequestMethod().toString());
+        }
+        return method;
+    }
+
+    @Override
+    public String getScheme() {
+        return exchange.getRequestScheme();
+    }
+
+    @Override
+    public String getHost() {
+        return exchange.getHostName();
+    }
+
+    @Override
+    public int getPort() {
+        return exchange.getHostPort();
+    }
+
+    @Override
+    public String getClientIp() {
+        InetSocketAddress source = exchange.getSourceAddress();
+        return source != null && source.getAddress() != null ? source.getAddress().getHostAddress() : null;
+    }
+
+    @Override
+    public String getHeader(String key) {
+        return exchange.getRequestHeaders().getFirst(key);
+    }
+
+    /**
+     * Undertow 的请求头表本身大小写无关，单个请求头直接查表，不需要先构造完整的 HttpHeaders
+     */
+    @Override
+    public HttpHeader header(String key) {
+        HeaderValues values = exchange.getRequestHeaders().get(key);
+        return values == null || values.isEmpty() ? HttpHeader.absent(key) : new HttpHeader(key, values);
+    }
+
+    @Override
+    public ContentTypeHeader contentTypeHeader() {
+        String contentType = getHeader(ContentTypeHeader.KEY);
+        return contentType != null ? new ContentTypeHeader(contentType) : ContentTypeHeader.absent();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        if (headers == null) {
+            List<HttpHeader> all = new ArrayList<>(exchange.getRequestHeaders().size());
+            for (HeaderValues values : exchange.getRequestHeaders()) {
+                if (!values.isEmpty()) {
+                    all.add(new HttpHeader(values.getHeaderName().toString(), values));
+                }
+            }
+            headers = new HttpHeaders(all);
+        }
+        return headers;
+    }
+
+    @Override
+    public boolean containsHeader(String key) {
+        return exchange.getRequestHeaders().contains(key);
+    }
+
+    @Override
+    public Set<String> getAllHeaderKeys() {
+        Set<String> keys = new LinkedHashSet<>();
+        for (HeaderValues values : exchange.getRequestHeaders()) {
+            keys.add(values.getHeaderName().toString());
+        }
+        return keys;
+    }
+
+    @Override
+    public QueryParameter queryParameter(String key) {
+        if (queryParameters == null) {
+            String queryString = exchange.getQueryString();
+            queryParameters = Urls.splitQuery(queryString == null || queryString.isEmpty() ? null : queryString);
+        }
+        QueryParameter parameter = queryParameters.get(key);
+        return parameter != null ? parameter : QueryParameter.absent(key);
+    }
+
+    @Override
+    public FormParameter formParameter(String key) {
+        return FormParameter.absent(key);
+    }
+
+    @Override
+    public Map<String, FormParameter> formParameters() {
+        return Map.of();
+    }
+
+    @Override
+    public Map<String, Cookie> getCookies() {
+        if (cookies == null) {
+            Map<String, List<String>> values = new LinkedHashMap<>();
+            for (io.undertow.server.handlers.Cookie cookie : exchange.requestCookies()) {
+                values.computeIfAbsent(cookie.getName(), name -> new ArrayList<>(1)).add(cookie.getValue());
+            }
+            if (values.isEmpty()) {
+                cookies = Map.of();
+            } else {
+                Map<String, Cookie> byName = new LinkedHashMap<>();
+                values.forEach((name, list) -> byName.put(name, new Cookie(name, list)));
+                cookies = byName;
+            }
+        }
+        return cookies;
+    }
+
+    @Override
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public String getBodyAsString() {
+        if (bodyAsString == null) {
+            bodyAsString = Strings.stringFromBytes(body);
+        }
+        return bodyAsString;
+    }
+
+    @Override
+    public String getBodyAsBase64() {
+        return Encoding.encodeBase64(body);
+    }
+
+    @Override
+    public boolean isMultipart() {
+        return false;
+    }
+
+    @Override
+    public Collection<Part> getParts() {
+        return List.of();
+    }
+
+    @Override
+    public Part getPart(String name) {
+        return null;
+    }
+
+    @Override
+    public boolean isBrowserProxyRequest() {
+        return false;
+    }
+
+    @Override
+    public Optional<Request> getOriginalRequest() {
+        return Optional.empty();
+    }
+
+    @Override
+    public String getProtocol() {
+        return exchange.getProtocol().toString();
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.yeheng.wiremock.service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 按需录制限定时长的 JFR 记录
+ * 设置为 JDK 的 default 配置叠加内置的 jfr/wiremock.jfc（wiremock.* 事件），同一时间只允许一个录制
+ */
+@Slf4j
+@Component
+public class FlightRecorderService {
+
+    static final String CONFIGURATION = "jfr/wiremock.jfc";
+
+    /**
+     * mock 请求路径上的事件，可按次调整阈值
+     */
+    private static final List<String> TRAFFIC_EVENTS = List.of(
+            "wiremock.RequestConversion", "wiremock.StubMatch", "wiremock.ResponseWrite");
+
+    private final Duration maxDuration;
+    private final AtomicBoolean recording = new AtomicBoolean();
+
+    public FlightRecorderService(@Value("${wiremock.jfr.max-duration-seconds:300}") long maxDurationSeconds) {
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+    }
+
+    /**
+     * 录制指定时长后写入临时文件并返回，调用方负责删除文件
+     *
+     * @param trafficThresholdMs 不为 null 时覆盖 mock 请求路径事件的阈值（毫秒），0 表示记录全部请求
+     */
+    public Path record(Duration duration, Long trafficThresholdMs) throws IOException, InterruptedException {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("录制时长必须在 1 ~ " + maxDuration.toSeconds() + " 秒之间");
+        }
+        if (trafficThresholdMs != null && trafficThresholdMs < 0) {
+            throw new IllegalArgumentException("阈值不能为负数: " + trafficThresholdMs);
+        }
+        if (!recording.compareAndSet(false, true)) {
+            throw new IllegalStateException("已有 JFR 录制在进行中");
+        }
+        try (Recording jfr = new Recording(settings(trafficThresholdMs))) {
+            jfr.setName("wiremock-admin");
+            jfr.start();
+            log.info("开始 JFR 录制，时长 {}s", duration.toSeconds());
+            Thread.sleep(duration.toMillis());
+            jfr.stop();
+            Path file = Files.createTempFile("wiremock-", ".jfr");
+            jfr.dump(file);
+            return file;
+        } finally {
+            recording.set(false);
+        }
+    }
+
+    Map<String, String> settings(Long trafficThresholdMs) throws IOException {
+        Map<String, String> settings;
+        try {
+            settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            try (Reader reader = new InputStreamReader(new ClassPathResource(CONFIGURATION).getInputStream(),
+                    StandardCharsets.UTF_8)) {
+                settings.putAll(Configuration.create(reader).getSettings());
+            }
+        } catch (ParseException e) {
+            throw new IllegalStateException("JFR 配置无效: " + e.getMessage(), e);
+        }
+        if (trafficThresholdMs != null) {
+            for (String event : TRAFFIC_EVENTS) {
+                settings.put(event + "#threshold", trafficThresholdMs + " ms");
+            }
+        }
+        return settings;
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.yeheng.wiremock.service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
+import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
+import com.github.tomakehurst.wiremock.store.DefaultStores;
+import com.github.tomakehurst.wiremock.store.StubMappingStore;
+import com.github.tomakehurst.wiremock.store.Stores;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.SubEvent;
+
+/**
+ * 带 UUID 索引的 WireMock stub 存储
+ * WireMock 默认的 InMemoryStubMappingStore 按 UUID 查找和删除都是线性扫描，
+ * 导致每次 stubFor / removeStubMapping 的代价随 stub 数量线性增长；
+ * 这里用哈希索引定位、用有序集合按比较器删除，两者都与 stub 总数无关（对数级）
+ *
+ * 批量写入期间匹配使用批次开始时的快照，批次结束后一次性发布全部变更
+ */
+public class IndexedStubMappingStore implements StubMappingStore {
+
+    private final Map<UUID, StubMapping> byId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<StubMapping> sorted = new ConcurrentSkipListSet<>(
+            IndexedStubMappingStore::compareByPriorityThenReverseInsertion);
+    private final AtomicLong insertionCount = new AtomicLong();
+    private volatile StubMapping[] published;
+
+    /**
+     * 使用本存储替换默认 stub 存储的 WireMock Stores
+     */
+    public static Stores stores(FileSource fileRoot) {
+        IndexedStubMappingStore store = new IndexedStubMappingStore();
+        return new DefaultStores(fileRoot) {
+            @Override
+            public StubMappingStore getStubStore() {
+                return store;
+            }
+        };
+    }
+
+    /**
+     * 与 WireMock SortedConcurrentMappingSet 相同的顺序：优先级升序，同优先级后添加的在前
+     */
+    private static int compareByPriorityThenReverseInsertion(StubMapping one, StubMapping two) {
+        int priorityComparison = one.comparePriorityWith(two);
+        if (priorityComparison != 0) {
+            return priorityComparison;
+        }
+        return Long.compare(two.getInsertionIndex(), one.getInsertionIndex());
+    }
+
+    @Override
+    public Stream<StubMapping> getAll() {
+        StubMapping[] snapshot = published;
+        return snapshot != null ? Arrays.stream(snapshot) : sorted.stream();
+    }
+
+    /**
+     * 开始批量写入：冻结当前的匹配视图，之后的写入在 endBatch 之前对匹配不可见
+     */
+    public synchronized void beginBatch() {
+        published = sorted.toArray(new StubMapping[0]);
+    }
+
+    /**
+     * 结束批量写入，原子地发布批次内的全部变更
+     */
+    public void endBatch() {
+        published = null;
+    }
+
+    /**
+     * 所有候选 stub 读取同一个 {@link RequestView}，请求体、JSON、表单与请求头在一次匹配内只解析一次
+     */
+    @Override
+    public Stream<StubMapping> findAllMatchingRequest(Request request,
+            Map<String, RequestMatcherExtension> customMatchers, Consumer<SubEvent> subEventConsumer) {
+        RequestView view = RequestView.of(request);
+        return getAll()
+                .filter(stub -> {
+                    MatchResult result = view.match(stub.getRequest(), customMatchers);
+                    result.getSubEvents().forEach(subEventConsumer);
+                    return result.isExactMatch();
+                });
+    }
+
+    @Override
+    public Optional<StubMapping> get(UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    @Override
+    public synchronized void add(StubMapping stub) {
+        stub.setInsertionIndex(insertionCount.getAndIncrement());
+        StubMapping previous = byId.put(stub.getId(), stub);
+        if (previous != null) {
+            sorted.remove(previous);
+        }
+        sorted.add(stub);
+    }
+
+    @Override
+    public synchronized void replace(StubMapping existing, StubMapping updated) {
+        if (!sorted.remove(existing)) {
+            return;
+        }
+        byId.remove(existing.getId());
+        byId.put(updated.getId(), updated);
+        sorted.add(updated);
+    }
+
+    @Override
+    public synchronized void remove(StubMapping stub) {
+        StubMapping existing = stub.getId() != null ? byId.remove(stub.getId()) : null;
+        if (existing != null) {
+            sorted.remove(existing);
+            return;
+        }
+        // 与 WireMock 默认行为保持一致：UUID 未命中时按请求模式删除
+        sorted.removeIf(candidate -> {
+            if (stub.getRequest().equals(candidate.getRequest())) {
+                byId.remove(candidate.getId());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public synchronized void clear() {
+        sorted.clear();
+        byId.clear();
+    }
+}
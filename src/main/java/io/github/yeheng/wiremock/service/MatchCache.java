@@ -0,0 +1,219 @@
+package io.github.yeheng.wiremock.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+
+/**
+ * 单个命名空间的匹配结果缓存
+ * 按请求指纹（方法、URL、stub 匹配用到的请求头、请求体）缓存匹配引擎返回的原始响应，未匹配的结果同样缓存；
+ * 重复的请求直接取缓存，不再经过 WireMock 匹配。模板渲染、数据集查找、场景迁移与限速仍在命中缓存后逐个请求执行。
+ *
+ * stub 集合变更期间不读写缓存，变更结束后版本号加一，缓存整体作废，下一个请求按新的 stub 集合重建指纹所需的请求头；
+ * 存在依赖场景状态匹配的 stub 时，同一请求的匹配结果会随状态变化，整个命名空间不使用缓存
+ */
+public final class MatchCache {
+
+    private final int maxEntries;
+    private final Map<String, Dependencies> dependencies = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicInteger updating = new AtomicInteger();
+    private volatile Generation generation = new Generation(-1, false, new String[0], false);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder overflow = new LongAdder();
+
+    /**
+     * @param maxEntries 每个版本最多缓存的指纹数，超出后新的指纹不再缓存，直到 stub 集合变更
+     */
+    public MatchCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 记录 stub 的匹配依赖，替换同一 key 之前的记录；只能在 {@link #beginUpdate()} 与 {@link #endUpdate()} 之间调用
+     */
+    public void track(String stubKey, Dependencies stubDependencies) {
+        dependencies.put(stubKey, stubDependencies);
+    }
+
+    public void untrack(String stubKey) {
+        dependencies.remove(stubKey);
+    }
+
+    public void clear() {
+        dependencies.clear();
+    }
+
+    /**
+     * 开始变更 stub 集合，可以嵌套；变更结束前的请求直接匹配
+     */
+    public void beginUpdate() {
+        updating.incrementAndGet();
+    }
+
+    /**
+     * 变更已发布到匹配引擎，之前缓存的结果全部作废
+     */
+    public void endUpdate() {
+        version.incrementAndGet();
+        updating.decrementAndGet();
+    }
+
+    /**
+     * 返回请求的缓存结果，未缓存时调用 matcher 匹配并缓存
+     */
+    public Response get(Request request, Function<Request, Response> matcher) {
+        if (updating.get() > 0) {
+            bypassed.increment();
+            return matcher.apply(request);
+        }
+        Generation current = current();
+        if (!current.enabled()) {
+            bypassed.increment();
+            return matcher.apply(request);
+        }
+        Fingerprint fingerprint = current.fingerprint(request);
+        Response cached = current.entries().get(fingerprint);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Response response = matcher.apply(request);
+        // 匹配期间 stub 集合变更时结果写入已作废的版本，不会被读到
+        if (current.entries().size() < maxEntries) {
+            current.entries().putIfAbsent(fingerprint, response);
+        } else {
+            overflow.increment();
+        }
+        return response;
+    }
+
+    private Generation current() {
+        Generation current = generation;
+        long latest = version.get();
+        if (current.version() == latest) {
+            return current;
+        }
+        synchronized (this) {
+            current = generation;
+            latest = version.get();
+            if (current.version() != latest) {
+                current = build(latest);
+                generation = current;
+            }
+            return current;
+        }
+    }
+
+    private Generation build(long buildVersion) {
+        Set<String> headers = new TreeSet<>();
+        boolean body = false;
+        boolean stateful = false;
+        for (Dependencies stub : dependencies.values()) {
+            headers.addAll(stub.headers());
+            body |= stub.body();
+            stateful |= stub.stateful();
+        }
+        return new Generation(buildVersion, !stateful, headers.toArray(String[]::new), body);
+    }
+
+    public Stats stats() {
+        Generation current = generation;
+        return new Stats(current.version() == version.get() ? current.entries().size() : 0,
+                hits.sum(), misses.sum(), bypassed.sum(), overflow.sum());
+    }
+
+    /**
+     * 一个 stub 的匹配结果取决于哪些请求内容
+     *
+     * @param headers  匹配规则引用的请求头名（小写）
+     * @param body     是否匹配请求体
+     * @param stateful 是否按场景状态匹配
+     */
+    public record Dependencies(Set<String> headers, boolean body, boolean stateful) {
+    }
+
+    /**
+     * 缓存统计；entries 为当前版本的指纹数
+     */
+    public record Stats(int entries, long hits, long misses, long bypassed, long overflow) {
+    }
+
+    /**
+     * 一个 stub 集合版本的缓存，headers 为该版本下进入指纹的请求头
+     */
+    private record Generation(long version, boolean enabled, String[] headers, boolean body,
+            Map<Fingerprint, Response> entries) {
+
+        Generation(long version, boolean enabled, String[] headers, boolean body) {
+            this(version, enabled, headers, body, new ConcurrentHashMap<>());
+        }
+
+        Fingerprint fingerprint(Request request) {
+            List<String> values = new ArrayList<>(headers.length);
+            for (String name : headers) {
+                HttpHeader header = request.header(name);
+                values.add(header != null && header.isPresent() ? String.join("\n", header.values()) : null);
+            }
+            byte[] content = body ? request.getBody() : null;
+            return new Fingerprint(request.getMethod().getName(), request.getUrl(), values,
+                    content, content != null ? hash(content) : 0);
+        }
+    }
+
+    /**
+     * 请求指纹；请求体的 64 位哈希只用于散列与快速排除，哈希相同时逐字节比较请求体，避免哈希冲突时返回其他请求的匹配结果
+     */
+    record Fingerprint(String method, String url, List<String> headers, byte[] body, long bodyHash) {
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Fingerprint other
+                    && bodyHash == other.bodyHash
+                    && method.equals(other.method)
+                    && url.equals(other.url)
+                    && headers.equals(other.headers)
+                    && Arrays.equals(body, other.body);
+        }
+
+        @Override
+        public int hashCode() {
+            return (Objects.hash(method, url, headers) * 31) + Long.hashCode(bodyHash);
+        }
+
+        @Override
+        public String toString() {
+            return "Fingerprint[" + method + " " + url + ", headers=" + headers
+                    + ", bodyLength=" + (body != null ? body.length : -1) + "]";
+        }
+    }
+
+    /**
+     * FNV-1a 64 位哈希
+     */
+    static long hash(byte[] content) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : content) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
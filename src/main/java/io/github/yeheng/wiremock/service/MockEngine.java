@@ -0,0 +1,664 @@
+package io.github.yeheng.wiremock.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.direct.DirectCallHttpServer;
+import com.github.tomakehurst.wiremock.direct.DirectCallHttpServerFactory;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.store.Stores;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.verification.notmatched.NotMatchedRenderer;
+
+import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.exception.BusinessException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 单个命名空间的匹配引擎
+ * 每个命名空间拥有独立的 WireMockServer 与 DirectCallHttpServer，
+ * 请求只在本命名空间的 stub 中匹配，重载、重置与统计互不影响
+ *
+ * 分片模式（shardCount > 1）下 stub 按路由键（HTTP 方法 + 第一段路径）分布到多个 WireMockServer，
+ * 写操作只在所属分片内加锁与排序；无法路由的 stub（ANY 方法、CONTAINS/REGEX、首段含变量等）进入兜底分片。
+ * 请求先在路由分片中匹配，未命中再到兜底分片匹配；兜底分片中存在优先级更高的 stub 时也会再匹配一次，
+ * 保证跨分片的优先级语义与单引擎一致
+ */
+@Slf4j
+public class MockEngine {
+
+    static final String MATCHED_STUB_HEADER = "Matched-Stub-Id";
+
+    /**
+     * 路由分片未命中时不做近似匹配分析，请求随后会交给兜底分片
+     */
+    private static final NotMatchedRenderer SHARD_MISS = new NotMatchedRenderer() {
+        @Override
+        protected ResponseDefinition render(Admin admin, ServeEvent serveEvent) {
+            return ResponseDefinition.notConfigured();
+        }
+    };
+
+    @Getter
+    private final String namespace;
+    private final StubMappingConverter stubMappingConverter;
+    private final Map<String, Placement> stubs = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder unmatched = new LongAdder();
+
+    private final Shard catchAll;
+    private final Shard[] shards;
+    private final int compressionMinSize;
+    /**
+     * 匹配结果缓存，未启用时为 null
+     */
+    private final MatchCache matchCache;
+    /**
+     * 兜底分片中各优先级的 stub 数量，用于判断是否需要再到兜底分片匹配
+     */
+    private final ConcurrentSkipListMap<Integer, Integer> catchAllPriorities = new ConcurrentSkipListMap<>();
+
+    public MockEngine(String namespace, StubMappingConverter stubMappingConverter,
+            NotMatchedRenderer notMatchedRenderer) {
+        this(namespace, stubMappingConverter, notMatchedRenderer, 1);
+    }
+
+    public MockEngine(String namespace, StubMappingConverter stubMappingConverter,
+            NotMatchedRenderer notMatchedRenderer, int shardCount) {
+        this(namespace, stubMappingConverter, notMatchedRenderer, shardCount, -1);
+    }
+
+    /**
+     * @param compressionMinSize 静态响应体不小于该字节数时预压缩，负数表示不压缩
+     */
+    public MockEngine(String namespace, StubMappingConverter stubMappingConverter,
+            NotMatchedRenderer notMatchedRenderer, int shardCount, int compressionMinSize) {
+        this(namespace, stubMappingConverter, notMatchedRenderer, shardCount, compressionMinSize, 0);
+    }
+
+    /**
+     * @param matchCacheSize 匹配结果缓存的最大条数，小于等于 0 表示不缓存
+     */
+    public MockEngine(String namespace, StubMappingConverter stubMappingConverter,
+            NotMatchedRenderer notMatchedRenderer, int shardCount, int compressionMinSize, int matchCacheSize) {
+        this.namespace = namespace;
+        this.compressionMinSize = compressionMinSize;
+        this.matchCache = matchCacheSize > 0 ? new MatchCache(matchCacheSize) : null;
+        this.stubMappingConverter = stubMappingConverter;
+        this.catchAll = new Shard("catch-all", notMatchedRenderer);
+        this.shards = new Shard[shardCount > 1 ? shardCount : 0];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard("shard-" + i, SHARD_MISS);
+        }
+    }
+
+    public void start() {
+        catchAll.start();
+    }
+
+    public void stop() {
+        beginUpdate();
+        try {
+            stubs.clear();
+            catchAllPriorities.clear();
+            clearMatchDependencies();
+            catchAll.stop();
+            for (Shard shard : shards) {
+                shard.stop();
+            }
+        } finally {
+            endUpdate();
+        }
+    }
+
+    public boolean isRunning() {
+        return catchAll.isRunning();
+    }
+
+    public int getShardCount() {
+        return Math.max(shards.length, 1);
+    }
+
+    /**
+     * 匹配请求并记录本命名空间的请求统计
+     */
+    public Response handle(Request request) {
+        requests.increment();
+        try {
+            return serve(request);
+        } finally {
+            DatasetStore.Binding.clearResolved();
+        }
+    }
+
+    private Response serve(Request request) {
+        Response response;
+        if (request.getUrl().startsWith("/__admin")) {
+            response = catchAll.directCallServer.adminRequest(request);
+        } else {
+            response = matchCache != null ? matchCache.get(request, this::match) : match(request);
+        }
+        String matchedId = matchedStubId(response);
+        if (matchedId == null) {
+            unmatched.increment();
+            return response;
+        }
+        Placement placement = stubs.get(matchedId);
+        if (placement == null) {
+            return response;
+        }
+        stubMappingConverter.getScenarioStateStore().advance(placement.stub(), request);
+        if (placement.dataset() != null) {
+            byte[] record = placement.dataset().lookup(request);
+            if (record != null) {
+                response = Response.Builder.like(response).but().body(record).build();
+            }
+        } else if (placement.template() != null) {
+            response = Response.Builder.like(response).but().body(placement.template().render(request)).build();
+        } else if (placement.compressed() != null) {
+            response = placement.compressed().negotiate(request, response);
+        }
+        return throttle(placement.stub(), response);
+    }
+
+    /**
+     * 按带宽限速的 stub 按实际写回的响应体（渲染或压缩之后）计算分片计划
+     */
+    private static Response throttle(StubMapping stub, Response response) {
+        Integer bytesPerSecond = stub.getThrottleBytesPerSecond();
+        byte[] body = response.getBody();
+        if (bytesPerSecond == null || bytesPerSecond <= 0 || body == null || body.length == 0) {
+            return response;
+        }
+        return Response.Builder.like(response).but()
+                .chunkedDribbleDelay(ResponseThrottler.forBandwidth(body.length, bytesPerSecond))
+                .build();
+    }
+
+    private Response match(Request request) {
+        if (shards.length == 0) {
+            return catchAll.directCallServer.stubRequest(request);
+        }
+
+        Shard shard = shards[shardIndex(routingKey(request.getMethod().getName(), request.getUrl()))];
+        if (!shard.isRunning()) {
+            return catchAll.directCallServer.stubRequest(request);
+        }
+        Response response = shard.directCallServer.stubRequest(request);
+        String matchedId = matchedStubId(response);
+        if (matchedId == null) {
+            return NearMissSampler.withRoutedShard(shard.wireMockServer,
+                    () -> catchAll.directCallServer.stubRequest(request));
+        }
+
+        // 数值越小优先级越高；只有兜底分片里可能存在更高优先级的 stub 时才再匹配一次
+        int matchedPriority = priorityOf(matchedId);
+        Integer bestCatchAll = catchAllPriorities.isEmpty() ? null : catchAllPriorities.firstKey();
+        if (bestCatchAll != null && bestCatchAll < matchedPriority) {
+            Response fallback = catchAll.directCallServer.stubRequest(request);
+            String fallbackId = matchedStubId(fallback);
+            if (fallbackId != null && priorityOf(fallbackId) < matchedPriority) {
+                return fallback;
+            }
+        }
+        return response;
+    }
+
+    private static String matchedStubId(Response response) {
+        HttpHeaders headers = response.getHeaders();
+        if (headers == null) {
+            return null;
+        }
+        var header = headers.getHeader(MATCHED_STUB_HEADER);
+        return header.isPresent() ? header.firstValue() : null;
+    }
+
+    /**
+     * 响应所命中的 stub，未命中或 stub 已被移除时返回 null
+     */
+    public StubMapping matchedStub(Response response) {
+        String matchedId = matchedStubId(response);
+        Placement placement = matchedId != null ? stubs.get(matchedId) : null;
+        return placement != null ? placement.stub() : null;
+    }
+
+    private int priorityOf(String stubId) {
+        Placement placement = stubs.get(stubId);
+        return placement != null ? placement.priority() : Integer.MAX_VALUE;
+    }
+
+    public void add(StubMapping stub) {
+        add(stub, stubMappingConverter.convert(stub), stubMappingConverter.compileTemplate(stub),
+                stubMappingConverter.bindDataset(stub));
+    }
+
+    /**
+     * 添加已转换好的映射、响应模板与数据集绑定，转换在调用方（事务内）完成，转换失败不会进入匹配引擎
+     */
+    public void add(StubMapping stub, MappingBuilder mapping, ResponseTemplate template, DatasetStore.Binding dataset) {
+        start();
+        Placement placement = place(stub, template, dataset);
+        stubMappingConverter.addDatasetMatching(mapping, dataset);
+        MatchCache.Dependencies dependencies = matchCache != null
+                ? stubMappingConverter.matchDependencies(stub)
+                : null;
+        beginUpdate();
+        try {
+            Placement previous = stubs.put(stub.getUuid(), placement);
+            if (previous != null) {
+                untrack(previous);
+                UUID id = parseUuid(stub.getUuid());
+                if (previous.shard() != placement.shard() && id != null) {
+                    previous.shard().removeStubMapping(id);
+                }
+            }
+            track(placement);
+            if (dependencies != null) {
+                matchCache.track(stub.getUuid(), dependencies);
+            }
+            if (previous != null && previous.shard() == placement.shard()) {
+                // 同一 UUID 不能重复注册，原地替换并保留插入顺序
+                placement.shard().editStubMapping(mapping);
+            } else {
+                placement.shard().stubFor(mapping);
+            }
+        } finally {
+            endUpdate();
+        }
+    }
+
+    /**
+     * 开始批量写入：各分片冻结当前匹配视图
+     */
+    public void beginBatch() {
+        beginUpdate();
+        catchAll.beginBatch();
+        for (Shard shard : shards) {
+            shard.beginBatch();
+        }
+    }
+
+    /**
+     * 结束批量写入，发布批次内的全部变更
+     */
+    public void endBatch() {
+        try {
+            catchAll.endBatch();
+            for (Shard shard : shards) {
+                shard.endBatch();
+            }
+        } finally {
+            endUpdate();
+        }
+    }
+
+    /**
+     * 按 key 删除；key 不存在时按 method + url 兜底，返回是否删除
+     */
+    public boolean remove(String stubKey, StubMapping stub) {
+        beginUpdate();
+        try {
+            return removeMapping(stubKey, stub);
+        } finally {
+            endUpdate();
+        }
+    }
+
+    private boolean removeMapping(String stubKey, StubMapping stub) {
+        List<Placement> removed = new ArrayList<>(1);
+        if (stubKey != null) {
+            Placement previous = stubs.remove(stubKey);
+            if (previous != null) {
+                removed.add(previous);
+            }
+        } else {
+            stubs.entrySet().removeIf(entry -> {
+                StubMapping s = entry.getValue().stub();
+                if (s.getUrl().equals(stub.getUrl()) && s.getMethod().equalsIgnoreCase(stub.getMethod())) {
+                    removed.add(entry.getValue());
+                    return true;
+                }
+                return false;
+            });
+        }
+        if (removed.isEmpty()) {
+            return false;
+        }
+        removed.forEach(this::untrack);
+
+        UUID id = parseUuid(stubKey);
+        if (id == null) {
+            // UUID 缺失或非法时无法精确定位，回退为重载剩余 stubs
+            log.warn("Stub UUID 不是有效格式，重载命名空间 {} 的剩余 stubs: {}", namespace, stubKey);
+            reregister();
+        } else {
+            // 按添加时记录的分片删除，实体可能已被更新为其他 URL
+            removed.get(0).shard().removeStubMapping(id);
+        }
+        if (matchCache != null) {
+            // 映射删除后再移除匹配依赖，删除完成前指纹仍包含被删 stub 用到的请求头
+            removed.forEach(placement -> matchCache.untrack(placement.stub().getUuid()));
+        }
+        return true;
+    }
+
+    private static UUID parseUuid(String stubKey) {
+        if (stubKey == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(stubKey);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void reregister() {
+        start();
+        resetMappings();
+        for (Placement placement : stubs.values()) {
+            MappingBuilder mapping = stubMappingConverter.convert(placement.stub());
+            stubMappingConverter.addDatasetMatching(mapping, placement.dataset());
+            placement.shard().stubFor(mapping);
+        }
+    }
+
+    private void resetMappings() {
+        catchAll.resetMappings();
+        for (Shard shard : shards) {
+            shard.resetMappings();
+        }
+    }
+
+    /**
+     * 清空本命名空间的映射后重新注册；保存后数据集文件被删除或改坏的 stub 跳过，不影响其余 stub
+     */
+    public void reload(List<StubMapping> newStubs) {
+        start();
+        beginUpdate();
+        try {
+            stubs.clear();
+            catchAllPriorities.clear();
+            resetMappings();
+            clearMatchDependencies();
+            for (StubMapping stub : newStubs) {
+                DatasetStore.Binding dataset;
+                try {
+                    dataset = stubMappingConverter.bindDataset(stub);
+                } catch (BusinessException e) {
+                    log.warn("命名空间 {} 重载时跳过数据集无效的 stub: {}", namespace, stub.getName());
+                    continue;
+                }
+                add(stub, stubMappingConverter.convert(stub), stubMappingConverter.compileTemplate(stub), dataset);
+            }
+        } finally {
+            endUpdate();
+        }
+    }
+
+    /**
+     * 重置本命名空间：清空映射、请求日志、统计与场景状态
+     */
+    public void reset() {
+        beginUpdate();
+        try {
+            stubs.clear();
+            stubMappingConverter.getScenarioStateStore().reset(namespace);
+            catchAllPriorities.clear();
+            clearMatchDependencies();
+            catchAll.resetAll();
+            for (Shard shard : shards) {
+                shard.resetAll();
+            }
+            requests.reset();
+            unmatched.reset();
+        } finally {
+            endUpdate();
+        }
+    }
+
+    public List<StubMapping> getStubs() {
+        List<StubMapping> result = new ArrayList<>(stubs.size());
+        for (Placement placement : stubs.values()) {
+            result.add(placement.stub());
+        }
+        return result;
+    }
+
+    public int getStubCount() {
+        return stubs.size();
+    }
+
+    public NamespaceStats stats() {
+        long total = requests.sum();
+        long missed = unmatched.sum();
+        return new NamespaceStats(namespace, stubs.size(), total, total - missed, missed,
+                matchCache != null ? matchCache.stats() : null);
+    }
+
+    /**
+     * 匹配引擎的变更期间不使用匹配结果缓存，变更结束后缓存整体作废
+     */
+    private void beginUpdate() {
+        if (matchCache != null) {
+            matchCache.beginUpdate();
+        }
+    }
+
+    private void endUpdate() {
+        if (matchCache != null) {
+            matchCache.endUpdate();
+        }
+    }
+
+    private void clearMatchDependencies() {
+        if (matchCache != null) {
+            matchCache.clear();
+        }
+    }
+
+    private Placement place(StubMapping stub, ResponseTemplate template, DatasetStore.Binding dataset) {
+        int priority = stub.getPriority() != null ? stub.getPriority() : 0;
+        String key = shards.length == 0 ? null : routingKey(stub);
+        Shard shard = key == null ? catchAll : shards[shardIndex(key)];
+        BlobStore.Payload body = stubMappingConverter.responseBody(stub);
+        BlobStore.Payload bodyPattern = stubMappingConverter.bodyPattern(stub);
+        // 实体改为引用共享的文本，相同内容的 stub 在引擎中只保留一份
+        if (body != null) {
+            stub.setResponseDefinition(body.text());
+        }
+        if (bodyPattern != null) {
+            stub.setRequestBodyPattern(bodyPattern.text());
+        }
+        return new Placement(stub, shard, priority, template, dataset, body, bodyPattern,
+                template == null && dataset == null ? precompress(body) : null);
+    }
+
+    private PrecompressedBody precompress(BlobStore.Payload body) {
+        if (compressionMinSize < 0 || body == null) {
+            return null;
+        }
+        return body.derive("precompressed:" + compressionMinSize,
+                p -> PrecompressedBody.of(p.bytes(), compressionMinSize));
+    }
+
+    private void track(Placement placement) {
+        if (placement.shard() == catchAll) {
+            catchAllPriorities.merge(placement.priority(), 1, Integer::sum);
+        }
+    }
+
+    private void untrack(Placement placement) {
+        if (placement.shard() == catchAll) {
+            catchAllPriorities.computeIfPresent(placement.priority(), (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private int shardIndex(String routingKey) {
+        return Math.floorMod(routingKey.hashCode(), shards.length);
+    }
+
+    /**
+     * stub 的路由键；只有方法确定且第一段路径为字面量的 stub 可以路由，否则返回 null 进入兜底分片
+     */
+    static String routingKey(StubMapping stub) {
+        String method = stub.getMethod() != null ? stub.getMethod().trim().toUpperCase() : null;
+        if (method == null || method.isEmpty() || "ANY".equals(method)) {
+            return null;
+        }
+        StubMapping.UrlMatchType matchType = stub.getUrlMatchType() != null
+                ? stub.getUrlMatchType()
+                : StubMapping.UrlMatchType.EQUALS;
+        if (matchType != StubMapping.UrlMatchType.EQUALS && matchType != StubMapping.UrlMatchType.PATH_TEMPLATE) {
+            return null;
+        }
+        String url = stub.getUrl();
+        if (url == null || !url.startsWith("/")) {
+            return null;
+        }
+        String segment = firstSegment(url);
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            // 变量、编码字符与非 ASCII 字符可能与请求中的形式不同，交给兜底分片
+            if (c == '{' || c == '%' || c > 0x7e) {
+                return null;
+            }
+        }
+        return method + ' ' + segment;
+    }
+
+    /**
+     * 请求的路由键，只扫描第一段路径
+     */
+    static String routingKey(String method, String url) {
+        return method + ' ' + (url.startsWith("/") ? firstSegment(url) : "");
+    }
+
+    private static String firstSegment(String url) {
+        int end = 1;
+        while (end < url.length()) {
+            char c = url.charAt(end);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            end++;
+        }
+        return url.substring(1, end);
+    }
+
+    /**
+     * stub 所在分片与添加时的优先级；持有共享的响应体与请求体匹配规则，使其在 stub 注册期间不被回收
+     */
+    private record Placement(StubMapping stub, Shard shard, int priority, ResponseTemplate template,
+            DatasetStore.Binding dataset, BlobStore.Payload body, BlobStore.Payload bodyPattern,
+            PrecompressedBody compressed) {
+    }
+
+    /**
+     * 一个分片：独立的 WireMockServer，首次写入时启动
+     */
+    private static final class Shard {
+
+        private final String name;
+        private final NotMatchedRenderer notMatchedRenderer;
+        private volatile WireMockServer wireMockServer;
+        private volatile DirectCallHttpServer directCallServer;
+        private volatile IndexedStubMappingStore store;
+
+        Shard(String name, NotMatchedRenderer notMatchedRenderer) {
+            this.name = name;
+            this.notMatchedRenderer = notMatchedRenderer;
+        }
+
+        synchronized void start() {
+            if (isRunning()) {
+                return;
+            }
+            DirectCallHttpServerFactory factory = new DirectCallHttpServerFactory();
+            WireMockConfiguration config = WireMockConfiguration.options().dynamicPort()
+                    .httpServerFactory(factory)
+                    .notMatchedRendererFactory(extensions -> notMatchedRenderer);
+            Stores stores = IndexedStubMappingStore.stores(config.filesRoot());
+            config.withStores(stores);
+            store = (IndexedStubMappingStore) stores.getStubStore();
+            WireMockServer server = new WireMockServer(config);
+            server.start();
+            directCallServer = factory.getHttpServer();
+            wireMockServer = server;
+            log.debug("WireMockServer 分片 {} 已启动", name);
+        }
+
+        synchronized void stop() {
+            if (isRunning()) {
+                wireMockServer.stop();
+            }
+        }
+
+        boolean isRunning() {
+            WireMockServer server = wireMockServer;
+            return server != null && server.isRunning();
+        }
+
+        void beginBatch() {
+            IndexedStubMappingStore current = store;
+            if (current != null) {
+                current.beginBatch();
+            }
+        }
+
+        void endBatch() {
+            IndexedStubMappingStore current = store;
+            if (current != null) {
+                current.endBatch();
+            }
+        }
+
+        void stubFor(MappingBuilder mapping) {
+            start();
+            wireMockServer.stubFor(mapping);
+        }
+
+        void editStubMapping(MappingBuilder mapping) {
+            start();
+            wireMockServer.editStubMapping(mapping.build());
+        }
+
+        void removeStubMapping(UUID id) {
+            if (isRunning()) {
+                wireMockServer.removeStubMapping(id);
+            }
+        }
+
+        void resetMappings() {
+            if (isRunning()) {
+                wireMockServer.resetMappings();
+            }
+        }
+
+        void resetAll() {
+            if (isRunning()) {
+                wireMockServer.resetAll();
+            }
+        }
+    }
+
+    /**
+     * 命名空间统计；未启用匹配结果缓存时 matchCache 为 null
+     */
+    public record NamespaceStats(String namespace, int stubs, long requests, long matched, long unmatched,
+            MatchCache.Stats matchCache) {
+    }
+}
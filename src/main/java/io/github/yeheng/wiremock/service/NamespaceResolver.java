@@ -0,0 +1,89 @@
+package io.github.yeheng.wiremock.service;
+
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 为 mock 请求选择命名空间
+ * 优先级：请求头 > Host 映射 > 路径前缀（/ns/{namespace}/...，匹配前去掉前缀）> 默认命名空间
+ */
+@Component
+@RequiredArgsConstructor
+public class NamespaceResolver {
+
+    private static final Pattern VALID_NAMESPACE = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,99}");
+
+    private final WireMockProperties properties;
+
+    public static boolean isValid(String namespace) {
+        return namespace != null && VALID_NAMESPACE.matcher(namespace).matches();
+    }
+
+    /**
+     * 空值归一为默认命名空间，非法名称抛出 IllegalArgumentException
+     */
+    public static String normalize(String namespace) {
+        if (namespace == null || namespace.isBlank()) {
+            return StubMapping.DEFAULT_NAMESPACE;
+        }
+        String trimmed = namespace.trim();
+        if (!isValid(trimmed)) {
+            throw new IllegalArgumentException("命名空间名称无效: " + namespace);
+        }
+        return trimmed;
+    }
+
+    public Resolution resolve(HttpServletRequest request) {
+        return resolve(request.getHeader(headerName()), request.getServerName(), request.getRequestURI());
+    }
+
+    /**
+     * 指定命名空间的请求头名称
+     */
+    public String headerName() {
+        return properties.getNamespaces().getHeader();
+    }
+
+    /**
+     * 按请求头取值、主机名与原始路径选择命名空间，供不经过 servlet 的请求入口使用
+     */
+    public Resolution resolve(String namespaceHeader, String host, String uri) {
+        WireMockProperties.Namespaces config = properties.getNamespaces();
+
+        if (isValid(namespaceHeader)) {
+            return new Resolution(namespaceHeader, null);
+        }
+
+        if (host != null && !config.getHosts().isEmpty()) {
+            String mapped = config.getHosts().get(host.toLowerCase());
+            if (mapped != null) {
+                return new Resolution(mapped, null);
+            }
+        }
+
+        String prefix = config.getPathPrefix();
+        if (prefix != null && !prefix.isEmpty() && uri != null) {
+            if (uri.startsWith(prefix)) {
+                int end = uri.indexOf('/', prefix.length());
+                String candidate = end < 0 ? uri.substring(prefix.length()) : uri.substring(prefix.length(), end);
+                if (isValid(candidate)) {
+                    return new Resolution(candidate, prefix + candidate);
+                }
+            }
+        }
+
+        return new Resolution(StubMapping.DEFAULT_NAMESPACE, null);
+    }
+
+    /**
+     * 解析结果，strippedPrefix 为匹配前需要从路径中去掉的前缀
+     */
+    public record Resolution(String namespace, String strippedPrefix) {
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.yeheng.wiremock.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.github.tomakehurst.wiremock.verification.NearMiss;
+import com.github.tomakehurst.wiremock.verification.notmatched.NotMatchedRenderer;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 未匹配请求的采样式近似匹配分析
+ * 替换 WireMock 默认的 NotMatchedRenderer：默认实现会在请求线程上对所有 stub 打分计算近似匹配，
+ * 这里直接返回 404，只把采样到的请求交给后台单线程分析，结果保存在有界的内存队列中。
+ *
+ * 开启分片时渲染器挂在兜底分片上；请求先在路由分片未命中再转到兜底分片时，
+ * 分析同时在路由分片的 stub 中查找，合并两边的结果后按距离取最接近的几个
+ */
+@Slf4j
+@Component
+public class NearMissSampler extends NotMatchedRenderer {
+
+    private static final ResponseDefinition NOT_MATCHED = ResponseDefinitionBuilder.responseDefinition()
+            .withStatus(404)
+            .build();
+
+    /**
+     * 每个请求保留的近似匹配数，与 WireMock 相同
+     */
+    private static final int MAX_NEAR_MISSES = 3;
+
+    /**
+     * 当前线程上已经未命中的路由分片
+     */
+    private static final ThreadLocal<Admin> ROUTED_SHARD = new ThreadLocal<>();
+
+    private final WireMockProperties.NearMiss config;
+    private final ThreadPoolExecutor executor;
+    private final Deque<NearMissReport> reports = new ArrayDeque<>();
+    private final LongAdder unmatched = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public NearMissSampler(WireMockProperties properties) {
+        this.config = properties.getNearMiss();
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(config.getQueueSize(), 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "near-miss-analyzer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> dropped.increment());
+    }
+
+    /**
+     * 路由分片未命中后在兜底分片中匹配；兜底分片也未命中且被采样时，近似匹配同时覆盖路由分片的 stub
+     */
+    public static <T> T withRoutedShard(Admin routedShard, Supplier<T> fallback) {
+        ROUTED_SHARD.set(routedShard);
+        try {
+            return fallback.get();
+        } finally {
+            ROUTED_SHARD.remove();
+        }
+    }
+
+    @Override
+    protected ResponseDefinition render(Admin admin, ServeEvent serveEvent) {
+        unmatched.increment();
+        if (shouldSample()) {
+            LoggedRequest request = serveEvent.getRequest();
+            Admin routedShard = ROUTED_SHARD.get();
+            executor.execute(() -> analyze(admin, routedShard, request));
+        }
+        return NOT_MATCHED;
+    }
+
+    private boolean shouldSample() {
+        double rate = config.getSampleRate();
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void analyze(Admin admin, Admin routedShard, LoggedRequest request) {
+        try {
+            List<NearMiss> nearMisses = new ArrayList<>(admin.findTopNearMissesFor(request).getNearMisses());
+            if (routedShard != null) {
+                nearMisses.addAll(routedShard.findTopNearMissesFor(request).getNearMisses());
+                nearMisses.sort(Comparator.comparingDouble(nearMiss -> nearMiss.getMatchResult().getDistance()));
+                if (nearMisses.size() > MAX_NEAR_MISSES) {
+                    nearMisses = nearMisses.subList(0, MAX_NEAR_MISSES);
+                }
+            }
+            List<Candidate> candidates = new ArrayList<>(nearMisses.size());
+            for (NearMiss nearMiss : nearMisses) {
+                var stub = nearMiss.getStubMapping();
+                candidates.add(new Candidate(
+                        stub != null && stub.getId() != null ? stub.getId().toString() : null,
+                        stub != null ? stub.getName() : null,
+                        nearMiss.getMatchResult().getDistance()));
+            }
+            store(new NearMissReport(LocalDateTime.now(), request.getMethod().getName(), request.getUrl(),
+                    candidates));
+        } catch (Exception e) {
+            log.warn("近似匹配分析失败: {} {}", request.getMethod(), request.getUrl(), e);
+        }
+    }
+
+    private synchronized void store(NearMissReport report) {
+        reports.addFirst(report);
+        while (reports.size() > config.getCapacity()) {
+            reports.removeLast();
+        }
+    }
+
+    /**
+     * 最近的分析结果，最新的在前
+     */
+    public synchronized List<NearMissReport> getReports() {
+        return new ArrayList<>(reports);
+    }
+
+    public synchronized void clear() {
+        reports.clear();
+    }
+
+    public long getUnmatchedCount() {
+        return unmatched.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 一次未匹配请求的分析结果
+     */
+    public record NearMissReport(LocalDateTime timestamp, String method, String url, List<Candidate> nearMisses) {
+    }
+
+    /**
+     * 近似匹配候选，distance 越小越接近
+     */
+    public record Candidate(String stubId, String stubName, double distance) {
+    }
+}
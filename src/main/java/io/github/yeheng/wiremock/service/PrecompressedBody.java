@@ -0,0 +1,130 @@
+package io.github.yeheng.wiremock.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+
+/**
+ * 静态响应体的预压缩版本
+ * 注册 stub 时按 gzip 与 deflate 各压缩一次，请求时只按 Accept-Encoding 选择已有的字节，不再重复压缩。
+ * 压缩后不比原文小的编码不保留
+ */
+public final class PrecompressedBody {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    private static final HttpHeader VARY = new HttpHeader("Vary", "Accept-Encoding");
+
+    private final byte[] gzip;
+    private final byte[] deflate;
+    private final HttpHeader identityLength;
+
+    private PrecompressedBody(byte[] raw, byte[] gzip, byte[] deflate) {
+        this.gzip = gzip;
+        this.deflate = deflate;
+        this.identityLength = contentLength(raw.length);
+    }
+
+    /**
+     * 原文不小于 minSize 且至少一种编码能变小时返回预压缩结果，否则返回 null
+     */
+    public static PrecompressedBody of(byte[] raw, int minSize) {
+        if (raw == null || minSize < 0 || raw.length < minSize) {
+            return null;
+        }
+        byte[] gzip = smaller(compress(raw, true), raw);
+        byte[] deflate = smaller(compress(raw, false), raw);
+        return gzip == null && deflate == null ? null : new PrecompressedBody(raw, gzip, deflate);
+    }
+
+    private static byte[] smaller(byte[] compressed, byte[] raw) {
+        return compressed.length < raw.length ? compressed : null;
+    }
+
+    private static byte[] compress(byte[] raw, boolean gzip) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try (OutputStream stream = gzip ? new GZIPOutputStream(out) : new DeflaterOutputStream(out)) {
+            stream.write(raw);
+        } catch (IOException e) {
+            throw new IllegalStateException("压缩响应体失败", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 按请求的 Accept-Encoding 替换响应体，并补充 Vary、Content-Encoding 与 Content-Length
+     */
+    public Response negotiate(Request request, Response response) {
+        String encoding = preferredEncoding(request.getHeader("Accept-Encoding"), gzip != null, deflate != null);
+        HttpHeaders headers = response.getHeaders() != null ? response.getHeaders() : HttpHeaders.noHeaders();
+        if (encoding == null) {
+            return Response.Builder.like(response).but()
+                    .headers(headers.plus(VARY, identityLength))
+                    .build();
+        }
+        byte[] body = GZIP.equals(encoding) ? gzip : deflate;
+        return Response.Builder.like(response).but()
+                .headers(headers.plus(VARY, new HttpHeader("Content-Encoding", encoding), contentLength(body.length)))
+                .body(body)
+                .build();
+    }
+
+    private static HttpHeader contentLength(int length) {
+        return new HttpHeader("Content-Length", Integer.toString(length));
+    }
+
+    /**
+     * 解析 Accept-Encoding（含 q 值与 *），返回可用编码中权重最高的一个；同权重时优先 gzip，都不可用时返回 null
+     */
+    static String preferredEncoding(String acceptEncoding, boolean gzipAvailable, boolean deflateAvailable) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        double gzipQ = -1;
+        double deflateQ = -1;
+        double wildcardQ = -1;
+        for (String item : acceptEncoding.split(",")) {
+            String[] parts = item.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            switch (coding) {
+                case GZIP, "x-gzip" -> gzipQ = Math.max(gzipQ, q);
+                case DEFLATE -> deflateQ = Math.max(deflateQ, q);
+                case "*" -> wildcardQ = Math.max(wildcardQ, q);
+                default -> {
+                }
+            }
+        }
+        // 未显式列出的编码按 * 的权重处理
+        if (gzipQ < 0) {
+            gzipQ = wildcardQ;
+        }
+        if (deflateQ < 0) {
+            deflateQ = wildcardQ;
+        }
+        double gzipWeight = gzipAvailable ? gzipQ : -1;
+        double deflateWeight = deflateAvailable ? deflateQ : -1;
+        if (gzipWeight <= 0 && deflateWeight <= 0) {
+            return null;
+        }
+        return gzipWeight >= deflateWeight ? GZIP : DEFLATE;
+    }
+}
@@ -0,0 +1,408 @@
+package io.github.yeheng.wiremock.service;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 录制回放代理
+ * 未匹配任何 stub 的 mock 请求转发到上游，上游响应原样返回；
+ * 状态为 200 且响应体为 JSON 的响应录制为 stub（方法 + 路径 EQUALS，查询参数逐个按 equalTo 匹配），
+ * 之后相同路径与查询参数的请求直接由 stub 响应。
+ *
+ * 转发使用 JDK 异步 HttpClient，同一上游的连接由客户端复用；原生 Undertow 入口不阻塞 IO 线程。
+ * 录制不在请求路径上写库：响应到达后只做去重、限速与入队（队列满时丢弃），
+ * 由定时任务批量交给 {@link StubMappingService#createStubs} 保存
+ */
+@Slf4j
+@Component
+public class ProxyRecorder {
+
+    /**
+     * 不转发的请求头：连接级请求头、由客户端生成的请求头，以及 Accept-Encoding（保证录制到未压缩的响应体）
+     */
+    private static final Set<String> SKIPPED_REQUEST_HEADERS = Set.of(
+            "host", "connection", "keep-alive", "proxy-connection", "transfer-encoding", "te", "trailer",
+            "upgrade", "content-length", "expect", "http2-settings", "accept-encoding");
+
+    /**
+     * 不回写的响应头：连接级响应头与长度，长度由响应写回时按响应体重新设置
+     */
+    private static final Set<String> SKIPPED_RESPONSE_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-connection", "transfer-encoding", "upgrade", "content-length");
+
+    /**
+     * 去重集合的上限，超过后清空重来（数据库层面仍按命名空间 + method + url + 查询参数规则跳过已存在的 stub）
+     */
+    private static final int MAX_TRACKED_KEYS = 100_000;
+
+    private static final byte[] BAD_GATEWAY_BODY = "{\"error\": \"Bad Gateway\", \"message\": \"上游请求失败\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final WireMockProperties.Proxy config;
+    private final ObjectProvider<StubMappingService> stubMappingService;
+    private final ObjectMapper objectMapper;
+    private final String targetUrl;
+    private final HttpClient httpClient;
+    private final BlockingQueue<Recording> queue;
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder upstreamErrors = new LongAdder();
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile long rateWindow;
+    private final AtomicInteger rateCount = new AtomicInteger();
+
+    public ProxyRecorder(WireMockProperties properties, ObjectProvider<StubMappingService> stubMappingService,
+            ObjectMapper objectMapper) {
+        this.config = properties.getProxy();
+        this.stubMappingService = stubMappingService;
+        this.objectMapper = objectMapper;
+        String target = config.getTargetUrl() != null ? config.getTargetUrl().trim() : "";
+        if (config.isEnabled() && !target.startsWith("http://") && !target.startsWith("https://")) {
+            throw new IllegalArgumentException("启用代理时必须配置 http(s) 上游地址: " + config.getTargetUrl());
+        }
+        this.targetUrl = target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+        this.httpClient = config.isEnabled()
+                ? HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMs()))
+                        .followRedirects(HttpClient.Redirect.NEVER)
+                        .build()
+                : null;
+        this.queue = new ArrayBlockingQueue<>(Math.max(config.getQueueSize(), 1));
+        if (config.isEnabled()) {
+            log.info("未匹配的 mock 请求将转发到 {}，录制: {}", targetUrl, config.isRecord());
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * 响应是否为未匹配任何 stub 的 404，且需要转发到上游
+     */
+    public boolean shouldForward(Response response) {
+        if (!config.isEnabled() || response.getStatus() != 404) {
+            return false;
+        }
+        HttpHeaders headers = response.getHeaders();
+        return headers == null || !headers.getHeader(MockEngine.MATCHED_STUB_HEADER).isPresent();
+    }
+
+    /**
+     * 异步转发到上游；上游不可用或超时时以 502 完成，不会异常完成
+     */
+    public CompletableFuture<Response> forward(String namespace, Request request) {
+        forwarded.increment();
+        HttpRequest upstream;
+        try {
+            upstream = toUpstream(request);
+        } catch (IllegalArgumentException e) {
+            upstreamErrors.increment();
+            log.debug("无法构造上游请求: {} {}: {}", request.getMethod(), request.getUrl(), e.getMessage());
+            return CompletableFuture.completedFuture(badGateway());
+        }
+        return httpClient.sendAsync(upstream, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, e) -> {
+                    if (e != null) {
+                        upstreamErrors.increment();
+                        log.debug("转发到上游失败: {} {}", request.getMethod(), request.getUrl(), e);
+                        return badGateway();
+                    }
+                    if (config.isRecord()) {
+                        record(namespace, request.getMethod().getName(), request.getUrl(), response);
+                    }
+                    return toResponse(response);
+                });
+    }
+
+    private HttpRequest toUpstream(Request request) {
+        byte[] body = request.getBody();
+        HttpRequest.BodyPublisher publisher = body == null || body.length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(body);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(targetUrl + request.getUrl()))
+                .timeout(Duration.ofMillis(config.getTimeoutMs()))
+                .method(request.getMethod().getName(), publisher);
+        HttpHeaders headers = request.getHeaders();
+        if (headers != null) {
+            for (HttpHeader header : headers.all()) {
+                if (header.key().startsWith(":")
+                        || SKIPPED_REQUEST_HEADERS.contains(header.key().toLowerCase(Locale.ROOT))) {
+                    continue;
+                }
+                for (String value : header.values()) {
+                    builder.header(header.key(), value);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static Response toResponse(HttpResponse<byte[]> upstream) {
+        List<HttpHeader> headers = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : upstream.headers().map().entrySet()) {
+            String name = entry.getKey();
+            if (name.startsWith(":") || SKIPPED_RESPONSE_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            headers.add(new HttpHeader(name, entry.getValue()));
+        }
+        return Response.response()
+                .status(upstream.statusCode())
+                .headers(new HttpHeaders(headers))
+                .body(upstream.body())
+                .build();
+    }
+
+    private static Response badGateway() {
+        return Response.response()
+                .status(502)
+                .headers(new HttpHeaders(new HttpHeader("Content-Type", "application/json;charset=UTF-8")))
+                .body(BAD_GATEWAY_BODY)
+                .build();
+    }
+
+    private void record(String namespace, String method, String url, HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200) {
+            skipped.increment();
+            return;
+        }
+        enqueue(namespace, method, url, response.body());
+    }
+
+    /**
+     * 按 命名空间 + 方法 + URL（含查询串）去重、限速后入队，不阻塞；返回是否入队
+     */
+    boolean enqueue(String namespace, String method, String url, byte[] body) {
+        String key = namespace + ' ' + method + ' ' + url;
+        if (seen.size() >= MAX_TRACKED_KEYS) {
+            seen.clear();
+        }
+        if (!seen.add(key)) {
+            deduplicated.increment();
+            return false;
+        }
+        if (!tryAcquireRate()) {
+            seen.remove(key);
+            rateLimited.increment();
+            return false;
+        }
+        if (!queue.offer(new Recording(key, namespace, method, url, body))) {
+            seen.remove(key);
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 按秒计数的录制限速
+     */
+    private boolean tryAcquireRate() {
+        int max = config.getMaxRecordsPerSecond();
+        if (max <= 0) {
+            return true;
+        }
+        long second = System.nanoTime() / 1_000_000_000L;
+        if (rateWindow != second) {
+            synchronized (rateCount) {
+                if (rateWindow != second) {
+                    rateCount.set(0);
+                    rateWindow = second;
+                }
+            }
+        }
+        return rateCount.incrementAndGet() <= max;
+    }
+
+    private static String path(String url) {
+        int query = url.indexOf('?');
+        return query >= 0 ? url.substring(0, query) : url;
+    }
+
+    /**
+     * 查询串转换为 stub 的查询参数规则 {"name": {"equalTo": "value"}}，按参数名排序，同名参数取第一个值；
+     * 没有查询参数时返回 null
+     */
+    String queryParametersPattern(String url) {
+        int start = url.indexOf('?');
+        if (start < 0 || start == url.length() - 1) {
+            return null;
+        }
+        Map<String, Map<String, String>> rules = new TreeMap<>();
+        for (String pair : url.substring(start + 1).split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String name = decode(eq >= 0 ? pair.substring(0, eq) : pair);
+            String value = eq >= 0 ? decode(pair.substring(eq + 1)) : "";
+            rules.putIfAbsent(name, Map.of("equalTo", value));
+        }
+        if (rules.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(rules);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化查询参数规则失败: " + url, e);
+        }
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    /**
+     * 定时任务：把录制队列分批保存为 stub
+     */
+    @Scheduled(fixedDelayString = "${wiremock.proxy.flush-interval-ms:500}")
+    public void scheduledFlush() {
+        if (config.isEnabled() && !queue.isEmpty()) {
+            flush();
+        }
+    }
+
+    /**
+     * 立即保存录制队列中的全部响应
+     */
+    public synchronized void flush() {
+        List<Recording> drained = new ArrayList<>();
+        while (queue.drainTo(drained, Math.max(config.getBatchSize(), 1)) > 0) {
+            List<StubMapping> batch = new ArrayList<>(drained.size());
+            List<Recording> included = new ArrayList<>(drained.size());
+            for (Recording recording : drained) {
+                StubMapping stub = toStub(recording);
+                if (stub == null) {
+                    skipped.increment();
+                } else {
+                    batch.add(stub);
+                    included.add(recording);
+                }
+            }
+            drained.clear();
+            if (!batch.isEmpty()) {
+                save(batch, included);
+            }
+        }
+    }
+
+    private void save(List<StubMapping> batch, List<Recording> included) {
+        try {
+            int saved = stubMappingService.getObject().createStubs(batch).size();
+            recorded.add(saved);
+            // 同一命名空间中已存在的 stub 由 createStubs 跳过
+            skipped.add(batch.size() - saved);
+            log.debug("已录制 {} 个代理响应，跳过已存在的 {} 个", saved, batch.size() - saved);
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            // 保存失败的路径允许下次重新录制
+            for (Recording recording : included) {
+                seen.remove(recording.key());
+            }
+            log.warn("保存录制的 stub 失败，数量: {}: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 响应体不是 JSON 时返回 null（stub 的响应定义必须是 JSON）
+     */
+    private StubMapping toStub(Recording recording) {
+        String body = new String(recording.body(), StandardCharsets.UTF_8);
+        if (body.isBlank()) {
+            return null;
+        }
+        try {
+            objectMapper.readTree(body);
+        } catch (Exception e) {
+            return null;
+        }
+        String name = "Recorded " + recording.method() + " " + recording.url();
+        StubMapping stub = new StubMapping();
+        stub.setName(name.length() > 200 ? name.substring(0, 200) : name);
+        stub.setDescription("录制自 " + targetUrl);
+        stub.setNamespace(recording.namespace());
+        stub.setMethod(recording.method());
+        stub.setUrl(path(recording.url()));
+        stub.setUrlMatchType(StubMapping.UrlMatchType.EQUALS);
+        stub.setQueryParametersPattern(queryParametersPattern(recording.url()));
+        stub.setEnabled(true);
+        stub.setResponseDefinition(body);
+        return stub;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!config.isEnabled() || queue.isEmpty()) {
+            return;
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("关闭时保存录制队列失败: {}", e.getMessage());
+        }
+    }
+
+    public ProxyStatus status() {
+        return new ProxyStatus(config.isEnabled(), targetUrl, config.isRecord(), forwarded.sum(),
+                upstreamErrors.sum(), recorded.sum(), deduplicated.sum(), rateLimited.sum(), dropped.sum(),
+                skipped.sum(), failed.sum(), queue.size());
+    }
+
+    private record Recording(String key, String namespace, String method, String url, byte[] body) {
+    }
+
+    /**
+     * 代理与录制统计；recorded 为实际保存的 stub 数，skipped 为非 200、非 JSON 或 stub 已存在而未录制的响应数，
+     * pending 为等待保存的录制数
+     */
+    public record ProxyStatus(boolean enabled, String targetUrl, boolean record, long forwarded,
+            long upstreamErrors, long recorded, long deduplicated, long rateLimited, long dropped,
+            long skipped, long failed, int pending) {
+    }
+}
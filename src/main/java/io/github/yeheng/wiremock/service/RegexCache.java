@@ -23,7 +23,7 @@ public class RegexCache {
         if (text == null) {
             return "";
         }
-        return URL_ESCAPE_PATTERN.matcher(text).replaceAll("\\\\$&");
+        return URL_ESCAPE_PATTERN.matcher(text).replaceAll("\\\\$0");
     }
 
     public static String convertPathTemplateToRegex(String path) {
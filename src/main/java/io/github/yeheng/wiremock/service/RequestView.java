@@ -0,0 +1,293 @@
+package io.github.yeheng.wiremock.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.JsonException;
+import com.github.tomakehurst.wiremock.common.Urls;
+import com.github.tomakehurst.wiremock.common.url.PathParams;
+import com.github.tomakehurst.wiremock.http.ContentTypeHeader;
+import com.github.tomakehurst.wiremock.http.Cookie;
+import com.github.tomakehurst.wiremock.http.FormParameter;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
+import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+
+/**
+ * 一次匹配内所有候选 stub 共享的请求视图
+ * WireMock 对每个候选 stub 分别读取请求：请求体重复解码、equalToJson 重复解析 JSON、请求头重复做大小写无关查找。
+ * 视图把请求体字符串、JSON 请求体及其规范形式、表单参数与小写请求头表各延迟计算一次，之后所有候选 stub 读取同一份结果。
+ * 视图只在单个线程的一次匹配内使用，不做同步
+ */
+public final class RequestView implements Request {
+
+    private static final ThreadLocal<RequestView> CURRENT = new ThreadLocal<>();
+
+    private final Request delegate;
+    private String bodyAsString;
+    private Object parsedJson;
+    private CanonicalJson canonicalJson;
+    private CanonicalJson canonicalJsonSortedArrays;
+    private Map<String, HttpHeader> headersByLowerCaseName;
+    private Map<String, FormParameter> formParameters;
+
+    private RequestView(Request delegate) {
+        this.delegate = delegate;
+    }
+
+    public static RequestView of(Request request) {
+        return request instanceof RequestView view ? view : new RequestView(request);
+    }
+
+    /**
+     * 当前线程正在匹配的请求视图，不在匹配过程中时为 null
+     */
+    public static RequestView current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 以本视图作为当前视图执行一次匹配
+     */
+    public MatchResult match(RequestPattern pattern, Map<String, RequestMatcherExtension> customMatchers) {
+        RequestView previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return pattern.match(this, customMatchers);
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * value 是否就是本视图的请求体字符串（同一实例），匹配器据此判断能否使用已解析的结果
+     */
+    public boolean isBody(String value) {
+        return value != null && value == bodyAsString;
+    }
+
+    /**
+     * 解析后的 JSON 请求体，只解析一次；请求体不是合法 JSON 时每次抛出同一个 JsonException
+     */
+    public JsonNode jsonBody() {
+        if (parsedJson == null) {
+            try {
+                parsedJson = Json.read(getBodyAsString(), JsonNode.class);
+            } catch (JsonException e) {
+                parsedJson = e;
+            }
+        }
+        if (parsedJson instanceof JsonException e) {
+            throw e;
+        }
+        return (JsonNode) parsedJson;
+    }
+
+    /**
+     * JSON 请求体的规范形式，按是否对数组排序各计算一次；请求体不是合法 JSON 时抛出 JsonException
+     */
+    public CanonicalJson canonicalJson(boolean sortArrays) {
+        if (sortArrays) {
+            if (canonicalJsonSortedArrays == null) {
+                canonicalJsonSortedArrays = CanonicalJson.of(jsonBody(), true);
+            }
+            return canonicalJsonSortedArrays;
+        }
+        if (canonicalJson == null) {
+            canonicalJson = CanonicalJson.of(jsonBody(), false);
+        }
+        return canonicalJson;
+    }
+
+    @Override
+    public String getBodyAsString() {
+        if (bodyAsString == null) {
+            bodyAsString = delegate.getBodyAsString();
+        }
+        return bodyAsString;
+    }
+
+    @Override
+    public HttpHeader header(String key) {
+        if (headersByLowerCaseName == null) {
+            HttpHeaders headers = delegate.getHeaders();
+            Map<String, HttpHeader> byName = new HashMap<>();
+            if (headers != null) {
+                for (HttpHeader header : headers.all()) {
+                    byName.put(header.key().toLowerCase(Locale.ROOT), header);
+                }
+            }
+            headersByLowerCaseName = byName;
+        }
+        HttpHeader header = headersByLowerCaseName.get(key.toLowerCase(Locale.ROOT));
+        return header != null ? header : HttpHeader.absent(key);
+    }
+
+    @Override
+    public String getHeader(String key) {
+        HttpHeader header = header(key);
+        return header.isPresent() ? header.firstValue() : null;
+    }
+
+    @Override
+    public boolean containsHeader(String key) {
+        return header(key).isPresent();
+    }
+
+    @Override
+    public FormParameter formParameter(String key) {
+        FormParameter parameter = formParameters().get(key);
+        return parameter != null ? parameter : FormParameter.absent(key);
+    }
+
+    /**
+     * 原始请求没有解析表单时，按 application/x-www-form-urlencoded 请求体解析一次
+     */
+    @Override
+    public Map<String, FormParameter> formParameters() {
+        if (formParameters == null) {
+            Map<String, FormParameter> parsed = delegate.formParameters();
+            if ((parsed == null || parsed.isEmpty()) && isFormUrlEncoded()) {
+                parsed = new HashMap<>();
+                for (QueryParameter parameter : Urls.splitQuery(getBodyAsString()).values()) {
+                    parsed.put(parameter.key(), new FormParameter(parameter.key(), parameter.values()));
+                }
+            }
+            formParameters = parsed != null ? parsed : Map.of();
+        }
+        return formParameters;
+    }
+
+    private boolean isFormUrlEncoded() {
+        ContentTypeHeader contentType = contentTypeHeader();
+        return contentType != null && contentType.isPresent()
+                && "application/x-www-form-urlencoded".equalsIgnoreCase(contentType.mimeTypePart())
+                && getBody() != null && getBody().length > 0;
+    }
+
+    @Override
+    public UUID getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public String getUrl() {
+        return delegate.getUrl();
+    }
+
+    @Override
+    public String getAbsoluteUrl() {
+        return delegate.getAbsoluteUrl();
+    }
+
+    @Override
+    public RequestMethod getMethod() {
+        return delegate.getMethod();
+    }
+
+    @Override
+    public String getScheme() {
+        return delegate.getScheme();
+    }
+
+    @Override
+    public String getHost() {
+        return delegate.getHost();
+    }
+
+    @Override
+    public int getPort() {
+        return delegate.getPort();
+    }
+
+    @Override
+    public String getClientIp() {
+        return delegate.getClientIp();
+    }
+
+    @Override
+    public ContentTypeHeader contentTypeHeader() {
+        return delegate.contentTypeHeader();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return delegate.getHeaders();
+    }
+
+    @Override
+    public Set<String> getAllHeaderKeys() {
+        return delegate.getAllHeaderKeys();
+    }
+
+    @Override
+    public PathParams getPathParameters() {
+        return delegate.getPathParameters();
+    }
+
+    @Override
+    public QueryParameter queryParameter(String key) {
+        return delegate.queryParameter(key);
+    }
+
+    @Override
+    public Map<String, Cookie> getCookies() {
+        return delegate.getCookies();
+    }
+
+    @Override
+    public byte[] getBody() {
+        return delegate.getBody();
+    }
+
+    @Override
+    public String getBodyAsBase64() {
+        return delegate.getBodyAsBase64();
+    }
+
+    @Override
+    public boolean isMultipart() {
+        return delegate.isMultipart();
+    }
+
+    @Override
+    public Collection<Part> getParts() {
+        return delegate.getParts();
+    }
+
+    @Override
+    public Part getPart(String name) {
+        return delegate.getPart(name);
+    }
+
+    @Override
+    public boolean isBrowserProxyRequest() {
+        return delegate.isBrowserProxyRequest();
+    }
+
+    @Override
+    public Optional<Request> getOriginalRequest() {
+        return delegate.getOriginalRequest();
+    }
+
+    @Override
+    public String getProtocol() {
+        return delegate.getProtocol();
+    }
+}
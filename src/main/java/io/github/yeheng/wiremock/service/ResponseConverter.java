@@ -1,40 +1,153 @@
 package io.github.yeheng.wiremock.service;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.github.tomakehurst.wiremock.http.HttpHeader;
 import com.github.tomakehurst.wiremock.http.HttpHeaders;
 import com.github.tomakehurst.wiremock.http.Response;
 
+import io.github.yeheng.wiremock.jfr.ResponseWriteEvent;
+import io.undertow.connector.ByteBufferPool;
+import io.undertow.connector.PooledByteBuffer;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+import io.undertow.util.Protocols;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class ResponseConverter {
 
-    private static final String NO_MATCH_MESSAGE = """
+    private static final byte[] NO_MATCH_MESSAGE = """
         {"error": "No matching stub", "status": 404, "message": "No stub matching the request was found"}
-        """;
+        """.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 响应体超过该数量的池化缓冲区时直接发送堆内数组，避免单个大响应占满缓冲池
+     */
+    private static final int MAX_POOLED_BUFFERS = 16;
+
+    private static final Set<String> CONNECTION_SPECIFIC_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-connection", "transfer-encoding", "upgrade");
+
+    private final ResponseThrottler responseThrottler;
+
+    public ResponseConverter() {
+        this(new ResponseThrottler());
+    }
+
+    @Autowired
+    public ResponseConverter(ResponseThrottler responseThrottler) {
+        this.responseThrottler = responseThrottler;
+    }
 
     public void convert(Response wiremockResponse, HttpServletResponse servletResponse)
             throws IOException {
+        convert(wiremockResponse, servletResponse, false);
+    }
 
-        servletResponse.setStatus(wiremockResponse.getStatus());
+    /**
+     * 写回 servlet 请求；设置了分片计划的响应体改由 {@link ResponseThrottler} 通过异步输出限速写回，不占用请求线程
+     */
+    public void convert(Response wiremockResponse, HttpServletRequest servletRequest,
+            HttpServletResponse servletResponse) throws IOException {
+        boolean http2 = isHttp2(servletRequest.getProtocol());
+        if (!ResponseThrottler.isThrottled(wiremockResponse)) {
+            convert(wiremockResponse, servletResponse, http2);
+            return;
+        }
+        ResponseWriteEvent event = new ResponseWriteEvent();
+        event.begin();
+        boolean success = false;
+        try {
+            servletResponse.setStatus(wiremockResponse.getStatus());
+            writeHeaders(wiremockResponse, servletResponse, http2, true);
+            responseThrottler.deliver(servletRequest, wiremockResponse.getBody(),
+                    wiremockResponse.getChunkedDribbleDelay());
+            success = true;
+        } finally {
+            commitWriteEvent(event, wiremockResponse, http2, success);
+        }
+    }
 
-        writeHeaders(wiremockResponse, servletResponse);
-        writeBody(wiremockResponse, servletResponse);
+    /**
+     * @param http2 请求经 HTTP/2 流到达时为 true，此时不写出连接级响应头
+     */
+    public void convert(Response wiremockResponse, HttpServletResponse servletResponse, boolean http2)
+            throws IOException {
+        ResponseWriteEvent event = new ResponseWriteEvent();
+        event.begin();
+        boolean success = false;
+        try {
+            servletResponse.setStatus(wiremockResponse.getStatus());
+
+            writeHeaders(wiremockResponse, servletResponse, http2, false);
+            writeBody(wiremockResponse, servletResponse);
+            success = true;
+        } finally {
+            commitWriteEvent(event, wiremockResponse, http2, success);
+        }
     }
 
-    private void writeHeaders(Response wiremockResponse, HttpServletResponse servletResponse) {
+    private static void commitWriteEvent(ResponseWriteEvent event, Response response, boolean http2,
+            boolean success) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+        HttpHeaders headers = response.getHeaders();
+        HttpHeader matched = headers != null ? headers.getHeader(MockEngine.MATCHED_STUB_HEADER) : null;
+        event.stubUuid = matched != null && matched.isPresent() ? matched.firstValue() : null;
+        event.status = response.getStatus();
+        byte[] body = response.getBody();
+        event.bodySize = body != null ? body.length : 0;
+        event.http2 = http2;
+        event.outcome = success ? "SUCCESS" : "ERROR";
+        event.commit();
+    }
+
+    /**
+     * 按 servlet 请求协议判断是否为 HTTP/2（h2c 升级或 prior knowledge 建立的连接）
+     */
+    public static boolean isHttp2(String protocol) {
+        return "HTTP/2.0".equals(protocol);
+    }
+
+    /**
+     * HTTP/2 禁止的连接级响应头（RFC 9113 8.2.2），出现在 HTTP/2 响应中会被客户端视为协议错误
+     */
+    static boolean isConnectionSpecific(String headerName) {
+        return CONNECTION_SPECIFIC_HEADERS.contains(headerName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 限速写回时不写出 Content-Length，响应体按分块编码（HTTP/2 下按 DATA 帧）逐片发送
+     */
+    private static boolean isContentLength(String headerName) {
+        return "content-length".equalsIgnoreCase(headerName);
+    }
+
+    private void writeHeaders(Response wiremockResponse, HttpServletResponse servletResponse, boolean http2,
+            boolean throttled) {
         HttpHeaders headers = wiremockResponse.getHeaders();
         if (headers != null) {
             for (HttpHeader header : headers.all()) {
                 String headerName = header.key();
+                if ((http2 && isConnectionSpecific(headerName)) || (throttled && isContentLength(headerName))) {
+                    continue;
+                }
                 for (String headerValue : header.values()) {
                     servletResponse.addHeader(headerName, headerValue);
                 }
@@ -42,16 +155,120 @@ public class ResponseConverter {
         }
     }
 
+    /**
+     * 未声明长度时按响应体设置 Content-Length：HTTP/1.1 下不使用分块编码，HTTP/2 下最后一个 DATA 帧即可结束流
+     */
     private void writeBody(Response wiremockResponse, HttpServletResponse servletResponse) throws IOException {
         byte[] body = wiremockResponse.getBody();
         log.debug("WireMock响应: status={}, bodyLength={}", wiremockResponse.getStatus(),
                 body != null ? body.length : "null");
 
         if (body != null && body.length > 0) {
+            if (!servletResponse.containsHeader("Content-Length")
+                    && !servletResponse.containsHeader("Transfer-Encoding")) {
+                servletResponse.setContentLength(body.length);
+            }
             servletResponse.getOutputStream().write(body);
         } else if (wiremockResponse.getStatus() == 404) {
             servletResponse.setContentType("application/json;charset=UTF-8");
-            servletResponse.getOutputStream().write(NO_MATCH_MESSAGE.getBytes());
+            servletResponse.setContentLength(NO_MATCH_MESSAGE.length);
+            servletResponse.getOutputStream().write(NO_MATCH_MESSAGE);
+        }
+    }
+
+    /**
+     * 写回原生 Undertow 请求：响应体复制到连接缓冲池中的（直接）缓冲区后异步发送，发送完成或失败时归还缓冲区并结束请求。
+     * 不阻塞调用线程，可以在 IO 线程上调用。HTTP/2 流上同样按 Content-Length 发送，不写出连接级响应头。
+     * 限速写回的响应在返回后仍在发送，调用方需保持 exchange 为已分派状态，见 {@link ResponseThrottler#isThrottled(Response)}
+     */
+    public void convert(Response wiremockResponse, HttpServerExchange exchange) {
+        ResponseWriteEvent event = new ResponseWriteEvent();
+        event.begin();
+        boolean http2 = Protocols.HTTP_2_0.equals(exchange.getProtocol());
+        boolean success = false;
+        try {
+            write(wiremockResponse, exchange, http2);
+            success = true;
+        } finally {
+            commitWriteEvent(event, wiremockResponse, http2, success);
+        }
+    }
+
+    private void write(Response wiremockResponse, HttpServerExchange exchange, boolean http2) {
+        exchange.setStatusCode(wiremockResponse.getStatus());
+        HeaderMap responseHeaders = exchange.getResponseHeaders();
+        HttpHeaders headers = wiremockResponse.getHeaders();
+        boolean throttled = ResponseThrottler.isThrottled(wiremockResponse);
+        if (headers != null) {
+            for (HttpHeader header : headers.all()) {
+                if ((http2 && isConnectionSpecific(header.key())) || (throttled && isContentLength(header.key()))) {
+                    continue;
+                }
+                HttpString name = HttpString.tryFromString(header.key());
+                for (String value : header.values()) {
+                    responseHeaders.add(name, value);
+                }
+            }
+        }
+        if (throttled) {
+            responseThrottler.deliver(exchange, wiremockResponse.getBody(), wiremockResponse.getChunkedDribbleDelay());
+            return;
+        }
+
+        byte[] body = wiremockResponse.getBody();
+        if ((body == null || body.length == 0) && wiremockResponse.getStatus() == 404) {
+            responseHeaders.put(Headers.CONTENT_TYPE, "application/json;charset=UTF-8");
+            body = NO_MATCH_MESSAGE;
+        }
+        if (body == null || body.length == 0) {
+            exchange.endExchange();
+            return;
+        }
+        if (!responseHeaders.contains(Headers.CONTENT_LENGTH)) {
+            responseHeaders.put(Headers.CONTENT_LENGTH, body.length);
+        }
+        send(exchange, body);
+    }
+
+    private static void send(HttpServerExchange exchange, byte[] body) {
+        Sender sender = exchange.getResponseSender();
+        ByteBufferPool pool = exchange.getConnection().getByteBufferPool();
+        int bufferSize = pool.getBufferSize();
+        int count = (body.length + bufferSize - 1) / bufferSize;
+        if (count > MAX_POOLED_BUFFERS) {
+            sender.send(ByteBuffer.wrap(body));
+            return;
+        }
+
+        PooledByteBuffer[] pooled = new PooledByteBuffer[count];
+        ByteBuffer[] buffers = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            pooled[i] = pool.allocate();
+            ByteBuffer buffer = pooled[i].getBuffer();
+            buffer.clear();
+            int offset = i * bufferSize;
+            buffer.put(body, offset, Math.min(bufferSize, body.length - offset));
+            buffer.flip();
+            buffers[i] = buffer;
+        }
+        sender.send(buffers, new IoCallback() {
+            @Override
+            public void onComplete(HttpServerExchange exchange, Sender sender) {
+                release(pooled);
+                IoCallback.END_EXCHANGE.onComplete(exchange, sender);
+            }
+
+            @Override
+            public void onException(HttpServerExchange exchange, Sender sender, IOException exception) {
+                release(pooled);
+                IoCallback.END_EXCHANGE.onException(exchange, sender, exception);
+            }
+        });
+    }
+
+    private static void release(PooledByteBuffer[] pooled) {
+        for (PooledByteBuffer buffer : pooled) {
+            buffer.close();
         }
     }
 }
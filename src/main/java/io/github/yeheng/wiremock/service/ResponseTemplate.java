@@ -0,0 +1,401 @@
+package io.github.yeheng.wiremock.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.common.JsonException;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+
+/**
+ * 编译后的响应模板
+ * 注册 stub 时把模板解析为字面量片段（预先编码为 UTF-8）与取值片段，请求时按顺序写入线程复用的缓冲区，
+ * 不再解析模板文本。支持的表达式：
+ * <ul>
+ * <li>{{request.method}}、{{request.path}}：请求方法与完整路径</li>
+ * <li>{{request.path.N}}：第 N 段路径（从 0 开始）</li>
+ * <li>{{request.query.name}}：查询参数的第一个值</li>
+ * <li>{{request.headers.name}}：请求头的第一个值</li>
+ * <li>{{request.body}}、{{request.body.a.b.0}}：请求体原文或 JSON 字段（对象与数组输出为 JSON）</li>
+ * </ul>
+ * 取不到的值输出为空。响应体按 JSON 返回，取自请求的值默认按 JSON 字符串内容转义（引号、反斜杠与控制字符），
+ * 请求中的值不能破坏响应结构；三重括号 {{{...}}} 原样输出，用于非 JSON 响应
+ */
+public final class ResponseTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final String RAW_OPEN = "{{{";
+    private static final String RAW_CLOSE = "}}}";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * 超过该容量的缓冲区用完后不再保留，避免个别大响应长期占用内存
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<RenderBuffer> BUFFERS = ThreadLocal.withInitial(() -> new RenderBuffer(1024));
+
+    private final Part[] parts;
+    private final boolean needsJsonBody;
+    private final int literalLength;
+
+    private ResponseTemplate(Part[] parts) {
+        this.parts = parts;
+        boolean json = false;
+        int length = 0;
+        for (Part part : parts) {
+            json |= part instanceof BodyField field && field.path().length > 0;
+            length += part instanceof Literal literal ? literal.bytes().length : 0;
+        }
+        this.needsJsonBody = json;
+        this.literalLength = length;
+    }
+
+    /**
+     * 解析模板，表达式不合法时抛出 IllegalArgumentException
+     */
+    public static ResponseTemplate compile(String source) {
+        List<Part> parts = new ArrayList<>();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                parts.add(new Literal(source.substring(position).getBytes(StandardCharsets.UTF_8)));
+                break;
+            }
+            if (open > position) {
+                parts.add(new Literal(source.substring(position, open).getBytes(StandardCharsets.UTF_8)));
+            }
+            boolean raw = source.startsWith(RAW_OPEN, open);
+            String opening = raw ? RAW_OPEN : OPEN;
+            String closing = raw ? RAW_CLOSE : CLOSE;
+            int close = source.indexOf(closing, open + opening.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("模板表达式缺少 " + closing + "，位置: " + open);
+            }
+            parts.add(parseExpression(source.substring(open + opening.length(), close).trim(), raw));
+            position = close + closing.length();
+        }
+        return new ResponseTemplate(parts.toArray(Part[]::new));
+    }
+
+    private static Part parseExpression(String expression, boolean raw) {
+        String[] tokens = expression.split("\\.");
+        if (tokens.length < 2 || !"request".equals(tokens[0])) {
+            throw unsupported(expression);
+        }
+        return switch (tokens[1]) {
+            case "method" -> {
+                if (tokens.length != 2) {
+                    throw unsupported(expression);
+                }
+                yield new Method();
+            }
+            case "path" -> tokens.length == 2 ? new PathSegment(-1, raw) : pathSegment(tokens, expression, raw);
+            case "query" -> {
+                if (tokens.length != 3) {
+                    throw unsupported(expression);
+                }
+                yield new Query(tokens[2], raw);
+            }
+            case "headers" -> {
+                if (tokens.length != 3) {
+                    throw unsupported(expression);
+                }
+                yield new Header(tokens[2], raw);
+            }
+            case "body" -> new BodyField(Arrays.copyOfRange(tokens, 2, tokens.length), raw);
+            default -> throw unsupported(expression);
+        };
+    }
+
+    private static Part pathSegment(String[] tokens, String expression, boolean raw) {
+        String index = tokens.length == 3 ? tokens[2] : "";
+        if (index.isEmpty() || index.length() > 4 || !index.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("路径段序号无效: " + expression);
+        }
+        return new PathSegment(Integer.parseInt(index), raw);
+    }
+
+    private static IllegalArgumentException unsupported(String expression) {
+        return new IllegalArgumentException("不支持的模板表达式: " + expression);
+    }
+
+    /**
+     * 渲染为响应体；缓冲区按线程复用，只有最终结果分配一次
+     */
+    public byte[] render(Request request) {
+        RenderBuffer buffer = BUFFERS.get();
+        try {
+            render(request, buffer);
+            return buffer.toByteArray();
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFERS.remove();
+            }
+        }
+    }
+
+    void render(Request request, RenderBuffer buffer) {
+        buffer.reset(literalLength);
+        JsonNode body = needsJsonBody ? parseBody(request) : null;
+        for (Part part : parts) {
+            part.write(request, body, buffer);
+        }
+    }
+
+    private static JsonNode parseBody(Request request) {
+        byte[] body = request.getBody();
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        // 匹配过程中的请求视图已解析过 JSON 请求体，直接复用
+        if (request instanceof RequestView view) {
+            try {
+                return view.jsonBody();
+            } catch (JsonException e) {
+                return null;
+            }
+        }
+        try {
+            return JSON.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private sealed interface Part permits Literal, Method, PathSegment, Query, Header, BodyField {
+        void write(Request request, JsonNode body, RenderBuffer out);
+    }
+
+    private record Literal(byte[] bytes) implements Part {
+        @Override
+        public void write(Request request, JsonNode body, RenderBuffer out) {
+            out.write(bytes);
+        }
+    }
+
+    private record Method() implements Part {
+        @Override
+        public void write(Request request, JsonNode body, RenderBuffer out) {
+            String method = request.getMethod().getName();
+            out.writeUtf8(method, 0, method.length());
+        }
+    }
+
+    /**
+     * index 为 -1 时输出完整路径；按下标扫描，不拆分字符串
+     */
+    private record PathSegment(int index, boolean raw) implements Part {
+        @Override
+        public void write(Request request, JsonNode body, RenderBuffer out) {
+            String url = request.getUrl();
+            int end = url.indexOf('?');
+            if (end < 0) {
+                end = url.length();
+            }
+            if (index < 0) {
+                out.writeValue(url, 0, end, raw);
+                return;
+            }
+            int start = url.startsWith("/") ? 1 : 0;
+            for (int i = 0; i < index; i++) {
+                int slash = url.indexOf('/', start);
+                if (slash < 0 || slash >= end) {
+                    return;
+                }
+                start = slash + 1;
+            }
+            int slash = url.indexOf('/', start);
+            out.writeValue(url, start, slash < 0 || slash > end ? end : slash, raw);
+        }
+    }
+
+    private record Query(String name, boolean raw) implements Part {
+        @Override
+        public void write(Request request, JsonNode body, RenderBuffer out) {
+            QueryParameter parameter = request.queryParameter(name);
+            if (parameter != null && parameter.isPresent()) {
+                String value = parameter.firstValue();
+                out.writeValue(value, 0, value.length(), raw);
+            }
+        }
+    }
+
+    private record Header(String name, boolean raw) implements Part {
+        @Override
+        public void write(Request request, JsonNode body, RenderBuffer out) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                out.writeValue(value, 0, value.length(), raw);
+            }
+        }
+    }
+
+    private record BodyField(String[] path, boolean raw) implements Part {
+        @Override
+        public void write(Request request, JsonNode body, RenderBuffer out) {
+            if (path.length == 0) {
+                byte[] content = request.getBody();
+                if (content != null) {
+                    if (raw) {
+                        out.write(content);
+                    } else {
+                        out.writeJsonEscaped(content);
+                    }
+                }
+                return;
+            }
+            JsonNode node = body;
+            for (int i = 0; i < path.length && node != null; i++) {
+                node = node.isArray() ? arrayElement(node, path[i]) : node.get(path[i]);
+            }
+            if (node == null || node.isNull() || node.isMissingNode()) {
+                return;
+            }
+            if (!node.isValueNode()) {
+                // 对象与数组由 Jackson 序列化，本身就是合法的 JSON
+                String json = node.toString();
+                out.writeUtf8(json, 0, json.length());
+                return;
+            }
+            String value = node.asText();
+            out.writeValue(value, 0, value.length(), raw);
+        }
+
+        private static JsonNode arrayElement(JsonNode array, String token) {
+            try {
+                return array.get(Integer.parseInt(token));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 可增长的字节缓冲区，字符直接编码为 UTF-8 写入，不经过中间字符串
+     */
+    static final class RenderBuffer {
+
+        private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+        private byte[] bytes;
+        private int count;
+
+        RenderBuffer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        int capacity() {
+            return bytes.length;
+        }
+
+        void reset(int expected) {
+            count = 0;
+            ensure(expected);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, count);
+        }
+
+        void write(byte[] source) {
+            ensure(count + source.length);
+            System.arraycopy(source, 0, bytes, count, source.length);
+            count += source.length;
+        }
+
+        /**
+         * 写入取自请求的值；raw 为 false 时按 JSON 字符串内容转义
+         */
+        void writeValue(String value, int start, int end, boolean raw) {
+            if (raw) {
+                writeUtf8(value, start, end);
+                return;
+            }
+            int run = start;
+            for (int i = start; i < end; i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\' || c < 0x20) {
+                    writeUtf8(value, run, i);
+                    writeEscape(c);
+                    run = i + 1;
+                }
+            }
+            writeUtf8(value, run, end);
+        }
+
+        /**
+         * 按 JSON 字符串内容转义 UTF-8 字节；多字节字符的各字节都不小于 0x80，原样写入
+         */
+        void writeJsonEscaped(byte[] source) {
+            ensure(count + source.length);
+            for (byte b : source) {
+                if (b == '"' || b == '\\' || (b >= 0 && b < 0x20)) {
+                    writeEscape((char) b);
+                } else {
+                    ensure(count + 1);
+                    bytes[count++] = b;
+                }
+            }
+        }
+
+        private void writeEscape(char c) {
+            ensure(count + 6);
+            bytes[count++] = '\\';
+            switch (c) {
+                case '"' -> bytes[count++] = '"';
+                case '\\' -> bytes[count++] = '\\';
+                case '\n' -> bytes[count++] = 'n';
+                case '\r' -> bytes[count++] = 'r';
+                case '\t' -> bytes[count++] = 't';
+                case '\b' -> bytes[count++] = 'b';
+                case '\f' -> bytes[count++] = 'f';
+                default -> {
+                    bytes[count++] = 'u';
+                    bytes[count++] = '0';
+                    bytes[count++] = '0';
+                    bytes[count++] = (byte) HEX[c >> 4];
+                    bytes[count++] = (byte) HEX[c & 0xF];
+                }
+            }
+        }
+
+        void writeUtf8(String value, int start, int end) {
+            // 每个 UTF-16 字符最多编码为 3 个字节（代理对 2 个字符编码为 4 个字节）
+            ensure(count + (end - start) * 3);
+            for (int i = start; i < end; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    bytes[count++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[count++] = (byte) (0xC0 | (c >> 6));
+                    bytes[count++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[count++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    bytes[count++] = '?';
+                } else {
+                    bytes[count++] = (byte) (0xE0 | (c >> 12));
+                    bytes[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[count++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        private void ensure(int required) {
+            if (required > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+            }
+        }
+    }
+}
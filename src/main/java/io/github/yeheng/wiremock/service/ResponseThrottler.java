@@ -0,0 +1,297 @@
+package io.github.yeheng.wiremock.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+import org.xnio.IoUtils;
+
+import com.github.tomakehurst.wiremock.http.ChunkedDribbleDelay;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 限速响应体写回
+ * 按 {@link ChunkedDribbleDelay} 把响应体切成等长的片，用令牌桶控制发送节奏：每个周期补充一片的令牌，
+ * 令牌足够且连接可写时才写出下一片。写出使用非阻塞 IO（servlet 异步输出或 Undertow 异步发送），
+ * 所有限速响应共用一个调度线程，不为每个下载占用一个休眠的线程
+ */
+@Slf4j
+@Component
+public class ResponseThrottler {
+
+    /**
+     * 按带宽限速时的补充周期（毫秒）
+     */
+    static final int BANDWIDTH_TICK_MS = 50;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public ResponseThrottler() {
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "response-throttler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 正在限速写回的响应数
+     */
+    public int getActiveDeliveries() {
+        return active.get();
+    }
+
+    /**
+     * 按每秒字节数限速时对应的分片计划：每 {@link #BANDWIDTH_TICK_MS} 毫秒发送一片
+     */
+    public static ChunkedDribbleDelay forBandwidth(int bodyLength, int bytesPerSecond) {
+        long durationMs = Math.max(1, (bodyLength * 1000L + bytesPerSecond - 1) / bytesPerSecond);
+        long chunks = Math.max(1, (durationMs + BANDWIDTH_TICK_MS - 1) / BANDWIDTH_TICK_MS);
+        return new ChunkedDribbleDelay((int) Math.min(chunks, bodyLength), (int) Math.min(durationMs, Integer.MAX_VALUE));
+    }
+
+    /**
+     * 响应是否需要限速写回：设置了分片计划、片数大于 1 且总时长大于 0
+     */
+    public static boolean isThrottled(Response response) {
+        return isThrottled(response.getChunkedDribbleDelay(), response.getBody());
+    }
+
+    static boolean isThrottled(ChunkedDribbleDelay delay, byte[] body) {
+        if (delay == null || body == null || body.length < 2) {
+            return false;
+        }
+        Integer chunks = delay.getNumberOfChunks();
+        Integer duration = delay.getTotalDuration();
+        return chunks != null && chunks > 1 && duration != null && duration > 0;
+    }
+
+    /**
+     * 通过 servlet 异步输出限速写回，调用前响应状态与响应头必须已设置
+     */
+    public void deliver(HttpServletRequest request, byte[] body, ChunkedDribbleDelay delay) throws IOException {
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(0);
+        ServletOutputStream out = asyncContext.getResponse().getOutputStream();
+        ServletSink sink = new ServletSink(asyncContext, out);
+        Delivery delivery = new Delivery(body, delay, sink);
+        sink.delivery = delivery;
+        out.setWriteListener(sink);
+        delivery.start();
+    }
+
+    /**
+     * 通过 Undertow 异步发送限速写回，调用前响应状态与响应头必须已设置；exchange 由调用方保持为已分派状态
+     */
+    public void deliver(HttpServerExchange exchange, byte[] body, ChunkedDribbleDelay delay) {
+        ExchangeSink sink = new ExchangeSink(exchange);
+        Delivery delivery = new Delivery(body, delay, sink);
+        sink.delivery = delivery;
+        delivery.start();
+    }
+
+    /**
+     * 一个限速写回：令牌桶容量为一片，每个周期补满；连接暂不可写时等待可写回调继续发送
+     */
+    private final class Delivery implements Runnable {
+
+        private final byte[] body;
+        private final int slice;
+        private final long intervalMs;
+        private final Sink sink;
+        private int offset;
+        private int tokens;
+        private boolean finished;
+        private ScheduledFuture<?> tick;
+
+        Delivery(byte[] body, ChunkedDribbleDelay delay, Sink sink) {
+            this.body = body;
+            int chunks = Math.min(delay.getNumberOfChunks(), body.length);
+            this.slice = (body.length + chunks - 1) / chunks;
+            this.intervalMs = Math.max(1, delay.getTotalDuration() / chunks);
+            this.sink = sink;
+        }
+
+        synchronized void start() {
+            active.incrementAndGet();
+            tick = scheduler.scheduleAtFixedRate(this, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public synchronized void run() {
+            tokens = slice;
+            pump();
+        }
+
+        /**
+         * 在令牌与连接可写性允许的范围内写出，写完后结束响应
+         */
+        synchronized void pump() {
+            if (finished) {
+                return;
+            }
+            try {
+                // 先记账再写出：写出完成的回调可能在 write 内同步重入 pump
+                while (!finished && tokens > 0 && offset < body.length && sink.ready()) {
+                    int from = offset;
+                    int length = Math.min(tokens, body.length - offset);
+                    offset += length;
+                    tokens -= length;
+                    sink.write(body, from, length);
+                }
+                if (!finished && offset >= body.length && sink.ready()) {
+                    finish();
+                    sink.complete();
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        synchronized void fail(Throwable e) {
+            if (finished) {
+                return;
+            }
+            log.debug("限速写回中断，已发送 {}/{} 字节: {}", offset, body.length, e.toString());
+            finish();
+            sink.abort();
+        }
+
+        private void finish() {
+            finished = true;
+            active.decrementAndGet();
+            if (tick != null) {
+                tick.cancel(false);
+            }
+        }
+    }
+
+    private interface Sink {
+
+        boolean ready();
+
+        void write(byte[] body, int offset, int length) throws IOException;
+
+        void complete();
+
+        void abort();
+    }
+
+    /**
+     * servlet 异步输出：每片写出后立即刷新，输出缓冲未清空前 isReady 为 false，由 onWritePossible 继续
+     */
+    private static final class ServletSink implements Sink, WriteListener {
+
+        private final AsyncContext asyncContext;
+        private final ServletOutputStream out;
+        private Delivery delivery;
+
+        ServletSink(AsyncContext asyncContext, ServletOutputStream out) {
+            this.asyncContext = asyncContext;
+            this.out = out;
+        }
+
+        @Override
+        public boolean ready() {
+            return out.isReady();
+        }
+
+        @Override
+        public void write(byte[] body, int offset, int length) throws IOException {
+            out.write(body, offset, length);
+            if (out.isReady()) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void complete() {
+            asyncContext.complete();
+        }
+
+        @Override
+        public void abort() {
+            asyncContext.complete();
+        }
+
+        @Override
+        public void onWritePossible() {
+            delivery.pump();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            delivery.fail(t);
+        }
+    }
+
+    /**
+     * Undertow 异步发送：上一片发送完成前视为不可写，完成回调中继续发送
+     */
+    private static final class ExchangeSink implements Sink, IoCallback {
+
+        private final HttpServerExchange exchange;
+        private final Sender sender;
+        private volatile boolean sending;
+        private Delivery delivery;
+
+        ExchangeSink(HttpServerExchange exchange) {
+            this.exchange = exchange;
+            this.sender = exchange.getResponseSender();
+        }
+
+        @Override
+        public boolean ready() {
+            return !sending;
+        }
+
+        @Override
+        public void write(byte[] body, int offset, int length) {
+            sending = true;
+            sender.send(ByteBuffer.wrap(body, offset, length), this);
+        }
+
+        @Override
+        public void complete() {
+            exchange.endExchange();
+        }
+
+        @Override
+        public void abort() {
+            IoUtils.safeClose(exchange.getConnection());
+        }
+
+        @Override
+        public void onComplete(HttpServerExchange exchange, Sender sender) {
+            sending = false;
+            delivery.pump();
+        }
+
+        @Override
+        public void onException(HttpServerExchange exchange, Sender sender, IOException exception) {
+            sending = false;
+            delivery.fail(exception);
+        }
+    }
+}
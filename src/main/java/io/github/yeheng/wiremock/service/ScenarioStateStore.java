@@ -0,0 +1,266 @@
+package io.github.yeheng.wiremock.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.github.tomakehurst.wiremock.http.Cookie;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 场景状态存储
+ * 状态按（命名空间, 场景名, 实例）保存，实例取自请求的实例键（请求头、Cookie 或查询参数），
+ * 不同会话各自推进互不阻塞；缺少实例键的请求共用同一个实例。
+ *
+ * 条目按哈希分布到固定数量的分段，每个分段是按访问顺序排列的 LinkedHashMap，查找与插入只锁所在分段；
+ * 状态迁移对单个条目做 CAS。每个分段有独立的容量上限，超出时直接淘汰分段链表头部（最久未访问）的实例，不扫描分段
+ */
+@Slf4j
+@Component
+public class ScenarioStateStore {
+
+    /**
+     * 场景实例的初始状态，与 WireMock 一致
+     */
+    public static final String STARTED = "Started";
+
+    private final Stripe[] stripes;
+    private final InstanceKey instanceKey;
+
+    public ScenarioStateStore() {
+        this(new WireMockProperties.Scenarios());
+    }
+
+    @Autowired
+    public ScenarioStateStore(WireMockProperties properties) {
+        this(properties.getScenarios());
+    }
+
+    private ScenarioStateStore(WireMockProperties.Scenarios config) {
+        if (config.getMaxInstances() <= 0) {
+            throw new IllegalArgumentException("场景实例上限必须大于 0: " + config.getMaxInstances());
+        }
+        int count = Integer.highestOneBit(Math.max(1, Math.min(config.getStripes(), config.getMaxInstances())));
+        int stripeCapacity = Math.max(1, config.getMaxInstances() / count);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+        this.instanceKey = InstanceKey.parse(config.getInstanceKey());
+    }
+
+    /**
+     * 请求是否处于 stub 要求的场景状态；stub 不属于场景或未要求状态时返回 true
+     */
+    public boolean matches(StubMapping stub, Request request) {
+        String required = stub.getRequiredScenarioState();
+        if (stub.getScenarioName() == null || required == null) {
+            return true;
+        }
+        return required.equals(state(stub.getNamespace(), stub.getScenarioName(), instanceKey.resolve(request)));
+    }
+
+    /**
+     * stub 命中后推进场景状态；要求了前置状态时只在仍处于该状态时迁移，并发命中同一实例时只有一个生效
+     */
+    public void advance(StubMapping stub, Request request) {
+        if (stub.getScenarioName() == null || stub.getNewScenarioState() == null) {
+            return;
+        }
+        transition(stub.getNamespace(), stub.getScenarioName(), instanceKey.resolve(request),
+                stub.getRequiredScenarioState(), stub.getNewScenarioState());
+    }
+
+    /**
+     * 实例的当前状态，从未迁移过的实例处于 {@link #STARTED}，查询不会创建条目
+     */
+    public String state(String namespace, String scenario, String instance) {
+        Key key = new Key(namespace, scenario, instance);
+        Instance entry = stripe(key).get(key);
+        return entry != null ? entry.state.get() : STARTED;
+    }
+
+    /**
+     * 把实例从 expected 迁移到 next，expected 为 null 时无条件迁移
+     *
+     * @return 是否迁移成功
+     */
+    public boolean transition(String namespace, String scenario, String instance, String expected, String next) {
+        Key key = new Key(namespace, scenario, instance);
+        Stripe stripe = stripe(key);
+        Instance entry = stripe.get(key);
+        if (entry == null) {
+            if (expected != null && !STARTED.equals(expected)) {
+                return false;
+            }
+            entry = stripe.getOrCreate(key);
+        }
+        while (true) {
+            String current = entry.state.get();
+            if (expected != null && !expected.equals(current)) {
+                return false;
+            }
+            if (entry.state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 清空指定命名空间的全部场景实例
+     */
+    public void reset(String namespace) {
+        for (Stripe stripe : stripes) {
+            stripe.removeNamespace(namespace);
+        }
+    }
+
+    /**
+     * 清空全部场景实例
+     */
+    public void reset() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * 当前全部场景实例的状态，namespace 不为 null 时只返回该命名空间
+     */
+    public List<ScenarioState> snapshot(String namespace) {
+        List<ScenarioState> result = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            for (Map.Entry<Key, Instance> entry : stripe.entries()) {
+                Key key = entry.getKey();
+                if (namespace == null || key.namespace().equals(namespace)) {
+                    result.add(new ScenarioState(key.namespace(), key.scenario(), key.instance(),
+                            entry.getValue().state.get()));
+                }
+            }
+        }
+        result.sort(Comparator.comparing(ScenarioState::namespace)
+                .thenComparing(ScenarioState::scenario)
+                .thenComparing(ScenarioState::instance));
+        return result;
+    }
+
+    private Stripe stripe(Key key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * 一个分段：按访问顺序排列，查找会把实例移到链表尾部，插入后超出容量时移除头部的实例
+     */
+    private static final class Stripe {
+        private final LinkedHashMap<Key, Instance> instances;
+
+        Stripe(int capacity) {
+            this.instances = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Instance> eldest) {
+                    if (size() <= capacity) {
+                        return false;
+                    }
+                    log.debug("场景实例数超过上限，淘汰 {}", eldest.getKey());
+                    return true;
+                }
+            };
+        }
+
+        synchronized Instance get(Key key) {
+            return instances.get(key);
+        }
+
+        synchronized Instance getOrCreate(Key key) {
+            return instances.computeIfAbsent(key, k -> new Instance());
+        }
+
+        synchronized void removeNamespace(String namespace) {
+            instances.keySet().removeIf(key -> key.namespace().equals(namespace));
+        }
+
+        synchronized void clear() {
+            instances.clear();
+        }
+
+        synchronized int size() {
+            return instances.size();
+        }
+
+        synchronized List<Map.Entry<Key, Instance>> entries() {
+            return new ArrayList<>(instances.entrySet());
+        }
+    }
+
+    private static final class Instance {
+        private final AtomicReference<String> state = new AtomicReference<>(STARTED);
+    }
+
+    private record Key(String namespace, String scenario, String instance) {
+    }
+
+    /**
+     * 从请求中取实例键的方式：header:NAME、cookie:NAME 或 query:NAME，为空表示所有请求共用一个实例
+     */
+    record InstanceKey(String source, String name) {
+
+        static final String SHARED = "";
+
+        static InstanceKey parse(String spec) {
+            if (spec == null || spec.isBlank()) {
+                return new InstanceKey(null, null);
+            }
+            int colon = spec.indexOf(':');
+            String source = colon > 0 ? spec.substring(0, colon).trim().toLowerCase() : "";
+            String name = colon > 0 ? spec.substring(colon + 1).trim() : "";
+            if (name.isEmpty() || !(source.equals("header") || source.equals("cookie") || source.equals("query"))) {
+                throw new IllegalArgumentException("无效的场景实例键: " + spec + "，应为 header:NAME、cookie:NAME 或 query:NAME");
+            }
+            return new InstanceKey(source, name);
+        }
+
+        String resolve(Request request) {
+            if (source == null) {
+                return SHARED;
+            }
+            String value = switch (source) {
+                case "header" -> request.getHeader(name);
+                case "cookie" -> {
+                    Cookie cookie = request.getCookies().get(name);
+                    yield cookie != null && !cookie.isAbsent() ? cookie.firstValue() : null;
+                }
+                default -> {
+                    QueryParameter parameter = request.queryParameter(name);
+                    yield parameter != null && parameter.isPresent() ? parameter.firstValue() : null;
+                }
+            };
+            return value != null ? value : SHARED;
+        }
+    }
+
+    /**
+     * 一个场景实例的当前状态
+     */
+    public record ScenarioState(String namespace, String scenario, String instance, String state) {
+    }
+}
@@ -0,0 +1,293 @@
+package io.github.yeheng.wiremock.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.github.tomakehurst.wiremock.common.Encoding;
+import com.github.tomakehurst.wiremock.common.Strings;
+import com.github.tomakehurst.wiremock.common.Urls;
+import com.github.tomakehurst.wiremock.http.ContentTypeHeader;
+import com.github.tomakehurst.wiremock.http.Cookie;
+import com.github.tomakehurst.wiremock.http.FormParameter;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * 直接包装 HttpServletRequest 的 WireMock 请求
+ * URL、请求头、Cookie、查询参数与请求体都在首次被读取时才从 servlet 请求中取出并缓存，
+ * 只看路径的匹配不会复制请求头或读取请求体；请求未进入匹配引擎（如命名空间没有 stub）时完全不读取。
+ * 只在处理该请求的线程内使用，不做同步
+ */
+public final class ServletRequestAdapter implements Request {
+
+    private final HttpServletRequest servletRequest;
+    private final String strippedPrefix;
+
+    private String url;
+    private String absoluteUrl;
+    private RequestMethod method;
+    private HttpHeaders headers;
+    private Map<String, Cookie> cookies;
+    private Map<String, QueryParameter> queryParameters;
+    private byte[] body;
+    private String bodyAsString;
+
+    /**
+     * @param strippedPrefix 不为空时从路径中去掉该前缀（命名空间路径前缀）
+     */
+    public ServletRequestAdapter(HttpServletRequest servletRequest, String strippedPrefix) {
+        this.servletRequest = servletRequest;
+        this.strippedPrefix = strippedPrefix;
+    }
+
+    @Override
+    public String getUrl() {
+        if (url == null) {
+            url = withQueryString(path());
+        }
+        return url;
+    }
+
+    @Override
+    public String getAbsoluteUrl() {
+        if (absoluteUrl == null) {
+            String requestUrl = servletRequest.getRequestURL().toString();
+            int pathStart = requestUrl.indexOf('/', requestUrl.indexOf("://") + 3);
+            String origin = pathStart < 0 ? requestUrl : requestUrl.substring(0, pathStart);
+            absoluteUrl = origin + getUrl();
+        }
+        return absoluteUrl;
+    }
+
+    private String path() {
+        String path = servletRequest.getRequestURI();
+        if (strippedPrefix != null && path.startsWith(strippedPrefix)) {
+            path = path.substring(strippedPrefix.length());
+        }
+        return path.isEmpty() ? "/" : path;
+    }
+
+    private String withQueryString(String path) {
+        String queryString = servletRequest.getQueryString();
+        return queryString == null || queryString.isEmpty() ? path : path + '?' + queryString;
+    }
+
+    @Override
+    public RequestMethod getMethod() {
+        if (method == null) {
+            method = RequestMethod.fromString(servletRequest.getMethod());
+        }
+        return method;
+    }
+
+    @Override
+    public String getScheme() {
+        return servletRequest.getScheme();
+    }
+
+    @Override
+    public String getHost() {
+        return servletRequest.getServerName();
+    }
+
+    @Override
+    public int getPort() {
+        return servletRequest.getServerPort();
+    }
+
+    @Override
+    public String getClientIp() {
+        return servletRequest.getRemoteAddr();
+    }
+
+    @Override
+    public String getHeader(String key) {
+        if (headers != null) {
+            HttpHeader header = headers.getHeader(key);
+            return header.isPresent() ? header.firstValue() : null;
+        }
+        return servletRequest.getHeader(key);
+    }
+
+    /**
+     * 完整请求头未取出时直接按名称读取单个请求头（servlet 请求头名称大小写无关）
+     */
+    @Override
+    public HttpHeader header(String key) {
+        if (headers != null) {
+            return headers.getHeader(key);
+        }
+        Enumeration<String> values = servletRequest.getHeaders(key);
+        if (values == null || !values.hasMoreElements()) {
+            return HttpHeader.absent(key);
+        }
+        return toHeader(key, values);
+    }
+
+    @Override
+    public ContentTypeHeader contentTypeHeader() {
+        String contentType = getHeader(ContentTypeHeader.KEY);
+        return contentType != null ? new ContentTypeHeader(contentType) : ContentTypeHeader.absent();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        if (headers == null) {
+            List<HttpHeader> all = new ArrayList<>();
+            Enumeration<String> names = servletRequest.getHeaderNames();
+            while (names.hasMoreElements()) {
+                String name = names.nextElement();
+                Enumeration<String> values = servletRequest.getHeaders(name);
+                if (values != null && values.hasMoreElements()) {
+                    all.add(toHeader(name, values));
+                }
+            }
+            headers = new HttpHeaders(all);
+        }
+        return headers;
+    }
+
+    private static HttpHeader toHeader(String name, Enumeration<String> values) {
+        String first = values.nextElement();
+        if (!values.hasMoreElements()) {
+            return new HttpHeader(name, first);
+        }
+        List<String> list = new ArrayList<>(4);
+        list.add(first);
+        while (values.hasMoreElements()) {
+            list.add(values.nextElement());
+        }
+        return new HttpHeader(name, list);
+    }
+
+    @Override
+    public boolean containsHeader(String key) {
+        return getHeader(key) != null;
+    }
+
+    @Override
+    public Set<String> getAllHeaderKeys() {
+        if (headers != null) {
+            return headers.keys();
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        Enumeration<String> names = servletRequest.getHeaderNames();
+        while (names.hasMoreElements()) {
+            keys.add(names.nextElement());
+        }
+        return keys;
+    }
+
+    @Override
+    public QueryParameter queryParameter(String key) {
+        if (queryParameters == null) {
+            queryParameters = Urls.splitQuery(servletRequest.getQueryString());
+        }
+        QueryParameter parameter = queryParameters.get(key);
+        return parameter != null ? parameter : QueryParameter.absent(key);
+    }
+
+    @Override
+    public FormParameter formParameter(String key) {
+        return FormParameter.absent(key);
+    }
+
+    /**
+     * 与原先的 ImmutableRequest 一致不解析表单，需要表单参数的匹配由 {@link RequestView} 按请求体解析
+     */
+    @Override
+    public Map<String, FormParameter> formParameters() {
+        return Map.of();
+    }
+
+    @Override
+    public Map<String, Cookie> getCookies() {
+        if (cookies == null) {
+            jakarta.servlet.http.Cookie[] servletCookies = servletRequest.getCookies();
+            if (servletCookies == null || servletCookies.length == 0) {
+                cookies = Map.of();
+            } else {
+                Map<String, List<String>> values = new LinkedHashMap<>();
+                for (jakarta.servlet.http.Cookie cookie : servletCookies) {
+                    values.computeIfAbsent(cookie.getName(), name -> new ArrayList<>(1)).add(cookie.getValue());
+                }
+                Map<String, Cookie> byName = new LinkedHashMap<>();
+                values.forEach((name, list) -> byName.put(name, new Cookie(name, list)));
+                cookies = byName;
+            }
+        }
+        return cookies;
+    }
+
+    /**
+     * 首次读取时从输入流读入完整请求体，读取失败抛出 UncheckedIOException
+     */
+    @Override
+    public byte[] getBody() {
+        if (body == null) {
+            try {
+                body = servletRequest.getInputStream().readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException("读取请求体失败", e);
+            }
+        }
+        return body;
+    }
+
+    @Override
+    public String getBodyAsString() {
+        if (bodyAsString == null) {
+            bodyAsString = Strings.stringFromBytes(getBody());
+        }
+        return bodyAsString;
+    }
+
+    @Override
+    public String getBodyAsBase64() {
+        return Encoding.encodeBase64(getBody());
+    }
+
+    @Override
+    public boolean isMultipart() {
+        return false;
+    }
+
+    @Override
+    public Collection<Part> getParts() {
+        return List.of();
+    }
+
+    @Override
+    public Part getPart(String name) {
+        return null;
+    }
+
+    @Override
+    public boolean isBrowserProxyRequest() {
+        return false;
+    }
+
+    @Override
+    public Optional<Request> getOriginalRequest() {
+        return Optional.empty();
+    }
+
+    @Override
+    public String getProtocol() {
+        return servletRequest.getProtocol();
+    }
+}
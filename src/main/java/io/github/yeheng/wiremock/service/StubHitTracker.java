@@ -0,0 +1,271 @@
+package io.github.yeheng.wiremock.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.repository.StubMappingRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stub 命中统计
+ * mock 请求路径上只做无锁的内存计数与延迟直方图更新，
+ * 由定时任务把累积的命中增量一次性批量回写到 hitCount / lastHitAt 列。
+ * 回写后整个窗口内都没有命中的条目从内存中移除，已删除、重置或重载掉的 stub 不会一直占用内存
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StubHitTracker {
+
+    /**
+     * WireMock 在命中的响应上附带的 stub ID 头
+     */
+    static final String MATCHED_STUB_HEADER = "Matched-Stub-Id";
+
+    private static final String FLUSH_SQL =
+            "UPDATE stub_mappings SET hit_count = hit_count + ?, last_hit_at = ? WHERE uuid = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StubMappingRepository stubMappingRepository;
+    private final WireMockProperties properties;
+    private final Map<String, StubHits> hits = new ConcurrentHashMap<>();
+
+    /**
+     * 根据 WireMock 响应记录一次命中，未命中任何 stub 的响应直接忽略
+     */
+    public void record(Response response, long elapsedNanos) {
+        if (!properties.getHitStats().isEnabled()) {
+            return;
+        }
+        HttpHeaders headers = response.getHeaders();
+        if (headers == null) {
+            return;
+        }
+        HttpHeader matched = headers.getHeader(MATCHED_STUB_HEADER);
+        if (matched.isPresent()) {
+            record(matched.firstValue(), elapsedNanos);
+        }
+    }
+
+    public void record(String uuid, long elapsedNanos) {
+        StubHits stubHits = hits.get(uuid);
+        if (stubHits == null) {
+            stubHits = hits.computeIfAbsent(uuid, k -> new StubHits());
+        }
+        stubHits.record(elapsedNanos);
+    }
+
+    /**
+     * 定时任务：滚动延迟统计窗口，回写命中增量，移除空闲的条目
+     */
+    @Scheduled(fixedDelayString = "${wiremock.hit-stats.flush-interval-ms:5000}")
+    public void rollAndFlush() {
+        for (StubHits stubHits : hits.values()) {
+            stubHits.latency.rotate();
+        }
+        flush();
+        evictIdle();
+    }
+
+    /**
+     * 移除最近一个窗口内没有命中且没有待回写增量的条目；热度报表对这些 stub 只使用数据库中的计数
+     */
+    private void evictIdle() {
+        for (Map.Entry<String, StubHits> entry : hits.entrySet()) {
+            StubHits stubHits = entry.getValue();
+            if (!stubHits.isIdle() || !hits.remove(entry.getKey(), stubHits)) {
+                continue;
+            }
+            // 移除前并发记录到旧条目上的命中转入新条目，留给下一次回写
+            long late = stubHits.pending.sumThenReset();
+            if (late > 0) {
+                hits.computeIfAbsent(entry.getKey(), k -> new StubHits()).restore(late, stubHits.lastHitAt);
+            }
+        }
+    }
+
+    int trackedCount() {
+        return hits.size();
+    }
+
+    /**
+     * 将累积的命中增量合并为一次批量 UPDATE 回写数据库
+     */
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        List<StubHits> flushed = new ArrayList<>();
+        for (Map.Entry<String, StubHits> entry : hits.entrySet()) {
+            StubHits stubHits = entry.getValue();
+            long delta = stubHits.pending.sumThenReset();
+            if (delta == 0) {
+                continue;
+            }
+            batch.add(new Object[] { delta, Timestamp.valueOf(toLocalDateTime(stubHits.lastHitAt)), entry.getKey() });
+            flushed.add(stubHits);
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            log.debug("已回写 Stub 命中统计，数量: {}", batch.size());
+        } catch (DataAccessException e) {
+            // 回写失败时把增量放回，等待下一次回写
+            for (int i = 0; i < flushed.size(); i++) {
+                flushed.get(i).pending.add((Long) batch.get(i)[0]);
+            }
+            log.warn("回写 Stub 命中统计失败: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 按热度返回 stub 列表，ascending 为 true 时最冷的（包括从未命中的）排在前面
+     * 查询前先回写一次，保证数据库排序基于最新计数
+     */
+    public List<StubHeat> heat(int limit, boolean ascending) {
+        flush();
+        Sort sort = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, "hitCount")
+                .and(Sort.by("id"));
+        List<StubMapping> stubs = stubMappingRepository.findAll(PageRequest.of(0, limit, sort)).getContent();
+
+        List<StubHeat> result = new ArrayList<>(stubs.size());
+        for (StubMapping stub : stubs) {
+            StubHits stubHits = stub.getUuid() != null ? hits.get(stub.getUuid()) : null;
+            long persisted = stub.getHitCount() != null ? stub.getHitCount() : 0L;
+            if (stubHits == null) {
+                result.add(new StubHeat(stub.getId(), stub.getUuid(), stub.getName(), stub.getMethod(),
+                        stub.getUrl(), persisted, stub.getLastHitAt(), 0L, 0L, 0L));
+                continue;
+            }
+            long[] window = stubHits.latency.recent();
+            result.add(new StubHeat(stub.getId(), stub.getUuid(), stub.getName(), stub.getMethod(),
+                    stub.getUrl(), persisted + stubHits.pending.sum(), toLocalDateTime(stubHits.lastHitAt),
+                    LatencyHistogram.count(window),
+                    LatencyHistogram.percentileMicros(window, 0.50),
+                    LatencyHistogram.percentileMicros(window, 0.99)));
+        }
+        return result;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 单个 stub 的内存计数
+     */
+    private static final class StubHits {
+        private final LongAdder pending = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private volatile long lastHitAt;
+
+        void record(long elapsedNanos) {
+            pending.increment();
+            latency.record(elapsedNanos);
+            lastHitAt = System.currentTimeMillis();
+        }
+
+        void restore(long count, long hitAt) {
+            pending.add(count);
+            lastHitAt = Math.max(lastHitAt, hitAt);
+        }
+
+        boolean isIdle() {
+            return pending.sum() == 0 && LatencyHistogram.count(latency.recent()) == 0;
+        }
+    }
+
+    /**
+     * 以 2 的幂（微秒）分桶的延迟直方图
+     * 当前窗口持续累加，每个回写周期滚动为最近一个完整窗口
+     */
+    static final class LatencyHistogram {
+        static final int BUCKETS = 24;
+
+        private final AtomicLongArray current = new AtomicLongArray(BUCKETS);
+        private volatile long[] recent = new long[BUCKETS];
+
+        void record(long elapsedNanos) {
+            long micros = Math.max(elapsedNanos / 1000, 1);
+            int bucket = Math.min(63 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+            current.incrementAndGet(bucket);
+        }
+
+        void rotate() {
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = current.getAndSet(i, 0);
+            }
+            recent = snapshot;
+        }
+
+        long[] recent() {
+            return recent;
+        }
+
+        static long count(long[] window) {
+            long total = 0;
+            for (long c : window) {
+                total += c;
+            }
+            return total;
+        }
+
+        /**
+         * 返回所在桶的上界（微秒），窗口为空时返回 0
+         */
+        static long percentileMicros(long[] window, double quantile) {
+            long total = count(window);
+            if (total == 0) {
+                return 0;
+            }
+            long threshold = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < window.length; i++) {
+                seen += window[i];
+                if (seen >= threshold) {
+                    return 1L << (i + 1);
+                }
+            }
+            return 1L << BUCKETS;
+        }
+    }
+
+    /**
+     * 热度报表条目，延迟为最近一个回写窗口内的统计
+     */
+    public record StubHeat(Long id, String uuid, String name, String method, String url,
+            long hitCount, LocalDateTime lastHitAt,
+            long recentHits, long recentP50Micros, long recentP99Micros) {
+    }
+}
@@ -1,35 +1,70 @@
 package io.github.yeheng.wiremock.service;
 
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
-import com.github.tomakehurst.wiremock.matching.EqualToJsonPattern;
+import com.github.tomakehurst.wiremock.matching.ContentPattern;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
 import com.github.tomakehurst.wiremock.matching.UrlPattern;
 
 import io.github.yeheng.wiremock.entity.StubMapping;
 import io.github.yeheng.wiremock.exception.BusinessException;
 import io.github.yeheng.wiremock.exception.SystemException;
-import lombok.RequiredArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class StubMappingConverter {
     private final ObjectMapper objectMapper;
+    private final BlobStore blobStore;
+    @Getter
+    private final ScenarioStateStore scenarioStateStore;
+    private final DatasetStore datasetStore;
+
+    public StubMappingConverter(ObjectMapper objectMapper) {
+        this(objectMapper, new BlobStore());
+    }
+
+    public StubMappingConverter(ObjectMapper objectMapper, BlobStore blobStore) {
+        this(objectMapper, blobStore, new ScenarioStateStore());
+    }
+
+    public StubMappingConverter(ObjectMapper objectMapper, BlobStore blobStore,
+            ScenarioStateStore scenarioStateStore) {
+        this(objectMapper, blobStore, scenarioStateStore, new DatasetStore());
+    }
+
+    @Autowired
+    public StubMappingConverter(ObjectMapper objectMapper, BlobStore blobStore,
+            ScenarioStateStore scenarioStateStore, DatasetStore datasetStore) {
+        this.objectMapper = objectMapper;
+        this.blobStore = blobStore;
+        this.scenarioStateStore = scenarioStateStore;
+        this.datasetStore = datasetStore;
+    }
+
     public MappingBuilder convert(StubMapping stub) {
         var builder = buildBaseRequest(stub);
         setUuid(builder, stub);
         addHeaderMatching(builder, stub);
         addQueryParamMatching(builder, stub);
         addBodyMatching(builder, stub);
+        addScenarioMatching(builder, stub);
         setResponse(builder, stub);
         return builder;
     }
@@ -144,28 +179,39 @@ public class StubMappingConverter {
         }
     }
 
+    /**
+     * 相同的请求体匹配规则共用一个已编译的匹配器
+     */
     private void addBodyMatching(MappingBuilder builder, StubMapping stub) {
-        String bodyPattern = stub.getRequestBodyPattern();
-        if (bodyPattern == null || bodyPattern.trim().isEmpty()) {
+        BlobStore.Payload bodyPattern = bodyPattern(stub);
+        if (bodyPattern == null) {
             return;
         }
 
+        ContentPattern<?> pattern = bodyPattern.derive(ContentPattern.class, p -> parseBodyPattern(p.text()));
+        if (pattern != null) {
+            builder.withRequestBody(pattern);
+        }
+    }
+
+    private ContentPattern<?> parseBodyPattern(String bodyPattern) {
         try {
             JsonNode bodyRule = objectMapper.readTree(bodyPattern);
             if (bodyRule.has("equalToJson")) {
-                builder.withRequestBody(new EqualToJsonPattern(bodyRule.get("equalToJson").asText(), true, true));
+                return new ViewEqualToJsonPattern(bodyRule.get("equalToJson").asText(), true, true);
             } else if (bodyRule.has("matchesJsonPath")) {
-                builder.withRequestBody(WireMock.matchingJsonPath(bodyRule.get("matchesJsonPath").asText()));
+                return WireMock.matchingJsonPath(bodyRule.get("matchesJsonPath").asText());
             } else if (bodyRule.has("contains")) {
                 String containsText = bodyRule.get("contains").asText();
-                builder.withRequestBody(WireMock.containing(containsText));
+                return WireMock.containing(containsText);
             } else if (bodyRule.has("matches")) {
                 String regex = bodyRule.get("matches").asText();
-                builder.withRequestBody(WireMock.matching(regex));
+                return WireMock.matching(regex);
             }
+            return null;
         } catch (com.fasterxml.jackson.core.JsonParseException e) {
             log.warn("请求体模式JSON格式错误，尝试降级处理: {}", bodyPattern, e);
-            tryFallbackBodyMatching(builder, bodyPattern);
+            return tryFallbackBodyMatching(bodyPattern);
         } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
             log.error("解析请求体模式JSON失败: {}", bodyPattern, e);
             throw new BusinessException("请求体匹配规则JSON格式无效", "INVALID_BODY_PATTERN");
@@ -175,39 +221,133 @@ public class StubMappingConverter {
         }
     }
 
-    private void tryFallbackBodyMatching(MappingBuilder builder, String bodyPattern) {
+    private ContentPattern<?> tryFallbackBodyMatching(String bodyPattern) {
         try {
             String fixedPattern = bodyPattern.replace("\\", "\\\\");
             JsonNode bodyRule = objectMapper.readTree(fixedPattern);
             if (bodyRule.has("matches")) {
                 String regex = bodyRule.get("matches").asText();
-                builder.withRequestBody(WireMock.matching(regex));
+                return WireMock.matching(regex);
             } else if (bodyRule.has("contains")) {
-                builder.withRequestBody(WireMock.containing(bodyRule.get("contains").asText()));
+                return WireMock.containing(bodyRule.get("contains").asText());
             } else {
-                builder.withRequestBody(WireMock.containing(bodyPattern));
+                return WireMock.containing(bodyPattern);
             }
         } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
             log.warn("降级处理请求体模式也失败: {}", bodyPattern, e);
             log.warn("使用最简单的字符串包含匹配: {}", bodyPattern);
-            builder.withRequestBody(WireMock.containing(bodyPattern));
+            return WireMock.containing(bodyPattern);
         } catch (Exception e) {
             log.error("降级处理请求体匹配时发生未预期错误: {}", e.getMessage(), e);
             throw new SystemException("降级处理请求体匹配失败", "FALLBACK_BODY_PROCESSING_ERROR");
         }
     }
 
+    /**
+     * 要求场景状态的 stub 追加状态匹配，状态按请求的场景实例从 {@link ScenarioStateStore} 读取
+     */
+    private void addScenarioMatching(MappingBuilder builder, StubMapping stub) {
+        if (stub.getScenarioName() == null || stub.getRequiredScenarioState() == null) {
+            return;
+        }
+        builder.andMatching(request -> MatchResult.of(scenarioStateStore.matches(stub, request)));
+    }
+
+    /**
+     * 数据集 stub 只在数据集中存在请求对应的键时匹配，其余请求交给其他 stub 或返回未匹配；
+     * 绑定由调用方在注册时创建一次，匹配规则与写回共用同一个绑定
+     */
+    public void addDatasetMatching(MappingBuilder builder, DatasetStore.Binding binding) {
+        if (binding != null) {
+            builder.andMatching(request -> MatchResult.of(binding.contains(request)));
+        }
+    }
+
+    /**
+     * 数据集 stub 的查找绑定，数据集共用已加载的索引；普通 stub 返回 null
+     */
+    public DatasetStore.Binding bindDataset(StubMapping stub) {
+        try {
+            return datasetStore.bind(stub);
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            log.error("加载数据集失败: {}", stub.getName(), e);
+            throw new BusinessException("数据集无效: " + e.getMessage(), "INVALID_DATASET");
+        }
+    }
+
+    /**
+     * stub 的匹配结果取决于哪些请求内容，供 {@link MatchCache} 决定请求指纹包含的请求头与是否包含请求体
+     */
+    public MatchCache.Dependencies matchDependencies(StubMapping stub) {
+        Set<String> headers = new TreeSet<>();
+        String headersPattern = stub.getRequestHeadersPattern();
+        if (headersPattern != null && !headersPattern.isBlank()) {
+            try {
+                objectMapper.readTree(headersPattern).fieldNames()
+                        .forEachRemaining(name -> headers.add(name.toLowerCase(Locale.ROOT)));
+            } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+                // 注册时已校验过，这里不会失败
+                log.warn("解析请求头模式JSON失败: {}", stub.getName(), e);
+            }
+        }
+        boolean body = stub.getRequestBodyPattern() != null && !stub.getRequestBodyPattern().isBlank();
+        if (stub.getDatasetFile() != null) {
+            String key = DatasetStore.keyExpression(stub);
+            if (key.startsWith("request.headers.")) {
+                headers.add(key.substring("request.headers.".length()).toLowerCase(Locale.ROOT));
+            }
+            body |= key.startsWith("request.body");
+        }
+        boolean stateful = stub.getScenarioName() != null && stub.getRequiredScenarioState() != null;
+        return new MatchCache.Dependencies(headers, body, stateful);
+    }
+
     private void setResponse(MappingBuilder builder, StubMapping stub) {
-        String responseBody = stub.getResponseDefinition();
-        if (responseBody == null || responseBody.trim().isEmpty()) {
-            responseBody = createDefaultResponse(stub);
+        BlobStore.Payload responseBody = responseBody(stub);
+        byte[] body = responseBody != null
+                ? responseBody.bytes()
+                : createDefaultResponse(stub).getBytes(StandardCharsets.UTF_8);
+
+        ResponseDefinitionBuilder response = WireMock.aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json;charset=UTF-8")
+                .withBody(body);
+        // 分片写回由 ResponseThrottler 按响应上的分片计划执行；按带宽限速时片数取决于实际响应体，由 MockEngine 设置
+        if (stub.getDribbleChunks() != null && stub.getDribbleDurationMs() != null) {
+            response.withChunkedDribbleDelay(stub.getDribbleChunks(), stub.getDribbleDurationMs());
         }
+        builder.willReturn(response);
+    }
+
+    /**
+     * stub 响应体的共享实例，相同内容的 stub 共用同一份文本与字节；未定义响应体时返回 null
+     */
+    public BlobStore.Payload responseBody(StubMapping stub) {
+        String responseBody = stub.getResponseDefinition();
+        return responseBody == null || responseBody.trim().isEmpty() ? null : blobStore.intern(responseBody);
+    }
 
-        builder.willReturn(
-                WireMock.aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json;charset=UTF-8")
-                        .withBody(responseBody));
+    /**
+     * stub 请求体匹配规则的共享实例，未定义时返回 null
+     */
+    public BlobStore.Payload bodyPattern(StubMapping stub) {
+        String bodyPattern = stub.getRequestBodyPattern();
+        return bodyPattern == null || bodyPattern.trim().isEmpty() ? null : blobStore.intern(bodyPattern);
+    }
+
+    /**
+     * 编译模板化 stub 的响应体，非模板 stub 返回 null
+     */
+    public ResponseTemplate compileTemplate(StubMapping stub) {
+        if (!Boolean.TRUE.equals(stub.getTemplated()) || stub.getResponseDefinition() == null) {
+            return null;
+        }
+        try {
+            return ResponseTemplate.compile(stub.getResponseDefinition());
+        } catch (IllegalArgumentException e) {
+            log.error("编译响应模板失败: {}", stub.getName(), e);
+            throw new BusinessException("响应模板无效: " + e.getMessage(), "INVALID_RESPONSE_TEMPLATE");
+        }
     }
 
     private String createDefaultResponse(StubMapping stub) {
@@ -1,17 +1,23 @@
 package io.github.yeheng.wiremock.service;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.github.yeheng.wiremock.entity.StubChangeLog;
 import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.jfr.StubWriteEvent;
 import io.github.yeheng.wiremock.repository.StubMappingRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,18 +33,21 @@ public class StubMappingService {
     private final StubMappingRepository stubMappingRepository;
     private final WireMockManager wireMockManager;
     private final ObjectMapper objectMapper;
+    private final StubReplicator stubReplicator;
 
     /**
      * 创建新的 StubMapping
      */
     @Transactional
     public StubMapping createStub(StubMapping stub) {
+        StubWriteEvent event = beginWrite("CREATE", null);
         log.info("创建新的 Stub: {}", stub.getName());
 
         ensureRunning();
         validateStubMapping(stub);
 
         StubMapping savedStub = stubMappingRepository.save(stub);
+        stubReplicator.record(savedStub, StubChangeLog.Operation.UPSERT);
 
         // 添加到WireMock
         if (savedStub.getEnabled()) {
@@ -47,6 +56,7 @@ public class StubMappingService {
 
         log.info("Stub 创建成功: ID={}", savedStub.getId());
 
+        event.describe(savedStub);
         return savedStub;
     }
 
@@ -88,6 +98,7 @@ public class StubMappingService {
      */
     @Transactional
     public StubMapping updateStub(Long id, StubMapping updatedStub) {
+        StubWriteEvent event = beginWrite("UPDATE", id);
         log.info("更新 Stub: ID={}", id);
 
         StubMapping existingStub = stubMappingRepository.findById(id)
@@ -101,6 +112,7 @@ public class StubMappingService {
         validateStubMapping(updatedStub);
 
         StubMapping savedStub = stubMappingRepository.save(updatedStub);
+        stubReplicator.record(savedStub, StubChangeLog.Operation.UPSERT);
 
         // 使用增量更新：先删除旧的，再添加新的
         wireMockManager.removeStubMapping(existingStub);
@@ -110,6 +122,7 @@ public class StubMappingService {
 
         log.info("Stub 更新成功: ID={}", savedStub.getId());
 
+        event.describe(savedStub);
         return savedStub;
     }
 
@@ -118,6 +131,7 @@ public class StubMappingService {
      */
     @Transactional
     public void deleteStub(Long id) {
+        StubWriteEvent event = beginWrite("DELETE", id);
         log.info("删除 Stub: ID={}", id);
 
         StubMapping stub = stubMappingRepository.findById(id)
@@ -127,7 +141,9 @@ public class StubMappingService {
         wireMockManager.removeStubMapping(stub);
 
         stubMappingRepository.delete(stub);
+        stubReplicator.record(stub, StubChangeLog.Operation.DELETE);
         log.info("Stub 删除成功: ID={}", id);
+        event.describe(stub);
     }
 
     /**
@@ -136,6 +152,7 @@ public class StubMappingService {
      */
     @Transactional
     public StubMapping toggleStubEnabled(Long id) {
+        StubWriteEvent event = beginWrite("TOGGLE", id);
         log.info("切换 Stub 启用状态: ID={}", id);
 
         StubMapping stub = stubMappingRepository.findById(id)
@@ -144,6 +161,7 @@ public class StubMappingService {
         boolean wasEnabled = stub.getEnabled();
         stub.setEnabled(!wasEnabled);
         StubMapping savedStub = stubMappingRepository.save(stub);
+        stubReplicator.record(savedStub, StubChangeLog.Operation.UPSERT);
 
         // 使用增量更新
         if (wasEnabled) {
@@ -156,6 +174,7 @@ public class StubMappingService {
 
         log.info("Stub 状态切换成功: ID={}, enabled={}", id, savedStub.getEnabled());
 
+        event.describe(savedStub);
         return savedStub;
     }
 
@@ -169,29 +188,54 @@ public class StubMappingService {
         log.info("已重新加载所有 stubs，数量: {}", stubs.size());
     }
 
+    /**
+     * 只重新加载一个命名空间，其他命名空间的映射与请求日志不受影响
+     */
+    @Transactional(readOnly = true)
+    public void reloadNamespace(String namespace) {
+        String normalized = NamespaceResolver.normalize(namespace);
+        List<StubMapping> stubs = stubMappingRepository.findByNamespace(normalized);
+        wireMockManager.reloadNamespace(normalized, stubs);
+        log.info("已重新加载命名空间 {} 的 stubs，数量: {}", normalized, stubs.size());
+    }
+
     /**
      * 批量创建 StubMapping - 支持去重
      */
     @Transactional
     public List<StubMapping> createStubs(List<StubMapping> stubs) {
+        StubWriteEvent event = beginWrite("BATCH_CREATE", null);
         log.info("批量创建 Stub，数量: {}", stubs.size());
 
         ensureRunning();
 
-        // 验证并去重
+        for (StubMapping stub : stubs) {
+            validateStubMapping(stub);
+        }
+
+        // 一次查询取回已存在的命名空间 + method + url + 查询参数规则组合，避免逐个 stub 查库
+        Set<String> urls = new HashSet<>();
+        for (StubMapping stub : stubs) {
+            urls.add(stub.getUrl());
+        }
+        Set<String> existingKeys = new HashSet<>();
+        if (!urls.isEmpty()) {
+            for (Object[] row : stubMappingRepository.findDedupeKeysByUrlIn(urls)) {
+                existingKeys.add(dedupeKey((String) row[0], (String) row[1], (String) row[2], (String) row[3]));
+            }
+        }
+
         List<StubMapping> stubsToSave = new ArrayList<>();
         int skippedCount = 0;
 
         for (StubMapping stub : stubs) {
-            // 先验证
-            validateStubMapping(stub);
-
-            // 检查是否已存在（基于方法和URL）
-            List<StubMapping> existing = stubMappingRepository.findByMethodAndUrl(stub.getMethod(), stub.getUrl());
-            if (!existing.isEmpty()) {
+            // 检查同一命名空间中是否已存在（基于方法、URL 与查询参数规则）
+            if (existingKeys.contains(dedupeKey(stub.getNamespace(), stub.getMethod(), stub.getUrl(),
+                    stub.getQueryParametersPattern()))) {
                 // 已存在，跳过
                 skippedCount++;
-                log.debug("跳过已存在的 Stub: method={}, url={}", stub.getMethod(), stub.getUrl());
+                log.debug("跳过已存在的 Stub: namespace={}, method={}, url={}", stub.getNamespace(),
+                        stub.getMethod(), stub.getUrl());
             } else {
                 stubsToSave.add(stub);
             }
@@ -199,6 +243,7 @@ public class StubMappingService {
 
         // 保存所有新stub
         List<StubMapping> savedStubs = stubMappingRepository.saveAll(stubsToSave);
+        stubReplicator.recordAll(savedStubs, StubChangeLog.Operation.UPSERT);
 
         // 添加到WireMock
         for (StubMapping savedStub : savedStubs) {
@@ -208,6 +253,7 @@ public class StubMappingService {
         }
 
         log.info("Stub 批量创建成功: 新增={}, 跳过={}", savedStubs.size(), skippedCount);
+        event.describe(savedStubs.size());
         return savedStubs;
     }
 
@@ -240,18 +286,69 @@ public class StubMappingService {
             throw new IllegalArgumentException("URL 不能为空");
         }
 
+        stub.setDatasetFile(blankToNull(stub.getDatasetFile()));
+        if (stub.getDatasetFile() != null) {
+            stub.setDatasetKey(blankToNull(stub.getDatasetKey()));
+            stub.setDatasetKeyField(blankToNull(stub.getDatasetKeyField()));
+            if (stub.getDatasetKey() == null || stub.getDatasetKeyField() == null) {
+                throw new IllegalArgumentException("数据集 stub 必须指定请求键表达式与数据集键字段");
+            }
+            if (Boolean.TRUE.equals(stub.getTemplated())) {
+                throw new IllegalArgumentException("数据集 stub 不能同时使用响应模板");
+            }
+            // 响应体由数据集记录提供，响应定义只作为占位
+            if (stub.getResponseDefinition() == null || stub.getResponseDefinition().isBlank()) {
+                stub.setResponseDefinition("{}");
+            }
+        }
+
         if (stub.getResponseDefinition() == null || stub.getResponseDefinition().isBlank()) {
             throw new IllegalArgumentException("响应定义不能为空");
         }
 
-        // 验证 JSON 格式
-        try {
-            // 对响应定义保持严格校验，必须为有效 JSON
-            if (!stub.getResponseDefinition().isBlank()) {
+        stub.setNamespace(NamespaceResolver.normalize(stub.getNamespace()));
+
+        stub.setScenarioName(blankToNull(stub.getScenarioName()));
+        stub.setRequiredScenarioState(blankToNull(stub.getRequiredScenarioState()));
+        stub.setNewScenarioState(blankToNull(stub.getNewScenarioState()));
+        if (stub.getScenarioName() == null
+                && (stub.getRequiredScenarioState() != null || stub.getNewScenarioState() != null)) {
+            throw new IllegalArgumentException("设置场景状态时必须指定场景名");
+        }
+
+        if (stub.getThrottleBytesPerSecond() != null && stub.getThrottleBytesPerSecond() <= 0) {
+            throw new IllegalArgumentException("限速带宽必须大于 0");
+        }
+        if ((stub.getDribbleChunks() == null) != (stub.getDribbleDurationMs() == null)) {
+            throw new IllegalArgumentException("分片写回必须同时指定片数与总时长");
+        }
+        if (stub.getDribbleChunks() != null) {
+            if (stub.getDribbleChunks() <= 0 || stub.getDribbleDurationMs() < 0) {
+                throw new IllegalArgumentException("分片片数必须大于 0，总时长不能为负数");
+            }
+            if (stub.getThrottleBytesPerSecond() != null) {
+                throw new IllegalArgumentException("限速带宽与分片写回不能同时设置");
+            }
+        }
+
+        if (stub.getTemplated() == null) {
+            stub.setTemplated(false);
+        }
+        if (stub.getTemplated()) {
+            // 模板渲染前不一定是合法 JSON（例如数值字段的占位符），只校验模板语法
+            try {
+                ResponseTemplate.compile(stub.getResponseDefinition());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("响应模板无效: " + e.getMessage());
+            }
+        } else {
+            // 验证 JSON 格式
+            try {
+                // 对响应定义保持严格校验，必须为有效 JSON
                 objectMapper.readTree(stub.getResponseDefinition());
+            } catch (Exception e) {
+                throw new IllegalArgumentException("JSON 格式无效: " + e.getMessage());
             }
-        } catch (Exception e) {
-            throw new IllegalArgumentException("JSON 格式无效: " + e.getMessage());
         }
 
         // 对请求体匹配规则保持宽松策略：作为字符串存储与使用
@@ -259,6 +356,38 @@ public class StubMappingService {
         // 不应在创建阶段拒绝。真正的解析与匹配在请求到来时由 WireMockManager 处理。
     }
 
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * 批量创建的查重键：相同方法与 URL 但查询参数规则不同的 stub 不算重复
+     */
+    private static String dedupeKey(String namespace, String method, String url, String queryParametersPattern) {
+        String query = blankToNull(queryParametersPattern);
+        String key = namespace + " " + method + " " + url;
+        return query == null ? key : key + " " + query;
+    }
+
+    /**
+     * 开始记录一次写操作；事务完成后按提交或回滚记录结果，提交失败的写入记为 ERROR。
+     * 写操作都在事务内执行，没有事务同步时（直接调用的单元测试）不记录
+     */
+    private static StubWriteEvent beginWrite(String operation, Long stubId) {
+        StubWriteEvent event = new StubWriteEvent(operation, stubId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return event;
+        }
+        event.begin();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                event.end(status == STATUS_COMMITTED);
+            }
+        });
+        return event;
+    }
+
     private void ensureRunning() {
         if (!wireMockManager.isRunning()) {
             throw new IllegalStateException("WireMock服务器未运行");
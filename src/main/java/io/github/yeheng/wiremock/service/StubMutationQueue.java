@@ -0,0 +1,187 @@
+package io.github.yeheng.wiremock.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+
+import io.github.yeheng.wiremock.entity.StubMapping;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 匹配引擎的单写线程队列
+ * 所有 stub 变更由一个写线程按顺序应用：写线程每次取走队列中已积压的全部变更，
+ * 同一 stub 的多次变更合并为最后一次，作为一个批次交给匹配引擎并原子发布。
+ * 带变更日志版本号的变更按版本号排序，提交晚但版本旧的变更被丢弃，
+ * 避免并发事务的提交后回调乱序导致引擎状态与数据库不一致
+ */
+@Slf4j
+class StubMutationQueue {
+
+    private final LinkedBlockingQueue<Item> queue = new LinkedBlockingQueue<>();
+    private final Consumer<List<Mutation>> batchApplier;
+    /**
+     * 每个 stub 已应用的最新版本号，仅由写线程访问
+     */
+    private final Map<String, Long> appliedVersions = new HashMap<>();
+    private Thread writer;
+
+    StubMutationQueue(Consumer<List<Mutation>> batchApplier) {
+        this.batchApplier = batchApplier;
+    }
+
+    CompletableFuture<Void> submit(Mutation mutation) {
+        ensureWriter();
+        queue.add(new Item(mutation, null, mutation.done()));
+        return mutation.done();
+    }
+
+    /**
+     * 在写线程上按队列顺序执行任务（重载、重置等），执行前先应用之前排队的变更
+     */
+    CompletableFuture<Void> submitTask(Runnable task) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        ensureWriter();
+        queue.add(new Item(null, task, done));
+        return done;
+    }
+
+    private synchronized void ensureWriter() {
+        if (writer == null || !writer.isAlive()) {
+            writer = Thread.ofPlatform().daemon().name("stub-writer").start(this::run);
+        }
+    }
+
+    synchronized void stop() {
+        if (writer != null) {
+            writer.interrupt();
+            writer = null;
+        }
+        List<Item> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        for (Item item : pending) {
+            item.done().completeExceptionally(new IllegalStateException("WireMock服务器已关闭"));
+        }
+    }
+
+    private void run() {
+        List<Item> items = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                items.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(items);
+
+            List<Mutation> batch = new ArrayList<>();
+            for (Item item : items) {
+                if (item.mutation() != null) {
+                    batch.add(item.mutation());
+                    continue;
+                }
+                flush(batch);
+                batch.clear();
+                runTask(item);
+            }
+            flush(batch);
+            items.clear();
+        }
+    }
+
+    private void runTask(Item item) {
+        try {
+            item.task().run();
+            appliedVersions.clear();
+            item.done().complete(null);
+        } catch (RuntimeException e) {
+            item.done().completeExceptionally(e);
+        }
+    }
+
+    private void flush(List<Mutation> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Mutation> effective = coalesce(batch);
+        try {
+            if (!effective.isEmpty()) {
+                batchApplier.accept(effective);
+                for (Mutation mutation : effective) {
+                    if (mutation.version() > 0) {
+                        appliedVersions.merge(mutation.key(), mutation.version(), Math::max);
+                    }
+                }
+            }
+            batch.forEach(mutation -> mutation.done().complete(null));
+            if (batch.size() > 1) {
+                log.debug("已批量应用 stub 变更: 排队 {}，合并后 {}", batch.size(), effective.size());
+            }
+        } catch (RuntimeException e) {
+            log.error("应用 stub 变更批次失败", e);
+            batch.forEach(mutation -> mutation.done().completeExceptionally(e));
+        }
+    }
+
+    /**
+     * 同一 stub 只保留最后一次变更；版本号旧于已见版本的变更被丢弃
+     */
+    private List<Mutation> coalesce(List<Mutation> batch) {
+        Map<String, Mutation> latest = new LinkedHashMap<>();
+        int anonymous = 0;
+        for (Mutation mutation : batch) {
+            if (mutation.key() == null) {
+                latest.put("#" + anonymous++, mutation);
+                continue;
+            }
+            Long applied = appliedVersions.get(mutation.key());
+            if (mutation.version() > 0 && applied != null && mutation.version() < applied) {
+                continue;
+            }
+            Mutation previous = latest.get(mutation.key());
+            if (previous == null || mutation.version() >= previous.version()) {
+                latest.remove(mutation.key());
+                latest.put(mutation.key(), mutation);
+            }
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    /**
+     * 一次 stub 变更；mapping、template 与 dataset 为事务内已转换好的映射、响应模板与数据集绑定（删除时为 null），
+     * version 为变更日志版本号（没有时为 0）
+     */
+    record Mutation(Type type, StubMapping stub, String key, MappingBuilder mapping, ResponseTemplate template,
+            DatasetStore.Binding dataset, long version, CompletableFuture<Void> done) {
+
+        static Mutation upsert(StubMapping stub, MappingBuilder mapping, ResponseTemplate template,
+                DatasetStore.Binding dataset) {
+            return new Mutation(Type.UPSERT, stub, stub.getUuid(), mapping, template, dataset, versionOf(stub),
+                    new CompletableFuture<>());
+        }
+
+        static Mutation remove(StubMapping stub, String key) {
+            return new Mutation(Type.REMOVE, stub, key, null, null, null, versionOf(stub),
+                    new CompletableFuture<>());
+        }
+
+        private static long versionOf(StubMapping stub) {
+            return stub.getChangeVersion() != null ? stub.getChangeVersion() : 0;
+        }
+    }
+
+    enum Type {
+        UPSERT,
+        REMOVE
+    }
+
+    private record Item(Mutation mutation, Runnable task, CompletableFuture<Void> done) {
+    }
+}
@@ -0,0 +1,276 @@
+package io.github.yeheng.wiremock.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubChangeLog;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.repository.StubChangeLogRepository;
+import io.github.yeheng.wiremock.repository.StubMappingRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 基于变更日志的多节点复制
+ * StubMappingService 的每次写操作在同一事务中追加变更日志；各节点定时按版本号拉取其他节点的变更，
+ * 以数据库中的最新状态增量更新本节点的匹配引擎，避免全量重载
+ *
+ * 自增版本号按分配顺序而非提交顺序可见，拉取时跳过的版本号记为空洞并在后续拉取中重试，
+ * 超过 gapTimeoutMs 仍不可见的空洞视为已回滚的事务
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StubReplicator {
+
+    /**
+     * 单次拉取中最多记录的空洞数量，超过时不再跟踪（例如数据库重启后序列跳号）
+     */
+    private static final int MAX_TRACKED_GAPS = 1000;
+
+    private final StubChangeLogRepository changeLogRepository;
+    private final StubMappingRepository stubMappingRepository;
+    private final WireMockManager wireMockManager;
+    private final WireMockProperties properties;
+
+    /**
+     * 空洞版本号 -> 首次发现时间
+     */
+    private final Map<Long, Long> gaps = new ConcurrentHashMap<>();
+    private final LongAdder appliedChanges = new LongAdder();
+
+    @Getter
+    private String nodeId;
+    @Getter
+    private volatile long appliedVersion;
+    private volatile boolean ready;
+    private volatile Instant lastPollAt;
+
+    @PostConstruct
+    public void init() {
+        String configured = properties.getReplication().getNodeId();
+        nodeId = configured == null || configured.isBlank()
+                ? "node-" + UUID.randomUUID().toString().substring(0, 8)
+                : configured.trim();
+    }
+
+    /**
+     * 在当前事务中追加一条变更日志
+     * 先刷出 stub 的写入以取得行锁，再分配版本号，使同一 stub 的版本号顺序与提交顺序一致
+     */
+    public void record(StubMapping stub, StubChangeLog.Operation operation) {
+        if (properties.getReplication().isEnabled()) {
+            changeLogRepository.flush();
+            StubChangeLog saved = changeLogRepository.save(new StubChangeLog(stub, operation, nodeId));
+            if (saved != null) {
+                stub.setChangeVersion(saved.getVersion());
+            }
+        }
+    }
+
+    public void recordAll(List<StubMapping> stubs, StubChangeLog.Operation operation) {
+        if (!properties.getReplication().isEnabled() || stubs.isEmpty()) {
+            return;
+        }
+        changeLogRepository.flush();
+        List<StubChangeLog> changes = new ArrayList<>(stubs.size());
+        for (StubMapping stub : stubs) {
+            changes.add(new StubChangeLog(stub, operation, nodeId));
+        }
+        changeLogRepository.saveAll(changes);
+        for (int i = 0; i < stubs.size(); i++) {
+            stubs.get(i).setChangeVersion(changes.get(i).getVersion());
+        }
+    }
+
+    /**
+     * 启动后先记下当前最新版本，再从数据库全量加载，之后只拉取该版本之后的变更
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!properties.getReplication().isEnabled()) {
+            return;
+        }
+        resync();
+        ready = true;
+        log.info("变更日志复制已启动: 节点={}, 起始版本={}", nodeId, appliedVersion);
+    }
+
+    private void resync() {
+        long latest = changeLogRepository.findLatestVersion();
+        wireMockManager.reloadAllStubs(stubMappingRepository.findAll());
+        gaps.clear();
+        appliedVersion = latest;
+    }
+
+    @Scheduled(fixedDelayString = "${wiremock.replication.poll-interval-ms:1000}")
+    public void poll() {
+        if (!ready || !properties.getReplication().isEnabled()) {
+            return;
+        }
+        try {
+            pollOnce();
+        } catch (DataAccessException e) {
+            log.warn("拉取变更日志失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 拉取并应用一批变更，返回应用的 stub 数量
+     */
+    public synchronized int pollOnce() {
+        WireMockProperties.Replication config = properties.getReplication();
+        lastPollAt = Instant.now();
+
+        List<StubChangeLog> changes = new ArrayList<>();
+        retryGaps(changes, config.getGapTimeoutMs());
+
+        long applied = appliedVersion;
+        List<StubChangeLog> batch = changeLogRepository.findByVersionGreaterThanOrderByVersionAsc(applied,
+                PageRequest.of(0, config.getBatchSize()));
+        if (!batch.isEmpty() && batch.get(0).getVersion() > applied + 1
+                && changeLogRepository.findOldestVersion() > applied + 1) {
+            // 未拉取的变更已被清理，只能全量重载
+            log.warn("节点 {} 落后超过变更日志保留范围（已应用版本 {}），执行全量重载", nodeId, applied);
+            resync();
+            return 0;
+        }
+
+        long expected = applied + 1;
+        long now = System.currentTimeMillis();
+        for (StubChangeLog change : batch) {
+            for (long v = expected; v < change.getVersion() && gaps.size() < MAX_TRACKED_GAPS; v++) {
+                gaps.putIfAbsent(v, now);
+            }
+            expected = change.getVersion() + 1;
+            changes.add(change);
+        }
+        if (!batch.isEmpty()) {
+            appliedVersion = batch.get(batch.size() - 1).getVersion();
+        }
+
+        return apply(changes);
+    }
+
+    private void retryGaps(List<StubChangeLog> changes, long gapTimeoutMs) {
+        if (gaps.isEmpty()) {
+            return;
+        }
+        for (StubChangeLog change : changeLogRepository.findByVersionIn(new ArrayList<>(gaps.keySet()))) {
+            gaps.remove(change.getVersion());
+            changes.add(change);
+        }
+        long expireBefore = System.currentTimeMillis() - gapTimeoutMs;
+        Iterator<Map.Entry<Long, Long>> it = gaps.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue() < expireBefore) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * 同一 stub 的多条变更只应用一次，以数据库中的当前状态为准，重复应用结果相同
+     */
+    private int apply(List<StubChangeLog> changes) {
+        Map<Long, StubChangeLog> byStub = new LinkedHashMap<>();
+        for (StubChangeLog change : changes) {
+            if (!nodeId.equals(change.getNodeId()) && change.getStubId() != null) {
+                byStub.put(change.getStubId(), change);
+            }
+        }
+        if (byStub.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, StubMapping> current = new LinkedHashMap<>();
+        for (StubMapping stub : stubMappingRepository.findAllById(byStub.keySet())) {
+            current.put(stub.getId(), stub);
+        }
+
+        for (StubChangeLog change : byStub.values()) {
+            StubMapping stub = current.get(change.getStubId());
+            if (stub != null) {
+                stub.setChangeVersion(change.getVersion());
+            }
+            if (stub != null && Boolean.TRUE.equals(stub.getEnabled())) {
+                wireMockManager.upsertStubMapping(stub);
+            } else {
+                wireMockManager.removeStubMapping(stub != null ? stub : removedStub(change));
+            }
+        }
+        appliedChanges.add(byStub.size());
+        log.debug("已应用 {} 个 stub 的变更，当前版本 {}", byStub.size(), appliedVersion);
+        return byStub.size();
+    }
+
+    private static StubMapping removedStub(StubChangeLog change) {
+        StubMapping stub = new StubMapping();
+        stub.setId(change.getStubId());
+        stub.setUuid(change.getUuid());
+        stub.setNamespace(change.getNamespace());
+        stub.setName("id-" + change.getStubId());
+        stub.setChangeVersion(change.getVersion());
+        return stub;
+    }
+
+    /**
+     * 清理超过保留时长的变更日志
+     */
+    @Transactional
+    @Scheduled(fixedDelay = 3600000, initialDelay = 3600000)
+    public void prune() {
+        if (!properties.getReplication().isEnabled()) {
+            return;
+        }
+        int removed = changeLogRepository.deleteByCreatedAtBefore(
+                LocalDateTime.now().minusHours(properties.getReplication().getRetentionHours()));
+        if (removed > 0) {
+            log.info("已清理 {} 条过期变更日志", removed);
+        }
+    }
+
+    /**
+     * 本节点的复制进度与落后情况
+     */
+    public ReplicationStatus status() {
+        boolean enabled = properties.getReplication().isEnabled();
+        long applied = appliedVersion;
+        long latest = enabled ? changeLogRepository.findLatestVersion() : 0;
+        long lagMillis = 0;
+        if (latest > applied) {
+            lagMillis = changeLogRepository.findFirstByVersionGreaterThanOrderByVersionAsc(applied)
+                    .map(first -> Math.max(Duration.between(first.getCreatedAt(), LocalDateTime.now()).toMillis(), 0))
+                    .orElse(0L);
+        }
+        return new ReplicationStatus(nodeId, enabled, applied, latest, Math.max(latest - applied, 0), lagMillis,
+                gaps.size(), appliedChanges.sum(), lastPollAt);
+    }
+
+    /**
+     * 复制状态；lagVersions 为尚未拉取的版本数，lagMillis 为最早未拉取变更的等待时长
+     */
+    public record ReplicationStatus(String nodeId, boolean enabled, long appliedVersion, long latestVersion,
+            long lagVersions, long lagMillis, int pendingGaps, long appliedChanges, Instant lastPollAt) {
+    }
+}
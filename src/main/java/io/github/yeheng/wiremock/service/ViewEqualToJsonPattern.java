@@ -0,0 +1,137 @@
+package io.github.yeheng.wiremock.service;
+
+import static com.github.tomakehurst.wiremock.stubbing.SubEvent.JSON_ERROR;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.JsonException;
+import com.github.tomakehurst.wiremock.matching.EqualToJsonPattern;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
+import com.github.tomakehurst.wiremock.matching.NormalisedNumberComparator;
+import com.github.tomakehurst.wiremock.stubbing.SubEvent;
+
+import net.javacrumbs.jsonunit.core.Configuration;
+import net.javacrumbs.jsonunit.core.Option;
+import net.javacrumbs.jsonunit.core.internal.Diff;
+import net.javacrumbs.jsonunit.core.listener.Difference;
+import net.javacrumbs.jsonunit.core.listener.DifferenceContext;
+import net.javacrumbs.jsonunit.core.listener.DifferenceListener;
+
+/**
+ * 读取 {@link RequestView} 中已解析请求体的 equalToJson
+ * 匹配值就是当前视图的请求体时直接使用视图解析好的 JSON，同一请求的所有候选 stub 只解析一次；
+ * 其他场景（近似匹配分析等）按 WireMock 原有方式解析。比较规则与 {@link EqualToJsonPattern} 一致。
+ * 期望 JSON 在注册时计算一次规范形式（{@link CanonicalJson}），请求体的规范形式由视图每个请求计算一次：
+ * 规范形式相同直接匹配；不忽略多余元素时规范形式不同直接不匹配；忽略多余元素时缺少期望的叶子指纹直接不匹配，
+ * 其余情况才做完整的 JSON 比较。期望 JSON 含 JsonUnit 占位符时总是完整比较
+ */
+final class ViewEqualToJsonPattern extends EqualToJsonPattern {
+
+    private final JsonNode expected;
+    private final Configuration baseConfig;
+    private final CanonicalJson canonical;
+    private final boolean ignoreArrayOrder;
+    private final boolean ignoreExtraElements;
+
+    /**
+     * 首个参数的 JsonProperty 决定 WireMock 中的匹配器名称（{@code getName()}）
+     */
+    ViewEqualToJsonPattern(@JsonProperty("equalToJson") String json, boolean ignoreArrayOrder,
+            boolean ignoreExtraElements) {
+        super(json, ignoreArrayOrder, ignoreExtraElements);
+        this.expected = Json.read(json, JsonNode.class);
+        Configuration config = Configuration.empty().withNumberComparator(new NormalisedNumberComparator());
+        if (ignoreArrayOrder) {
+            config = config.withOptions(Option.IGNORING_ARRAY_ORDER);
+        }
+        if (ignoreExtraElements) {
+            config = config.withOptions(Option.IGNORING_EXTRA_ARRAY_ITEMS, Option.IGNORING_EXTRA_FIELDS);
+        }
+        this.baseConfig = config;
+        CanonicalJson canonicalExpected = CanonicalJson.of(expected, ignoreArrayOrder);
+        this.canonical = canonicalExpected.hasPlaceholders() ? null : canonicalExpected;
+        this.ignoreArrayOrder = ignoreArrayOrder;
+        this.ignoreExtraElements = ignoreExtraElements;
+    }
+
+    @Override
+    public MatchResult match(String value) {
+        RequestView view = RequestView.current();
+        if (view == null || !view.isBody(value)) {
+            return super.match(value);
+        }
+
+        if (canonical != null) {
+            CanonicalJson canonicalActual;
+            try {
+                canonicalActual = view.canonicalJson(ignoreArrayOrder);
+            } catch (JsonException e) {
+                return MatchResult.noMatch(new SubEvent(JSON_ERROR, e.getErrors()));
+            }
+            if (canonical.equals(canonicalActual)) {
+                return MatchResult.exactMatch();
+            }
+            if (!ignoreExtraElements || !canonicalActual.containsLeavesOf(canonical)) {
+                return rejected(view);
+            }
+        }
+        return diff(view);
+    }
+
+    /**
+     * 已确定不匹配；距离只在近似匹配排序等场景读取时才做完整比较计算
+     */
+    private MatchResult rejected(RequestView view) {
+        return new MatchResult() {
+            @Override
+            public boolean isExactMatch() {
+                return false;
+            }
+
+            @Override
+            public double getDistance() {
+                return diff(view).getDistance();
+            }
+        };
+    }
+
+    private MatchResult diff(RequestView view) {
+        CountingDiffListener diffListener = new CountingDiffListener();
+        JsonNode actual;
+        Diff diff;
+        try {
+            actual = view.jsonBody();
+            diff = Diff.create(expected, actual, "", "", baseConfig.withDifferenceListener(diffListener));
+        } catch (JsonException e) {
+            return MatchResult.noMatch(new SubEvent(JSON_ERROR, e.getErrors()));
+        } catch (Exception e) {
+            return MatchResult.noMatch(SubEvent.warning(e.getMessage()));
+        }
+
+        return new MatchResult() {
+            @Override
+            public boolean isExactMatch() {
+                return diff.similar();
+            }
+
+            @Override
+            public double getDistance() {
+                diff.similar();
+                double maxNodes = maxDeepSize(expected, actual);
+                return diffListener.count / maxNodes;
+            }
+        };
+    }
+
+    private static final class CountingDiffListener implements DifferenceListener {
+
+        private int count;
+
+        @Override
+        public void diff(Difference difference, DifferenceContext context) {
+            int delta = maxDeepSize(difference.getExpected(), difference.getActual());
+            count += delta == 0 ? 1 : Math.abs(delta);
+        }
+    }
+}
@@ -2,22 +2,32 @@ package io.github.yeheng.wiremock.service;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.MappingBuilder;
-import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
-import com.github.tomakehurst.wiremock.direct.DirectCallHttpServer;
-import com.github.tomakehurst.wiremock.direct.DirectCallHttpServerFactory;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.Response;
 
+import io.github.yeheng.wiremock.config.WireMockProperties;
 import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.jfr.StubMatchEvent;
+import io.github.yeheng.wiremock.jfr.StubReloadEvent;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletResponse;
@@ -25,61 +35,69 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * 匹配引擎管理
+ * stub 变更不直接修改引擎，而是交给单写线程（{@link StubMutationQueue}）批量应用：
+ * 事务内的变更在提交后才入队，回滚时丢弃；同步 API 等待变更应用完成后返回
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class WireMockManager {
 
+    /**
+     * 事务提交后等待写线程应用变更的最长时间
+     */
+    private static final long APPLY_TIMEOUT_SECONDS = 30;
+
     @Value("${server.port:8080}")
     private int serverPort;
 
     private final RequestConverter requestConverter;
     private final ResponseConverter responseConverter;
     private final StubMappingConverter stubMappingConverter;
-    private final Map<String, StubMapping> stubs = new ConcurrentHashMap<>();
+    private final StubHitTracker stubHitTracker;
+    private final NearMissSampler nearMissSampler;
+    private final NamespaceResolver namespaceResolver;
+    private final ProxyRecorder proxyRecorder;
+    private final WireMockProperties properties;
+    private final Map<String, MockEngine> engines = new ConcurrentHashMap<>();
+    private final StubMutationQueue mutationQueue = new StubMutationQueue(this::applyBatch);
 
     @Getter
     private volatile boolean isRunning = false;
-    private WireMockServer wireMockServer;
-    private DirectCallHttpServer directCallServer;
     private int port;
 
     @PostConstruct
     public void initialize() {
         try {
-            startServer();
+            engine(StubMapping.DEFAULT_NAMESPACE).start();
+            isRunning = true;
             port = serverPort;
-            log.info("WireMock 集成: 内部 WireMockServer 端口={}, 应用端口={}", wireMockServer.port(), port);
-            log.info("所有非管理请求将代理到内部 WireMockServer 进行匹配");
+            log.info("WireMock 集成: 每个命名空间使用独立的内部 WireMockServer, 应用端口={}", port);
+            log.info("所有非管理请求将按命名空间路由到对应的 WireMockServer 进行匹配");
+            int shards = properties.getSharding().getShards();
+            if (shards > 1) {
+                log.info("分片模式: 每个命名空间 {} 个路由分片 + 1 个兜底分片", shards);
+            }
         } catch (Exception e) {
             log.error("WireMock 初始化失败", e);
             throw new RuntimeException("WireMock 初始化失败", e);
         }
     }
 
-    private synchronized void startServer() {
-        DirectCallHttpServerFactory factory = new DirectCallHttpServerFactory();
-        WireMockConfiguration config = WireMockConfiguration.options().dynamicPort()
-                .httpServerFactory(factory);
-        wireMockServer = new WireMockServer(config);
-        wireMockServer.start();
-
-        directCallServer = factory.getHttpServer();
-
-        isRunning = true;
-    }
-
     @PreDestroy
     public void shutdown() {
         isRunning = false;
-        stubs.clear();
-        try {
-            if (wireMockServer != null && wireMockServer.isRunning()) {
-                wireMockServer.stop();
+        mutationQueue.stop();
+        for (MockEngine engine : engines.values()) {
+            try {
+                engine.stop();
+            } catch (Exception e) {
+                log.warn("停止命名空间 {} 的 WireMockServer 失败", engine.getNamespace(), e);
             }
-        } catch (Exception e) {
-            log.warn("停止内部 WireMockServer 失败", e);
         }
+        engines.clear();
         log.info("WireMock 已关闭");
     }
 
@@ -87,6 +105,21 @@ public class WireMockManager {
         return isRunning ? port : 0;
     }
 
+    private MockEngine engine(String namespace) {
+        return engines.computeIfAbsent(namespace, ns -> {
+            WireMockProperties.Compression compression = properties.getCompression();
+            WireMockProperties.MatchCache matchCache = properties.getMatchCache();
+            return new MockEngine(ns, stubMappingConverter, nearMissSampler, properties.getSharding().getShards(),
+                    compression.isEnabled() ? compression.getMinSize() : -1,
+                    matchCache.isEnabled() ? matchCache.getMaxEntries() : 0);
+        });
+    }
+
+    private static String namespaceOf(StubMapping stub) {
+        String namespace = stub.getNamespace();
+        return namespace == null || namespace.isBlank() ? StubMapping.DEFAULT_NAMESPACE : namespace;
+    }
+
     public void handleRequest(jakarta.servlet.http.HttpServletRequest servletRequest,
             jakarta.servlet.http.HttpServletResponse servletResponse)
             throws IOException {
@@ -95,16 +128,85 @@ public class WireMockManager {
             return;
         }
 
+        long start = System.nanoTime();
         try {
-            Request request = requestConverter.convert(servletRequest);
-            Response response = routeRequest(request);
-            responseConverter.convert(response, servletResponse);
+            NamespaceResolver.Resolution resolution = namespaceResolver.resolve(servletRequest);
+            Request request = requestConverter.convert(servletRequest, resolution.strippedPrefix());
+            Response response = serve(resolution.namespace(), request);
+            responseConverter.convert(response, servletRequest, servletResponse);
+            stubHitTracker.record(response, System.nanoTime() - start);
         } catch (Exception e) {
             log.error("处理WireMock请求时出错", e);
             write500(servletResponse, e.getMessage());
         }
     }
 
+    /**
+     * 在命名空间的匹配引擎中匹配已转换的请求；启用代理时未匹配的请求转发到上游，并等待上游响应
+     */
+    public Response serve(String namespace, Request request) {
+        Response response = match(namespace, request);
+        return proxyRecorder.shouldForward(response) ? proxyRecorder.forward(namespace, request).join() : response;
+    }
+
+    /**
+     * 与 {@link #serve} 相同，但转发到上游时不阻塞调用线程
+     */
+    public CompletableFuture<Response> serveAsync(String namespace, Request request) {
+        Response response = match(namespace, request);
+        return proxyRecorder.shouldForward(response)
+                ? proxyRecorder.forward(namespace, request)
+                : CompletableFuture.completedFuture(response);
+    }
+
+    /**
+     * 没有任何 stub 的命名空间不创建引擎，直接返回未匹配
+     */
+    private Response match(String namespace, Request request) {
+        StubMatchEvent event = new StubMatchEvent();
+        event.begin();
+        MockEngine engine = engines.get(namespace);
+        Response response;
+        try {
+            response = engine != null && engine.isRunning()
+                    ? engine.handle(request)
+                    : Response.notConfigured();
+        } catch (RuntimeException e) {
+            commitMatchEvent(event, namespace, request, null, null);
+            throw e;
+        }
+        commitMatchEvent(event, namespace, request, engine, response);
+        return response;
+    }
+
+    private static void commitMatchEvent(StubMatchEvent event, String namespace, Request request, MockEngine engine,
+            Response response) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+        StubMapping stub = engine != null && response != null ? engine.matchedStub(response) : null;
+        event.namespace = namespace;
+        event.method = request.getMethod().getName();
+        event.url = request.getUrl();
+        String contentLength = request.getHeader("Content-Length");
+        event.bodySize = contentLength != null ? parseLength(contentLength) : -1;
+        if (stub != null) {
+            event.stubUuid = stub.getUuid();
+            event.urlMatchType = stub.getUrlMatchType() != null ? stub.getUrlMatchType().name() : null;
+        }
+        event.status = response != null ? response.getStatus() : 0;
+        event.outcome = response == null ? "ERROR" : stub != null ? "MATCHED" : "UNMATCHED";
+        event.commit();
+    }
+
+    private static long parseLength(String contentLength) {
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     private void write503(HttpServletResponse response, String message) throws IOException {
         response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
         response.setContentType("application/json;charset=UTF-8");
@@ -119,12 +221,6 @@ public class WireMockManager {
                 .write("{\"error\": \"Internal server error\", \"message\": \"" + message + "\"}");
     }
 
-    private Response routeRequest(Request request) {
-        return request.getUrl().startsWith("/__admin")
-                ? directCallServer.adminRequest(request)
-                : directCallServer.stubRequest(request);
-    }
-
     public void addStubMapping(StubMapping stubMapping) {
         if (!isRunning()) {
             throw new IllegalStateException("WireMock服务器未运行");
@@ -135,16 +231,46 @@ public class WireMockManager {
             return;
         }
 
-        String stubKey = ensureUuid(stubMapping);
-        stubs.put(stubKey, stubMapping);
+        apply(upsert(stubMapping));
+    }
 
-        registerWithWireMock(stubMapping);
+    /**
+     * 异步添加 stub，返回写线程应用完成的 future；不能在事务内等待该 future（变更在提交后才入队）
+     */
+    public CompletableFuture<Void> addStubMappingAsync(StubMapping stubMapping) {
+        if (!isRunning()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("WireMock服务器未运行"));
+        }
+        if (!isEnabled(stubMapping)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return submit(upsert(stubMapping));
+    }
+
+    /**
+     * 在调用线程上完成转换，转换失败时直接抛出，事务随之回滚
+     */
+    private Supplier<StubMutationQueue.Mutation> upsert(StubMapping stubMapping) {
+        ensureUuid(stubMapping);
+        MappingBuilder mapping = stubMappingConverter.convert(stubMapping);
+        ResponseTemplate template = stubMappingConverter.compileTemplate(stubMapping);
+        DatasetStore.Binding dataset = stubMappingConverter.bindDataset(stubMapping);
+        return () -> StubMutationQueue.Mutation.upsert(stubMapping, mapping, template, dataset);
+    }
 
-        log.info("已添加Stub Mapping: {} ({} {}) [uuid={}]",
-                stubMapping.getName(),
-                stubMapping.getMethod(),
-                stubMapping.getUrl(),
-                stubKey);
+    /**
+     * 添加或替换 stub；stub 改到了其他命名空间时先从原命名空间中删除
+     */
+    public void upsertStubMapping(StubMapping stubMapping) {
+        if (!isRunning()) {
+            throw new IllegalStateException("WireMock服务器未运行");
+        }
+        String stubKey = ensureUuid(stubMapping);
+        if (isEnabled(stubMapping)) {
+            apply(upsert(stubMapping));
+        } else {
+            apply(() -> StubMutationQueue.Mutation.remove(stubMapping, stubKey));
+        }
     }
 
     private boolean isEnabled(StubMapping stub) {
@@ -153,24 +279,11 @@ public class WireMockManager {
 
     private String ensureUuid(StubMapping stub) {
         if (stub.getUuid() == null || stub.getUuid().trim().isEmpty()) {
-            stub.setUuid(java.util.UUID.randomUUID().toString());
+            stub.setUuid(UUID.randomUUID().toString());
         }
         return stub.getUuid();
     }
 
-    private void registerWithWireMock(StubMapping stub) {
-        try {
-            ensureWireMockServerStarted();
-        } catch (IllegalAccessException e) {
-            log.error("启动 WireMockServer 失败", e);
-            throw new RuntimeException("启动 WireMockServer 失败", e);
-        }
-
-        MappingBuilder builder = stubMappingConverter.convert(stub);
-        wireMockServer.stubFor(builder);
-        log.debug("已注册 stub 到 WireMock server: {}", stub.getUrl());
-    }
-
     private String generateStubKey(StubMapping stubMapping) {
         String uuid = stubMapping.getUuid();
         if (uuid != null && !uuid.trim().isEmpty()) {
@@ -184,81 +297,311 @@ public class WireMockManager {
             return;
         }
 
+        apply(remove(stubMapping));
+    }
+
+    /**
+     * 异步删除 stub，返回写线程应用完成的 future；不能在事务内等待该 future
+     */
+    public CompletableFuture<Void> removeStubMappingAsync(StubMapping stubMapping) {
+        if (!isRunning()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return submit(remove(stubMapping));
+    }
+
+    private Supplier<StubMutationQueue.Mutation> remove(StubMapping stubMapping) {
         String stubKey = stubMapping.getUuid();
         if (stubKey == null || stubKey.trim().isEmpty()) {
             stubKey = generateStubKey(stubMapping);
         }
+        String key = stubKey;
+        return () -> StubMutationQueue.Mutation.remove(stubMapping, key);
+    }
+
+    /**
+     * 返回此前提交的全部变更应用完成的 future
+     */
+    public CompletableFuture<Void> flush() {
+        return mutationQueue.submitTask(() -> {
+        });
+    }
+
+    /**
+     * 有事务时延迟到提交后入队并等待，回滚时丢弃；没有事务时立即入队并等待。
+     * 变更对象在入队时才创建，以便带上事务内写入变更日志得到的版本号
+     */
+    private void apply(Supplier<StubMutationQueue.Mutation> mutation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            await(submit(mutation));
+            return;
+        }
+        PendingMutations pending = (PendingMutations) TransactionSynchronizationManager.getResource(mutationQueue);
+        if (pending == null) {
+            pending = new PendingMutations();
+            TransactionSynchronizationManager.bindResource(mutationQueue, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.mutations.add(mutation);
+    }
 
-        boolean removed = removeByKeyOrPattern(stubKey, stubMapping);
+    private CompletableFuture<Void> submit(Supplier<StubMutationQueue.Mutation> mutation) {
+        return mutationQueue.submit(mutation.get());
+    }
 
-        if (removed) {
-            reloadAllStubs();
-            log.info("已删除Stub Mapping: {}", stubMapping.getName());
-        } else {
-            log.warn("未找到要删除的Stub Mapping: {}", stubMapping.getName());
+    private static void await(CompletableFuture<Void> future) {
+        try {
+            future.get(APPLY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("应用 stub 变更失败", e.getCause());
+        } catch (TimeoutException e) {
+            log.warn("等待 stub 变更应用超时（{}s），变更仍在队列中", APPLY_TIMEOUT_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待 stub 变更应用时被中断", e);
         }
     }
 
-    private boolean removeByKeyOrPattern(String stubKey, StubMapping stub) {
-        if (stubKey != null) {
-            return stubs.remove(stubKey) != null;
+    /**
+     * 一个事务内积累的引擎变更，提交后一次性入队
+     */
+    private class PendingMutations implements TransactionSynchronization {
+
+        private final List<Supplier<StubMutationQueue.Mutation>> mutations = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(mutations.size());
+            for (Supplier<StubMutationQueue.Mutation> mutation : mutations) {
+                futures.add(submit(mutation));
+            }
+            try {
+                await(CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)));
+            } catch (RuntimeException e) {
+                // 数据库已提交，引擎应用失败只记录，下次重载时恢复一致
+                log.error("事务已提交，但应用 stub 变更失败", e);
+            }
         }
 
-        return stubs.entrySet().removeIf(entry -> {
-            StubMapping s = entry.getValue();
-            return s.getUrl().equals(stub.getUrl())
-                    && s.getMethod().equalsIgnoreCase(stub.getMethod());
-        });
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(mutationQueue);
+        }
     }
 
-    private void reloadAllStubs() {
+    /**
+     * 在写线程上应用一批已合并的变更；每个命名空间在批次期间冻结匹配视图，批次结束后一次性发布
+     */
+    private void applyBatch(List<StubMutationQueue.Mutation> batch) {
+        List<MockEngine> touched = new ArrayList<>();
         try {
-            ensureWireMockServerStarted();
-            wireMockServer.resetMappings();
-            for (StubMapping s : stubs.values()) {
-                wireMockServer.stubFor(stubMappingConverter.convert(s));
+            for (StubMutationQueue.Mutation mutation : batch) {
+                switch (mutation.type()) {
+                    case UPSERT -> applyUpsert(mutation, touched);
+                    case REMOVE -> applyRemove(mutation, touched);
+                }
+            }
+        } finally {
+            touched.forEach(MockEngine::endBatch);
+        }
+    }
+
+    private void applyUpsert(StubMutationQueue.Mutation mutation, List<MockEngine> touched) {
+        StubMapping stub = mutation.stub();
+        String namespace = namespaceOf(stub);
+        // stub 改到了其他命名空间时先从原命名空间中删除
+        for (MockEngine engine : engines.values()) {
+            if (!engine.getNamespace().equals(namespace) && engine.remove(mutation.key(), stub)) {
+                begin(engine, touched);
+            }
+        }
+        MockEngine engine = engine(namespace);
+        begin(engine, touched);
+        engine.add(stub, mutation.mapping(), mutation.template(), mutation.dataset());
+
+        log.info("已添加Stub Mapping: {} ({} {}) [namespace={}, uuid={}]",
+                stub.getName(),
+                stub.getMethod(),
+                stub.getUrl(),
+                namespace,
+                mutation.key());
+    }
+
+    private void applyRemove(StubMutationQueue.Mutation mutation, List<MockEngine> touched) {
+        MockEngine engine = engines.get(namespaceOf(mutation.stub()));
+        if (engine != null) {
+            begin(engine, touched);
+        }
+        if (removeFromEngines(mutation.key(), mutation.stub())) {
+            log.info("已删除Stub Mapping: {}", mutation.stub().getName());
+        } else {
+            log.warn("未找到要删除的Stub Mapping: {}", mutation.stub().getName());
+        }
+    }
+
+    private static void begin(MockEngine engine, List<MockEngine> touched) {
+        if (!touched.contains(engine)) {
+            engine.beginBatch();
+            touched.add(engine);
+        }
+    }
+
+    /**
+     * 先在 stub 当前所属的命名空间中删除；更新时实体可能已被改到新的命名空间，
+     * 此时按 UUID 在其他命名空间中查找
+     */
+    private boolean removeFromEngines(String stubKey, StubMapping stubMapping) {
+        MockEngine engine = engines.get(namespaceOf(stubMapping));
+        if (engine != null && engine.remove(stubKey, stubMapping)) {
+            return true;
+        }
+        if (stubKey == null) {
+            return false;
+        }
+        for (MockEngine other : engines.values()) {
+            if (other != engine && other.remove(stubKey, stubMapping)) {
+                return true;
             }
-        } catch (IllegalAccessException e) {
-            log.error("重载 Stubs 失败", e);
         }
+        return false;
     }
 
+    /**
+     * 按命名空间分组重载全部 stubs，不在新列表中的命名空间被清空
+     */
     public void reloadAllStubs(List<StubMapping> newStubs) {
         if (!isRunning()) {
             return;
         }
 
-        stubs.clear();
+        StubReloadEvent event = new StubReloadEvent();
+        event.begin();
+        Map<String, List<StubMapping>> byNamespace = groupEnabledByNamespace(newStubs);
+        boolean success = false;
         try {
-            ensureWireMockServerStarted();
-        } catch (IllegalAccessException e) {
-            log.error("启动 WireMockServer 失败", e);
+            await(mutationQueue.submitTask(() -> {
+                for (String namespace : engines.keySet()) {
+                    byNamespace.putIfAbsent(namespace, List.of());
+                }
+                byNamespace.forEach((namespace, stubs) -> reloadEngine(namespace, stubs));
+            }));
+            success = true;
+        } finally {
+            commitReloadEvent(event, "*", byNamespace.values().stream().mapToInt(List::size).sum(), success);
+        }
+
+        log.info("已重新加载所有Stub Mappings，数量: {}", getStubCount());
+    }
+
+    /**
+     * 只重载一个命名空间，其他命名空间不受影响
+     */
+    public void reloadNamespace(String namespace, List<StubMapping> newStubs) {
+        if (!isRunning()) {
             return;
         }
-        wireMockServer.resetMappings();
+        StubReloadEvent event = new StubReloadEvent();
+        event.begin();
+        List<StubMapping> stubs = groupEnabledByNamespace(newStubs).getOrDefault(namespace, List.of());
+        boolean success = false;
+        try {
+            await(mutationQueue.submitTask(() -> reloadEngine(namespace, stubs)));
+            success = true;
+        } finally {
+            commitReloadEvent(event, namespace, stubs.size(), success);
+        }
+        log.info("已重新加载命名空间 {} 的Stub Mappings，数量: {}", namespace, stubs.size());
+    }
+
+    private static void commitReloadEvent(StubReloadEvent event, String namespace, int stubCount, boolean success) {
+        if (event.shouldCommit()) {
+            event.namespace = namespace;
+            event.stubCount = stubCount;
+            event.outcome = success ? "SUCCESS" : "ERROR";
+            event.commit();
+        }
+    }
 
-        newStubs.stream()
-                .filter(this::isEnabled)
-                .forEach(this::addStubMapping);
+    private void reloadEngine(String namespace, List<StubMapping> stubs) {
+        for (StubMapping stub : stubs) {
+            ensureUuid(stub);
+        }
+        engine(namespace).reload(stubs);
+    }
 
-        log.info("已重新加载所有Stub Mappings，数量: {}", stubs.size());
+    private Map<String, List<StubMapping>> groupEnabledByNamespace(List<StubMapping> stubs) {
+        Map<String, List<StubMapping>> byNamespace = new HashMap<>();
+        for (StubMapping stub : stubs) {
+            if (isEnabled(stub)) {
+                byNamespace.computeIfAbsent(namespaceOf(stub), k -> new ArrayList<>()).add(stub);
+            }
+        }
+        return byNamespace;
     }
 
+    /**
+     * 重置所有命名空间
+     */
     public void reset() {
-        stubs.clear();
-        if (wireMockServer != null && wireMockServer.isRunning()) {
-            wireMockServer.resetAll();
-        }
-        log.info("WireMock服务器已重置");
+        await(mutationQueue.submitTask(() -> {
+            for (MockEngine engine : engines.values()) {
+                engine.reset();
+            }
+        }));
+        log.info("WireMock服务器已重置（全部命名空间）");
+    }
+
+    /**
+     * 只重置一个命名空间；非默认命名空间的引擎会被停止并释放
+     */
+    public void reset(String namespace) {
+        await(mutationQueue.submitTask(() -> {
+            if (StubMapping.DEFAULT_NAMESPACE.equals(namespace)) {
+                MockEngine engine = engines.get(namespace);
+                if (engine != null) {
+                    engine.reset();
+                }
+            } else {
+                MockEngine engine = engines.remove(namespace);
+                if (engine != null) {
+                    engine.stop();
+                }
+            }
+        }));
+        log.info("命名空间 {} 已重置", namespace);
     }
 
     public List<StubMapping> getAllStubs() {
-        return new ArrayList<>(stubs.values());
+        List<StubMapping> all = new ArrayList<>();
+        for (MockEngine engine : engines.values()) {
+            all.addAll(engine.getStubs());
+        }
+        return all;
     }
 
-    private void ensureWireMockServerStarted() throws IllegalAccessException {
-        if (wireMockServer == null || !wireMockServer.isRunning()) {
-            startServer();
+    public List<StubMapping> getAllStubs(String namespace) {
+        MockEngine engine = engines.get(namespace);
+        return engine != null ? engine.getStubs() : List.of();
+    }
+
+    private int getStubCount() {
+        int count = 0;
+        for (MockEngine engine : engines.values()) {
+            count += engine.getStubCount();
         }
+        return count;
+    }
+
+    /**
+     * 各命名空间的 stub 数量与请求统计，按名称排序
+     */
+    public List<MockEngine.NamespaceStats> getNamespaceStats() {
+        return engines.values().stream()
+                .map(MockEngine::stats)
+                .sorted(Comparator.comparing(MockEngine.NamespaceStats::namespace))
+                .toList();
     }
 }
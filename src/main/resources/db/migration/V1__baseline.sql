@@ -0,0 +1,19 @@
+-- 初始版本的 stub 表结构；已有数据库通过 baseline-on-migrate 直接视为该版本
+create table stub_mappings (
+    id bigint generated by default as identity,
+    name varchar(200) not null,
+    description varchar(1000),
+    uuid varchar(50),
+    enabled boolean not null,
+    priority integer not null,
+    method varchar(10) not null,
+    url varchar(1000) not null,
+    url_match_type enum ('CONTAINS','EQUALS','PATH_TEMPLATE','REGEX') not null,
+    request_body_pattern CLOB,
+    request_headers_pattern CLOB,
+    query_parameters_pattern CLOB,
+    response_definition CLOB not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    primary key (id)
+);
@@ -0,0 +1,4 @@
+-- 命中统计：累计命中次数与最近命中时间，由 StubHitTracker 批量回写
+alter table stub_mappings add column hit_count bigint default 0 not null;
+alter table stub_mappings add column last_hit_at timestamp(6);
+create index idx_stub_mappings_uuid on stub_mappings (uuid);
@@ -0,0 +1,2 @@
+-- 按 URL 与方法查重时走索引
+create index idx_stub_mappings_url_method on stub_mappings (url, method);
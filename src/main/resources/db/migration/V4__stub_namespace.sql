@@ -0,0 +1,3 @@
+-- 命名空间：已有 stub 归入默认命名空间
+alter table stub_mappings add column namespace varchar(100) default 'default' not null;
+create index idx_stub_mappings_namespace on stub_mappings (namespace);
@@ -0,0 +1,12 @@
+-- stub 变更日志，多节点按版本号增量同步
+create table stub_change_log (
+    version bigint generated by default as identity,
+    stub_id bigint,
+    uuid varchar(50),
+    namespace varchar(100) not null,
+    operation enum ('DELETE','UPSERT') not null,
+    node_id varchar(100) not null,
+    created_at timestamp(6) not null,
+    primary key (version)
+);
+create index idx_stub_change_log_created_at on stub_change_log (created_at);
@@ -0,0 +1,2 @@
+-- 响应模板开关，已有 stub 不按模板渲染
+alter table stub_mappings add column templated boolean default false not null;
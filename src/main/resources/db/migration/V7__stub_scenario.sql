@@ -0,0 +1,4 @@
+-- 场景状态
+alter table stub_mappings add column scenario_name varchar(200);
+alter table stub_mappings add column required_scenario_state varchar(200);
+alter table stub_mappings add column new_scenario_state varchar(200);
@@ -0,0 +1,4 @@
+-- 响应限速与分片写回
+alter table stub_mappings add column throttle_bytes_per_second integer;
+alter table stub_mappings add column dribble_chunks integer;
+alter table stub_mappings add column dribble_duration_ms integer;
@@ -0,0 +1,4 @@
+-- 数据集 stub
+alter table stub_mappings add column dataset_file varchar(500);
+alter table stub_mappings add column dataset_key varchar(200);
+alter table stub_mappings add column dataset_key_field varchar(200);
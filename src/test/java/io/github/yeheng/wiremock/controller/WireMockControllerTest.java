@@ -10,6 +10,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.github.yeheng.wiremock.service.StubReplicator;
 import io.github.yeheng.wiremock.service.WireMockManager;
 
 /**
@@ -22,6 +23,9 @@ class WireMockControllerTest {
     @Mock
     private WireMockManager wireMockManager;
 
+    @Mock
+    private StubReplicator stubReplicator;
+
     @InjectMocks
     private WireMockController controller;
 
@@ -75,4 +79,19 @@ class WireMockControllerTest {
         assertTrue(result.getStatusCode().is4xxClientError());
         verify(wireMockManager).reset();
     }
+
+    @Test
+    @DisplayName("测试 getReplication - 返回本节点复制进度")
+    void testGetReplication() {
+        // 准备
+        var status = new StubReplicator.ReplicationStatus("node-a", true, 7, 9, 2, 150, 0, 5, null);
+        when(stubReplicator.status()).thenReturn(status);
+
+        // 执行
+        var result = controller.getReplication();
+
+        // 验证
+        assertTrue(result.getStatusCode().is2xxSuccessful());
+        assertEquals(2, result.getBody().lagVersions());
+    }
 }
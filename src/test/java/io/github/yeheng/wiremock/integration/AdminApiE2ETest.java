@@ -525,6 +525,47 @@ class AdminApiE2ETest {
         assertEquals(404, failResp.statusCode(), "缺少匹配Header时应该返回404");
     }
 
+    @Test
+    @DisplayName("TDD场景10: mock 命中后，热度接口按命中次数排序返回")
+    void testHeatEndpoint_ReflectsMockHits() throws Exception {
+        String hotJson = """
+                {"name": "热点接口", "method": "GET", "url": "/api/heat/hot", "enabled": true,
+                 "responseDefinition": "{\\"hot\\": true}"}
+                """;
+        String coldJson = """
+                {"name": "冷门接口", "method": "GET", "url": "/api/heat/cold", "enabled": true,
+                 "responseDefinition": "{\\"hot\\": false}"}
+                """;
+        for (String json : new String[] { hotJson, coldJson }) {
+            HttpResponse<String> created = httpClient.send(HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + port + "/admin/stubs"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, created.statusCode());
+        }
+
+        for (int i = 0; i < 3; i++) {
+            HttpResponse<String> hit = httpClient.send(HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + port + "/api/heat/hot"))
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, hit.statusCode());
+        }
+
+        HttpResponse<String> heat = httpClient.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + "/admin/stubs/heat?limit=100"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, heat.statusCode());
+        String body = heat.body();
+        assertTrue(body.indexOf("/api/heat/hot") < body.indexOf("/api/heat/cold"),
+                "命中多的 stub 应该排在前面: " + body);
+        assertTrue(body.matches("(?s).*\"url\"\\s*:\\s*\"/api/heat/hot\",\\s*\"hitCount\"\\s*:\\s*3\\b.*"),
+                "热点 stub 应记录 3 次命中: " + body);
+    }
+
     /**
      * 从 JSON 响应中提取 ID
      */
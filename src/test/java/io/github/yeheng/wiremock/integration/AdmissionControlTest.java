@@ -0,0 +1,116 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+import io.github.yeheng.wiremock.service.AdaptiveLimiter;
+import io.github.yeheng.wiremock.service.AdmissionControl;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 准入控制集成测试
+ * mock 类别的名额被占满时 mock 请求立即被拒绝，管理 API 使用独立的上限不受影响
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_admission",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false",
+        "wiremock.admission.enabled=true",
+        "wiremock.admission.reject-status=429",
+        "wiremock.admission.retry-after-seconds=2",
+        "wiremock.admission.mock.initial=1",
+        "wiremock.admission.mock.min=1",
+        "wiremock.admission.mock.max=1"
+})
+@DisplayName("准入控制集成测试")
+class AdmissionControlTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("mock 名额占满时返回 429 与 Retry-After，管理 API 不受影响，归还后恢复")
+    void testRejectWhenSaturated() throws Exception {
+        // 准备
+        Map<String, Object> stub = new LinkedHashMap<>();
+        stub.put("name", "准入控制");
+        stub.put("method", "GET");
+        stub.put("url", "/api/admission/ping");
+        stub.put("urlMatchType", "EQUALS");
+        stub.put("enabled", true);
+        stub.put("responseDefinition", "{\"pong\": true}");
+        HttpResponse<String> created = send(HttpRequest.newBuilder(uri("/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(stub))));
+        assertEquals(201, created.statusCode(), created.body());
+        AdaptiveLimiter.Permit held = admissionControl.tryAcquire(AdmissionControl.RouteClass.MOCK);
+        assertNotNull(held);
+
+        // 执行
+        HttpResponse<String> rejected;
+        HttpResponse<String> admin;
+        try {
+            rejected = send(HttpRequest.newBuilder(uri("/api/admission/ping")).GET());
+            admin = send(HttpRequest.newBuilder(uri("/admin/wiremock/admission")).GET());
+        } finally {
+            held.release();
+        }
+        HttpResponse<String> accepted = send(HttpRequest.newBuilder(uri("/api/admission/ping")).GET());
+
+        // 验证
+        assertEquals(429, rejected.statusCode());
+        assertEquals("2", rejected.headers().firstValue("Retry-After").orElse(null));
+        assertTrue(rejected.body().contains("Too Many Requests"), rejected.body());
+        assertEquals(200, admin.statusCode());
+        JsonNode status = objectMapper.readTree(admin.body());
+        assertTrue(status.get("enabled").asBoolean());
+        JsonNode mock = status.get("limiters").get(0);
+        assertEquals("mock", mock.get("route").asText());
+        assertEquals(1, mock.get("limit").asInt());
+        assertTrue(mock.get("rejected").asLong() >= 1);
+        assertEquals(200, accepted.statusCode());
+        assertEquals("{\"pong\": true}", accepted.body());
+        assertTrue(meterRegistry.get("wiremock.admission.rejected").tag("route", "mock")
+                .functionCounter().count() >= 1);
+        assertEquals(1.0, meterRegistry.get("wiremock.admission.limit").tag("route", "mock").gauge().value());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws Exception {
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
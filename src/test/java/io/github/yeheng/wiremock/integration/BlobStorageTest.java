@@ -0,0 +1,137 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+import io.github.yeheng.wiremock.service.BlobStore;
+
+/**
+ * stub 大字段落盘去重测试
+ * 相同的大响应体只落盘一份，数据库中保存内容引用，查询、匹配与重载时解析回原文
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_blob_storage",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false",
+        "wiremock.blobs.enabled=true",
+        "wiremock.blobs.min-size=1024"
+})
+@DisplayName("stub 大字段落盘去重测试")
+class BlobStorageTest {
+
+    @TempDir
+    static Path storageDirectory;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("wiremock.stub-storage-directory", () -> storageDirectory.toString());
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private static String largeBody() {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            items.append(i == 0 ? "" : ", ").append("{\\\"id\\\": ").append(i).append(", \\\"status\\\": \\\"active\\\"}");
+        }
+        return "{\\\"items\\\": [" + items + "]}";
+    }
+
+    private static String expectedLargeBody() {
+        return largeBody().replace("\\\"", "\"");
+    }
+
+    @Test
+    @DisplayName("相同的大响应体只落盘一份，数据库保存引用，匹配与重载后响应不变")
+    void testDeduplicatedStorage() throws Exception {
+        // 准备
+        long first = createStub("/api/blobs/first");
+        long second = createStub("/api/blobs/second");
+
+        // 执行
+        List<String> columns = jdbcTemplate.queryForList(
+                "SELECT response_definition FROM stub_mappings WHERE id IN (?, ?)", String.class, first, second);
+        HttpResponse<String> stored = send(HttpRequest.newBuilder(uri("/admin/stubs/" + second)).GET());
+        HttpResponse<String> reload = send(HttpRequest.newBuilder(uri("/admin/stubs/reload"))
+                .POST(HttpRequest.BodyPublishers.noBody()));
+        HttpResponse<String> mockFirst = send(HttpRequest.newBuilder(uri("/api/blobs/first")).GET());
+        HttpResponse<String> mockSecond = send(HttpRequest.newBuilder(uri("/api/blobs/second")).GET());
+
+        // 验证
+        assertEquals(2, columns.size());
+        assertTrue(columns.stream().allMatch(BlobStore::isReference), columns.toString());
+        assertEquals(columns.get(0), columns.get(1));
+        assertEquals(1, blobFiles().size());
+        assertEquals(expectedLargeBody(),
+                objectMapper.readTree(stored.body()).get("responseDefinition").asText());
+        assertEquals(200, reload.statusCode());
+        assertEquals(expectedLargeBody(), mockFirst.body());
+        assertEquals(expectedLargeBody(), mockSecond.body());
+    }
+
+    private long createStub(String url) throws Exception {
+        String json = """
+                {
+                    "name": "落盘 %s",
+                    "method": "GET",
+                    "url": "%s",
+                    "urlMatchType": "EQUALS",
+                    "enabled": true,
+                    "responseDefinition": "%s"
+                }
+                """.formatted(url, url, largeBody());
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)));
+        assertEquals(201, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    private List<Path> blobFiles() throws Exception {
+        try (Stream<Path> stream = Files.walk(storageDirectory)) {
+            return stream.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws Exception {
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -25,6 +25,7 @@ import org.springframework.test.context.TestPropertySource;
 import io.github.yeheng.wiremock.WiremockUiApplication;
 import io.github.yeheng.wiremock.entity.StubMapping;
 import io.github.yeheng.wiremock.repository.StubMappingRepository;
+import io.github.yeheng.wiremock.service.StubHitTracker;
 import io.github.yeheng.wiremock.service.StubMappingService;
 import io.github.yeheng.wiremock.service.WireMockManager;
 import lombok.extern.slf4j.Slf4j;
@@ -58,6 +59,9 @@ class DatabaseWireMockConsistencyTest {
     @Autowired
     private WireMockManager wireMockManager;
 
+    @Autowired
+    private StubHitTracker stubHitTracker;
+
     @AfterEach
     void cleanup() {
         // 清理所有测试数据
@@ -434,6 +438,28 @@ class DatabaseWireMockConsistencyTest {
             "数据库enabled状态和WireMock存在性应该一致");
     }
 
+    @Test
+    @DisplayName("命中统计：批量回写 hitCount/lastHitAt，更新 stub 不覆盖计数")
+    void testHitStats_FlushAndPreserveOnUpdate() {
+        StubMapping savedStub = stubMappingService.createStub(createTestStub("命中统计", "/api/hits"));
+
+        stubHitTracker.record(savedStub.getUuid(), 1_000_000);
+        stubHitTracker.record(savedStub.getUuid(), 2_000_000);
+        stubHitTracker.flush();
+
+        StubMapping dbStub = stubMappingRepository.findById(savedStub.getId()).orElseThrow();
+        assertEquals(2L, dbStub.getHitCount());
+        assertNotNull(dbStub.getLastHitAt());
+
+        // 通过 API 更新时不应把计数清零
+        StubMapping update = createTestStub("命中统计-更新", "/api/hits");
+        stubMappingService.updateStub(savedStub.getId(), update);
+
+        dbStub = stubMappingRepository.findById(savedStub.getId()).orElseThrow();
+        assertEquals(2L, dbStub.getHitCount());
+        assertEquals("命中统计-更新", dbStub.getName());
+    }
+
     // ==================== 辅助方法 ====================
 
     /**
@@ -0,0 +1,176 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+
+/**
+ * 数据集 stub 集成测试
+ * 一个 stub 按请求中的键从数据集文件查找响应，数据集中没有的键不匹配该 stub
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_dataset",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false",
+        "wiremock.compression.enabled=false"
+})
+@DisplayName("数据集 stub 集成测试")
+class DatasetStubTest {
+
+    @TempDir
+    static Path storageDirectory;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("wiremock.stub-storage-directory", () -> storageDirectory.toString());
+    }
+
+    @BeforeAll
+    static void writeDatasets() throws Exception {
+        Path datasets = Files.createDirectories(storageDirectory.resolve("datasets"));
+        StringBuilder customers = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            customers.append("{\"customerId\": \"C").append(i).append("\", \"tier\": \"")
+                    .append(i % 2 == 0 ? "gold" : "silver").append("\"}\n");
+        }
+        Files.writeString(datasets.resolve("customers.jsonl"), customers);
+        Files.writeString(datasets.resolve("prices.csv"), "sku,price\nA-1,9.90\nB-2,19.90\n");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("路径变量取键：命中的键返回对应行，缺失的键返回 404")
+    void testPathVariableKey() throws Exception {
+        // 准备
+        Map<String, Object> stub = stub("客户数据集", "/api/dataset/customers/{id}", "customers.jsonl", "path.id",
+                "customerId");
+        stub.put("urlMatchType", "PATH_TEMPLATE");
+        HttpResponse<String> created = postStub(stub);
+
+        // 执行
+        HttpResponse<String> first = get("/api/dataset/customers/C0");
+        HttpResponse<String> last = get("/api/dataset/customers/C4999");
+        HttpResponse<String> missing = get("/api/dataset/customers/C5000");
+
+        // 验证
+        assertEquals(201, created.statusCode(), created.body());
+        assertEquals("{\"customerId\": \"C0\", \"tier\": \"gold\"}", first.body());
+        assertEquals("{\"customerId\": \"C4999\", \"tier\": \"silver\"}", last.body());
+        assertEquals(404, missing.statusCode());
+    }
+
+    @Test
+    @DisplayName("查询参数取键：CSV 记录按表头返回 JSON 对象")
+    void testQueryKeyCsv() throws Exception {
+        // 准备
+        HttpResponse<String> created = postStub(stub("价格数据集", "/api/dataset/prices", "prices.csv",
+                "request.query.sku", "sku"));
+
+        // 执行
+        HttpResponse<String> response = get("/api/dataset/prices?sku=B-2");
+
+        // 验证
+        assertEquals(201, created.statusCode(), created.body());
+        assertEquals(200, response.statusCode());
+        JsonNode record = objectMapper.readTree(response.body());
+        assertEquals("B-2", record.get("sku").asText());
+        assertEquals("19.90", record.get("price").asText());
+    }
+
+    @Test
+    @DisplayName("数据集文件不存在或缺少键设置时拒绝创建")
+    void testInvalidDataset() throws Exception {
+        HttpResponse<String> missingFile = postStub(stub("缺少文件", "/api/dataset/missing", "missing.jsonl",
+                "request.query.id", "id"));
+        Map<String, Object> noKey = stub("缺少键", "/api/dataset/nokey", "customers.jsonl", "request.query.id",
+                "customerId");
+        noKey.remove("datasetKey");
+
+        assertEquals(400, missingFile.statusCode());
+        assertEquals(400, postStub(noKey).statusCode());
+    }
+
+    @Test
+    @DisplayName("数据集文件在保存后被删除：重载跳过该 stub，其余 stub 照常注册")
+    void testReloadSkipsMissingDataset() throws Exception {
+        // 准备
+        Path orphan = storageDirectory.resolve("datasets").resolve("orphan.jsonl");
+        Files.writeString(orphan, "{\"id\": \"1\"}\n");
+        assertEquals(201, postStub(stub("孤立数据集", "/api/dataset/orphan", "orphan.jsonl", "request.query.id", "id"))
+                .statusCode());
+        Map<String, Object> plain = stub("普通 stub", "/api/dataset/plain", null, null, null);
+        plain.put("responseDefinition", "{\"plain\": true}");
+        assertEquals(201, postStub(plain).statusCode());
+        Files.delete(orphan);
+
+        // 执行
+        HttpResponse<String> reloaded = httpClient.send(HttpRequest.newBuilder(uri("/admin/stubs/reload"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+
+        // 验证
+        assertEquals(200, reloaded.statusCode(), reloaded.body());
+        assertEquals("{\"plain\": true}", get("/api/dataset/plain").body());
+        assertEquals(404, get("/api/dataset/orphan?id=1").statusCode());
+    }
+
+    private Map<String, Object> stub(String name, String url, String file, String key, String keyField) {
+        Map<String, Object> stub = new LinkedHashMap<>();
+        stub.put("name", name);
+        stub.put("method", "GET");
+        stub.put("url", url);
+        stub.put("urlMatchType", "EQUALS");
+        stub.put("enabled", true);
+        stub.put("datasetFile", file);
+        stub.put("datasetKey", key);
+        stub.put("datasetKeyField", keyField);
+        return stub;
+    }
+
+    private HttpResponse<String> postStub(Map<String, Object> stub) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri("/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(stub)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+import io.github.yeheng.wiremock.test.WaitUtils;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * JFR 事件与录制端点集成测试
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_jfr",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@DisplayName("JFR 事件集成测试")
+class FlightRecorderTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("录制期间的 stub 写入、重载、请求转换、匹配与响应写回都记录为 JFR 事件")
+    void testRecordedEvents() throws Exception {
+        // 准备
+        CompletableFuture<HttpResponse<byte[]>> recording = httpClient.sendAsync(
+                HttpRequest.newBuilder(uri("/admin/wiremock/jfr?seconds=3&thresholdMs=0")).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertTrue(WaitUtils.waitForCondition(() -> FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .anyMatch(r -> "wiremock-admin".equals(r.getName()) && r.getState() == RecordingState.RUNNING),
+                5000, 20));
+
+        // 执行
+        Map<String, Object> stub = new LinkedHashMap<>();
+        stub.put("name", "JFR");
+        stub.put("method", "POST");
+        stub.put("url", "/api/jfr/orders");
+        stub.put("urlMatchType", "EQUALS");
+        stub.put("enabled", true);
+        stub.put("responseDefinition", "{\"id\": 1}");
+        HttpResponse<String> created = send(HttpRequest.newBuilder(uri("/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(stub))));
+        String uuid = objectMapper.readTree(created.body()).get("uuid").asText();
+        HttpResponse<String> mock = send(HttpRequest.newBuilder(uri("/api/jfr/orders"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"item\": \"a\"}")));
+        send(HttpRequest.newBuilder(uri("/admin/stubs/reload")).POST(HttpRequest.BodyPublishers.noBody()));
+        HttpResponse<String> concurrent = send(HttpRequest.newBuilder(uri("/admin/wiremock/jfr?seconds=1")).GET());
+        HttpResponse<byte[]> response = recording.join();
+
+        // 验证
+        assertEquals(201, created.statusCode(), created.body());
+        assertEquals(200, mock.statusCode());
+        assertEquals(409, concurrent.statusCode());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Disposition").orElse("").contains(".jfr"));
+
+        Path file = Files.createTempFile("wiremock-test-", ".jfr");
+        try {
+            Files.write(file, response.body());
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+            RecordedEvent write = single(events, "wiremock.StubWrite");
+            assertEquals("CREATE", write.getString("operation"));
+            assertEquals(uuid, write.getString("stubUuid"));
+            assertEquals("EQUALS", write.getString("urlMatchType"));
+            assertEquals("SUCCESS", write.getString("outcome"));
+
+            RecordedEvent conversion = single(events, "wiremock.RequestConversion");
+            assertEquals("/api/jfr/orders", conversion.getString("uri"));
+            assertEquals(13, conversion.getLong("bodySize"));
+
+            RecordedEvent match = single(events, "wiremock.StubMatch");
+            assertEquals(uuid, match.getString("stubUuid"));
+            assertEquals("EQUALS", match.getString("urlMatchType"));
+            assertEquals("MATCHED", match.getString("outcome"));
+            assertEquals(200, match.getInt("status"));
+
+            RecordedEvent written = single(events, "wiremock.ResponseWrite");
+            assertEquals(uuid, written.getString("stubUuid"));
+            assertEquals(9, written.getLong("bodySize"));
+
+            RecordedEvent reload = single(events, "wiremock.StubReload");
+            assertEquals("*", reload.getString("namespace"));
+            assertEquals("SUCCESS", reload.getString("outcome"));
+            assertTrue(reload.getInt("stubCount") >= 1);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("录制时长超出范围时返回 400")
+    void testInvalidDuration() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/admin/wiremock/jfr?seconds=0")).GET());
+        assertEquals(400, response.statusCode());
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws Exception {
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
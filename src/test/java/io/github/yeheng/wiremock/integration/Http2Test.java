@@ -0,0 +1,139 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+
+/**
+ * 明文 HTTP/2 测试
+ * h2c 升级后同一连接上的并发 mock 请求多路复用，prior knowledge 连接直接以 HTTP/2 开始，HTTP/1.1 客户端不受影响
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_http2",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@DisplayName("明文 HTTP/2 测试")
+class Http2Test {
+
+    private static final byte[] PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("h2c 升级后并发 mock 请求经 HTTP/2 多路复用返回正确响应")
+    void testMultiplexedMockRequests() throws Exception {
+        // 准备
+        createStub("/api/h2/items", "{\"items\": [1, 2, 3]}");
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        HttpResponse<String> first = client.send(HttpRequest.newBuilder(uri("/api/h2/items")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // 执行
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(client.sendAsync(HttpRequest.newBuilder(uri("/api/h2/items")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        HttpResponse<String> unmatched = client.send(
+                HttpRequest.newBuilder(uri("/api/h2/missing")).GET().build(), HttpResponse.BodyHandlers.ofString());
+
+        // 验证
+        assertEquals(200, first.statusCode());
+        for (CompletableFuture<HttpResponse<String>> future : futures) {
+            HttpResponse<String> response = future.join();
+            assertEquals(HttpClient.Version.HTTP_2, response.version());
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"items\": [1, 2, 3]}", response.body());
+            assertTrue(response.headers().firstValue("Connection").isEmpty());
+        }
+        assertEquals(HttpClient.Version.HTTP_2, unmatched.version());
+        assertEquals(404, unmatched.statusCode());
+        assertTrue(unmatched.body().contains("No matching stub"), unmatched.body());
+    }
+
+    @Test
+    @DisplayName("HTTP/1.1 客户端仍按 HTTP/1.1 处理")
+    void testHttp1Client() throws Exception {
+        // 准备
+        createStub("/api/h2/legacy", "{\"legacy\": true}");
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        // 执行
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/h2/legacy")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // 验证
+        assertEquals(HttpClient.Version.HTTP_1_1, response.version());
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"legacy\": true}", response.body());
+    }
+
+    @Test
+    @DisplayName("以 prior knowledge 方式发送连接前言时服务端直接以 HTTP/2 SETTINGS 帧响应")
+    void testPriorKnowledge() throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+
+            // 执行：连接前言 + 空 SETTINGS 帧
+            out.write(PREFACE);
+            out.write(new byte[] {0, 0, 0, 0x4, 0, 0, 0, 0, 0});
+            out.flush();
+            byte[] frameHeader = new byte[9];
+            new DataInputStream(socket.getInputStream()).readFully(frameHeader);
+
+            // 验证：帧类型 0x4 为 SETTINGS
+            assertEquals(0x4, frameHeader[3]);
+        }
+    }
+
+    private void createStub(String url, String body) throws Exception {
+        Map<String, Object> stub = new LinkedHashMap<>();
+        stub.put("name", "HTTP/2 " + url);
+        stub.put("method", "GET");
+        stub.put("url", url);
+        stub.put("urlMatchType", "EQUALS");
+        stub.put("enabled", true);
+        stub.put("responseDefinition", body);
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(uri("/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(stub)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), response.body());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+
+/**
+ * 命名空间隔离测试
+ * 相同 URL 的 stub 在不同命名空间中互不干扰，按请求头或路径前缀路由，重置只影响目标命名空间
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_namespaces",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false",
+        "wiremock.integrated-mode=true"
+})
+@DisplayName("命名空间隔离测试")
+class NamespaceIsolationTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        createStub(null, "默认命名空间");
+        createStub("team-a", "团队A");
+        createStub("team-b", "团队B");
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        try {
+            HttpResponse<String> list = httpClient.send(HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl() + "/admin/stubs"))
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            for (String id : list.body().split("\"id\":")) {
+                String digits = id.replaceAll("^(\\d+).*", "$1");
+                if (digits.matches("\\d+")) {
+                    httpClient.send(HttpRequest.newBuilder()
+                            .uri(URI.create(baseUrl() + "/admin/stubs/" + digits))
+                            .DELETE()
+                            .build(), HttpResponse.BodyHandlers.ofString());
+                }
+            }
+            httpClient.send(HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl() + "/admin/wiremock/reset"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build(), HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            // 忽略清理错误
+        }
+    }
+
+    @Test
+    @DisplayName("相同 URL 按请求头路由到各自命名空间")
+    void testRouteByHeader() throws Exception {
+        // 执行
+        HttpResponse<String> defaultResponse = get("/api/ns-demo", null);
+        HttpResponse<String> teamA = get("/api/ns-demo", "team-a");
+        HttpResponse<String> teamB = get("/api/ns-demo", "team-b");
+
+        // 验证
+        assertEquals(200, defaultResponse.statusCode());
+        assertTrue(defaultResponse.body().contains("默认命名空间"));
+        assertTrue(teamA.body().contains("团队A"));
+        assertTrue(teamB.body().contains("团队B"));
+    }
+
+    @Test
+    @DisplayName("路径前缀 /ns/{namespace}/ 在匹配前被去掉")
+    void testRouteByPathPrefix() throws Exception {
+        // 执行
+        HttpResponse<String> response = get("/ns/team-a/api/ns-demo", null);
+
+        // 验证
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("团队A"));
+    }
+
+    @Test
+    @DisplayName("没有 stub 的命名空间返回 404，不回退到默认命名空间")
+    void testUnknownNamespace() throws Exception {
+        // 执行
+        HttpResponse<String> response = get("/api/ns-demo", "team-unknown");
+
+        // 验证
+        assertEquals(404, response.statusCode());
+    }
+
+    @Test
+    @DisplayName("重置一个命名空间不影响其他命名空间")
+    void testResetSingleNamespace() throws Exception {
+        // 执行
+        HttpResponse<String> reset = httpClient.send(HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl() + "/admin/wiremock/reset?namespace=team-a"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        // 验证
+        assertEquals(200, reset.statusCode());
+        assertEquals(404, get("/api/ns-demo", "team-a").statusCode());
+        assertEquals(200, get("/api/ns-demo", "team-b").statusCode());
+        assertEquals(200, get("/api/ns-demo", null).statusCode());
+
+        // 按命名空间重新加载后恢复
+        HttpResponse<String> reload = httpClient.send(HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl() + "/admin/stubs/reload?namespace=team-a"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, reload.statusCode());
+        assertTrue(get("/api/ns-demo", "team-a").body().contains("团队A"));
+    }
+
+    @Test
+    @DisplayName("命名空间统计列出各命名空间的 stub 数量")
+    void testNamespaceStats() throws Exception {
+        // 准备
+        get("/api/ns-demo", "team-a");
+
+        // 执行
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl() + "/admin/wiremock/namespaces"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        // 验证
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"namespace\":\"team-a\""));
+        assertTrue(response.body().contains("\"namespace\":\"team-b\""));
+        assertTrue(response.body().contains("\"namespace\":\"default\""));
+    }
+
+    @Test
+    @DisplayName("非法的命名空间名称被拒绝")
+    void testInvalidNamespaceRejected() throws Exception {
+        // 执行
+        HttpResponse<String> response = postStub(stubJson("bad name", "非法"));
+
+        // 验证
+        assertEquals(400, response.statusCode());
+    }
+
+    private void createStub(String namespace, String label) throws Exception {
+        HttpResponse<String> response = postStub(stubJson(namespace, label));
+        assertEquals(201, response.statusCode(), response.body());
+    }
+
+    private HttpResponse<String> postStub(String json) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl() + "/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String stubJson(String namespace, String label) {
+        String namespaceField = namespace == null ? "" : "\"namespace\": \"" + namespace + "\",";
+        return """
+                {
+                    %s
+                    "name": "%s 接口",
+                    "method": "GET",
+                    "url": "/api/ns-demo",
+                    "urlMatchType": "EQUALS",
+                    "enabled": true,
+                    "responseDefinition": "{\\"owner\\": \\"%s\\"}"
+                }
+                """.formatted(namespaceField, label, label);
+    }
+
+    private HttpResponse<String> get(String path, String namespace) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl() + path))
+                .GET();
+        if (namespace != null) {
+            builder.header("X-Mock-Namespace", namespace);
+        }
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + port;
+    }
+}
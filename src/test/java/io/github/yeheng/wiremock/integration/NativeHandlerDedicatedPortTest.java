@@ -0,0 +1,104 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+import io.github.yeheng.wiremock.filter.MockHttpHandler;
+
+/**
+ * 原生 Undertow mock 入口测试（独立端口）
+ * 独立端口上的请求全部按 mock 处理，应用端口保持原有的 servlet 路由
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_native_handler_port",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false",
+        "wiremock.native-handler.enabled=true",
+        "wiremock.native-handler.host=127.0.0.1"
+})
+@DisplayName("原生 Undertow mock 入口独立端口测试")
+class NativeHandlerDedicatedPortTest {
+
+    private static final int MOCK_PORT = freePort();
+
+    @DynamicPropertySource
+    static void mockPort(DynamicPropertyRegistry registry) {
+        registry.add("wiremock.native-handler.port", () -> MOCK_PORT);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MockHttpHandler mockHttpHandler;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("独立端口处理 mock 请求，应用端口的 mock 请求仍经 servlet 过滤器")
+    void testDedicatedPort() throws Exception {
+        // 准备
+        String json = """
+                {
+                    "name": "独立端口",
+                    "method": "GET",
+                    "url": "/api/native/dedicated",
+                    "urlMatchType": "EQUALS",
+                    "enabled": true,
+                    "responseDefinition": "{\\"port\\": \\"dedicated\\"}"
+                }
+                """;
+        HttpResponse<String> created = send(HttpRequest.newBuilder(uri(port, "/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)));
+        assertEquals(201, created.statusCode(), created.body());
+        long before = mockHttpHandler.getServedCount();
+
+        // 执行
+        HttpResponse<String> viaMockPort = send(HttpRequest.newBuilder(uri(MOCK_PORT, "/api/native/dedicated")).GET());
+        HttpResponse<String> viaAppPort = send(HttpRequest.newBuilder(uri(port, "/api/native/dedicated")).GET());
+
+        // 验证
+        assertEquals(200, viaMockPort.statusCode());
+        assertEquals("{\"port\": \"dedicated\"}", viaMockPort.body());
+        assertEquals(200, viaAppPort.statusCode());
+        assertEquals(viaMockPort.body(), viaAppPort.body());
+        assertEquals(before + 1, mockHttpHandler.getServedCount());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws Exception {
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static URI uri(int port, String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+import io.github.yeheng.wiremock.filter.MockHttpHandler;
+
+/**
+ * 原生 Undertow 入口的代理转发测试（独立端口）
+ * 上游响应较慢时 IO 线程不等待，并发请求各自在上游响应到达后写回
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_native_proxy",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false",
+        "wiremock.native-handler.enabled=true",
+        "wiremock.native-handler.host=127.0.0.1",
+        "wiremock.proxy.enabled=true",
+        "wiremock.proxy.record=false"
+})
+@DisplayName("原生 Undertow 入口代理转发测试")
+class NativeHandlerProxyTest {
+
+    private static final int MOCK_PORT = freePort();
+    private static final HttpServer UPSTREAM = startUpstream();
+
+    @DynamicPropertySource
+    static void ports(DynamicPropertyRegistry registry) {
+        registry.add("wiremock.native-handler.port", () -> MOCK_PORT);
+        registry.add("wiremock.proxy.target-url", () -> "http://127.0.0.1:" + UPSTREAM.getAddress().getPort());
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 每个请求延迟 200ms 后回显请求路径
+     */
+    private static HttpServer startUpstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(Executors.newFixedThreadPool(32));
+            server.createContext("/", exchange -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = ("{\"path\": \"" + exchange.getRequestURI().getPath() + "\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        UPSTREAM.stop(0);
+    }
+
+    @Autowired
+    private MockHttpHandler mockHttpHandler;
+
+    @Test
+    @DisplayName("并发的未匹配请求经原生入口异步转发并各自返回上游响应")
+    void testConcurrentForwarding() throws Exception {
+        // 准备
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long servedBefore = mockHttpHandler.getServedCount();
+
+        // 执行
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(client.sendAsync(
+                    HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + MOCK_PORT + "/api/slow/" + i)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // 验证
+        for (int i = 0; i < futures.size(); i++) {
+            HttpResponse<String> response = futures.get(i).join();
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"path\": \"/api/slow/" + i + "\"}", response.body());
+        }
+        assertEquals(servedBefore + 20, mockHttpHandler.getServedCount());
+    }
+}
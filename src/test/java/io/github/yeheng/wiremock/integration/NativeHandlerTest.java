@@ -0,0 +1,163 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+import io.github.yeheng.wiremock.filter.MockHttpHandler;
+
+/**
+ * 原生 Undertow mock 入口测试（与应用共用端口）
+ * mock 请求由原生处理器处理，管理 API 仍经 Spring MVC
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_native_handler",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false",
+        "wiremock.native-handler.enabled=true",
+        "wiremock.compression.enabled=false"
+})
+@DisplayName("原生 Undertow mock 入口测试")
+class NativeHandlerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MockHttpHandler mockHttpHandler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("JSON 请求体匹配经原生入口处理，管理 API 仍由 Spring 处理")
+    void testJsonBodyMatching() throws Exception {
+        // 准备
+        Map<String, Object> stub = stub("/api/native/login", "POST", "{\"token\": \"abc\"}");
+        stub.put("requestBodyPattern", objectMapper.writeValueAsString(
+                Map.of("equalToJson", "{\"username\": \"admin\"}")));
+        createStub(stub);
+        long before = mockHttpHandler.getServedCount();
+
+        // 执行
+        HttpResponse<String> matched = send(HttpRequest.newBuilder(uri("/api/native/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\": \"admin\", \"extra\": 1}")));
+        HttpResponse<String> mismatched = send(HttpRequest.newBuilder(uri("/api/native/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\": \"guest\"}")));
+        long afterMock = mockHttpHandler.getServedCount();
+        HttpResponse<String> admin = send(HttpRequest.newBuilder(uri("/admin/stubs")).GET());
+
+        // 验证
+        assertEquals(200, matched.statusCode());
+        assertEquals("{\"token\": \"abc\"}", matched.body());
+        assertEquals(404, mismatched.statusCode());
+        assertTrue(mismatched.body().contains("No matching stub"), mismatched.body());
+        assertEquals(before + 2, afterMock);
+        assertEquals(200, admin.statusCode());
+        assertEquals(afterMock, mockHttpHandler.getServedCount());
+    }
+
+    @Test
+    @DisplayName("超过单个缓冲区的响应体完整返回，命名空间路径前缀生效")
+    void testLargeBodyAndNamespace() throws Exception {
+        // 准备
+        StringBuilder large = new StringBuilder("[");
+        for (int i = 0; i < 4000; i++) {
+            large.append(i == 0 ? "" : ",").append("\"item-").append(i).append('"');
+        }
+        large.append(']');
+        createStub(stub("/api/native/large", "GET", large.toString()));
+        Map<String, Object> scoped = stub("/api/native/scoped", "GET", "{\"namespace\": \"team-a\"}");
+        scoped.put("namespace", "team-a");
+        createStub(scoped);
+
+        // 执行
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/native/large")).GET());
+        HttpResponse<String> namespaced = send(HttpRequest.newBuilder(uri("/ns/team-a/api/native/scoped")).GET());
+        HttpResponse<String> defaultNamespace = send(HttpRequest.newBuilder(uri("/api/native/scoped")).GET());
+
+        // 验证
+        assertEquals(200, response.statusCode());
+        assertEquals(large.toString(), response.body());
+        assertEquals(large.length(), response.headers().firstValueAsLong("Content-Length").orElse(-1));
+        assertEquals("{\"namespace\": \"team-a\"}", namespaced.body());
+        assertEquals(404, defaultNamespace.statusCode());
+    }
+
+    @Test
+    @DisplayName("h2c 升级后的 HTTP/2 流同样经原生入口处理")
+    void testHttp2Streams() throws Exception {
+        // 准备
+        createStub(stub("/api/native/h2", "GET", "{\"stream\": true}"));
+        HttpClient h2Client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        h2Client.send(HttpRequest.newBuilder(uri("/api/native/h2")).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        long before = mockHttpHandler.getServedCount();
+
+        // 执行
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(h2Client.sendAsync(HttpRequest.newBuilder(uri("/api/native/h2")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // 验证
+        for (CompletableFuture<HttpResponse<String>> future : futures) {
+            HttpResponse<String> response = future.join();
+            assertEquals(HttpClient.Version.HTTP_2, response.version());
+            assertEquals("{\"stream\": true}", response.body());
+        }
+        assertEquals(before + 20, mockHttpHandler.getServedCount());
+    }
+
+    private static Map<String, Object> stub(String url, String method, String body) {
+        Map<String, Object> stub = new LinkedHashMap<>();
+        stub.put("name", "原生入口 " + url);
+        stub.put("method", method);
+        stub.put("url", url);
+        stub.put("urlMatchType", "EQUALS");
+        stub.put("enabled", true);
+        stub.put("responseDefinition", body);
+        return stub;
+    }
+
+    private void createStub(Map<String, Object> stub) throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(stub))));
+        assertEquals(201, response.statusCode(), response.body());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws Exception {
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
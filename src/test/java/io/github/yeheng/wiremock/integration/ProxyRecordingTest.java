@@ -0,0 +1,220 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+import io.github.yeheng.wiremock.service.ProxyRecorder;
+
+/**
+ * 录制回放代理集成测试
+ * 未匹配的请求转发到本地上游，200 JSON 响应录制为 stub 后不再访问上游
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_proxy",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false",
+        "wiremock.proxy.enabled=true",
+        "wiremock.proxy.flush-interval-ms=60000"
+})
+@DisplayName("录制回放代理集成测试")
+class ProxyRecordingTest {
+
+    private static final Map<String, AtomicInteger> UPSTREAM_HITS = new ConcurrentHashMap<>();
+    private static final HttpServer UPSTREAM = startUpstream();
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("wiremock.proxy.target-url", () -> "http://127.0.0.1:" + UPSTREAM.getAddress().getPort());
+    }
+
+    /**
+     * 上游：/upstream/json/** 返回 JSON，/upstream/text 返回纯文本，/upstream/echo 回显请求体
+     */
+    private static HttpServer startUpstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", exchange -> {
+                String path = exchange.getRequestURI().getPath();
+                UPSTREAM_HITS.computeIfAbsent(path, k -> new AtomicInteger()).incrementAndGet();
+                byte[] requestBody = exchange.getRequestBody().readAllBytes();
+                int status = 200;
+                String contentType = "application/json";
+                byte[] body;
+                if (path.startsWith("/upstream/json")) {
+                    body = ("{\"path\": \"" + path + "\", \"query\": \"" + exchange.getRequestURI().getQuery()
+                            + "\"}").getBytes(StandardCharsets.UTF_8);
+                } else if (path.equals("/upstream/echo")) {
+                    body = requestBody;
+                    status = 201;
+                } else {
+                    contentType = "text/plain";
+                    body = "plain text".getBytes(StandardCharsets.UTF_8);
+                }
+                exchange.getResponseHeaders().add("Content-Type", contentType);
+                exchange.getResponseHeaders().add("X-Upstream", "yes");
+                exchange.sendResponseHeaders(status, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        UPSTREAM.stop(0);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProxyRecorder proxyRecorder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("未匹配请求转发到上游，录制为 stub 后由 stub 响应")
+    void testRecordAndPlayback() throws Exception {
+        // 准备
+        ProxyRecorder.ProxyStatus before = proxyRecorder.status();
+
+        // 执行
+        HttpResponse<String> proxied = get("/upstream/json/orders?page=1");
+        HttpResponse<String> again = get("/upstream/json/orders?page=1");
+        HttpResponse<String> flushed = httpClient.send(HttpRequest.newBuilder(uri("/admin/wiremock/proxy/flush"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> playback = get("/upstream/json/orders?page=1");
+        HttpResponse<String> stubs = get("/admin/stubs");
+
+        // 验证
+        assertEquals(200, proxied.statusCode());
+        assertEquals("{\"path\": \"/upstream/json/orders\", \"query\": \"page=1\"}", proxied.body());
+        assertEquals("yes", proxied.headers().firstValue("X-Upstream").orElse(null));
+        assertEquals(200, again.statusCode());
+        assertEquals(200, flushed.statusCode());
+        JsonNode status = objectMapper.readTree(flushed.body());
+        assertEquals(before.recorded() + 1, status.get("recorded").asLong());
+        assertEquals(before.deduplicated() + 1, status.get("deduplicated").asLong());
+        assertEquals(200, playback.statusCode());
+        assertEquals(proxied.body(), playback.body());
+        assertTrue(playback.headers().firstValue("X-Upstream").isEmpty());
+        assertEquals(2, UPSTREAM_HITS.get("/upstream/json/orders").get());
+        assertTrue(stubs.body().contains("Recorded GET /upstream/json/orders"), stubs.body());
+    }
+
+    @Test
+    @DisplayName("同一路径不同查询参数分别录制，回放时按查询参数区分")
+    void testRecordPerQuery() throws Exception {
+        // 执行
+        HttpResponse<String> first = get("/upstream/json/search?q=a");
+        HttpResponse<String> second = get("/upstream/json/search?q=b");
+        proxyRecorder.flush();
+        HttpResponse<String> playbackFirst = get("/upstream/json/search?q=a");
+        HttpResponse<String> playbackSecond = get("/upstream/json/search?q=b");
+
+        // 验证
+        assertEquals("{\"path\": \"/upstream/json/search\", \"query\": \"q=a\"}", first.body());
+        assertEquals("{\"path\": \"/upstream/json/search\", \"query\": \"q=b\"}", second.body());
+        assertEquals(first.body(), playbackFirst.body());
+        assertEquals(second.body(), playbackSecond.body());
+        assertTrue(playbackFirst.headers().firstValue("X-Upstream").isEmpty());
+        assertTrue(playbackSecond.headers().firstValue("X-Upstream").isEmpty());
+        assertEquals(2, UPSTREAM_HITS.get("/upstream/json/search").get());
+    }
+
+    @Test
+    @DisplayName("其他命名空间已录制相同请求时，本命名空间仍然录制")
+    void testRecordPerNamespace() throws Exception {
+        // 准备
+        get("/upstream/json/shared");
+        proxyRecorder.flush();
+        long recorded = proxyRecorder.status().recorded();
+
+        // 执行
+        HttpResponse<String> proxied = get("/upstream/json/shared", "team-b");
+        proxyRecorder.flush();
+        HttpResponse<String> playback = get("/upstream/json/shared", "team-b");
+
+        // 验证
+        assertEquals(200, proxied.statusCode());
+        assertEquals("yes", proxied.headers().firstValue("X-Upstream").orElse(null));
+        assertEquals(recorded + 1, proxyRecorder.status().recorded());
+        assertEquals(proxied.body(), playback.body());
+        assertTrue(playback.headers().firstValue("X-Upstream").isEmpty());
+        assertEquals(2, UPSTREAM_HITS.get("/upstream/json/shared").get());
+    }
+
+    @Test
+    @DisplayName("非 200 或非 JSON 的上游响应只转发不录制，请求体原样转发")
+    void testForwardWithoutRecording() throws Exception {
+        // 准备
+        long skipped = proxyRecorder.status().skipped();
+
+        // 执行
+        HttpResponse<String> text = get("/upstream/text");
+        HttpResponse<String> echo = httpClient.send(HttpRequest.newBuilder(uri("/upstream/echo"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"echo\": 1}")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        proxyRecorder.flush();
+        HttpResponse<String> textAgain = get("/upstream/text");
+
+        // 验证
+        assertEquals(200, text.statusCode());
+        assertEquals("plain text", text.body());
+        assertEquals(201, echo.statusCode());
+        assertEquals("{\"echo\": 1}", echo.body());
+        assertEquals("plain text", textAgain.body());
+        assertEquals(2, UPSTREAM_HITS.get("/upstream/text").get());
+        assertEquals(skipped + 2, proxyRecorder.status().skipped());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path, String namespace) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri(path)).header("X-Mock-Namespace", namespace).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+import io.github.yeheng.wiremock.test.WaitUtils;
+
+/**
+ * 变更日志复制测试
+ * 两个节点共享同一个 H2 数据库，一个节点上的写操作应增量同步到另一个节点的匹配引擎
+ */
+@DisplayName("变更日志复制测试")
+class ReplicationTest {
+
+    private static final String DB_URL = "jdbc:h2:mem:testdb_replication;DB_CLOSE_DELAY=-1";
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static int portA;
+    private static int portB;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startNodes() {
+        // 第一个节点建表，第二个节点直接使用已有的表
+        nodeA = startNode("node-a", "create-drop");
+        nodeB = startNode("node-b", "none");
+        portA = port(nodeA);
+        portB = port(nodeB);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId, String ddlAuto) {
+        // 命令行参数的优先级高于 application.yml
+        return new SpringApplicationBuilder(WiremockUiApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + DB_URL,
+                "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                "--spring.h2.console.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--spring.jmx.enabled=false",
+                "--wiremock.integrated-mode=true",
+                "--wiremock.replication.node-id=" + nodeId,
+                "--wiremock.replication.poll-interval-ms=100");
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    @Test
+    @DisplayName("一个节点上的创建、更新、禁用与删除增量同步到另一个节点")
+    void testChangesReplicateBothWays() throws Exception {
+        // 创建：在节点 A 上写入，节点 B 拉取后可以匹配
+        HttpResponse<String> created = send(portA, "POST", "/admin/stubs", stubJson("v1"));
+        assertEquals(201, created.statusCode(), created.body());
+        Matcher matcher = ID.matcher(created.body());
+        assertTrue(matcher.find());
+        String id = matcher.group(1);
+        assertTrue(awaitBody(portB, "v1"), "节点 B 应同步到新建的 stub");
+
+        // 更新：在节点 B 上修改，节点 A 同步
+        HttpResponse<String> updated = send(portB, "PUT", "/admin/stubs/" + id, stubJson("v2"));
+        assertEquals(200, updated.statusCode(), updated.body());
+        assertTrue(awaitBody(portA, "v2"), "节点 A 应同步到更新后的响应");
+
+        // 禁用：在节点 A 上切换，节点 B 不再匹配
+        assertEquals(200, send(portA, "POST", "/admin/stubs/" + id + "/toggle", null).statusCode());
+        assertTrue(awaitStatus(portB, 404), "节点 B 应同步禁用状态");
+
+        // 启用后在节点 B 上删除，节点 A 不再匹配
+        assertEquals(200, send(portA, "POST", "/admin/stubs/" + id + "/toggle", null).statusCode());
+        assertTrue(awaitBody(portB, "v2"));
+        assertEquals(204, send(portB, "DELETE", "/admin/stubs/" + id, null).statusCode());
+        assertTrue(awaitStatus(portA, 404), "节点 A 应同步删除");
+
+        // 两个节点都已追上最新版本
+        assertTrue(WaitUtils.waitForCondition(() -> lagOf(portA) == 0 && lagOf(portB) == 0, 5000, 50));
+        assertTrue(send(portB, "GET", "/admin/wiremock/replication", null).body().contains("\"nodeId\":\"node-b\""));
+    }
+
+    private boolean awaitBody(int port, String version) {
+        return WaitUtils.waitForCondition(() -> {
+            HttpResponse<String> response = sendQuietly(port, "GET", "/api/replicated", null);
+            return response != null && response.statusCode() == 200 && response.body().contains(version);
+        }, 5000, 50);
+    }
+
+    private boolean awaitStatus(int port, int status) {
+        return WaitUtils.waitForCondition(() -> {
+            HttpResponse<String> response = sendQuietly(port, "GET", "/api/replicated", null);
+            return response != null && response.statusCode() == status;
+        }, 5000, 50);
+    }
+
+    private long lagOf(int port) {
+        HttpResponse<String> response = sendQuietly(port, "GET", "/admin/wiremock/replication", null);
+        if (response == null) {
+            return -1;
+        }
+        Matcher matcher = Pattern.compile("\"lagVersions\"\\s*:\\s*(\\d+)").matcher(response.body());
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    private static String stubJson(String version) {
+        return """
+                {
+                    "name": "复制测试接口",
+                    "method": "GET",
+                    "url": "/api/replicated",
+                    "urlMatchType": "EQUALS",
+                    "enabled": true,
+                    "responseDefinition": "{\\"version\\": \\"%s\\"}"
+                }
+                """.formatted(version);
+    }
+
+    private HttpResponse<String> sendQuietly(int port, String method, String path, String body) {
+        try {
+            return send(port, method, path, body);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private HttpResponse<String> send(int port, String method, String path, String body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + path))
+                .method(method, body != null
+                        ? HttpRequest.BodyPublishers.ofString(body)
+                        : HttpRequest.BodyPublishers.noBody());
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
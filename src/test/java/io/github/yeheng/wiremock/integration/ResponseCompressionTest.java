@@ -0,0 +1,151 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+
+/**
+ * 预压缩响应测试
+ * 大响应体按 Accept-Encoding 返回注册时压缩好的 gzip / deflate 版本，并带上 Vary 与 Content-Length
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_compression",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false",
+        "wiremock.compression.min-size=512"
+})
+@DisplayName("预压缩响应测试")
+class ResponseCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private static String largeBody() {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            items.append(i == 0 ? "" : ", ").append("{\\\"id\\\": ").append(i).append(", \\\"status\\\": \\\"active\\\"}");
+        }
+        return "{\\\"items\\\": [" + items + "]}";
+    }
+
+    private static String expectedLargeBody() {
+        return largeBody().replace("\\\"", "\"");
+    }
+
+    @Test
+    @DisplayName("接受 gzip 时返回预压缩的 gzip 响应体")
+    void testGzip() throws Exception {
+        // 准备
+        createStub("/api/compressed/gzip", largeBody(), false);
+
+        // 执行
+        HttpResponse<byte[]> response = get("/api/compressed/gzip", "br;q=1.0, gzip;q=0.8, deflate;q=0.5");
+
+        // 验证
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        assertEquals("Accept-Encoding", response.headers().firstValue("Vary").orElse(null));
+        assertEquals(response.body().length, response.headers().firstValueAsLong("Content-Length").orElse(-1));
+        assertTrue(response.body().length < expectedLargeBody().length());
+        assertEquals(expectedLargeBody(), decode(new GZIPInputStream(new ByteArrayInputStream(response.body()))));
+    }
+
+    @Test
+    @DisplayName("只接受 deflate 时返回 deflate 响应体，不接受压缩时返回原文")
+    void testDeflateAndIdentity() throws Exception {
+        // 准备
+        createStub("/api/compressed/deflate", largeBody(), false);
+
+        // 执行
+        HttpResponse<byte[]> deflate = get("/api/compressed/deflate", "deflate, gzip;q=0");
+        HttpResponse<byte[]> identity = get("/api/compressed/deflate", null);
+
+        // 验证
+        assertEquals("deflate", deflate.headers().firstValue("Content-Encoding").orElse(null));
+        assertEquals(expectedLargeBody(), decode(new InflaterInputStream(new ByteArrayInputStream(deflate.body()))));
+        assertTrue(identity.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals("Accept-Encoding", identity.headers().firstValue("Vary").orElse(null));
+        assertEquals(expectedLargeBody(), new String(identity.body(), StandardCharsets.UTF_8));
+        assertEquals(identity.body().length, identity.headers().firstValueAsLong("Content-Length").orElse(-1));
+    }
+
+    @Test
+    @DisplayName("小响应体与模板化响应不压缩")
+    void testSmallAndTemplatedNotCompressed() throws Exception {
+        // 准备
+        createStub("/api/compressed/small", "{\\\"ok\\\": true}", false);
+        createStub("/api/compressed/templated", largeBody().replace("active", "{{request.path.0}}"), true);
+
+        // 执行
+        HttpResponse<byte[]> small = get("/api/compressed/small", "gzip");
+        HttpResponse<byte[]> templated = get("/api/compressed/templated", "gzip");
+
+        // 验证
+        assertTrue(small.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals("{\"ok\": true}", new String(small.body(), StandardCharsets.UTF_8));
+        assertTrue(templated.headers().firstValue("Content-Encoding").isEmpty());
+        assertTrue(new String(templated.body(), StandardCharsets.UTF_8).contains("\"status\": \"api\""));
+    }
+
+    private void createStub(String url, String body, boolean templated) throws Exception {
+        String json = """
+                {
+                    "name": "压缩 %s",
+                    "method": "GET",
+                    "url": "%s",
+                    "urlMatchType": "EQUALS",
+                    "enabled": true,
+                    "templated": %s,
+                    "responseDefinition": "%s"
+                }
+                """.formatted(url, url, templated, body);
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl() + "/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), response.body());
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl() + path))
+                .GET();
+        if (acceptEncoding != null) {
+            builder.header("Accept-Encoding", acceptEncoding);
+        }
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String decode(InputStream stream) throws IOException {
+        try (stream) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + port;
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+
+/**
+ * 有状态场景集成测试
+ * 场景实例按 X-Session 请求头区分，不同会话各自推进状态
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_scenario",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false",
+        "wiremock.scenarios.instance-key=header:X-Session"
+})
+@DisplayName("有状态场景集成测试")
+class ScenarioTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("登录后才能结账，两个会话的场景状态互不影响")
+    void testStatePerSession() throws Exception {
+        // 准备
+        createStub("未登录购物车", "GET", "/api/scenario/cart", "Started", null, "{\"cart\": \"anonymous\"}");
+        createStub("登录", "POST", "/api/scenario/login", "Started", "LoggedIn", "{\"login\": true}");
+        createStub("已登录购物车", "GET", "/api/scenario/cart", "LoggedIn", null, "{\"cart\": \"member\"}");
+        createStub("结账", "POST", "/api/scenario/checkout", "LoggedIn", "Paid", "{\"paid\": true}");
+
+        // 执行
+        HttpResponse<String> aliceBefore = send("GET", "/api/scenario/cart", "alice");
+        HttpResponse<String> login = send("POST", "/api/scenario/login", "alice");
+        HttpResponse<String> aliceAfter = send("GET", "/api/scenario/cart", "alice");
+        HttpResponse<String> bobCart = send("GET", "/api/scenario/cart", "bob");
+        HttpResponse<String> bobCheckout = send("POST", "/api/scenario/checkout", "bob");
+        HttpResponse<String> aliceCheckout = send("POST", "/api/scenario/checkout", "alice");
+        HttpResponse<String> aliceAgain = send("POST", "/api/scenario/checkout", "alice");
+        HttpResponse<String> states = send("GET", "/admin/wiremock/scenarios", null);
+
+        // 验证
+        assertEquals("{\"cart\": \"anonymous\"}", aliceBefore.body());
+        assertEquals(200, login.statusCode());
+        assertEquals("{\"cart\": \"member\"}", aliceAfter.body());
+        assertEquals("{\"cart\": \"anonymous\"}", bobCart.body());
+        assertEquals(404, bobCheckout.statusCode());
+        assertEquals("{\"paid\": true}", aliceCheckout.body());
+        assertEquals(404, aliceAgain.statusCode());
+        JsonNode checkout = null;
+        for (JsonNode state : objectMapper.readTree(states.body())) {
+            if ("checkout".equals(state.get("scenario").asText())) {
+                assertNull(checkout, "bob 的会话从未迁移，不应出现在列表中");
+                checkout = state;
+            }
+        }
+        assertNotNull(checkout);
+        assertEquals("alice", checkout.get("instance").asText());
+        assertEquals("Paid", checkout.get("state").asText());
+    }
+
+    @Test
+    @DisplayName("WireMock 格式导入保留场景字段，重置后回到 Started")
+    void testImportAndReset() throws Exception {
+        // 准备
+        String mapping = """
+                {"name": "导入的场景", "scenarioName": "imported", "requiredScenarioState": "Started",
+                 "newScenarioState": "Used",
+                 "request": {"method": "GET", "url": "/api/scenario/once"},
+                 "response": {"status": 200, "jsonBody": {"once": true}}}
+                """;
+        HttpResponse<String> imported = httpClient.send(HttpRequest.newBuilder(uri("/admin/stubs/import"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(mapping))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        // 执行
+        HttpResponse<String> first = send("GET", "/api/scenario/once", "carol");
+        HttpResponse<String> second = send("GET", "/api/scenario/once", "carol");
+        HttpResponse<String> reset = send("DELETE", "/admin/wiremock/scenarios", null);
+        HttpResponse<String> afterReset = send("GET", "/api/scenario/once", "carol");
+
+        // 验证
+        assertEquals(201, imported.statusCode(), imported.body());
+        JsonNode stub = objectMapper.readTree(imported.body());
+        assertEquals("imported", stub.get("scenarioName").asText());
+        assertEquals("Used", stub.get("newScenarioState").asText());
+        assertEquals(200, first.statusCode());
+        assertEquals(404, second.statusCode());
+        assertEquals(204, reset.statusCode());
+        assertEquals(200, afterReset.statusCode());
+    }
+
+    @Test
+    @DisplayName("只设置场景状态而没有场景名时拒绝创建")
+    void testStateWithoutScenario() throws Exception {
+        Map<String, Object> stub = stub("无场景名", "GET", "/api/scenario/invalid", "Started", "Next", "{}");
+        stub.remove("scenarioName");
+
+        HttpResponse<String> response = postStub(stub);
+
+        assertEquals(400, response.statusCode());
+    }
+
+    private void createStub(String name, String method, String url, String required, String next, String body)
+            throws Exception {
+        HttpResponse<String> response = postStub(stub(name, method, url, required, next, body));
+        assertEquals(201, response.statusCode(), response.body());
+    }
+
+    private Map<String, Object> stub(String name, String method, String url, String required, String next,
+            String body) {
+        Map<String, Object> stub = new LinkedHashMap<>();
+        stub.put("name", name);
+        stub.put("method", method);
+        stub.put("url", url);
+        stub.put("urlMatchType", "EQUALS");
+        stub.put("enabled", true);
+        stub.put("scenarioName", "checkout");
+        stub.put("requiredScenarioState", required);
+        stub.put("newScenarioState", next);
+        stub.put("responseDefinition", body);
+        return stub;
+    }
+
+    private HttpResponse<String> postStub(Map<String, Object> stub) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri("/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(stub)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> send(String method, String path, String session) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .method(method, HttpRequest.BodyPublishers.noBody());
+        if (session != null) {
+            builder.header("X-Session", session);
+        }
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+
+/**
+ * 前端静态资源缓存测试
+ * 带哈希的 /assets/ 资源长期 immutable 缓存并返回预压缩文件，index.html 按 ETag 重新验证
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_static_resources",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@DisplayName("前端静态资源缓存测试")
+class StaticResourceCachingTest {
+
+    private static final String ASSET = "/assets/index-3f2a9c1e.js";
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("带哈希的资源按 immutable 长期缓存")
+    void testHashedAssetImmutable() throws Exception {
+        // 执行
+        HttpResponse<byte[]> response = get(ASSET, null, null);
+
+        // 验证
+        assertEquals(200, response.statusCode());
+        String cacheControl = response.headers().firstValue("Cache-Control").orElse("");
+        assertTrue(cacheControl.contains("max-age=31536000"), cacheControl);
+        assertTrue(cacheControl.contains("immutable"), cacheControl);
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+        assertTrue(new String(response.body(), StandardCharsets.UTF_8).contains("item59"));
+    }
+
+    @Test
+    @DisplayName("接受 gzip 时返回构建时生成的 .gz 文件")
+    void testPrecompressedAsset() throws Exception {
+        // 执行
+        HttpResponse<byte[]> identity = get(ASSET, null, null);
+        HttpResponse<byte[]> gzip = get(ASSET, "br;q=0, gzip", null);
+
+        // 验证
+        assertEquals(200, gzip.statusCode());
+        assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElse(null));
+        assertTrue(gzip.headers().allValues("Vary").stream().anyMatch(v -> v.contains("Accept-Encoding")));
+        assertTrue(gzip.body().length < identity.body().length);
+        assertArrayEquals(identity.body(), new GZIPInputStream(new ByteArrayInputStream(gzip.body())).readAllBytes());
+    }
+
+    @Test
+    @DisplayName("index.html 每次重新验证，ETag 未变化时返回 304")
+    void testIndexRevalidation() throws Exception {
+        // 执行
+        HttpResponse<byte[]> first = get("/index.html", null, null);
+        String etag = first.headers().firstValue("ETag").orElse(null);
+        HttpResponse<byte[]> second = get("/index.html", null, etag);
+        HttpResponse<byte[]> stale = get("/index.html", null, "\"outdated\"");
+
+        // 验证
+        assertEquals(200, first.statusCode());
+        assertNotNull(etag);
+        assertEquals("no-cache", first.headers().firstValue("Cache-Control").orElse(null));
+        assertEquals(304, second.statusCode());
+        assertEquals(0, second.body().length);
+        assertEquals(200, stale.statusCode());
+        assertTrue(new String(stale.body(), StandardCharsets.UTF_8).contains(ASSET));
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + path))
+                .GET();
+        if (acceptEncoding != null) {
+            builder.header("Accept-Encoding", acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            builder.header("If-None-Match", ifNoneMatch);
+        }
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
@@ -0,0 +1,343 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.repository.StubMappingRepository;
+import io.github.yeheng.wiremock.service.StubMappingService;
+import io.github.yeheng.wiremock.service.WireMockManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 规模回归套件
+ * 在递增的 stub 规模下测量管理操作、重载、启动与 mock 匹配的延迟，
+ * 对 log(延迟) ~ log(规模) 做最小二乘拟合，斜率超过声明的复杂度上界时失败：
+ * 斜率约 0 为常数级，约 1 为线性。例如单个 stub 的编辑代价随总数线性增长时，斜率会接近 1
+ *
+ * 默认构建不运行，使用 mvn -Pscaling test 执行；
+ * 规模可通过 -Dscaling.sizes=500,2000,8000 调整
+ */
+@Slf4j
+@Tag("scaling")
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_scaling",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.io.github.yeheng.wiremock=WARN",
+        "wiremock.near-miss.sample-rate=0"
+})
+@DisplayName("Stub 规模回归测试")
+class StubScalingTest {
+
+    /**
+     * 各条曲线允许的最大 log-log 斜率
+     * 单 stub 管理操作应与总数无关；重载、启动与匹配（WireMock 顺序扫描）允许线性，但不允许超线性
+     */
+    private static final Map<String, Double> BOUNDS = new LinkedHashMap<>();
+
+    static {
+        BOUNDS.put("create", 0.3);
+        BOUNDS.put("update", 0.3);
+        BOUNDS.put("delete", 0.3);
+        BOUNDS.put("bulkCreate", 0.3);
+        BOUNDS.put("match", 1.2);
+        BOUNDS.put("reload", 1.2);
+        BOUNDS.put("startup", 1.2);
+    }
+
+    private static final int OPS_PER_SIZE = 40;
+    private static final int BULK_BATCHES = 10;
+    private static final int BULK_BATCH_SIZE = 20;
+    private static final int MATCH_REQUESTS = 300;
+    private static final int RELOAD_RUNS = 3;
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private StubMappingRepository stubMappingRepository;
+
+    @Autowired
+    private StubMappingService stubMappingService;
+
+    @Autowired
+    private WireMockManager wireMockManager;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final Random random = new Random(42);
+    private int sequence;
+
+    @Test
+    @DisplayName("管理操作、重载、启动与匹配的延迟随 stub 数量的增长不超过声明的上界")
+    void testLatencyCurvesStayWithinDeclaredBounds() throws Exception {
+        int[] sizes = Arrays.stream(System.getProperty("scaling.sizes", "500,2000,8000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        // 预热：先在最小规模上完整跑一遍并丢弃结果，避免 JIT 冷启动压低小规模一端
+        measure(sizes[0]);
+
+        Map<String, double[]> curves = new LinkedHashMap<>();
+        for (String curve : BOUNDS.keySet()) {
+            curves.put(curve, new double[sizes.length]);
+        }
+        for (int i = 0; i < sizes.length; i++) {
+            Map<String, Long> medians = measure(sizes[i]);
+            for (Map.Entry<String, Long> entry : medians.entrySet()) {
+                curves.get(entry.getKey())[i] = entry.getValue();
+            }
+        }
+
+        // 验证
+        StringBuilder report = new StringBuilder(String.format("%n%-12s", "curve"));
+        for (int size : sizes) {
+            report.append(String.format("%14s", "n=" + size));
+        }
+        report.append(String.format("%10s%8s%n", "slope", "bound"));
+
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, double[]> entry : curves.entrySet()) {
+            String curve = entry.getKey();
+            double[] micros = entry.getValue();
+            double slope = logLogSlope(sizes, micros);
+            double bound = BOUNDS.get(curve);
+
+            report.append(String.format("%-12s", curve));
+            for (double value : micros) {
+                report.append(String.format("%12.0fus", value));
+            }
+            report.append(String.format("%10.2f%8.2f%n", slope, bound));
+
+            if (slope > bound) {
+                violations.add(String.format("%s: 斜率 %.2f 超过上界 %.2f", curve, slope, bound));
+            }
+        }
+        log.warn("Stub 规模回归结果（中位数延迟）:{}", report);
+
+        assertTrue(violations.isEmpty(), "复杂度回归: " + violations + report);
+    }
+
+    /**
+     * 在给定规模下测量所有曲线，返回各项中位数延迟（微秒）
+     */
+    private Map<String, Long> measure(int size) throws Exception {
+        resetAll();
+        seed(size);
+
+        Map<String, Long> medians = new LinkedHashMap<>();
+        medians.put("reload", median(RELOAD_RUNS, () -> timed(this::reload)));
+        medians.put("startup", median(RELOAD_RUNS, () -> timed(this::restart)));
+
+        List<Long> created = new ArrayList<>();
+        medians.put("create", median(OPS_PER_SIZE, () -> timed(() -> created.add(createStub()))));
+        List<Long> toUpdate = new ArrayList<>(created);
+        medians.put("update", median(OPS_PER_SIZE, () -> timed(() -> updateStub(toUpdate.remove(0)))));
+        List<Long> toDelete = new ArrayList<>(created);
+        medians.put("delete", median(OPS_PER_SIZE, () -> timed(() -> deleteStub(toDelete.remove(0)))));
+        medians.put("bulkCreate", median(BULK_BATCHES, () -> timed(this::createBulk)));
+
+        assertEquals(200, get("/scale/0/orders").statusCode(), "种子 stub 未生效");
+        medians.put("match", median(MATCH_REQUESTS, () -> timed(() -> {
+            int target = random.nextInt(size) & ~3; // 种子中下标为 4 的倍数的是 EQUALS stub
+            assertEquals(200, get("/scale/" + target + "/orders").statusCode());
+        })));
+        return medians;
+    }
+
+    private void resetAll() throws Exception {
+        stubMappingRepository.deleteAllInBatch();
+        send(HttpRequest.newBuilder(uri("/admin/wiremock/reset")).POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    /**
+     * 生成混合匹配类型的 stub 语料直接写库，注册到 WireMock 由 reload 完成
+     */
+    private void seed(int size) {
+        List<StubMapping> corpus = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StubMapping stub = new StubMapping();
+            stub.setName("scale-" + i);
+            stub.setEnabled(true);
+            stub.setResponseDefinition("{\"id\": " + i + ", \"status\": \"ok\"}");
+            switch (i % 4) {
+                case 0 -> {
+                    stub.setMethod("GET");
+                    stub.setUrl("/scale/" + i + "/orders");
+                    stub.setUrlMatchType(StubMapping.UrlMatchType.EQUALS);
+                }
+                case 1 -> {
+                    stub.setMethod("GET");
+                    stub.setUrl("/scale-t/" + i + "/users/{id}");
+                    stub.setUrlMatchType(StubMapping.UrlMatchType.PATH_TEMPLATE);
+                }
+                case 2 -> {
+                    stub.setMethod("POST");
+                    stub.setUrl("^/scale-r/" + i + "/items/[0-9]+$");
+                    stub.setUrlMatchType(StubMapping.UrlMatchType.REGEX);
+                    stub.setRequestHeadersPattern("{\"Content-Type\": {\"contains\": \"json\"}}");
+                }
+                default -> {
+                    stub.setMethod("PUT");
+                    stub.setUrl("/scale-c/" + i + "/");
+                    stub.setUrlMatchType(StubMapping.UrlMatchType.CONTAINS);
+                }
+            }
+            corpus.add(stub);
+        }
+        stubMappingRepository.saveAll(corpus);
+    }
+
+    private void reload() throws Exception {
+        HttpResponse<String> response = send(
+                HttpRequest.newBuilder(uri("/admin/stubs/reload")).POST(HttpRequest.BodyPublishers.noBody()));
+        assertEquals(200, response.statusCode());
+    }
+
+    /**
+     * 冷启动：重建内部 WireMockServer 并从数据库加载全部 stub
+     */
+    private void restart() {
+        wireMockManager.shutdown();
+        wireMockManager.initialize();
+        stubMappingService.reloadAllStubs();
+    }
+
+    private long createStub() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(stubJson("op-" + sequence++))));
+        assertEquals(201, response.statusCode(), response.body());
+        Matcher matcher = ID_PATTERN.matcher(response.body());
+        assertTrue(matcher.find(), response.body());
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private void updateStub(long id) throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/admin/stubs/" + id))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(stubJson("op-updated-" + sequence++))));
+        assertEquals(200, response.statusCode(), response.body());
+    }
+
+    private void deleteStub(long id) throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/admin/stubs/" + id)).DELETE());
+        assertEquals(204, response.statusCode(), response.body());
+    }
+
+    private void createBulk() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < BULK_BATCH_SIZE; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(stubJson("bulk-" + sequence++));
+        }
+        body.append(']');
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/admin/stubs/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())));
+        assertEquals(201, response.statusCode(), response.body());
+    }
+
+    private static String stubJson(String key) {
+        return """
+                {
+                    "name": "%s",
+                    "method": "GET",
+                    "url": "/scale-op/%s",
+                    "urlMatchType": "EQUALS",
+                    "enabled": true,
+                    "responseDefinition": "{\\"key\\": \\"%s\\"}"
+                }
+                """.formatted(key, key, key);
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws Exception {
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static long timed(ThrowingRunnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return (System.nanoTime() - start) / 1000;
+    }
+
+    private static long median(int runs, LongSupplier sample) {
+        long[] samples = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            samples[i] = sample.getAsLong();
+        }
+        Arrays.sort(samples);
+        return Math.max(samples[runs / 2], 1);
+    }
+
+    /**
+     * log(y) 对 log(n) 的最小二乘斜率
+     */
+    static double logLogSlope(int[] sizes, double[] values) {
+        int count = sizes.length;
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < count; i++) {
+            meanX += Math.log(sizes[i]);
+            meanY += Math.log(values[i]);
+        }
+        meanX /= count;
+        meanY /= count;
+
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < count; i++) {
+            double dx = Math.log(sizes[i]) - meanX;
+            covariance += dx * (Math.log(values[i]) - meanY);
+            variance += dx * dx;
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
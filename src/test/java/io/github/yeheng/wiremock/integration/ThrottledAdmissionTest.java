@@ -0,0 +1,139 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+import io.github.yeheng.wiremock.service.AdmissionControl;
+
+/**
+ * 限速写回与准入控制集成测试
+ * servlet 入口的限速下载在异步写回结束前一直占用 mock 并发名额
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_throttle_admission",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false",
+        "wiremock.compression.enabled=false",
+        "wiremock.admission.enabled=true",
+        "wiremock.admission.mock.initial=3",
+        "wiremock.admission.mock.min=3",
+        "wiremock.admission.mock.max=3"
+})
+@DisplayName("限速写回与准入控制集成测试")
+class ThrottledAdmissionTest {
+
+    private static final int DOWNLOADS = 3;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    @DisplayName("名额被进行中的限速下载占满时新请求被拒绝，下载结束后归还")
+    void testThrottledDownloadsHoldPermits() throws Exception {
+        // 准备
+        String body = "{\"payload\": \"" + "z".repeat(200) + "\"}";
+        Map<String, Object> slow = stub("慢速下载", "/api/admission/slow", body);
+        slow.put("dribbleChunks", 4);
+        slow.put("dribbleDurationMs", 2000);
+        assertEquals(201, postStub(slow).statusCode());
+        assertEquals(201, postStub(stub("快速请求", "/api/admission/fast", "{\"fast\": true}")).statusCode());
+
+        // 执行：响应头到达时下载仍在逐片写回
+        List<HttpResponse<InputStream>> downloads = new ArrayList<>();
+        List<CompletableFuture<HttpResponse<InputStream>>> futures = new ArrayList<>();
+        for (int i = 0; i < DOWNLOADS; i++) {
+            futures.add(httpClient.sendAsync(HttpRequest.newBuilder(uri("/api/admission/slow")).GET().build(),
+                    HttpResponse.BodyHandlers.ofInputStream()));
+        }
+        for (CompletableFuture<HttpResponse<InputStream>> future : futures) {
+            downloads.add(future.get(10, TimeUnit.SECONDS));
+        }
+        int inFlight = mockStatus().inFlight();
+        HttpResponse<String> rejected = get("/api/admission/fast");
+        List<String> bodies = new ArrayList<>();
+        for (HttpResponse<InputStream> download : downloads) {
+            try (InputStream in = download.body()) {
+                bodies.add(new String(in.readAllBytes()));
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (mockStatus().inFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        HttpResponse<String> accepted = get("/api/admission/fast");
+
+        // 验证
+        assertEquals(DOWNLOADS, inFlight);
+        assertEquals(503, rejected.statusCode());
+        for (String downloaded : bodies) {
+            assertEquals(body, downloaded);
+        }
+        assertEquals(200, accepted.statusCode());
+        assertEquals("{\"fast\": true}", accepted.body());
+    }
+
+    private AdmissionControl.LimiterStatus mockStatus() {
+        return admissionControl.status().stream()
+                .filter(status -> status.route().equals("mock"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Map<String, Object> stub(String name, String url, String body) {
+        Map<String, Object> stub = new LinkedHashMap<>();
+        stub.put("name", name);
+        stub.put("method", "GET");
+        stub.put("url", url);
+        stub.put("urlMatchType", "EQUALS");
+        stub.put("enabled", true);
+        stub.put("responseDefinition", body);
+        return stub;
+    }
+
+    private HttpResponse<String> postStub(Map<String, Object> stub) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri("/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(stub)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
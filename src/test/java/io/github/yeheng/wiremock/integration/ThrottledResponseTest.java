@@ -0,0 +1,184 @@
+package io.github.yeheng.wiremock.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.yeheng.wiremock.WiremockUiApplication;
+import io.github.yeheng.wiremock.service.ResponseThrottler;
+
+/**
+ * 限速写回集成测试
+ * 响应体按带宽或分片计划逐片写回，大量限速下载同时进行时不为每个下载占用一个线程
+ */
+@SpringBootTest(classes = WiremockUiApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb_throttle",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false",
+        "spring.jpa.show-sql=false",
+        "wiremock.compression.enabled=false"
+})
+@DisplayName("限速写回集成测试")
+class ThrottledResponseTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseThrottler responseThrottler;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("按带宽限速：2000 字节按 4000 字节/秒约 500 毫秒写完，内容完整")
+    void testBandwidth() throws Exception {
+        // 准备
+        String body = "{\"data\": \"" + "x".repeat(1988) + "\"}";
+        Map<String, Object> stub = stub("带宽限速", "/api/throttle/bandwidth", body);
+        stub.put("throttleBytesPerSecond", 4000);
+        assertEquals(201, postStub(stub).statusCode());
+
+        // 执行
+        long start = System.nanoTime();
+        HttpResponse<String> response = get("/api/throttle/bandwidth");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 验证
+        assertEquals(200, response.statusCode());
+        assertEquals(body, response.body());
+        assertTrue(elapsedMs >= 400, "限速响应过早写完: " + elapsedMs + "ms");
+    }
+
+    @Test
+    @DisplayName("分片写回：5 片在 500 毫秒内写完")
+    void testDribble() throws Exception {
+        // 准备
+        Map<String, Object> stub = stub("分片写回", "/api/throttle/dribble", "{\"chunks\": \"0123456789\"}");
+        stub.put("dribbleChunks", 5);
+        stub.put("dribbleDurationMs", 500);
+        assertEquals(201, postStub(stub).statusCode());
+
+        // 执行
+        long start = System.nanoTime();
+        HttpResponse<String> response = get("/api/throttle/dribble");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 验证
+        assertEquals("{\"chunks\": \"0123456789\"}", response.body());
+        assertTrue(elapsedMs >= 400, "分片响应过早写完: " + elapsedMs + "ms");
+        assertEquals(0, responseThrottler.getActiveDeliveries());
+    }
+
+    @Test
+    @DisplayName("WireMock 格式导入的 chunkedDribbleDelay 按分片写回")
+    void testImportDribble() throws Exception {
+        // 准备
+        String mapping = """
+                {"request": {"method": "GET", "url": "/api/throttle/imported"},
+                 "response": {"status": 200, "body": "0123456789",
+                              "chunkedDribbleDelay": {"numberOfChunks": 5, "totalDuration": 500}}}
+                """;
+        HttpResponse<String> imported = httpClient.send(HttpRequest.newBuilder(uri("/admin/stubs/import"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(mapping))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, imported.statusCode(), imported.body());
+
+        // 执行
+        long start = System.nanoTime();
+        HttpResponse<String> response = get("/api/throttle/imported");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 验证
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("0123456789"));
+        assertTrue(elapsedMs >= 400, "分片响应过早写完: " + elapsedMs + "ms");
+    }
+
+    @Test
+    @DisplayName("300 个各持续 1 秒的限速下载同时进行，总耗时接近单个下载")
+    void testManyConcurrentDeliveries() throws Exception {
+        // 准备
+        Map<String, Object> stub = stub("并发限速", "/api/throttle/many", "{\"payload\": \"" + "y".repeat(500) + "\"}");
+        stub.put("dribbleChunks", 10);
+        stub.put("dribbleDurationMs", 1000);
+        assertEquals(201, postStub(stub).statusCode());
+
+        // 执行
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            futures.add(httpClient.sendAsync(HttpRequest.newBuilder(uri("/api/throttle/many")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 验证
+        for (CompletableFuture<HttpResponse<String>> future : futures) {
+            assertEquals(200, future.join().statusCode());
+            assertEquals(515, future.join().body().length());
+        }
+        assertTrue(elapsedMs < 10_000, "限速下载未能并发进行: " + elapsedMs + "ms");
+    }
+
+    @Test
+    @DisplayName("同时设置带宽与分片写回时拒绝创建")
+    void testRejectsBothSettings() throws Exception {
+        Map<String, Object> stub = stub("冲突设置", "/api/throttle/invalid", "{}");
+        stub.put("throttleBytesPerSecond", 1000);
+        stub.put("dribbleChunks", 5);
+        stub.put("dribbleDurationMs", 500);
+
+        assertEquals(400, postStub(stub).statusCode());
+    }
+
+    private Map<String, Object> stub(String name, String url, String body) {
+        Map<String, Object> stub = new LinkedHashMap<>();
+        stub.put("name", name);
+        stub.put("method", "GET");
+        stub.put("url", url);
+        stub.put("urlMatchType", "EQUALS");
+        stub.put("enabled", true);
+        stub.put("responseDefinition", body);
+        return stub;
+    }
+
+    private HttpResponse<String> postStub(Map<String, Object> stub) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri("/admin/stubs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(stub)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,233 @@
+package io.github.yeheng.wiremock.loadgen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * LoadGenerator 单元测试
+ * 使用 JDK 内置 HttpServer 模拟被测实例
+ */
+@DisplayName("LoadGenerator 测试")
+class LoadGeneratorTest {
+
+    private static final String STUBS = """
+            [
+              {"id": 1, "name": "用户查询", "method": "GET", "url": "/api/users", "urlMatchType": "EQUALS", "enabled": true},
+              {"id": 2, "name": "订单详情", "method": "GET", "url": "/api/orders/{id}", "urlMatchType": "PATH_TEMPLATE",
+               "enabled": true, "queryParametersPattern": "{\\"page\\": {\\"equalTo\\": \\"1\\"}}"},
+              {"id": 3, "name": "创建订单", "method": "POST", "url": "/api/orders", "urlMatchType": "EQUALS", "enabled": true,
+               "requestHeadersPattern": "{\\"X-Token\\": {\\"equalTo\\": \\"abc\\"}}",
+               "requestBodyPattern": "{\\"equalToJson\\": \\"{\\\\\\"a\\\\\\": 1}\\"}"},
+              {"id": 4, "name": "正则接口", "method": "GET", "url": "/api/regex/.*", "urlMatchType": "REGEX", "enabled": true},
+              {"id": 5, "name": "已禁用", "method": "GET", "url": "/api/disabled", "urlMatchType": "EQUALS", "enabled": false}
+            ]
+            """;
+
+    private HttpServer server;
+    private final Map<String, LongAdder> hits = new ConcurrentHashMap<>();
+    private volatile String missingPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        byte[] body = "/admin/stubs".equals(path) ? STUBS.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int status = path.startsWith("/__loadgen/") || path.equals(missingPath) ? 404 : 200;
+        if (!"/admin/stubs".equals(path)) {
+            String key = exchange.getRequestMethod() + " " + exchange.getRequestURI();
+            if ("POST".equals(exchange.getRequestMethod())) {
+                key += " " + exchange.getRequestHeaders().getFirst("X-Token") + " "
+                        + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            }
+            hits.computeIfAbsent(key, k -> new LongAdder()).increment();
+        }
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            exchange.getResponseBody().write(body);
+        }
+        exchange.close();
+    }
+
+    private LoadGenOptions options() {
+        LoadGenOptions options = new LoadGenOptions();
+        options.setTarget("http://localhost:" + server.getAddress().getPort());
+        options.setRate(200);
+        options.setWarmup(Duration.ZERO);
+        options.setDuration(Duration.ofSeconds(1));
+        return options;
+    }
+
+    @Test
+    @DisplayName("根据 stub 匹配规则合成请求，跳过 REGEX 与禁用的 stub")
+    void testLoadTargets() throws Exception {
+        // 执行
+        List<LoadTarget> targets = new LoadGenerator(options()).loadTargets();
+
+        // 验证
+        assertEquals(3, targets.size());
+        assertEquals("/api/users", targets.get(0).path());
+        assertEquals("/api/orders/1?page=1", targets.get(1).path());
+        LoadTarget post = targets.get(2);
+        assertEquals("POST", post.method());
+        assertEquals("abc", post.headers().get("X-Token"));
+        assertEquals("{\"a\": 1}", post.body());
+    }
+
+    @Test
+    @DisplayName("非默认命名空间的 stub 带上命名空间请求头")
+    void testFromStub_NamespaceHeader() throws Exception {
+        // 准备
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode teamB = mapper.readTree(
+                "{\"id\": 7, \"method\": \"GET\", \"url\": \"/api/users\", \"namespace\": \"team-b\"}");
+        JsonNode defaultNamespace = mapper.readTree(
+                "{\"id\": 8, \"method\": \"GET\", \"url\": \"/api/users\", \"namespace\": \"default\"}");
+
+        // 执行
+        LoadTarget teamBTarget = LoadTarget.fromStub(teamB, 1).orElseThrow();
+        LoadTarget defaultTarget = LoadTarget.fromStub(defaultNamespace, 1).orElseThrow();
+
+        // 验证
+        assertEquals(Map.of(LoadTarget.NAMESPACE_HEADER, "team-b"), teamBTarget.headers());
+        assertEquals(Map.of(), defaultTarget.headers());
+    }
+
+    @Test
+    @DisplayName("恒定速率发送并统计延迟、状态码与吞吐")
+    void testExecute_ConstantArrivalRate() throws Exception {
+        // 准备
+        LoadGenerator generator = new LoadGenerator(options());
+
+        // 执行
+        LoadReport report = generator.execute(generator.loadTargets());
+
+        // 验证：1 秒 200 req/s 应发出约 200 个请求
+        assertEquals(200, report.sent());
+        assertEquals(report.sent(), report.completed());
+        assertEquals(Map.of(200, 200L), report.statusCounts());
+        assertEquals(0, report.errorRate());
+        assertTrue(report.corrected().p50() > 0);
+        assertTrue(report.corrected().max() >= report.serviceTime().max());
+        assertTrue(hits.containsKey("GET /api/orders/1?page=1"));
+        assertTrue(hits.containsKey("POST /api/orders abc {\"a\": 1}"));
+    }
+
+    @Test
+    @DisplayName("权重为 0 的 stub 被排除，未匹配流量的 404 不计为错误")
+    void testExecute_WeightsAndUnmatchedRatio() throws Exception {
+        // 准备
+        LoadGenOptions options = options();
+        options.setWeights(Map.of(2L, 0.0, 3L, 0.0));
+        options.setUnmatchedRatio(0.5);
+        LoadGenerator generator = new LoadGenerator(options);
+
+        // 执行
+        LoadReport report = generator.execute(generator.loadTargets());
+
+        // 验证
+        assertEquals(1, report.targets());
+        assertTrue(report.statusCounts().getOrDefault(404, 0L) > 0);
+        assertEquals(0, report.errorRate());
+        assertEquals(Set.of("GET /api/users"), hits.keySet().stream()
+                .filter(key -> !key.contains("/__loadgen/"))
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    @DisplayName("混入未匹配流量时，stub 目标返回的 404 仍计为错误")
+    void testExecute_StubNotFoundCountedWithUnmatchedRatio() throws Exception {
+        // 准备：被测实例丢失了 /api/users 的 stub
+        LoadGenOptions options = options();
+        options.setWeights(Map.of(2L, 0.0, 3L, 0.0));
+        options.setUnmatchedRatio(0.5);
+        missingPath = "/api/users";
+        LoadGenerator generator = new LoadGenerator(options);
+
+        // 执行
+        LoadReport report = generator.execute(generator.loadTargets());
+
+        // 验证：只有 stub 目标的 404 计为错误
+        long stubNotFound = hits.get("GET /api/users").sum();
+        assertTrue(stubNotFound > 0);
+        assertEquals(report.sent(), report.statusCounts().get(404));
+        assertEquals(stubNotFound, Math.round(report.errorRate() * report.sent()));
+    }
+
+    @Test
+    @DisplayName("命令行入口输出报告并写出 JSON")
+    void testRun_PrintsReportAndWritesJson() throws Exception {
+        // 准备
+        Path json = Files.createTempFile("loadgen", ".json");
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        // 执行
+        int exitCode = LoadGenerator.run(new String[] {
+                "--target", "http://localhost:" + server.getAddress().getPort(),
+                "--rate=100", "--warmup=0s", "--duration=1s", "--json=" + json }, new PrintStream(buffer, true,
+                        StandardCharsets.UTF_8));
+
+        // 验证
+        assertEquals(0, exitCode);
+        String output = buffer.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("校正后"), output);
+        assertEquals(100, new ObjectMapper().readTree(json.toFile()).get("sent").asLong());
+    }
+
+    @Test
+    @DisplayName("参数解析：时长、权重与非法取值")
+    void testParseOptions() {
+        // 执行
+        LoadGenOptions options = LoadGenOptions.parse(new String[] {
+                "--target", "http://host:9090/", "--rate=1500", "--duration=2m", "--warmup", "500ms",
+                "--weights=7=3,8=0", "--include=^/api", "--http-version=2" });
+
+        // 验证
+        assertEquals("http://host:9090", options.getTarget());
+        assertEquals(1500, options.getRate());
+        assertEquals(Duration.ofMinutes(2), options.getDuration());
+        assertEquals(Duration.ofMillis(500), options.getWarmup());
+        assertEquals(Map.of(7L, 3.0, 8L, 0.0), options.getWeights());
+        assertEquals(HttpClient.Version.HTTP_2, options.getHttpVersion());
+        assertEquals(HttpClient.Version.HTTP_1_1, LoadGenOptions.parse(new String[0]).getHttpVersion());
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadGenOptions.parse(new String[] { "--http-version=3" }));
+        assertThrows(IllegalArgumentException.class, () -> LoadGenOptions.parse(new String[] { "--rate=0" }));
+        assertThrows(IllegalArgumentException.class, () -> LoadGenOptions.parse(new String[] { "--unknown=1" }));
+        assertEquals(1, LoadGenerator.run(new String[] { "--rate=abc" }, new PrintStream(new ByteArrayOutputStream())));
+    }
+}
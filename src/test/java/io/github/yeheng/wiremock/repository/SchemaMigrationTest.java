@@ -0,0 +1,115 @@
+package io.github.yeheng.wiremock.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import io.github.yeheng.wiremock.entity.StubChangeLog;
+import io.github.yeheng.wiremock.entity.StubMapping;
+
+/**
+ * 数据库迁移测试 - 按生产配置把初始版本的数据库升级到当前结构，Hibernate 以 validate 方式校验实体与表结构一致
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=" + SchemaMigrationTest.URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=true",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@DisplayName("数据库迁移测试")
+class SchemaMigrationTest {
+
+    static final String URL = "jdbc:h2:mem:testdb_migration;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private StubMappingRepository repository;
+
+    @Autowired
+    private StubChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 在应用启动前建出初始版本的表并写入一条已有数据，模拟升级前的生产数据库（没有迁移历史）
+     */
+    @BeforeAll
+    static void createLegacyDatabase() throws Exception {
+        String baseline = new ClassPathResource("db/migration/V1__baseline.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute(baseline);
+            statement.execute("insert into stub_mappings (name, enabled, priority, method, url, url_match_type,"
+                    + " response_definition, created_at, updated_at) values ('已有接口', true, 0, 'GET', '/api/legacy',"
+                    + " 'EQUALS', '{\"status\": 200}', current_timestamp, current_timestamp)");
+        }
+    }
+
+    @Test
+    @DisplayName("已有数据升级后新增列取默认值")
+    void testExistingRowsGetDefaults() {
+        // 执行
+        List<StubMapping> stubs = repository.findAll();
+
+        // 验证
+        assertEquals(1, stubs.size());
+        StubMapping legacy = stubs.get(0);
+        assertEquals("/api/legacy", legacy.getUrl());
+        assertEquals(StubMapping.DEFAULT_NAMESPACE, legacy.getNamespace());
+        assertFalse(legacy.getTemplated());
+        assertEquals(0L, legacy.getHitCount());
+        assertNull(legacy.getScenarioName());
+        assertNull(legacy.getDatasetFile());
+        assertEquals(9, jdbcTemplate.queryForObject(
+                "select max(cast(\"version\" as int)) from \"flyway_schema_history\"", Integer.class));
+    }
+
+    @Test
+    @DisplayName("升级后的表可以写入新增字段与变更日志")
+    void testWriteAfterMigration() {
+        // 准备
+        StubMapping stub = new StubMapping();
+        stub.setName("新接口");
+        stub.setMethod("GET");
+        stub.setUrl("/api/new");
+        stub.setNamespace("team-b");
+        stub.setTemplated(true);
+        stub.setScenarioName("cart");
+        stub.setThrottleBytesPerSecond(1024);
+        stub.setResponseDefinition("{\"status\": 200}");
+        stub.setCreatedAt(LocalDateTime.now());
+        stub.setUpdatedAt(LocalDateTime.now());
+
+        // 执行
+        StubMapping saved = repository.saveAndFlush(stub);
+        changeLogRepository.saveAndFlush(new StubChangeLog(saved, StubChangeLog.Operation.UPSERT, "node-1"));
+
+        // 验证
+        StubMapping reloaded = repository.findById(saved.getId()).orElseThrow();
+        assertEquals("team-b", reloaded.getNamespace());
+        assertTrue(reloaded.getTemplated());
+        assertEquals(1024, reloaded.getThrottleBytesPerSecond());
+        assertEquals(1, changeLogRepository.count());
+    }
+}
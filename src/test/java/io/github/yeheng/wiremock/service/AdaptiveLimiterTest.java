@@ -0,0 +1,125 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * AdaptiveLimiter 单元测试
+ */
+@DisplayName("AdaptiveLimiter 测试")
+class AdaptiveLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    @DisplayName("并发达到上限时立即拒绝，归还名额后可再次获取")
+    void testRejectWhenFull() {
+        // 准备
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10, 0.2, 2.0);
+
+        // 执行
+        AdaptiveLimiter.Permit first = limiter.tryAcquire();
+        AdaptiveLimiter.Permit second = limiter.tryAcquire();
+        AdaptiveLimiter.Permit third = limiter.tryAcquire();
+
+        // 验证
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(third);
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejected());
+
+        first.release();
+        assertEquals(1, limiter.getInFlight());
+        assertNotNull(limiter.tryAcquire());
+        assertEquals(3, limiter.getAccepted());
+    }
+
+    @Test
+    @DisplayName("不记录样本地归还名额时只释放并发数，不影响延迟基线与上限")
+    void testReleaseWithoutSample() throws InterruptedException {
+        // 准备
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 10, 1.0, 2.0);
+        AdaptiveLimiter.Permit throttled = limiter.tryAcquire();
+        AdaptiveLimiter.Permit normal = limiter.tryAcquire();
+        Thread.sleep(5);
+
+        // 执行
+        throttled.release(false);
+
+        // 验证
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(0.0, limiter.getLongRttMillis());
+        assertEquals(4, limiter.getLimit());
+
+        normal.release();
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.getLongRttMillis() > 0);
+    }
+
+    @Test
+    @DisplayName("延迟平稳且并发饱和时上限增长，不超过最大值")
+    void testGrowsWhenLatencyStable() {
+        // 准备
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 5, 40, 0.2, 2.0);
+
+        // 执行
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(5 * MILLIS, limiter.getLimit());
+        }
+
+        // 验证
+        assertEquals(40, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("并发不足上限一半时不调整上限")
+    void testNoChangeWhenUnderused() {
+        // 准备
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 5, 100, 0.2, 2.0);
+
+        // 执行
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(5 * MILLIS, 3);
+        }
+
+        // 验证
+        assertEquals(20, limiter.getLimit());
+        assertEquals(5.0, limiter.getLongRttMillis(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("延迟明显高于长期平均时上限收缩，不低于最小值")
+    void testShrinksWhenLatencyRises() {
+        // 准备
+        AdaptiveLimiter limiter = new AdaptiveLimiter(100, 10, 100, 0.2, 2.0);
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(5 * MILLIS, 100);
+        }
+        assertEquals(100, limiter.getLimit());
+
+        // 执行
+        for (int i = 0; i < 5; i++) {
+            limiter.onSample(50 * MILLIS, limiter.getLimit());
+        }
+        int shrunk = limiter.getLimit();
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(500 * MILLIS, limiter.getLimit());
+        }
+
+        // 验证
+        assertTrue(shrunk < 100, "limit = " + shrunk);
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("上限范围与参数无效时抛出异常")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimiter(10, 0, 10, 0.2, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimiter(10, 20, 10, 0.2, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimiter(10, 1, 10, 0, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimiter(10, 1, 10, 0.2, 0.5));
+    }
+}
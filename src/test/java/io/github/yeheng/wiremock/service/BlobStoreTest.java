@@ -0,0 +1,125 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * BlobStore 单元测试 - 内容去重、落盘引用与派生结果缓存
+ */
+@DisplayName("BlobStore 测试")
+class BlobStoreTest {
+
+    private static final String LARGE = "{\"items\": [" + "{\"id\": 1, \"status\": \"active\"}, ".repeat(200) + "{}]}";
+
+    @TempDir
+    Path directory;
+
+    private static List<Path> files(Path root) throws IOException {
+        try (Stream<Path> stream = Files.walk(root)) {
+            return stream.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    @Test
+    @DisplayName("相同的大内容共用同一实例，小内容不去重")
+    void testIntern() {
+        // 准备
+        BlobStore store = new BlobStore(false, 1024, false, null);
+
+        // 执行
+        BlobStore.Payload first = store.intern(new String(LARGE));
+        BlobStore.Payload second = store.intern(new String(LARGE));
+        BlobStore.Payload small = store.intern("{}");
+
+        // 验证
+        assertSame(first, second);
+        assertSame(first.text(), second.text());
+        assertSame(first.bytes(), second.bytes());
+        assertEquals(64, first.hash().length());
+        assertNull(small.hash());
+        assertNotSame(small, store.intern("{}"));
+        assertNull(store.intern(null));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("派生结果按 key 只计算一次")
+    void testDerive() {
+        // 准备
+        BlobStore store = new BlobStore(false, 1024, false, null);
+        AtomicInteger computed = new AtomicInteger();
+
+        // 执行
+        Integer first = store.intern(LARGE).derive("length", p -> computed.incrementAndGet() + p.bytes().length);
+        Integer second = store.intern(LARGE).derive("length", p -> computed.incrementAndGet() + p.bytes().length);
+        Object empty = store.intern(LARGE).derive("none", p -> null);
+
+        // 验证
+        assertEquals(first, second);
+        assertEquals(1, computed.get());
+        assertNull(empty);
+    }
+
+    @Test
+    @DisplayName("启用落盘后大内容只写一份压缩文件，数据库中保存引用并可解析回原文")
+    void testExternalizeAndResolve() throws IOException {
+        // 准备
+        BlobStore store = new BlobStore(true, 1024, true, directory);
+
+        // 执行
+        String reference = store.externalize(LARGE);
+        String again = store.externalize(new String(LARGE));
+        String inline = store.externalize("{\"small\": true}");
+        String resolved = new BlobStore(true, 1024, true, directory).resolve(reference);
+
+        // 验证
+        assertTrue(BlobStore.isReference(reference), reference);
+        assertEquals(reference, again);
+        assertEquals("{\"small\": true}", inline);
+        assertEquals(LARGE, resolved);
+        List<Path> files = files(directory);
+        assertEquals(1, files.size());
+        assertTrue(Files.size(files.get(0)) < LARGE.length());
+        assertSame(store.intern(LARGE).text(), store.resolve(reference));
+    }
+
+    @Test
+    @DisplayName("未启用落盘时原样保存，读出时仍去重")
+    void testDisabled() throws IOException {
+        // 准备
+        BlobStore store = new BlobStore(false, 1024, true, directory);
+
+        // 执行
+        String stored = store.externalize(LARGE);
+
+        // 验证
+        assertSame(LARGE, stored);
+        assertTrue(files(directory).isEmpty());
+        assertSame(store.resolve(new String(LARGE)), store.resolve(new String(LARGE)));
+    }
+
+    @Test
+    @DisplayName("内容文件缺失或被篡改时读取失败")
+    void testMissingOrCorrupted() throws IOException {
+        // 准备
+        String reference = new BlobStore(true, 1024, false, directory).externalize(LARGE);
+        Path file = files(directory).get(0);
+        Files.write(file, ("\0" + LARGE.replace("active", "broken")).getBytes());
+
+        // 执行与验证
+        BlobStore store = new BlobStore(true, 1024, false, directory);
+        assertThrows(IllegalStateException.class, () -> store.resolve(reference));
+        Files.delete(file);
+        assertThrows(IllegalStateException.class, () -> store.resolve(reference));
+    }
+}
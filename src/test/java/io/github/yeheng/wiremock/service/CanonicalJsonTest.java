@@ -0,0 +1,72 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.common.Json;
+
+/**
+ * CanonicalJson 单元测试 - 规范形式、数字归一化与叶子指纹
+ */
+@DisplayName("CanonicalJson 测试")
+class CanonicalJsonTest {
+
+    private static CanonicalJson canonical(String json, boolean sortArrays) {
+        return CanonicalJson.of(Json.read(json, JsonNode.class), sortArrays);
+    }
+
+    @Test
+    @DisplayName("对象键排序、数字归一化后规范形式相同")
+    void testKeyOrderAndNumbers() {
+        // 执行
+        CanonicalJson first = canonical("{\"b\": 1.0, \"a\": {\"y\": 1e2, \"x\": \"s\"}}", false);
+        CanonicalJson second = canonical("{\"a\": {\"x\": \"s\", \"y\": 100}, \"b\": 1}", false);
+
+        // 验证
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals("{\"a\":{\"x\":\"s\",\"y\":1E+2},\"b\":1}", first.text());
+        assertNotEquals(first, canonical("{\"a\": {\"x\": \"s\", \"y\": 100}, \"b\": \"1\"}", false));
+    }
+
+    @Test
+    @DisplayName("只在忽略数组顺序时对数组元素排序")
+    void testArrayOrder() {
+        // 准备
+        String first = "{\"tags\": [\"b\", {\"k\": 2, \"j\": 1}, \"a\"]}";
+        String second = "{\"tags\": [\"a\", \"b\", {\"j\": 1, \"k\": 2}]}";
+
+        // 验证
+        assertEquals(canonical(first, true), canonical(second, true));
+        assertNotEquals(canonical(first, false), canonical(second, false));
+    }
+
+    @Test
+    @DisplayName("叶子指纹只覆盖数组外的标量，缺少任一叶子即可判定不包含")
+    void testLeaves() {
+        // 准备
+        CanonicalJson expected = canonical("{\"user\": {\"id\": 1, \"tags\": [\"a\"]}, \"ok\": true}", true);
+
+        // 验证
+        assertTrue(canonical("{\"ok\": true, \"user\": {\"id\": 1.00, \"name\": \"x\", \"tags\": []}}", true)
+                .containsLeavesOf(expected));
+        assertFalse(canonical("{\"ok\": true, \"user\": {\"id\": 2}}", true).containsLeavesOf(expected));
+        assertFalse(canonical("{\"ok\": true, \"id\": 1}", true).containsLeavesOf(expected));
+        assertFalse(canonical("[1, true]", true).containsLeavesOf(expected));
+    }
+
+    @Test
+    @DisplayName("识别 JsonUnit 占位符，占位符不参与叶子指纹")
+    void testPlaceholders() {
+        // 准备
+        CanonicalJson expected = canonical("{\"id\": \"${json-unit.any-number}\", \"name\": \"x\"}", true);
+
+        // 验证
+        assertTrue(expected.hasPlaceholders());
+        assertFalse(canonical("{\"id\": 1, \"name\": \"x\"}", true).hasPlaceholders());
+        assertTrue(canonical("{\"id\": 1, \"name\": \"x\"}", true).containsLeavesOf(expected));
+    }
+}
@@ -0,0 +1,273 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+
+import io.github.yeheng.wiremock.entity.StubMapping;
+
+/**
+ * DatasetIndex / DatasetStore 单元测试 - 映射索引的构建、复用与按键查找
+ */
+@DisplayName("DatasetIndex 测试")
+class DatasetIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] key(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("JSON Lines：按键返回该行原文，缺少键字段与重复键的行不进入索引")
+    void testJsonLines() throws IOException {
+        // 准备
+        Path data = directory.resolve("customers.jsonl");
+        Files.writeString(data, """
+                {"id": "c1", "name": "Alice"}
+                {"id": "c2", "name": "Bob"}\r
+                {"name": "no key"}
+
+                {"id": "c1", "name": "duplicate"}
+                {"id": 3, "name": "numeric"}
+                """);
+
+        // 执行
+        DatasetIndex index = DatasetIndex.open(data, "id", directory.resolve("idx/customers.idx"));
+
+        // 验证
+        assertEquals(3, index.getSize());
+        assertEquals("{\"id\": \"c1\", \"name\": \"Alice\"}", new String(index.lookup(key("c1")), StandardCharsets.UTF_8));
+        assertEquals("{\"id\": \"c2\", \"name\": \"Bob\"}", new String(index.lookup(key("c2")), StandardCharsets.UTF_8));
+        assertEquals("{\"id\": 3, \"name\": \"numeric\"}", new String(index.lookup(key("3")), StandardCharsets.UTF_8));
+        assertNull(index.lookup(key("c9")));
+        assertFalse(index.contains(key("")));
+    }
+
+    @Test
+    @DisplayName("CSV：按键列查找，记录按表头转换为 JSON 对象")
+    void testCsv() throws IOException {
+        // 准备
+        Path data = directory.resolve("orders.csv");
+        Files.writeString(data, "orderId,status,note\no-1,PAID,\"with, comma\"\no-2,NEW,\"say \"\"hi\"\"\"\n");
+
+        // 执行
+        DatasetIndex index = DatasetIndex.open(data, "orderId", directory.resolve("orders.idx"));
+        JsonNode first = new ObjectMapper().readTree(index.lookup(key("o-1")));
+        JsonNode second = new ObjectMapper().readTree(index.lookup(key("o-2")));
+
+        // 验证
+        assertEquals(2, index.getSize());
+        assertEquals("PAID", first.get("status").asText());
+        assertEquals("with, comma", first.get("note").asText());
+        assertEquals("say \"hi\"", second.get("note").asText());
+        assertNull(index.lookup(key("orderId")), "表头不应作为记录");
+    }
+
+    @Test
+    @DisplayName("CSV 表头中没有键列时拒绝打开")
+    void testCsvMissingKeyColumn() throws IOException {
+        Path data = directory.resolve("bad.csv");
+        Files.writeString(data, "a,b\n1,2\n");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> DatasetIndex.open(data, "id", directory.resolve("bad.idx")));
+    }
+
+    @Test
+    @DisplayName("索引文件与数据文件一致时直接复用，不再重建")
+    void testIndexReused() throws IOException {
+        // 准备
+        Path data = directory.resolve("reuse.jsonl");
+        Files.writeString(data, "{\"id\": \"a\"}\n{\"id\": \"b\"}\n");
+        Path indexFile = directory.resolve("reuse.idx");
+        DatasetIndex.open(data, "id", indexFile);
+        FileTime built = Files.getLastModifiedTime(indexFile);
+
+        // 执行
+        DatasetIndex reopened = DatasetIndex.open(data, "id", indexFile);
+
+        // 验证
+        assertEquals(built, Files.getLastModifiedTime(indexFile));
+        assertTrue(reopened.contains(key("b")));
+    }
+
+    @Test
+    @DisplayName("哈希相同而键不同的槽位不返回记录，继续探测")
+    void testHashCollisionVerifiesKey() throws IOException {
+        // 准备：在索引中放入一个哈希为 "zz"、却指向 "c1" 所在行的槽位，模拟两个键的 64 位哈希冲突
+        Path data = directory.resolve("collide.jsonl");
+        String line = "{\"id\": \"c1\"}";
+        Files.writeString(data, line + "\n{\"id\": \"c2\"}\n");
+        Path indexFile = directory.resolve("collide.idx");
+        DatasetIndex.open(data, "id", indexFile);
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int mask = (int) index.getLong(8) - 1;
+            long hash = DatasetIndex.hash(key("zz"));
+            int slot = (int) hash & mask;
+            while (index.getLong(32 + slot * 16) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index.putLong(32 + slot * 16, hash);
+            index.putInt(32 + slot * 16 + 8, 0);
+            index.putInt(32 + slot * 16 + 12, line.length());
+        }
+
+        // 执行
+        DatasetIndex index = DatasetIndex.open(data, "id", indexFile);
+
+        // 验证
+        assertNull(index.lookup(key("zz")));
+        assertFalse(index.contains(key("zz")));
+        assertEquals(line, new String(index.lookup(key("c1")), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("一万条记录逐一可查")
+    void testManyRecords() throws IOException {
+        // 准备
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            lines.append("{\"id\": \"k").append(i).append("\", \"n\": ").append(i).append("}\n");
+        }
+        Path data = directory.resolve("many.jsonl");
+        Files.writeString(data, lines);
+
+        // 执行
+        DatasetIndex index = DatasetIndex.open(data, "id", directory.resolve("many.idx"));
+
+        // 验证
+        assertEquals(10_000, index.getSize());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("{\"id\": \"k" + i + "\", \"n\": " + i + "}",
+                    new String(index.lookup(key("k" + i)), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("DatasetStore：path.name 解析为 URL 路径变量所在的段，路径不能超出数据集目录")
+    void testStoreKeyExpression() throws IOException {
+        // 准备
+        StubMapping stub = new StubMapping();
+        stub.setUrl("/customers/{id}/profile");
+        stub.setDatasetKey("path.id");
+        DatasetStore store = new DatasetStore(directory);
+        Files.writeString(directory.resolve("ok.jsonl"), "{\"id\": \"x\"}\n");
+
+        // 验证
+        assertEquals("request.path.1", DatasetStore.keyExpression(stub));
+        stub.setDatasetKey("{{request.query.id}}");
+        assertEquals("request.query.id", DatasetStore.keyExpression(stub));
+        stub.setDatasetKey("path.missing");
+        assertThrows(IllegalArgumentException.class, () -> DatasetStore.keyExpression(stub));
+        assertEquals(directory.resolve("ok.jsonl").toAbsolutePath().normalize(), store.resolve("ok.jsonl"));
+        for (String escape : List.of("../outside.jsonl", "missing.jsonl")) {
+            assertThrows(IllegalArgumentException.class, () -> store.resolve(escape));
+        }
+    }
+
+    @Test
+    @DisplayName("DatasetStore：绑定的匹配与写回共用解析结果，换了键的请求重新查找")
+    void testBindingResolvesPerKey() throws IOException {
+        // 准备
+        Files.writeString(directory.resolve("users.jsonl"), "{\"id\": \"u1\"}\n{\"id\": \"u2\"}\n");
+        StubMapping stub = new StubMapping();
+        stub.setUrl("/users");
+        stub.setDatasetFile("users.jsonl");
+        stub.setDatasetKey("request.query.id");
+        stub.setDatasetKeyField("id");
+        DatasetStore.Binding binding = new DatasetStore(directory).bind(stub);
+
+        // 执行
+        boolean first = binding.contains(request("/users?id=u1"));
+        byte[] firstRecord = binding.lookup(request("/users?id=u1"));
+        byte[] secondRecord = binding.lookup(request("/users?id=u2"));
+        boolean missing = binding.contains(request("/users?id=u3"));
+
+        // 验证
+        assertTrue(first);
+        assertEquals("{\"id\": \"u1\"}", new String(firstRecord, StandardCharsets.UTF_8));
+        assertEquals("{\"id\": \"u2\"}", new String(secondRecord, StandardCharsets.UTF_8));
+        assertFalse(missing);
+        assertNull(binding.lookup(request("/users?id=u3")));
+    }
+
+    @Test
+    @DisplayName("DatasetStore：数据文件修改后重新加载时删除旧索引")
+    void testStoreDeletesStaleIndex() throws IOException {
+        // 准备
+        Path data = directory.resolve("orders.jsonl");
+        Files.writeString(data, "{\"id\": \"o1\"}\n");
+        StubMapping stub = new StubMapping();
+        stub.setUrl("/orders");
+        stub.setDatasetFile("orders.jsonl");
+        stub.setDatasetKey("request.query.id");
+        stub.setDatasetKeyField("id");
+        DatasetStore store = new DatasetStore(directory);
+        store.bind(stub);
+
+        // 执行
+        Files.writeString(data, "{\"id\": \"o1\"}\n{\"id\": \"o2\"}\n");
+        Files.setLastModifiedTime(data, FileTime.fromMillis(Files.getLastModifiedTime(data).toMillis() + 10_000));
+        DatasetStore.Binding binding = store.bind(stub);
+
+        // 验证
+        try (Stream<Path> indexes = Files.list(directory.resolve(".index"))) {
+            assertEquals(1, indexes.filter(file -> file.toString().endsWith(".idx")).count());
+        }
+        assertTrue(binding.contains(request("/orders?id=o2")));
+    }
+
+    @Test
+    @DisplayName("DatasetStore：清除后线程上不再保留绑定，之后的请求重新查找")
+    void testClearResolved() throws IOException {
+        // 准备
+        Files.writeString(directory.resolve("items.jsonl"), "{\"id\": \"i1\"}\n");
+        StubMapping stub = new StubMapping();
+        stub.setUrl("/items");
+        stub.setDatasetFile("items.jsonl");
+        stub.setDatasetKey("request.query.id");
+        stub.setDatasetKeyField("id");
+        DatasetStore.Binding binding = new DatasetStore(directory).bind(stub);
+        assertTrue(binding.contains(request("/items?id=i1")));
+        assertSame(binding, DatasetStore.Binding.lastResolved());
+
+        // 执行
+        DatasetStore.Binding.clearResolved();
+
+        // 验证
+        assertNull(DatasetStore.Binding.lastResolved());
+        assertEquals("{\"id\": \"i1\"}", new String(binding.lookup(request("/items?id=i1")), StandardCharsets.UTF_8));
+        DatasetStore.Binding.clearResolved();
+    }
+
+    private static Request request(String path) {
+        return ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080" + path)
+                .withMethod(RequestMethod.GET)
+                .withProtocol("HTTP/1.1")
+                .withClientIp("127.0.0.1")
+                .build();
+    }
+}
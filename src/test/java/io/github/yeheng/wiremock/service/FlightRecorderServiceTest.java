@@ -0,0 +1,51 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * FlightRecorderService 单元测试
+ */
+@DisplayName("FlightRecorderService 测试")
+class FlightRecorderServiceTest {
+
+    private final FlightRecorderService service = new FlightRecorderService(60);
+
+    @Test
+    @DisplayName("录制设置为 JDK default 配置叠加内置 wiremock 事件配置")
+    void testSettings() throws Exception {
+        // 执行
+        Map<String, String> settings = service.settings(null);
+
+        // 验证
+        assertEquals("true", settings.get("jdk.GarbageCollection#enabled"));
+        assertEquals("true", settings.get("wiremock.StubWrite#enabled"));
+        assertEquals("1 ms", settings.get("wiremock.StubMatch#threshold"));
+        assertEquals("0 ms", settings.get("wiremock.StubReload#threshold"));
+    }
+
+    @Test
+    @DisplayName("指定阈值时覆盖 mock 请求路径事件的阈值")
+    void testTrafficThresholdOverride() throws Exception {
+        // 执行
+        Map<String, String> settings = service.settings(0L);
+
+        // 验证
+        assertEquals("0 ms", settings.get("wiremock.RequestConversion#threshold"));
+        assertEquals("0 ms", settings.get("wiremock.StubMatch#threshold"));
+        assertEquals("0 ms", settings.get("wiremock.ResponseWrite#threshold"));
+    }
+
+    @Test
+    @DisplayName("录制时长超出范围或阈值为负时抛出异常")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> service.record(Duration.ZERO, null));
+        assertThrows(IllegalArgumentException.class, () -> service.record(Duration.ofSeconds(61), null));
+        assertThrows(IllegalArgumentException.class, () -> service.record(Duration.ofSeconds(1), -1L));
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+/**
+ * IndexedStubMappingStore 单元测试
+ */
+@DisplayName("IndexedStubMappingStore 测试")
+class IndexedStubMappingStoreTest {
+
+    private final IndexedStubMappingStore store = new IndexedStubMappingStore();
+
+    private static StubMapping mapping(String url, int priority) {
+        return WireMock.get(url).atPriority(priority).willReturn(WireMock.ok()).build();
+    }
+
+    @Test
+    @DisplayName("按 UUID 查找并按优先级、后添加优先的顺序遍历")
+    void testGetAndOrdering() {
+        // 准备
+        StubMapping first = mapping("/a", 5);
+        StubMapping second = mapping("/b", 5);
+        StubMapping urgent = mapping("/c", 1);
+
+        // 执行
+        store.add(first);
+        store.add(second);
+        store.add(urgent);
+
+        // 验证
+        assertSame(second, store.get(second.getId()).orElseThrow());
+        assertTrue(store.get(UUID.randomUUID()).isEmpty());
+        assertEquals(List.of(urgent, second, first), store.getAll().toList());
+    }
+
+    @Test
+    @DisplayName("按 UUID 删除，UUID 未命中时按请求模式删除")
+    void testRemove() {
+        // 准备
+        StubMapping byId = mapping("/a", 0);
+        StubMapping byPattern = mapping("/b", 0);
+        store.add(byId);
+        store.add(byPattern);
+
+        // 执行
+        store.remove(byId);
+        store.remove(mapping("/b", 0));
+
+        // 验证
+        assertTrue(store.get(byId.getId()).isEmpty());
+        assertTrue(store.get(byPattern.getId()).isEmpty());
+        assertEquals(0, store.getAll().count());
+    }
+
+    @Test
+    @DisplayName("替换保留原插入顺序，并更新 UUID 索引")
+    void testReplace() {
+        // 准备
+        StubMapping original = mapping("/a", 0);
+        StubMapping later = mapping("/b", 0);
+        store.add(original);
+        store.add(later);
+        StubMapping edited = mapping("/a-edited", 0);
+        edited.setId(original.getId());
+        edited.setInsertionIndex(original.getInsertionIndex());
+
+        // 执行
+        store.replace(original, edited);
+
+        // 验证
+        assertSame(edited, store.get(original.getId()).orElseThrow());
+        assertEquals(List.of(later, edited), store.getAll().toList());
+    }
+
+    @Test
+    @DisplayName("clear 清空映射与索引")
+    void testClear() {
+        // 准备
+        StubMapping stub = mapping("/a", 0);
+        store.add(stub);
+
+        // 执行
+        store.clear();
+
+        // 验证
+        assertTrue(store.get(stub.getId()).isEmpty());
+        assertEquals(0, store.getAll().count());
+    }
+}
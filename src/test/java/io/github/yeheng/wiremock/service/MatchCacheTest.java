@@ -0,0 +1,201 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+
+/**
+ * MatchCache 单元测试 - 指纹命中、按 stub 集合版本整体作废、有状态 stub 绕过缓存
+ */
+@DisplayName("MatchCache 测试")
+class MatchCacheTest {
+
+    private final NearMissSampler nearMissSampler = new NearMissSampler(new WireMockProperties());
+    private final StubMappingConverter converter = new StubMappingConverter(new ObjectMapper());
+    private final MockEngine engine = new MockEngine("default", converter, nearMissSampler, 1, -1, 100);
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+        nearMissSampler.shutdown();
+    }
+
+    private static StubMapping stub(String url, String body) {
+        StubMapping stub = new StubMapping();
+        stub.setUuid(UUID.randomUUID().toString());
+        stub.setName("GET " + url);
+        stub.setMethod("GET");
+        stub.setUrl(url);
+        stub.setUrlMatchType(StubMapping.UrlMatchType.EQUALS);
+        stub.setPriority(0);
+        stub.setEnabled(true);
+        stub.setResponseDefinition(body);
+        return stub;
+    }
+
+    private static Request request(String path, String tenant) {
+        ImmutableRequest.Builder builder = ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080" + path)
+                .withMethod(RequestMethod.GET)
+                .withProtocol("HTTP/1.1")
+                .withClientIp("127.0.0.1");
+        if (tenant != null) {
+            builder.withHeader("X-Tenant", tenant);
+        }
+        return builder.build();
+    }
+
+    @Test
+    @DisplayName("重复的请求直接取缓存，未匹配的结果同样缓存")
+    void testRepeatedRequestsHitCache() {
+        // 准备
+        engine.add(stub("/orders", "{\"from\":\"orders\"}"));
+
+        // 执行
+        for (int i = 0; i < 3; i++) {
+            assertEquals("{\"from\":\"orders\"}", engine.handle(request("/orders", null)).getBodyAsString());
+            assertEquals(404, engine.handle(request("/missing", null)).getStatus());
+        }
+
+        // 验证
+        MatchCache.Stats stats = engine.stats().matchCache();
+        assertEquals(2, stats.entries());
+        assertEquals(2, stats.misses());
+        assertEquals(4, stats.hits());
+        assertEquals(3, engine.stats().unmatched(), "命名空间统计仍按请求计数");
+        assertEquals(1, nearMissSampler.getUnmatchedCount(), "缓存命中不再经过 WireMock 匹配");
+    }
+
+    @Test
+    @DisplayName("stub 集合变更后缓存整体作废，之前未匹配的请求可以匹配新 stub")
+    void testInvalidatedOnChange() {
+        // 准备
+        StubMapping orders = stub("/orders", "{\"v\":1}");
+        engine.add(orders);
+        assertEquals(404, engine.handle(request("/users", null)).getStatus());
+        engine.handle(request("/orders", null));
+
+        // 执行
+        engine.add(stub("/users", "{\"from\":\"users\"}"));
+        Response users = engine.handle(request("/users", null));
+        orders.setResponseDefinition("{\"v\":2}");
+        engine.add(orders);
+        Response updated = engine.handle(request("/orders", null));
+        engine.remove(orders.getUuid(), orders);
+        Response removed = engine.handle(request("/orders", null));
+
+        // 验证
+        assertEquals("{\"from\":\"users\"}", users.getBodyAsString());
+        assertEquals("{\"v\":2}", updated.getBodyAsString());
+        assertEquals(404, removed.getStatus());
+        assertEquals(0, engine.stats().matchCache().hits());
+    }
+
+    @Test
+    @DisplayName("stub 按请求头匹配时请求头进入指纹")
+    void testMatchedHeadersInFingerprint() {
+        // 准备
+        StubMapping tenantA = stub("/orders", "{\"tenant\":\"a\"}");
+        tenantA.setRequestHeadersPattern("{\"X-Tenant\": {\"equalTo\": \"a\"}}");
+        engine.add(tenantA);
+
+        // 执行
+        Response first = engine.handle(request("/orders", "a"));
+        Response other = engine.handle(request("/orders", "b"));
+        Response absent = engine.handle(request("/orders", null));
+        Response again = engine.handle(request("/orders", "a"));
+
+        // 验证
+        assertEquals("{\"tenant\":\"a\"}", first.getBodyAsString());
+        assertEquals(404, other.getStatus());
+        assertEquals(404, absent.getStatus());
+        assertEquals("{\"tenant\":\"a\"}", again.getBodyAsString());
+        assertEquals(1, engine.stats().matchCache().hits());
+        assertEquals(new MatchCache.Dependencies(Set.of("x-tenant"), false, false),
+                converter.matchDependencies(tenantA));
+    }
+
+    @Test
+    @DisplayName("存在按场景状态匹配的 stub 时整个命名空间绕过缓存")
+    void testStatefulStubsBypassCache() {
+        // 准备
+        StubMapping started = stub("/cart", "{\"state\":\"empty\"}");
+        started.setScenarioName("cart");
+        started.setRequiredScenarioState("Started");
+        started.setNewScenarioState("Filled");
+        StubMapping filled = stub("/cart", "{\"state\":\"filled\"}");
+        filled.setScenarioName("cart");
+        filled.setRequiredScenarioState("Filled");
+        engine.add(started);
+        engine.add(filled);
+
+        // 执行
+        Response first = engine.handle(request("/cart", null));
+        Response second = engine.handle(request("/cart", null));
+
+        // 验证
+        assertEquals("{\"state\":\"empty\"}", first.getBodyAsString());
+        assertEquals("{\"state\":\"filled\"}", second.getBodyAsString());
+        MatchCache.Stats stats = engine.stats().matchCache();
+        assertEquals(0, stats.hits());
+        assertEquals(2, stats.bypassed());
+    }
+
+    @Test
+    @DisplayName("缓存条数达到上限后新的指纹不再缓存")
+    void testMaxEntries() {
+        // 准备
+        MockEngine small = new MockEngine("small", converter, nearMissSampler, 1, -1, 2);
+        small.add(stub("/orders", "{}"));
+
+        // 执行
+        for (int i = 0; i < 4; i++) {
+            small.handle(request("/orders?page=" + i, null));
+        }
+        small.handle(request("/orders?page=0", null));
+
+        // 验证
+        MatchCache.Stats stats = small.stats().matchCache();
+        assertEquals(2, stats.entries());
+        assertEquals(2, stats.overflow());
+        assertEquals(1, stats.hits());
+        small.stop();
+    }
+
+    @Test
+    @DisplayName("请求体哈希相同但内容不同时指纹不相等，哈希冲突不会命中其他请求的缓存")
+    void testFingerprintComparesBody() {
+        // 准备
+        byte[] first = "{\"id\": 1}".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "{\"id\": 2}".getBytes(StandardCharsets.UTF_8);
+        long collidingHash = 42L;
+
+        // 执行
+        MatchCache.Fingerprint a = new MatchCache.Fingerprint("POST", "/orders", List.of(), first, collidingHash);
+        MatchCache.Fingerprint b = new MatchCache.Fingerprint("POST", "/orders", List.of(), second, collidingHash);
+        MatchCache.Fingerprint copy = new MatchCache.Fingerprint("POST", "/orders", List.of(), first.clone(),
+                collidingHash);
+
+        // 验证
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, b);
+        assertEquals(a, copy);
+        assertEquals(a.hashCode(), copy.hashCode());
+    }
+}
@@ -0,0 +1,239 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.test.WaitUtils;
+
+/**
+ * MockEngine 单元测试 - 分片路由、跨分片优先级与分片下的近似匹配
+ */
+@DisplayName("MockEngine 测试")
+class MockEngineTest {
+
+    private final NearMissSampler nearMissSampler = new NearMissSampler(new WireMockProperties());
+    private final MockEngine engine = new MockEngine("default", new StubMappingConverter(new ObjectMapper()),
+            nearMissSampler, 8);
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+        nearMissSampler.shutdown();
+    }
+
+    private static StubMapping stub(String method, String url, StubMapping.UrlMatchType matchType, int priority,
+            String body) {
+        StubMapping stub = new StubMapping();
+        stub.setUuid(UUID.randomUUID().toString());
+        stub.setName(method + " " + url);
+        stub.setMethod(method);
+        stub.setUrl(url);
+        stub.setUrlMatchType(matchType);
+        stub.setPriority(priority);
+        stub.setEnabled(true);
+        stub.setResponseDefinition(body);
+        return stub;
+    }
+
+    private static Request request(RequestMethod method, String path) {
+        return ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080" + path)
+                .withMethod(method)
+                .withProtocol("HTTP/1.1")
+                .withClientIp("127.0.0.1")
+                .build();
+    }
+
+    @Test
+    @DisplayName("路由键由方法与第一段路径组成，无法确定时进入兜底分片")
+    void testRoutingKey() {
+        // 验证
+        assertEquals("GET api", MockEngine.routingKey(stub("get", "/api/users", StubMapping.UrlMatchType.EQUALS, 0, "{}")));
+        assertEquals("GET api", MockEngine.routingKey(
+                stub("GET", "/api/users/{id}", StubMapping.UrlMatchType.PATH_TEMPLATE, 0, "{}")));
+        assertNull(MockEngine.routingKey(stub("ANY", "/api/users", StubMapping.UrlMatchType.EQUALS, 0, "{}")));
+        assertNull(MockEngine.routingKey(stub("GET", "/api/.*", StubMapping.UrlMatchType.REGEX, 0, "{}")));
+        assertNull(MockEngine.routingKey(stub("GET", "users", StubMapping.UrlMatchType.CONTAINS, 0, "{}")));
+        assertNull(MockEngine.routingKey(stub("GET", "/{tenant}/users", StubMapping.UrlMatchType.PATH_TEMPLATE, 0,
+                "{}")));
+        assertEquals("GET api", MockEngine.routingKey("GET", "/api/users?page=1"));
+        assertEquals("GET api", MockEngine.routingKey("GET", "/api?page=1"));
+        assertEquals("GET ", MockEngine.routingKey("GET", "/"));
+    }
+
+    @Test
+    @DisplayName("分片模式下路由分片与兜底分片的 stub 都能命中")
+    void testMatchAcrossShards() {
+        // 准备
+        engine.add(stub("GET", "/orders/1", StubMapping.UrlMatchType.EQUALS, 0, "{\"from\":\"orders\"}"));
+        engine.add(stub("POST", "/users", StubMapping.UrlMatchType.EQUALS, 0, "{\"from\":\"users\"}"));
+        engine.add(stub("GET", "reports", StubMapping.UrlMatchType.CONTAINS, 0, "{\"from\":\"catch-all\"}"));
+
+        // 执行
+        Response orders = engine.handle(request(RequestMethod.GET, "/orders/1"));
+        Response users = engine.handle(request(RequestMethod.POST, "/users"));
+        Response reports = engine.handle(request(RequestMethod.GET, "/api/reports/daily"));
+        Response missing = engine.handle(request(RequestMethod.GET, "/orders/2"));
+
+        // 验证
+        assertEquals("{\"from\":\"orders\"}", orders.getBodyAsString());
+        assertEquals("{\"from\":\"users\"}", users.getBodyAsString());
+        assertEquals("{\"from\":\"catch-all\"}", reports.getBodyAsString());
+        assertEquals(404, missing.getStatus());
+        assertEquals(1, engine.stats().unmatched());
+        assertEquals(1, nearMissSampler.getUnmatchedCount());
+    }
+
+    @Test
+    @DisplayName("兜底分片中优先级更高的 stub 优先于路由分片的 stub")
+    void testPriorityAcrossShards() {
+        // 准备
+        engine.add(stub("GET", "/orders/1", StubMapping.UrlMatchType.EQUALS, 5, "{\"from\":\"shard\"}"));
+        StubMapping urgent = stub("GET", "/orders/.*", StubMapping.UrlMatchType.REGEX, 1, "{\"from\":\"catch-all\"}");
+        engine.add(urgent);
+
+        // 执行
+        Response first = engine.handle(request(RequestMethod.GET, "/orders/1"));
+        engine.remove(urgent.getUuid(), urgent);
+        Response second = engine.handle(request(RequestMethod.GET, "/orders/1"));
+
+        // 验证
+        assertEquals("{\"from\":\"catch-all\"}", first.getBodyAsString());
+        assertEquals("{\"from\":\"shard\"}", second.getBodyAsString());
+    }
+
+    @Test
+    @DisplayName("更新后 stub 改变了路由分片时旧映射被移除")
+    void testReAddMovesShard() {
+        // 准备
+        StubMapping stub = stub("GET", "/orders/1", StubMapping.UrlMatchType.EQUALS, 0, "{}");
+        engine.add(stub);
+
+        // 执行
+        StubMapping moved = stub("GET", "/invoices/1", StubMapping.UrlMatchType.EQUALS, 0, "{}");
+        moved.setUuid(stub.getUuid());
+        engine.add(moved);
+
+        // 验证
+        assertEquals(1, engine.getStubCount());
+        assertEquals(404, engine.handle(request(RequestMethod.GET, "/orders/1")).getStatus());
+        assertEquals(200, engine.handle(request(RequestMethod.GET, "/invoices/1")).getStatus());
+    }
+
+    @Test
+    @DisplayName("重复添加同一 UUID 时原地替换响应")
+    void testReAddSameShardReplaces() {
+        // 准备
+        StubMapping stub = stub("GET", "/orders/1", StubMapping.UrlMatchType.EQUALS, 0, "{\"v\":1}");
+        engine.add(stub);
+
+        // 执行
+        stub.setResponseDefinition("{\"v\":2}");
+        engine.add(stub);
+
+        // 验证
+        assertEquals(1, engine.getStubCount());
+        assertEquals("{\"v\":2}", engine.handle(request(RequestMethod.GET, "/orders/1")).getBodyAsString());
+    }
+
+    @Test
+    @DisplayName("模板化 stub 按请求渲染响应体，更新为静态响应后不再渲染")
+    void testTemplatedResponse() {
+        // 准备
+        StubMapping stub = stub("GET", "/users/{id}", StubMapping.UrlMatchType.PATH_TEMPLATE, 0,
+                "{\"id\": {{request.path.1}}, \"page\": \"{{request.query.page}}\"}");
+        stub.setTemplated(true);
+        engine.add(stub);
+
+        // 执行
+        Response first = engine.handle(request(RequestMethod.GET, "/users/42?page=3"));
+        Response second = engine.handle(request(RequestMethod.GET, "/users/7"));
+        stub.setTemplated(false);
+        stub.setResponseDefinition("{\"id\": 0}");
+        engine.add(stub);
+        Response plain = engine.handle(request(RequestMethod.GET, "/users/42"));
+
+        // 验证
+        assertEquals("{\"id\": 42, \"page\": \"3\"}", first.getBodyAsString());
+        assertEquals("{\"id\": 7, \"page\": \"\"}", second.getBodyAsString());
+        assertEquals("application/json;charset=UTF-8", first.getHeaders().getContentTypeHeader().firstValue());
+        assertEquals("{\"id\": 0}", plain.getBodyAsString());
+    }
+
+    @Test
+    @DisplayName("相同的大响应体在引擎中只保留一份")
+    void testSharedResponseBody() {
+        // 准备
+        String body = "{\"items\": \"" + "x".repeat(5000) + "\"}";
+        StubMapping first = stub("GET", "/orders/1", StubMapping.UrlMatchType.EQUALS, 0, new String(body));
+        StubMapping second = stub("ANY", "/orders/2", StubMapping.UrlMatchType.EQUALS, 0, new String(body));
+
+        // 执行
+        engine.add(first);
+        engine.add(second);
+        Response response = engine.handle(request(RequestMethod.GET, "/orders/2"));
+
+        // 验证
+        assertSame(first.getResponseDefinition(), second.getResponseDefinition());
+        assertEquals(body, response.getBodyAsString());
+    }
+
+    @Test
+    @DisplayName("分片模式下近似匹配同时覆盖路由分片与兜底分片中的 stub")
+    void testNearMissCoversRoutedShard() {
+        // 准备
+        WireMockProperties properties = new WireMockProperties();
+        properties.getNearMiss().setSampleRate(1.0);
+        NearMissSampler sampler = new NearMissSampler(properties);
+        MockEngine sharded = new MockEngine("default", new StubMappingConverter(new ObjectMapper()), sampler, 8);
+        StubMapping routed = stub("GET", "/orders/1", StubMapping.UrlMatchType.EQUALS, 0, "{}");
+        StubMapping catchAll = stub("ANY", "/anything", StubMapping.UrlMatchType.EQUALS, 0, "{}");
+        sharded.add(routed);
+        sharded.add(catchAll);
+
+        try {
+            // 执行
+            Response response = sharded.handle(request(RequestMethod.GET, "/orders/2"));
+
+            // 验证
+            assertEquals(404, response.getStatus());
+            assertTrue(WaitUtils.waitForCondition(() -> !sampler.getReports().isEmpty(), 5000, 10));
+            NearMissSampler.NearMissReport report = sampler.getReports().get(0);
+            assertEquals(routed.getUuid(), report.nearMisses().get(0).stubId(), "路由分片中的 stub 最接近");
+            assertTrue(report.nearMisses().stream().anyMatch(c -> catchAll.getUuid().equals(c.stubId())));
+            assertEquals(1, sampler.getUnmatchedCount());
+        } finally {
+            sharded.stop();
+            sampler.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("重置清空所有分片")
+    void testResetClearsAllShards() {
+        // 准备
+        engine.add(stub("GET", "/orders/1", StubMapping.UrlMatchType.EQUALS, 0, "{}"));
+        engine.add(stub("ANY", "/anything", StubMapping.UrlMatchType.EQUALS, 0, "{}"));
+
+        // 执行
+        engine.reset();
+
+        // 验证
+        assertEquals(0, engine.getStubCount());
+        assertEquals(404, engine.handle(request(RequestMethod.GET, "/orders/1")).getStatus());
+        assertEquals(404, engine.handle(request(RequestMethod.GET, "/anything")).getStatus());
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * NamespaceResolver 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NamespaceResolver 测试")
+class NamespaceResolverTest {
+
+    @Mock(strictness = Mock.Strictness.LENIENT)
+    private HttpServletRequest request;
+
+    private WireMockProperties properties;
+    private NamespaceResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WireMockProperties();
+        properties.getNamespaces().getHosts().put("team-b.mock.local", "team-b");
+        resolver = new NamespaceResolver(properties);
+        when(request.getServerName()).thenReturn("localhost");
+        when(request.getRequestURI()).thenReturn("/api/users");
+    }
+
+    @Test
+    @DisplayName("请求头优先于 Host 映射与路径前缀")
+    void testResolve_HeaderWins() {
+        // 准备
+        when(request.getHeader("X-Mock-Namespace")).thenReturn("team-a");
+        when(request.getServerName()).thenReturn("team-b.mock.local");
+        when(request.getRequestURI()).thenReturn("/ns/team-c/api/users");
+
+        // 执行
+        NamespaceResolver.Resolution resolution = resolver.resolve(request);
+
+        // 验证
+        assertEquals("team-a", resolution.namespace());
+        assertNull(resolution.strippedPrefix());
+    }
+
+    @Test
+    @DisplayName("按 Host 映射选择命名空间（忽略大小写）")
+    void testResolve_Host() {
+        // 准备
+        when(request.getServerName()).thenReturn("Team-B.Mock.Local");
+
+        // 执行
+        NamespaceResolver.Resolution resolution = resolver.resolve(request);
+
+        // 验证
+        assertEquals("team-b", resolution.namespace());
+    }
+
+    @Test
+    @DisplayName("路径前缀选择命名空间并返回需要去掉的前缀")
+    void testResolve_PathPrefix() {
+        // 准备
+        when(request.getRequestURI()).thenReturn("/ns/team-c/api/users");
+
+        // 执行
+        NamespaceResolver.Resolution resolution = resolver.resolve(request);
+
+        // 验证
+        assertEquals("team-c", resolution.namespace());
+        assertEquals("/ns/team-c", resolution.strippedPrefix());
+    }
+
+    @Test
+    @DisplayName("非法的请求头取值被忽略，回退为默认命名空间")
+    void testResolve_InvalidHeaderFallsBack() {
+        // 准备
+        when(request.getHeader("X-Mock-Namespace")).thenReturn("../etc");
+
+        // 执行
+        NamespaceResolver.Resolution resolution = resolver.resolve(request);
+
+        // 验证
+        assertEquals(StubMapping.DEFAULT_NAMESPACE, resolution.namespace());
+        assertNull(resolution.strippedPrefix());
+    }
+
+    @Test
+    @DisplayName("normalize 把空值归一为默认命名空间并拒绝非法名称")
+    void testNormalize() {
+        // 验证
+        assertEquals(StubMapping.DEFAULT_NAMESPACE, NamespaceResolver.normalize(null));
+        assertEquals(StubMapping.DEFAULT_NAMESPACE, NamespaceResolver.normalize("  "));
+        assertEquals("team-a", NamespaceResolver.normalize(" team-a "));
+        assertThrows(IllegalArgumentException.class, () -> NamespaceResolver.normalize("team a"));
+    }
+}
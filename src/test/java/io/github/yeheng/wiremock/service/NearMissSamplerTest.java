@@ -0,0 +1,130 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.direct.DirectCallHttpServer;
+import com.github.tomakehurst.wiremock.direct.DirectCallHttpServerFactory;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.test.WaitUtils;
+
+/**
+ * NearMissSampler 单元测试
+ */
+@DisplayName("NearMissSampler 测试")
+class NearMissSamplerTest {
+
+    private WireMockProperties properties;
+    private NearMissSampler sampler;
+    private WireMockServer server;
+    private DirectCallHttpServer directCallServer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WireMockProperties();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+        sampler.shutdown();
+    }
+
+    private void startServer() {
+        sampler = new NearMissSampler(properties);
+        DirectCallHttpServerFactory factory = new DirectCallHttpServerFactory();
+        server = new WireMockServer(WireMockConfiguration.options()
+                .httpServerFactory(factory)
+                .notMatchedRendererFactory(extensions -> sampler));
+        server.start();
+        directCallServer = factory.getHttpServer();
+        server.stubFor(WireMock.get("/api/orders/1").withName("订单查询")
+                .willReturn(WireMock.aResponse().withStatus(200)));
+    }
+
+    private Response get(String url) {
+        return directCallServer.stubRequest(ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost" + url)
+                .withMethod(RequestMethod.GET)
+                .build());
+    }
+
+    @Test
+    @DisplayName("未匹配请求直接返回 404，采样后异步记录近似匹配")
+    void testUnmatched_ReturnsFast404AndRecordsNearMiss() {
+        properties.getNearMiss().setSampleRate(1.0);
+        startServer();
+
+        Response response = get("/api/orders/2");
+
+        assertEquals(404, response.getStatus());
+        assertEquals(1, sampler.getUnmatchedCount());
+        assertTrue(WaitUtils.waitForCondition(() -> !sampler.getReports().isEmpty(), 5000, 10));
+
+        NearMissSampler.NearMissReport report = sampler.getReports().get(0);
+        assertEquals("GET", report.method());
+        assertEquals("/api/orders/2", report.url());
+        assertEquals("订单查询", report.nearMisses().get(0).stubName());
+    }
+
+    @Test
+    @DisplayName("采样率为 0 时不做近似匹配分析")
+    void testUnmatched_NotSampled() {
+        properties.getNearMiss().setSampleRate(0);
+        startServer();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(404, get("/api/missing/" + i).getStatus());
+        }
+
+        assertEquals(10, sampler.getUnmatchedCount());
+        assertTrue(sampler.getReports().isEmpty());
+    }
+
+    @Test
+    @DisplayName("结果队列有界，只保留最近的分析结果")
+    void testReports_Bounded() {
+        properties.getNearMiss().setSampleRate(1.0);
+        properties.getNearMiss().setCapacity(3);
+        properties.getNearMiss().setQueueSize(100);
+        startServer();
+
+        for (int i = 0; i < 10; i++) {
+            get("/api/missing/" + i);
+        }
+
+        assertTrue(WaitUtils.waitForCondition(
+                () -> sampler.getReports().size() == 3
+                        && sampler.getReports().get(0).url().equals("/api/missing/9"), 5000, 10));
+        List<NearMissSampler.NearMissReport> reports = sampler.getReports();
+        assertEquals("/api/missing/7", reports.get(2).url());
+
+        sampler.clear();
+        assertTrue(sampler.getReports().isEmpty());
+    }
+
+    @Test
+    @DisplayName("命中的请求不经过近似匹配分析")
+    void testMatched_NotCounted() {
+        properties.getNearMiss().setSampleRate(1.0);
+        startServer();
+
+        assertEquals(200, get("/api/orders/1").getStatus());
+        assertEquals(0, sampler.getUnmatchedCount());
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+
+/**
+ * PrecompressedBody 单元测试 - Accept-Encoding 协商与预压缩
+ */
+@DisplayName("PrecompressedBody 测试")
+class PrecompressedBodyTest {
+
+    private static final byte[] RAW = "{\"items\": [\"a\", \"a\", \"a\", \"a\", \"a\", \"a\", \"a\", \"a\", \"a\", \"a\"]}"
+            .repeat(20).getBytes(StandardCharsets.UTF_8);
+
+    private static Request request(String acceptEncoding) {
+        ImmutableRequest.Builder builder = ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080/items")
+                .withMethod(RequestMethod.GET)
+                .withProtocol("HTTP/1.1")
+                .withClientIp("127.0.0.1");
+        if (acceptEncoding != null) {
+            builder.withHeader("Accept-Encoding", acceptEncoding);
+        }
+        return builder.build();
+    }
+
+    private static Response original() {
+        return Response.response()
+                .status(200)
+                .headers(new HttpHeaders(new HttpHeader("Content-Type", "application/json")))
+                .body(RAW)
+                .build();
+    }
+
+    @Test
+    @DisplayName("按 q 值与通配符选择编码，同权重优先 gzip")
+    void testPreferredEncoding() {
+        // 验证
+        assertEquals("gzip", PrecompressedBody.preferredEncoding("gzip, deflate", true, true));
+        assertEquals("deflate", PrecompressedBody.preferredEncoding("gzip;q=0.5, deflate", true, true));
+        assertEquals("deflate", PrecompressedBody.preferredEncoding("gzip;q=0, *", true, true));
+        assertEquals("gzip", PrecompressedBody.preferredEncoding("*", true, true));
+        assertEquals("gzip", PrecompressedBody.preferredEncoding("X-GZIP", true, true));
+        assertEquals("deflate", PrecompressedBody.preferredEncoding("gzip, deflate", false, true));
+        assertNull(PrecompressedBody.preferredEncoding("br", true, true));
+        assertNull(PrecompressedBody.preferredEncoding("identity, *;q=0", true, true));
+        assertNull(PrecompressedBody.preferredEncoding("gzip;q=abc", true, true));
+        assertNull(PrecompressedBody.preferredEncoding(null, true, true));
+    }
+
+    @Test
+    @DisplayName("小于阈值或无法压缩变小的响应体不预压缩")
+    void testThreshold() {
+        // 验证
+        assertNull(PrecompressedBody.of(RAW, RAW.length + 1));
+        assertNull(PrecompressedBody.of(RAW, -1));
+        assertNull(PrecompressedBody.of("{}".getBytes(StandardCharsets.UTF_8), 0));
+        assertNotNull(PrecompressedBody.of(RAW, RAW.length));
+    }
+
+    @Test
+    @DisplayName("协商后替换响应体并补充 Vary、Content-Encoding 与 Content-Length")
+    void testNegotiate() throws IOException {
+        // 准备
+        PrecompressedBody body = PrecompressedBody.of(RAW, 0);
+
+        // 执行
+        Response gzip = body.negotiate(request("gzip"), original());
+        Response deflate = body.negotiate(request("deflate"), original());
+        Response identity = body.negotiate(request(null), original());
+
+        // 验证
+        assertEquals("gzip", gzip.getHeaders().getHeader("Content-Encoding").firstValue());
+        assertEquals(String.valueOf(gzip.getBody().length), gzip.getHeaders().getHeader("Content-Length").firstValue());
+        assertEquals("application/json", gzip.getHeaders().getContentTypeHeader().firstValue());
+        assertArrayEquals(RAW, new GZIPInputStream(new ByteArrayInputStream(gzip.getBody())).readAllBytes());
+        assertArrayEquals(RAW, new InflaterInputStream(new ByteArrayInputStream(deflate.getBody())).readAllBytes());
+
+        assertFalse(identity.getHeaders().getHeader("Content-Encoding").isPresent());
+        assertEquals("Accept-Encoding", identity.getHeaders().getHeader("Vary").firstValue());
+        assertEquals(String.valueOf(RAW.length), identity.getHeaders().getHeader("Content-Length").firstValue());
+        assertArrayEquals(RAW, identity.getBody());
+    }
+}
@@ -0,0 +1,174 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+
+/**
+ * ProxyRecorder 单元测试 - 转发判定、录制去重、限速与批量保存
+ */
+@DisplayName("ProxyRecorder 测试")
+class ProxyRecorderTest {
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<StubMappingService> provider = mock(ObjectProvider.class);
+    private final StubMappingService stubMappingService = mock(StubMappingService.class);
+
+    private ProxyRecorder recorder(String targetUrl, int maxRecordsPerSecond, int queueSize) {
+        WireMockProperties properties = new WireMockProperties();
+        properties.getProxy().setEnabled(true);
+        properties.getProxy().setTargetUrl(targetUrl);
+        properties.getProxy().setMaxRecordsPerSecond(maxRecordsPerSecond);
+        properties.getProxy().setQueueSize(queueSize);
+        properties.getProxy().setBatchSize(2);
+        when(provider.getObject()).thenReturn(stubMappingService);
+        when(stubMappingService.createStubs(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        return new ProxyRecorder(properties, provider, new ObjectMapper());
+    }
+
+    private static byte[] json(String path) {
+        return ("{\"path\": \"" + path + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("只转发未匹配任何 stub 的 404")
+    void testShouldForward() {
+        ProxyRecorder recorder = recorder("http://127.0.0.1:1", 0, 10);
+
+        assertTrue(recorder.shouldForward(Response.notConfigured()));
+        assertFalse(recorder.shouldForward(Response.response().status(200).build()));
+        assertFalse(recorder.shouldForward(Response.response().status(404)
+                .headers(new HttpHeaders(new HttpHeader(MockEngine.MATCHED_STUB_HEADER, "id"))).build()));
+        assertThrows(IllegalArgumentException.class, () -> recorder("localhost:9000", 0, 10));
+    }
+
+    @Test
+    @DisplayName("上游不可用时返回 502")
+    void testUpstreamUnavailable() throws IOException {
+        // 准备：占用后立即释放的端口上没有服务
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        ProxyRecorder recorder = recorder("http://127.0.0.1:" + port, 0, 10);
+
+        // 执行
+        Response response = recorder.forward("default", ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080/api/missing")
+                .withMethod(RequestMethod.GET)
+                .withProtocol("HTTP/1.1")
+                .build()).join();
+
+        // 验证
+        assertEquals(502, response.getStatus());
+        assertEquals(1, recorder.status().upstreamErrors());
+    }
+
+    @Test
+    @DisplayName("同一路径只录制一次，超过每秒上限或队列已满时不录制")
+    void testDedupeRateLimitAndQueue() {
+        ProxyRecorder limited = recorder("http://127.0.0.1:1", 2, 10);
+        assertTrue(limited.enqueue("default", "GET", "/a", json("/a")));
+        assertFalse(limited.enqueue("default", "GET", "/a", json("/a")));
+        assertTrue(limited.enqueue("team-a", "GET", "/a", json("/a")));
+        assertFalse(limited.enqueue("default", "GET", "/b", json("/b")));
+        assertEquals(1, limited.status().deduplicated());
+        assertEquals(1, limited.status().rateLimited());
+        assertEquals(2, limited.status().pending());
+
+        ProxyRecorder small = recorder("http://127.0.0.1:1", 0, 1);
+        assertTrue(small.enqueue("default", "GET", "/a", json("/a")));
+        assertFalse(small.enqueue("default", "GET", "/b", json("/b")));
+        assertEquals(1, small.status().dropped());
+    }
+
+    @Test
+    @DisplayName("查询串进入去重键，录制的 stub 按查询参数逐个 equalTo 匹配")
+    @SuppressWarnings("unchecked")
+    void testQueryRecorded() {
+        // 准备
+        ProxyRecorder recorder = recorder("http://127.0.0.1:1", 0, 10);
+
+        // 执行
+        boolean first = recorder.enqueue("default", "GET", "/search?q=a%20b&page=2&q=ignored", json("/search"));
+        boolean other = recorder.enqueue("default", "GET", "/search?q=c", json("/search"));
+        boolean repeated = recorder.enqueue("default", "GET", "/search?q=c", json("/search"));
+        recorder.flush();
+
+        // 验证
+        assertTrue(first);
+        assertTrue(other);
+        assertFalse(repeated);
+        ArgumentCaptor<List<StubMapping>> batches = ArgumentCaptor.forClass(List.class);
+        verify(stubMappingService).createStubs(batches.capture());
+        StubMapping stub = batches.getValue().get(0);
+        assertEquals("/search", stub.getUrl());
+        assertEquals(StubMapping.UrlMatchType.EQUALS, stub.getUrlMatchType());
+        assertEquals("{\"page\":{\"equalTo\":\"2\"},\"q\":{\"equalTo\":\"a b\"}}", stub.getQueryParametersPattern());
+        assertEquals("Recorded GET /search?q=a%20b&page=2&q=ignored", stub.getName());
+        assertNull(recorder.queryParametersPattern("/search"));
+        assertNull(recorder.queryParametersPattern("/search?"));
+    }
+
+    @Test
+    @DisplayName("按批保存 JSON 响应，跳过非 JSON 响应，保存失败的路径可重新录制")
+    @SuppressWarnings("unchecked")
+    void testFlush() {
+        // 准备
+        ProxyRecorder recorder = recorder("http://127.0.0.1:1", 0, 10);
+        recorder.enqueue("default", "GET", "/a", json("/a"));
+        recorder.enqueue("default", "GET", "/b", "not json".getBytes(StandardCharsets.UTF_8));
+        recorder.enqueue("default", "POST", "/c", json("/c"));
+        recorder.enqueue("default", "GET", "/d", json("/d"));
+
+        // 执行
+        recorder.flush();
+
+        // 验证：每批 2 条，非 JSON 的 /b 被跳过
+        ArgumentCaptor<List<StubMapping>> batches = ArgumentCaptor.forClass(List.class);
+        verify(stubMappingService, times(2)).createStubs(batches.capture());
+        assertEquals(1, batches.getAllValues().get(0).size());
+        StubMapping first = batches.getAllValues().get(0).get(0);
+        assertEquals("GET", first.getMethod());
+        assertEquals("/a", first.getUrl());
+        assertEquals(StubMapping.UrlMatchType.EQUALS, first.getUrlMatchType());
+        assertEquals("{\"path\": \"/a\"}", first.getResponseDefinition());
+        assertEquals(2, batches.getAllValues().get(1).size());
+        assertEquals(3, recorder.status().recorded());
+        assertEquals(1, recorder.status().skipped());
+
+        // 数据库中已存在的 stub 被 createStubs 跳过，不计为已录制
+        when(stubMappingService.createStubs(anyList())).thenAnswer(invocation -> List.of());
+        recorder.enqueue("default", "GET", "/existing", json("/existing"));
+        recorder.flush();
+        assertEquals(3, recorder.status().recorded());
+        assertEquals(2, recorder.status().skipped());
+
+        // 保存失败
+        doThrow(new IllegalStateException("WireMock 未运行")).when(stubMappingService).createStubs(anyList());
+        recorder.enqueue("default", "GET", "/e", json("/e"));
+        recorder.flush();
+        assertEquals(1, recorder.status().failed());
+        assertTrue(recorder.enqueue("default", "GET", "/e", json("/e")));
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * RegexCache 单元测试
+ */
+@DisplayName("RegexCache 测试")
+class RegexCacheTest {
+
+    @Test
+    @DisplayName("转义包含正则元字符的 URL")
+    void testEscapeRegex_SpecialCharacters() {
+        // 执行
+        String escaped = RegexCache.escapeRegex("/files/report.json?v=(1)");
+
+        // 验证
+        assertEquals("/files/report\\.json\\?v=\\(1\\)", escaped);
+        assertTrue(RegexCache.getPattern(".*" + escaped + ".*").matcher("/api/files/report.json?v=(1)").matches());
+        assertFalse(RegexCache.getPattern(".*" + escaped + ".*").matcher("/api/files/reportXjson?v=(1)").matches());
+    }
+
+    @Test
+    @DisplayName("相同正则返回同一个已编译实例")
+    void testGetPattern_Cached() {
+        // 验证
+        assertSame(RegexCache.getPattern("^/orders/[^/]+$"), RegexCache.getPattern("^/orders/[^/]+$"));
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.JsonException;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.StringValuePattern;
+
+/**
+ * RequestView 单元测试 - 请求体、JSON、表单与请求头只解析一次
+ */
+@DisplayName("RequestView 测试")
+class RequestViewTest {
+
+    private static Request request(String contentType, String body) {
+        return ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080/orders?page=2")
+                .withMethod(RequestMethod.POST)
+                .withProtocol("HTTP/1.1")
+                .withClientIp("127.0.0.1")
+                .withHeader("Content-Type", contentType)
+                .withHeader("X-Trace-Id", "trace-1")
+                .withBody(body.getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
+    @Test
+    @DisplayName("请求体字符串与 JSON 只解析一次，非法 JSON 重复抛出同一异常")
+    void testBodyParsedOnce() {
+        // 准备
+        RequestView view = RequestView.of(request("application/json", "{\"id\": 1}"));
+        RequestView invalid = RequestView.of(request("application/json", "{\"id\":"));
+
+        // 执行
+        String body = view.getBodyAsString();
+
+        // 验证
+        assertSame(body, view.getBodyAsString());
+        assertTrue(view.isBody(body));
+        assertFalse(view.isBody(new String(body)));
+        assertSame(view.jsonBody(), view.jsonBody());
+        assertEquals(1, view.jsonBody().get("id").asInt());
+        assertSame(view.canonicalJson(true), view.canonicalJson(true));
+        assertEquals(view.canonicalJson(true), view.canonicalJson(false));
+        JsonException first = assertThrows(JsonException.class, invalid::jsonBody);
+        assertSame(first, assertThrows(JsonException.class, invalid::jsonBody));
+        assertSame(view, RequestView.of(view));
+    }
+
+    @Test
+    @DisplayName("请求头按小写名称查找，缺失时返回 absent")
+    void testHeaders() {
+        // 准备
+        RequestView view = RequestView.of(request("application/json", "{}"));
+
+        // 验证
+        assertEquals("trace-1", view.getHeader("x-trace-id"));
+        assertEquals("trace-1", view.header("X-TRACE-ID").firstValue());
+        assertTrue(view.containsHeader("content-type"));
+        assertFalse(view.header("X-Missing").isPresent());
+        assertNull(view.getHeader("X-Missing"));
+        assertEquals("2", view.queryParameter("page").firstValue());
+    }
+
+    @Test
+    @DisplayName("urlencoded 请求体按表单参数解析")
+    void testFormParameters() {
+        // 准备
+        RequestView form = RequestView.of(request("application/x-www-form-urlencoded; charset=UTF-8",
+                "name=a%20b&tag=x&tag=y"));
+        RequestView json = RequestView.of(request("application/json", "{}"));
+
+        // 验证
+        assertEquals("a b", form.formParameter("name").firstValue());
+        assertEquals(2, form.formParameter("tag").values().size());
+        assertFalse(form.formParameter("missing").isPresent());
+        assertSame(form.formParameters(), form.formParameters());
+        assertEquals(Map.of(), json.formParameters());
+    }
+
+    @Test
+    @DisplayName("匹配期间视图绑定为当前视图，结束后解除")
+    void testMatchBindsCurrentView() {
+        // 准备
+        RequestView view = RequestView.of(request("application/json", "{\"id\": 1}"));
+        CapturingPattern capturing = new CapturingPattern("{");
+        RequestPattern pattern = WireMock.post(WireMock.urlPathEqualTo("/orders"))
+                .withRequestBody(capturing)
+                .build()
+                .getRequest();
+
+        // 执行
+        MatchResult result = view.match(pattern, Map.of());
+
+        // 验证
+        assertTrue(result.isExactMatch());
+        assertSame(view, capturing.seen.get());
+        assertNull(RequestView.current());
+    }
+
+    /**
+     * 记录匹配时的当前视图
+     */
+    private static final class CapturingPattern extends StringValuePattern {
+
+        private final AtomicReference<RequestView> seen = new AtomicReference<>();
+
+        CapturingPattern(@JsonProperty("capturing") String expectedValue) {
+            super(expectedValue);
+        }
+
+        @Override
+        public MatchResult match(String value) {
+            seen.set(RequestView.current());
+            return MatchResult.of(value.startsWith(expectedValue));
+        }
+    }
+}
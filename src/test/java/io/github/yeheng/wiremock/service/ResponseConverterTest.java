@@ -0,0 +1,76 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Response;
+
+/**
+ * ResponseConverter 单元测试 - servlet 响应写回
+ */
+@DisplayName("ResponseConverter 测试")
+class ResponseConverterTest {
+
+    private final ResponseConverter converter = new ResponseConverter();
+
+    private static Response response() {
+        return Response.response()
+                .status(200)
+                .headers(new HttpHeaders(
+                        new HttpHeader("Content-Type", "application/json"),
+                        new HttpHeader("Connection", "keep-alive"),
+                        new HttpHeader("Keep-Alive", "timeout=5"),
+                        new HttpHeader("X-Trace", "abc")))
+                .body("{\"ok\": true}".getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
+    @Test
+    @DisplayName("HTTP/2 响应不写出连接级响应头，其余响应头与长度正常写出")
+    void testHttp2DropsConnectionHeaders() throws Exception {
+        // 准备
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        // 执行
+        converter.convert(response(), servletResponse, true);
+
+        // 验证
+        assertEquals(200, servletResponse.getStatus());
+        assertNull(servletResponse.getHeader("Connection"));
+        assertNull(servletResponse.getHeader("Keep-Alive"));
+        assertEquals("abc", servletResponse.getHeader("X-Trace"));
+        assertEquals("application/json", servletResponse.getContentType());
+        assertEquals(12, servletResponse.getContentLength());
+        assertEquals("{\"ok\": true}", servletResponse.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("HTTP/1.1 响应保留 stub 的全部响应头")
+    void testHttp1KeepsHeaders() throws Exception {
+        // 准备
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        // 执行
+        converter.convert(response(), servletResponse, false);
+
+        // 验证
+        assertEquals("keep-alive", servletResponse.getHeader("Connection"));
+        assertEquals("timeout=5", servletResponse.getHeader("Keep-Alive"));
+        assertEquals(12, servletResponse.getContentLength());
+    }
+
+    @Test
+    @DisplayName("按协议名识别 HTTP/2")
+    void testIsHttp2() {
+        assertTrue(ResponseConverter.isHttp2("HTTP/2.0"));
+        assertFalse(ResponseConverter.isHttp2("HTTP/1.1"));
+        assertFalse(ResponseConverter.isHttp2(null));
+    }
+}
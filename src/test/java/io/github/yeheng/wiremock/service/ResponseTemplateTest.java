@@ -0,0 +1,154 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+
+/**
+ * ResponseTemplate 单元测试 - 模板编译与渲染
+ */
+@DisplayName("ResponseTemplate 测试")
+class ResponseTemplateTest {
+
+    private static Request request(RequestMethod method, String url, String body) {
+        return ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080" + url)
+                .withMethod(method)
+                .withProtocol("HTTP/1.1")
+                .withClientIp("127.0.0.1")
+                .withHeaders(new HttpHeaders(new HttpHeader("X-Trace-Id", "trace-1")))
+                .withBody(body != null ? body.getBytes(StandardCharsets.UTF_8) : null)
+                .build();
+    }
+
+    private static String render(String template, Request request) {
+        return new String(ResponseTemplate.compile(template).render(request), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("渲染路径段、完整路径与请求方法")
+    void testPath() {
+        // 准备
+        Request request = request(RequestMethod.GET, "/api/users/42/orders?page=2", null);
+
+        // 执行 & 验证
+        assertEquals("users-42-orders", render("{{request.path.1}}-{{request.path.2}}-{{request.path.3}}", request));
+        assertEquals("[]", render("[{{request.path.9}}]", request));
+        assertEquals("GET /api/users/42/orders", render("{{request.method}} {{request.path}}", request));
+    }
+
+    @Test
+    @DisplayName("渲染查询参数与请求头，缺失的值输出为空")
+    void testQueryAndHeaders() {
+        // 准备
+        Request request = request(RequestMethod.GET, "/search?q=%E4%B8%AD&size=10", null);
+
+        // 执行 & 验证
+        assertEquals("10|trace-1|", render("{{request.query.size}}|{{ request.headers.X-Trace-Id }}|"
+                + "{{request.query.missing}}", request));
+        assertEquals("中", render("{{request.query.q}}", request));
+    }
+
+    @Test
+    @DisplayName("渲染 JSON 请求体字段，对象输出为 JSON")
+    void testBody() {
+        // 准备
+        Request request = request(RequestMethod.POST, "/orders",
+                "{\"user\": {\"id\": 7, \"name\": \"张三\"}, \"items\": [{\"sku\": \"A1\"}]}");
+
+        // 执行 & 验证
+        assertEquals("7 张三 A1", render("{{request.body.user.id}} {{request.body.user.name}} "
+                + "{{request.body.items.0.sku}}", request));
+        assertEquals("{\"id\":7,\"name\":\"张三\"}", render("{{request.body.user}}", request));
+        assertEquals("", render("{{request.body.user.missing}}", request));
+    }
+
+    @Test
+    @DisplayName("请求体不是 JSON 时字段为空，原文仍可输出")
+    void testNonJsonBody() {
+        // 准备
+        Request request = request(RequestMethod.POST, "/echo", "plain text");
+
+        // 执行 & 验证
+        assertEquals("[]plain text", render("[{{request.body.id}}]{{request.body}}", request));
+    }
+
+    @Test
+    @DisplayName("取自请求的值按 JSON 字符串转义，注入的引号不能改变响应结构")
+    void testValuesJsonEscaped() throws Exception {
+        // 准备
+        Request request = ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080/users/a%22b?q=x%22%2C%22admin%22%3Atrue%2C%22y%22%3A%22")
+                .withMethod(RequestMethod.POST)
+                .withProtocol("HTTP/1.1")
+                .withClientIp("127.0.0.1")
+                .withHeaders(new HttpHeaders(new HttpHeader("X-Name", "back\\slash \"quoted\"\t")))
+                .withBody("{\"note\": \"line1\\nline2 \\\"q\\\" \\\\\", \"user\": {\"id\": 7}}"
+                        .getBytes(StandardCharsets.UTF_8))
+                .build();
+
+        // 执行
+        String rendered = render("{\"q\": \"{{request.query.q}}\", \"name\": \"{{request.headers.X-Name}}\", "
+                + "\"note\": \"{{request.body.note}}\", \"user\": {{request.body.user}}}", request);
+        JsonNode json = new ObjectMapper().readTree(rendered);
+
+        // 验证
+        assertEquals("x\",\"admin\":true,\"y\":\"", json.get("q").asText());
+        assertFalse(json.has("admin"));
+        assertEquals("back\\slash \"quoted\"\t", json.get("name").asText());
+        assertEquals("line1\nline2 \"q\" \\", json.get("note").asText());
+        assertEquals(7, json.get("user").get("id").asInt());
+        assertEquals("back\\\\slash \\\"quoted\\\"\\t", render("{{request.headers.X-Name}}", request));
+        assertTrue(render("{{request.body}}", request).startsWith("{\\\"note\\\": \\\"line1\\\\n"));
+    }
+
+    @Test
+    @DisplayName("三重括号原样输出取自请求的值")
+    void testRawValues() {
+        // 准备
+        Request request = request(RequestMethod.POST, "/echo?q=%22x%22", "{\"a\": \"\\\"\"}");
+
+        // 执行 & 验证
+        assertEquals("\"x\"|{\"a\": \"\\\"\"}|\"",
+                render("{{{request.query.q}}}|{{{request.body}}}|{{{ request.body.a }}}", request));
+        assertThrows(IllegalArgumentException.class, () -> ResponseTemplate.compile("{{{request.body}}"));
+    }
+
+    @Test
+    @DisplayName("不含表达式的模板原样输出，模板可重复渲染")
+    void testLiteralOnly() {
+        // 准备
+        ResponseTemplate template = ResponseTemplate.compile("{\"id\": \"{{request.path.0}}\"}");
+
+        // 执行
+        byte[] first = template.render(request(RequestMethod.GET, "/a", null));
+        byte[] second = template.render(request(RequestMethod.GET, "/bb", null));
+
+        // 验证
+        assertEquals("{\"ok\": true}", render("{\"ok\": true}", request(RequestMethod.GET, "/", null)));
+        assertEquals("{\"id\": \"a\"}", new String(first, StandardCharsets.UTF_8));
+        assertEquals("{\"id\": \"bb\"}", new String(second, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("非法表达式在编译时报错")
+    void testInvalidExpressions() {
+        // 验证
+        assertThrows(IllegalArgumentException.class, () -> ResponseTemplate.compile("{{request.path.1"));
+        assertThrows(IllegalArgumentException.class, () -> ResponseTemplate.compile("{{request.cookies.id}}"));
+        assertThrows(IllegalArgumentException.class, () -> ResponseTemplate.compile("{{response.status}}"));
+        assertThrows(IllegalArgumentException.class, () -> ResponseTemplate.compile("{{request.path.x}}"));
+        assertThrows(IllegalArgumentException.class, () -> ResponseTemplate.compile("{{request.query}}"));
+    }
+}
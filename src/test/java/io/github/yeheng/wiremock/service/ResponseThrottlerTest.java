@@ -0,0 +1,59 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.http.ChunkedDribbleDelay;
+import com.github.tomakehurst.wiremock.http.Response;
+
+/**
+ * ResponseThrottler 单元测试 - 带宽换算与限速判定
+ */
+@DisplayName("ResponseThrottler 测试")
+class ResponseThrottlerTest {
+
+    @Test
+    @DisplayName("按带宽换算的分片计划：总时长按字节数与速率计算，每个补充周期一片")
+    void testForBandwidth() {
+        ChunkedDribbleDelay delay = ResponseThrottler.forBandwidth(10_000, 5_000);
+
+        assertEquals(2_000, (int) delay.getTotalDuration());
+        assertEquals(2_000 / ResponseThrottler.BANDWIDTH_TICK_MS, (int) delay.getNumberOfChunks());
+    }
+
+    @Test
+    @DisplayName("片数不超过响应体字节数，极小的响应体也至少持续 1 毫秒")
+    void testForBandwidthSmallBody() {
+        ChunkedDribbleDelay delay = ResponseThrottler.forBandwidth(3, 1);
+
+        assertEquals(3_000, (int) delay.getTotalDuration());
+        assertEquals(3, (int) delay.getNumberOfChunks());
+        assertEquals(1, (int) ResponseThrottler.forBandwidth(1, 1_000_000).getTotalDuration());
+    }
+
+    @Test
+    @DisplayName("只有片数大于 1、总时长大于 0 且响应体可切分时才限速写回")
+    void testIsThrottled() {
+        byte[] body = new byte[100];
+
+        assertTrue(ResponseThrottler.isThrottled(new ChunkedDribbleDelay(5, 500), body));
+        assertFalse(ResponseThrottler.isThrottled(new ChunkedDribbleDelay(1, 500), body));
+        assertFalse(ResponseThrottler.isThrottled(new ChunkedDribbleDelay(5, 0), body));
+        assertFalse(ResponseThrottler.isThrottled(new ChunkedDribbleDelay(5, 500), new byte[1]));
+        assertFalse(ResponseThrottler.isThrottled(null, body));
+    }
+
+    @Test
+    @DisplayName("未设置分片计划的响应不限速")
+    void testIsThrottledResponse() {
+        Response plain = Response.response().status(200).body("{\"a\": 1}").build();
+        Response dribbled = Response.Builder.like(plain).but()
+                .chunkedDribbleDelay(new ChunkedDribbleDelay(4, 200))
+                .build();
+
+        assertFalse(ResponseThrottler.isThrottled(plain));
+        assertTrue(ResponseThrottler.isThrottled(dribbled));
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+
+/**
+ * ScenarioStateStore 单元测试 - 状态迁移、实例隔离、并发与容量淘汰
+ */
+@DisplayName("ScenarioStateStore 测试")
+class ScenarioStateStoreTest {
+
+    private static ScenarioStateStore store(String instanceKey, int maxInstances, int stripes) {
+        WireMockProperties properties = new WireMockProperties();
+        properties.getScenarios().setInstanceKey(instanceKey);
+        properties.getScenarios().setMaxInstances(maxInstances);
+        properties.getScenarios().setStripes(stripes);
+        return new ScenarioStateStore(properties);
+    }
+
+    private static StubMapping stub(String required, String next) {
+        StubMapping stub = new StubMapping();
+        stub.setScenarioName("checkout");
+        stub.setRequiredScenarioState(required);
+        stub.setNewScenarioState(next);
+        return stub;
+    }
+
+    private static Request request(String session) {
+        return ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080/api/cart")
+                .withMethod(RequestMethod.GET)
+                .withProtocol("HTTP/1.1")
+                .withHeaders(session != null
+                        ? new HttpHeaders(new HttpHeader("X-Session", session))
+                        : HttpHeaders.noHeaders())
+                .build();
+    }
+
+    @Test
+    @DisplayName("未迁移过的实例处于 Started，查询不创建条目")
+    void testInitialState() {
+        ScenarioStateStore store = new ScenarioStateStore();
+
+        assertEquals(ScenarioStateStore.STARTED, store.state("default", "checkout", ""));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("按前置状态 CAS 迁移，前置状态不符时不迁移")
+    void testTransition() {
+        ScenarioStateStore store = new ScenarioStateStore();
+
+        assertTrue(store.transition("default", "checkout", "", "Started", "LoggedIn"));
+        assertFalse(store.transition("default", "checkout", "", "Started", "Other"));
+        assertFalse(store.transition("default", "checkout", "", "Missing", "Other"));
+        assertTrue(store.transition("default", "checkout", "", null, "Done"));
+
+        assertEquals("Done", store.state("default", "checkout", ""));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("按请求头区分的实例互相独立，缺少实例键的请求共用一个实例")
+    void testIndependentInstances() {
+        // 准备
+        ScenarioStateStore store = store("header:X-Session", 1000, 4);
+        StubMapping login = stub("Started", "LoggedIn");
+        StubMapping checkout = stub("LoggedIn", "Paid");
+        login.setNamespace("default");
+        checkout.setNamespace("default");
+
+        // 执行
+        store.advance(login, request("alice"));
+
+        // 验证
+        assertTrue(store.matches(checkout, request("alice")));
+        assertFalse(store.matches(checkout, request("bob")));
+        assertFalse(store.matches(checkout, request(null)));
+        assertTrue(store.matches(login, request("bob")));
+        assertEquals("LoggedIn", store.state("default", "checkout", "alice"));
+        assertEquals(ScenarioStateStore.STARTED, store.state("default", "checkout", ""));
+    }
+
+    @Test
+    @DisplayName("并发命中同一实例时只有一个迁移生效，不同实例各自迁移")
+    void testConcurrentTransitions() throws Exception {
+        // 准备
+        ScenarioStateStore store = store("", 100000, 16);
+        int threads = 8;
+        int sessions = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger wins = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // 执行：每个线程都尝试把每个会话从 Started 迁移到自己的状态
+        for (int t = 0; t < threads; t++) {
+            String next = "thread-" + t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int s = 0; s < sessions; s++) {
+                    if (store.transition("default", "race", "session-" + s, "Started", next)) {
+                        wins.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // 验证
+        assertEquals(sessions, wins.get());
+        assertEquals(sessions, store.size());
+        assertNotEquals(ScenarioStateStore.STARTED, store.state("default", "race", "session-0"));
+    }
+
+    @Test
+    @DisplayName("超出容量时淘汰最久未访问的实例")
+    void testEviction() {
+        // 准备
+        ScenarioStateStore store = store("", 3, 1);
+        store.transition("default", "s", "a", null, "x");
+        store.transition("default", "s", "b", null, "x");
+        store.transition("default", "s", "c", null, "x");
+        store.state("default", "s", "a");
+
+        // 执行
+        store.transition("default", "s", "d", null, "x");
+
+        // 验证
+        assertEquals(3, store.size());
+        assertEquals(ScenarioStateStore.STARTED, store.state("default", "s", "b"));
+        assertEquals("x", store.state("default", "s", "a"));
+        assertEquals("x", store.state("default", "s", "d"));
+    }
+
+    @Test
+    @DisplayName("持续创建新实例时各分段保持容量上限，经常访问的实例不被淘汰")
+    void testEvictionUnderChurn() {
+        // 准备
+        ScenarioStateStore store = store("", 1_000, 4);
+        store.transition("default", "s", "hot", null, "kept");
+
+        // 执行
+        for (int i = 0; i < 100_000; i++) {
+            store.transition("default", "s", "cold-" + i, null, "x");
+            if (i % 100 == 0) {
+                store.state("default", "s", "hot");
+            }
+        }
+
+        // 验证
+        assertEquals(1_000, store.size());
+        assertEquals("kept", store.state("default", "s", "hot"));
+        assertEquals("x", store.state("default", "s", "cold-99999"));
+        assertEquals(ScenarioStateStore.STARTED, store.state("default", "s", "cold-0"));
+    }
+
+    @Test
+    @DisplayName("按命名空间重置，实例键配置无效时拒绝")
+    void testResetAndInvalidKey() {
+        ScenarioStateStore store = new ScenarioStateStore();
+        store.transition("team-a", "s", "", null, "x");
+        store.transition("team-b", "s", "", null, "y");
+
+        store.reset("team-a");
+
+        assertEquals(ScenarioStateStore.STARTED, store.state("team-a", "s", ""));
+        assertEquals("y", store.state("team-b", "s", ""));
+        assertEquals(1, store.snapshot(null).size());
+        assertThrows(IllegalArgumentException.class, () -> store("body:x", 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> store("header:", 10, 1));
+    }
+}
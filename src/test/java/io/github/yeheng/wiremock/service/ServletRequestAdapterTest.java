@@ -0,0 +1,135 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * ServletRequestAdapter 单元测试 - 按需读取 servlet 请求
+ */
+@DisplayName("ServletRequestAdapter 测试")
+class ServletRequestAdapterTest {
+
+    private static MockHttpServletRequest servletRequest(String uri, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setQueryString(query);
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        request.addHeader("Content-Type", "application/json");
+        request.addHeader("X-Tag", "a");
+        request.addHeader("X-Tag", "b");
+        request.setContent("{\"id\": 1}".getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    @Test
+    @DisplayName("URL 去掉命名空间前缀并保留查询串")
+    void testUrl() {
+        // 准备
+        ServletRequestAdapter plain = new ServletRequestAdapter(servletRequest("/orders/1", "page=2&tag=x"), null);
+        ServletRequestAdapter stripped = new ServletRequestAdapter(servletRequest("/ns/team-a/orders", null),
+                "/ns/team-a");
+        ServletRequestAdapter root = new ServletRequestAdapter(servletRequest("/ns/team-a", null), "/ns/team-a");
+
+        // 验证
+        assertEquals("/orders/1?page=2&tag=x", plain.getUrl());
+        assertEquals("http://localhost:8080/orders/1?page=2&tag=x", plain.getAbsoluteUrl());
+        assertEquals("2", plain.queryParameter("page").firstValue());
+        assertFalse(plain.queryParameter("missing").isPresent());
+        assertEquals("/orders", stripped.getUrl());
+        assertEquals("http://localhost:8080/orders", stripped.getAbsoluteUrl());
+        assertEquals("/", root.getUrl());
+        assertEquals(RequestMethod.POST, plain.getMethod());
+    }
+
+    @Test
+    @DisplayName("只读取路径与单个请求头时不枚举请求头、不读取请求体")
+    void testLazyMaterialization() {
+        // 准备
+        CountingRequest counting = new CountingRequest(servletRequest("/orders", null));
+        ServletRequestAdapter adapter = new ServletRequestAdapter(counting, null);
+
+        // 执行
+        adapter.getUrl();
+        adapter.getMethod();
+        String contentType = adapter.getHeader("content-type");
+
+        // 验证
+        assertEquals("application/json", contentType);
+        assertEquals(0, counting.headerNames.get());
+        assertEquals(0, counting.bodyReads.get());
+
+        // 执行
+        byte[] body = adapter.getBody();
+
+        // 验证
+        assertSame(body, adapter.getBody());
+        assertSame(adapter.getBodyAsString(), adapter.getBodyAsString());
+        assertEquals("{\"id\": 1}", adapter.getBodyAsString());
+        assertEquals(1, counting.bodyReads.get());
+        assertSame(adapter.getHeaders(), adapter.getHeaders());
+        assertEquals(1, counting.headerNames.get());
+    }
+
+    @Test
+    @DisplayName("多值请求头与 Cookie 在 WireMock 请求快照中保持一致")
+    void testSnapshot() {
+        // 准备
+        MockHttpServletRequest servletRequest = servletRequest("/orders", "page=1");
+        servletRequest.setCookies(new Cookie("session", "s1"), new Cookie("session", "s2"), new Cookie("lang", "zh"));
+        ServletRequestAdapter adapter = new ServletRequestAdapter(servletRequest, null);
+
+        // 执行
+        LoggedRequest logged = LoggedRequest.createFrom(adapter);
+
+        // 验证
+        assertEquals(2, adapter.header("x-tag").values().size());
+        assertEquals(2, logged.getHeaders().getHeader("X-Tag").values().size());
+        assertFalse(adapter.header("X-Missing").isPresent());
+        assertTrue(adapter.containsHeader("X-TAG"));
+        assertEquals("application/json", adapter.contentTypeHeader().mimeTypePart());
+        assertEquals(2, logged.getCookies().get("session").values().size());
+        assertEquals("zh", logged.getCookies().get("lang").firstValue());
+        assertEquals("/orders?page=1", logged.getUrl());
+        assertEquals("{\"id\": 1}", logged.getBodyAsString());
+    }
+
+    /**
+     * 统计请求头枚举与请求体读取次数
+     */
+    private static final class CountingRequest extends HttpServletRequestWrapper {
+
+        private final AtomicInteger headerNames = new AtomicInteger();
+        private final AtomicInteger bodyReads = new AtomicInteger();
+
+        CountingRequest(MockHttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            headerNames.incrementAndGet();
+            return super.getHeaderNames();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            bodyReads.incrementAndGet();
+            return super.getInputStream();
+        }
+    }
+}
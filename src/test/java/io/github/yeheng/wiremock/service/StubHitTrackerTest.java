@@ -0,0 +1,176 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.repository.StubMappingRepository;
+
+/**
+ * StubHitTracker 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StubHitTracker 测试")
+class StubHitTrackerTest {
+
+    private static final String UUID_A = "7f5c2d36-0c8a-4c3e-9d2b-1a2b3c4d5e6f";
+    private static final String UUID_B = "0b1c2d3e-4f50-6172-8394-a5b6c7d8e9f0";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StubMappingRepository stubMappingRepository;
+
+    private WireMockProperties properties;
+    private StubHitTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WireMockProperties();
+        tracker = new StubHitTracker(jdbcTemplate, stubMappingRepository, properties);
+    }
+
+    private Response matchedResponse(String uuid) {
+        return Response.response()
+                .status(200)
+                .headers(new HttpHeaders(new HttpHeader("Matched-Stub-Id", uuid)))
+                .build();
+    }
+
+    @Test
+    @DisplayName("flush - 多个 stub 的命中合并为一次批量更新")
+    @SuppressWarnings("unchecked")
+    void testFlush_SingleBatchUpdate() {
+        tracker.record(matchedResponse(UUID_A), 120_000);
+        tracker.record(matchedResponse(UUID_A), 80_000);
+        tracker.record(matchedResponse(UUID_B), 50_000);
+
+        tracker.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), captor.capture());
+        List<Object[]> batch = captor.getValue();
+        assertEquals(2, batch.size());
+        long total = batch.stream().mapToLong(row -> (Long) row[0]).sum();
+        assertEquals(3, total);
+
+        // 已回写的增量不应重复回写
+        tracker.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("record - 未命中的响应不计数")
+    void testRecord_UnmatchedResponseIgnored() {
+        tracker.record(Response.notConfigured(), 10_000);
+        tracker.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("record - 关闭统计后不计数")
+    void testRecord_Disabled() {
+        properties.getHitStats().setEnabled(false);
+
+        tracker.record(matchedResponse(UUID_A), 10_000);
+        tracker.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("flush - 回写失败时保留增量")
+    @SuppressWarnings("unchecked")
+    void testFlush_FailureKeepsPendingHits() {
+        tracker.record(UUID_A, 10_000);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"))
+                .thenReturn(new int[] { 1 });
+
+        tracker.flush();
+        tracker.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), captor.capture());
+        assertEquals(1L, captor.getAllValues().get(1).get(0)[0]);
+    }
+
+    @Test
+    @DisplayName("heat - 合并数据库计数与未回写的增量及延迟窗口")
+    void testHeat_MergesPendingHits() {
+        StubMapping stub = new StubMapping();
+        stub.setId(1L);
+        stub.setUuid(UUID_A);
+        stub.setName("热点接口");
+        stub.setMethod("GET");
+        stub.setUrl("/api/hot");
+        stub.setHitCount(10L);
+        when(stubMappingRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(stub)));
+
+        tracker.record(UUID_A, 100_000);
+        // 滚动窗口但回写失败，增量仍在内存中
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+        tracker.rollAndFlush();
+        tracker.record(UUID_A, 100_000);
+
+        List<StubHitTracker.StubHeat> heat = tracker.heat(10, false);
+
+        assertEquals(1, heat.size());
+        assertEquals(12L, heat.get(0).hitCount());
+        assertEquals(1L, heat.get(0).recentHits());
+        assertTrue(heat.get(0).recentP99Micros() >= 100);
+        assertNotNull(heat.get(0).lastHitAt());
+    }
+
+    @Test
+    @DisplayName("rollAndFlush - 整个窗口内没有命中的条目在回写后移除")
+    void testRollAndFlush_EvictsIdleEntries() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1, 1 });
+        tracker.record(UUID_A, 10_000);
+        tracker.record(UUID_B, 10_000);
+
+        // 第一个窗口两个 stub 都有命中，回写后保留
+        tracker.rollAndFlush();
+        assertEquals(2, tracker.trackedCount());
+
+        // 第二个窗口只有 A 命中（B 例如已被删除），B 被移除
+        tracker.record(UUID_A, 10_000);
+        tracker.rollAndFlush();
+        assertEquals(1, tracker.trackedCount());
+
+        // 第三个窗口没有命中，全部移除
+        tracker.rollAndFlush();
+        assertEquals(0, tracker.trackedCount());
+
+        // 回写失败时增量仍未落库，条目保留
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+        tracker.record(UUID_B, 10_000);
+        tracker.rollAndFlush();
+        tracker.rollAndFlush();
+        assertEquals(1, tracker.trackedCount());
+    }
+}
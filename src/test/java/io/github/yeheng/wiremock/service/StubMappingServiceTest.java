@@ -1,5 +1,6 @@
 package io.github.yeheng.wiremock.service;
 
+import io.github.yeheng.wiremock.entity.StubChangeLog;
 import io.github.yeheng.wiremock.entity.StubMapping;
 import io.github.yeheng.wiremock.repository.StubMappingRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -13,11 +14,20 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -38,6 +48,9 @@ class StubMappingServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private StubReplicator stubReplicator;
+
     @InjectMocks
     private StubMappingService stubMappingService;
 
@@ -178,6 +191,38 @@ class StubMappingServiceTest {
         verify(stubMappingRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("测试 createStub - 模板化 Stub 只校验模板语法")
+    void testCreateStub_Templated() throws Exception {
+        // 准备
+        when(wireMockManager.isRunning()).thenReturn(true);
+        when(stubMappingRepository.save(any(StubMapping.class))).thenReturn(testStub);
+        testStub.setTemplated(true);
+        testStub.setResponseDefinition("{\"id\": {{request.path.2}}}");
+
+        // 执行
+        stubMappingService.createStub(testStub);
+
+        // 验证
+        verify(objectMapper, never()).readTree(anyString());
+        verify(wireMockManager).addStubMapping(testStub);
+    }
+
+    @Test
+    @DisplayName("测试 createStub - 验证失败 - 模板表达式无效")
+    void testCreateStub_ValidationFailed_InvalidTemplate() {
+        // 准备
+        when(wireMockManager.isRunning()).thenReturn(true);
+        testStub.setTemplated(true);
+        testStub.setResponseDefinition("{\"id\": \"{{request.cookies.id}}\"}");
+
+        // 执行 & 验证
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> stubMappingService.createStub(testStub));
+        assertTrue(error.getMessage().startsWith("响应模板无效"));
+        verify(stubMappingRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("测试 getAllStubs - 返回所有 Stubs")
     void testGetAllStubs() {
@@ -318,6 +363,23 @@ class StubMappingServiceTest {
         verify(stubMappingRepository).delete(testStub);
     }
 
+    @Test
+    @DisplayName("测试写操作在同一事务中追加变更日志")
+    void testWritesRecordChangeLog() {
+        // 准备
+        when(wireMockManager.isRunning()).thenReturn(true);
+        when(stubMappingRepository.save(any(StubMapping.class))).thenReturn(testStub);
+        when(stubMappingRepository.findById(1L)).thenReturn(Optional.of(testStub));
+
+        // 执行
+        stubMappingService.createStub(testStub);
+        stubMappingService.deleteStub(1L);
+
+        // 验证
+        verify(stubReplicator).record(testStub, StubChangeLog.Operation.UPSERT);
+        verify(stubReplicator).record(testStub, StubChangeLog.Operation.DELETE);
+    }
+
     @Test
     @DisplayName("测试 deleteStub - Stub 不存在")
     void testDeleteStub_NotFound() {
@@ -541,4 +603,111 @@ class StubMappingServiceTest {
         verify(wireMockManager, never()).removeStubMapping(any());
         verify(wireMockManager, never()).addStubMapping(any());
     }
+
+    @Test
+    @DisplayName("测试 createStubs - 一次查询完成查重，跳过已存在的 method + url")
+    void testCreateStubs_SingleDedupeQuery() {
+        // 准备
+        StubMapping duplicate = new StubMapping();
+        duplicate.setName("重复接口");
+        duplicate.setMethod("GET");
+        duplicate.setUrl("/api/users");
+        duplicate.setEnabled(true);
+        duplicate.setResponseDefinition("{\"status\": \"dup\"}");
+
+        StubMapping sameUrlOtherMethod = new StubMapping();
+        sameUrlOtherMethod.setName("同URL不同方法");
+        sameUrlOtherMethod.setMethod("POST");
+        sameUrlOtherMethod.setUrl("/api/users");
+        sameUrlOtherMethod.setEnabled(true);
+        sameUrlOtherMethod.setResponseDefinition("{\"status\": \"created\"}");
+
+        when(wireMockManager.isRunning()).thenReturn(true);
+        when(stubMappingRepository.findDedupeKeysByUrlIn(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] {"default", "GET", "/api/users", null}));
+        when(stubMappingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // 执行
+        List<StubMapping> result = stubMappingService.createStubs(List.of(duplicate, sameUrlOtherMethod, disabledStub));
+
+        // 验证
+        assertEquals(List.of(sameUrlOtherMethod, disabledStub), result);
+        verify(stubMappingRepository, times(1)).findDedupeKeysByUrlIn(anyCollection());
+        verify(stubMappingRepository, never()).findByMethodAndUrl(anyString(), anyString());
+        verify(wireMockManager).addStubMapping(sameUrlOtherMethod);
+        verify(wireMockManager, never()).addStubMapping(disabledStub);
+    }
+
+    @Test
+    @DisplayName("测试 createStubs - 其他命名空间中相同的 method + url 不算重复")
+    void testCreateStubs_DedupePerNamespace() {
+        // 准备
+        StubMapping sameInDefault = new StubMapping();
+        sameInDefault.setName("默认命名空间");
+        sameInDefault.setMethod("GET");
+        sameInDefault.setUrl("/api/users");
+        sameInDefault.setEnabled(true);
+        sameInDefault.setResponseDefinition("{\"status\": \"dup\"}");
+
+        StubMapping teamB = new StubMapping();
+        teamB.setName("team-b 命名空间");
+        teamB.setNamespace("team-b");
+        teamB.setMethod("GET");
+        teamB.setUrl("/api/users");
+        teamB.setEnabled(true);
+        teamB.setResponseDefinition("{\"status\": \"team-b\"}");
+
+        when(wireMockManager.isRunning()).thenReturn(true);
+        when(stubMappingRepository.findDedupeKeysByUrlIn(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] {"default", "GET", "/api/users", null}));
+        when(stubMappingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // 执行
+        List<StubMapping> result = stubMappingService.createStubs(List.of(sameInDefault, teamB));
+
+        // 验证
+        assertEquals(List.of(teamB), result);
+        verify(wireMockManager).addStubMapping(teamB);
+    }
+
+    @Test
+    @DisplayName("测试 createStub - JFR 写入事件在事务完成后记录，提交失败记为 ERROR")
+    void testCreateStub_WriteEventRecordsTransactionOutcome() throws Exception {
+        // 准备
+        testStub.setUuid("uuid-jfr");
+        when(wireMockManager.isRunning()).thenReturn(true);
+        when(stubMappingRepository.save(any(StubMapping.class))).thenReturn(testStub);
+        Path file = Files.createTempFile("stub-write-", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("wiremock.StubWrite").withThreshold(Duration.ZERO);
+            recording.start();
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // 执行：方法返回后事务提交失败
+                stubMappingService.createStub(testStub);
+                for (TransactionSynchronization synchronization : TransactionSynchronizationManager
+                        .getSynchronizations()) {
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+                }
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // 验证
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("wiremock.StubWrite"))
+                    .toList();
+            assertEquals(1, events.size());
+            assertEquals("CREATE", events.get(0).getString("operation"));
+            assertEquals("uuid-jfr", events.get(0).getString("stubUuid"));
+            assertEquals("ERROR", events.get(0).getString("outcome"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
 }
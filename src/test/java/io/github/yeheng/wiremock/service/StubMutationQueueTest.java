@@ -0,0 +1,156 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.yeheng.wiremock.entity.StubMapping;
+
+/**
+ * StubMutationQueue 单元测试 - 合并、版本排序与任务顺序
+ */
+@DisplayName("StubMutationQueue 测试")
+class StubMutationQueueTest {
+
+    private final List<List<StubMutationQueue.Mutation>> batches = new CopyOnWriteArrayList<>();
+    private final StubMutationQueue queue = new StubMutationQueue(batch -> batches.add(new ArrayList<>(batch)));
+
+    @AfterEach
+    void tearDown() {
+        queue.stop();
+    }
+
+    private static StubMapping stub(String uuid, long version) {
+        StubMapping stub = new StubMapping();
+        stub.setUuid(uuid);
+        stub.setName("stub-" + uuid);
+        stub.setChangeVersion(version > 0 ? version : null);
+        return stub;
+    }
+
+    /**
+     * 用一个阻塞任务占住写线程，使后续变更积压到同一批次
+     */
+    private CountDownLatch blockWriter() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue.submitTask(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    @Test
+    @DisplayName("积压的同一 stub 多次变更合并为最后一次")
+    void testCoalescePerStub() throws Exception {
+        // 准备
+        CountDownLatch release = blockWriter();
+        CompletableFuture<Void> first = queue.submit(StubMutationQueue.Mutation.upsert(stub("a", 0), null, null, null));
+        queue.submit(StubMutationQueue.Mutation.upsert(stub("b", 0), null, null, null));
+        CompletableFuture<Void> last = queue.submit(StubMutationQueue.Mutation.remove(stub("a", 0), "a"));
+
+        // 执行
+        release.countDown();
+        last.get(5, TimeUnit.SECONDS);
+
+        // 验证
+        assertTrue(first.isDone());
+        assertEquals(1, batches.size());
+        List<StubMutationQueue.Mutation> batch = batches.get(0);
+        assertEquals(2, batch.size());
+        assertEquals("b", batch.get(0).key());
+        assertEquals("a", batch.get(1).key());
+        assertEquals(StubMutationQueue.Type.REMOVE, batch.get(1).type());
+    }
+
+    @Test
+    @DisplayName("晚到但版本更旧的变更被丢弃")
+    void testDropsStaleVersion() throws Exception {
+        // 执行
+        queue.submit(StubMutationQueue.Mutation.remove(stub("a", 6), "a")).get(5, TimeUnit.SECONDS);
+        CompletableFuture<Void> stale = queue.submit(StubMutationQueue.Mutation.upsert(stub("a", 5), null, null, null));
+        stale.get(5, TimeUnit.SECONDS);
+        queue.submit(StubMutationQueue.Mutation.upsert(stub("a", 7), null, null, null)).get(5, TimeUnit.SECONDS);
+
+        // 验证
+        assertEquals(2, batches.size());
+        assertEquals(StubMutationQueue.Type.REMOVE, batches.get(0).get(0).type());
+        assertEquals(7, batches.get(1).get(0).version());
+    }
+
+    @Test
+    @DisplayName("同一批次内按版本号保留最新变更")
+    void testKeepsNewestVersionInBatch() throws Exception {
+        // 准备
+        CountDownLatch release = blockWriter();
+        queue.submit(StubMutationQueue.Mutation.remove(stub("a", 9), "a"));
+        CompletableFuture<Void> late = queue.submit(StubMutationQueue.Mutation.upsert(stub("a", 8), null, null, null));
+
+        // 执行
+        release.countDown();
+        late.get(5, TimeUnit.SECONDS);
+
+        // 验证
+        assertEquals(1, batches.size());
+        assertEquals(StubMutationQueue.Type.REMOVE, batches.get(0).get(0).type());
+    }
+
+    @Test
+    @DisplayName("任务在之前排队的变更应用之后执行，且清空已应用版本")
+    void testTaskOrdering() throws Exception {
+        // 准备
+        List<String> order = new CopyOnWriteArrayList<>();
+        StubMutationQueue ordered = new StubMutationQueue(batch -> order.add("batch"));
+        try {
+            // 执行
+            ordered.submit(StubMutationQueue.Mutation.upsert(stub("a", 3), null, null, null));
+            ordered.submitTask(() -> order.add("task")).get(5, TimeUnit.SECONDS);
+            ordered.submit(StubMutationQueue.Mutation.upsert(stub("a", 1), null, null, null)).get(5, TimeUnit.SECONDS);
+
+            // 验证：重载后版本记录清空，旧版本号的变更重新生效
+            assertEquals(List.of("batch", "task", "batch"), order);
+        } finally {
+            ordered.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("批次应用失败时变更的 future 异常完成，写线程继续工作")
+    void testFailurePropagation() throws Exception {
+        // 准备
+        StubMutationQueue failing = new StubMutationQueue(batch -> {
+            if ("bad".equals(batch.get(0).key())) {
+                throw new IllegalArgumentException("转换失败");
+            }
+        });
+        try {
+            // 执行
+            CompletableFuture<Void> bad = failing.submit(StubMutationQueue.Mutation.upsert(stub("bad", 0), null, null, null));
+            ExecutionException error = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+            CompletableFuture<Void> good = failing.submit(StubMutationQueue.Mutation.upsert(stub("good", 0), null, null, null));
+
+            // 验证
+            assertInstanceOf(IllegalArgumentException.class, error.getCause());
+            good.get(5, TimeUnit.SECONDS);
+            assertFalse(good.isCompletedExceptionally());
+        } finally {
+            failing.stop();
+        }
+    }
+}
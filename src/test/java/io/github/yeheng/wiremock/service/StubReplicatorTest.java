@@ -0,0 +1,173 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import io.github.yeheng.wiremock.config.WireMockProperties;
+import io.github.yeheng.wiremock.entity.StubChangeLog;
+import io.github.yeheng.wiremock.entity.StubMapping;
+import io.github.yeheng.wiremock.repository.StubChangeLogRepository;
+import io.github.yeheng.wiremock.repository.StubMappingRepository;
+
+/**
+ * StubReplicator 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StubReplicator 测试")
+class StubReplicatorTest {
+
+    @Mock(strictness = Mock.Strictness.LENIENT)
+    private StubChangeLogRepository changeLogRepository;
+
+    @Mock(strictness = Mock.Strictness.LENIENT)
+    private StubMappingRepository stubMappingRepository;
+
+    @Mock
+    private WireMockManager wireMockManager;
+
+    private StubReplicator replicator;
+
+    @BeforeEach
+    void setUp() {
+        WireMockProperties properties = new WireMockProperties();
+        properties.getReplication().setNodeId("node-self");
+        replicator = new StubReplicator(changeLogRepository, stubMappingRepository, wireMockManager, properties);
+        replicator.init();
+    }
+
+    private static StubMapping stub(long id, boolean enabled) {
+        StubMapping stub = new StubMapping();
+        stub.setId(id);
+        stub.setUuid("00000000-0000-0000-0000-00000000000" + id);
+        stub.setName("stub-" + id);
+        stub.setMethod("GET");
+        stub.setUrl("/api/" + id);
+        stub.setEnabled(enabled);
+        stub.setNamespace("team-a");
+        return stub;
+    }
+
+    private static StubChangeLog change(long version, StubMapping stub, StubChangeLog.Operation operation,
+            String nodeId) {
+        StubChangeLog change = new StubChangeLog(stub, operation, nodeId);
+        change.setVersion(version);
+        return change;
+    }
+
+    @Test
+    @DisplayName("应用其他节点的变更并跳过本节点写入的变更")
+    void testPollAppliesRemoteChangesOnly() {
+        // 准备
+        StubMapping remote = stub(1, true);
+        StubMapping own = stub(2, true);
+        when(changeLogRepository.findByVersionGreaterThanOrderByVersionAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        change(1, remote, StubChangeLog.Operation.UPSERT, "node-other"),
+                        change(2, own, StubChangeLog.Operation.UPSERT, "node-self")));
+        when(stubMappingRepository.findAllById(any())).thenReturn(List.of(remote));
+
+        // 执行
+        int applied = replicator.pollOnce();
+
+        // 验证
+        assertEquals(1, applied);
+        assertEquals(2, replicator.getAppliedVersion());
+        verify(wireMockManager).upsertStubMapping(remote);
+        verify(wireMockManager, never()).upsertStubMapping(own);
+    }
+
+    @Test
+    @DisplayName("同一 stub 的多条变更只应用一次，已删除的 stub 按日志中的 UUID 与命名空间移除")
+    void testPollCoalescesAndRemovesDeleted() {
+        // 准备
+        StubMapping deleted = stub(3, true);
+        when(changeLogRepository.findByVersionGreaterThanOrderByVersionAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        change(1, deleted, StubChangeLog.Operation.UPSERT, "node-other"),
+                        change(2, deleted, StubChangeLog.Operation.DELETE, "node-other")));
+        when(stubMappingRepository.findAllById(any())).thenReturn(List.of());
+
+        // 执行
+        int applied = replicator.pollOnce();
+
+        // 验证
+        assertEquals(1, applied);
+        ArgumentCaptor<StubMapping> removed = ArgumentCaptor.forClass(StubMapping.class);
+        verify(wireMockManager).removeStubMapping(removed.capture());
+        assertEquals(deleted.getUuid(), removed.getValue().getUuid());
+        assertEquals("team-a", removed.getValue().getNamespace());
+        verify(wireMockManager, never()).upsertStubMapping(any());
+    }
+
+    @Test
+    @DisplayName("跳过的版本号在后续拉取中补上")
+    void testPollRetriesGaps() {
+        // 准备
+        StubMapping first = stub(1, true);
+        StubMapping late = stub(2, true);
+        StubMapping third = stub(3, true);
+        when(changeLogRepository.findByVersionGreaterThanOrderByVersionAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        change(1, first, StubChangeLog.Operation.UPSERT, "node-other"),
+                        change(3, third, StubChangeLog.Operation.UPSERT, "node-other")));
+        when(stubMappingRepository.findAllById(any())).thenReturn(List.of(first, third)).thenReturn(List.of(late));
+        replicator.pollOnce();
+        assertEquals(1, replicator.status().pendingGaps());
+
+        // 执行 - 版本 2 的事务随后提交
+        when(changeLogRepository.findByVersionIn(List.of(2L)))
+                .thenReturn(List.of(change(2, late, StubChangeLog.Operation.UPSERT, "node-other")));
+        int applied = replicator.pollOnce();
+
+        // 验证
+        assertEquals(1, applied);
+        assertEquals(3, replicator.getAppliedVersion());
+        assertEquals(0, replicator.status().pendingGaps());
+        verify(wireMockManager).upsertStubMapping(late);
+    }
+
+    @Test
+    @DisplayName("未拉取的变更已被清理时全量重载")
+    void testPollResyncsWhenLogPruned() {
+        // 准备
+        StubMapping stub = stub(1, true);
+        when(changeLogRepository.findByVersionGreaterThanOrderByVersionAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(change(50, stub, StubChangeLog.Operation.UPSERT, "node-other")));
+        when(changeLogRepository.findOldestVersion()).thenReturn(50L);
+        when(changeLogRepository.findLatestVersion()).thenReturn(60L);
+        when(stubMappingRepository.findAll()).thenReturn(List.of(stub));
+
+        // 执行
+        replicator.pollOnce();
+
+        // 验证
+        verify(wireMockManager).reloadAllStubs(List.of(stub));
+        assertEquals(60, replicator.getAppliedVersion());
+    }
+
+    @Test
+    @DisplayName("status 报告落后的版本数")
+    void testStatusReportsLag() {
+        // 准备
+        when(changeLogRepository.findLatestVersion()).thenReturn(5L);
+
+        // 执行
+        StubReplicator.ReplicationStatus status = replicator.status();
+
+        // 验证
+        assertEquals("node-self", status.nodeId());
+        assertEquals(5, status.lagVersions());
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.yeheng.wiremock.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.EqualToJsonPattern;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+
+/**
+ * ViewEqualToJsonPattern 单元测试 - 与 WireMock equalToJson 结果一致
+ */
+@DisplayName("ViewEqualToJsonPattern 测试")
+class ViewEqualToJsonPatternTest {
+
+    private static final String EXPECTED = "{\"user\": {\"id\": 1, \"tags\": [\"a\", \"b\"]}}";
+
+    private static RequestView view(String body) {
+        return RequestView.of(ImmutableRequest.create()
+                .withAbsoluteUrl("http://localhost:8080/users")
+                .withMethod(RequestMethod.POST)
+                .withProtocol("HTTP/1.1")
+                .withClientIp("127.0.0.1")
+                .withHeader("Content-Type", "application/json")
+                .withBody(body.getBytes(StandardCharsets.UTF_8))
+                .build());
+    }
+
+    private static RequestPattern pattern(EqualToJsonPattern bodyPattern) {
+        return WireMock.post(WireMock.urlPathEqualTo("/users"))
+                .withRequestBody(bodyPattern)
+                .build()
+                .getRequest();
+    }
+
+    @Test
+    @DisplayName("经视图匹配与 WireMock equalToJson 的结果和距离一致")
+    void testSameResultAsWireMock() {
+        // 准备
+        RequestPattern viewPattern = pattern(new ViewEqualToJsonPattern(EXPECTED, true, true));
+        RequestPattern wireMockPattern = pattern(new EqualToJsonPattern(EXPECTED, true, true));
+        String[] bodies = {
+                "{\"user\": {\"tags\": [\"b\", \"a\"], \"id\": 1.0, \"name\": \"x\"}, \"extra\": true}",
+                "{\"user\": {\"id\": 2, \"tags\": [\"a\"]}}",
+                "{\"user\": ",
+                "[]"
+        };
+
+        for (String body : bodies) {
+            // 执行
+            MatchResult viaView = view(body).match(viewPattern, Map.of());
+            MatchResult viaWireMock = wireMockPattern.match(view(body));
+
+            // 验证
+            assertEquals(viaWireMock.isExactMatch(), viaView.isExactMatch(), body);
+            assertEquals(viaWireMock.getDistance(), viaView.getDistance(), 1e-9, body);
+        }
+    }
+
+    @Test
+    @DisplayName("规范形式快速判定与 WireMock equalToJson 在各种比较选项下结果一致")
+    void testCanonicalFastPath() {
+        // 准备
+        String[] expectations = {
+                EXPECTED,
+                "{\"user\": {\"id\": \"${json-unit.any-number}\"}}",
+                "{\"items\": [{\"sku\": \"A\", \"qty\": 2}, {\"sku\": \"B\", \"qty\": 1}]}",
+                "[1, 2, 3]"
+        };
+        String[] bodies = {
+                EXPECTED,
+                "{\"user\": {\"tags\": [\"b\", \"a\"], \"id\": 1.0}}",
+                "{\"user\": {\"tags\": [\"a\", \"b\", \"c\"], \"id\": 1, \"name\": \"x\"}}",
+                "{\"user\": {\"id\": 1}}",
+                "{\"user\": {\"id\": \"1\", \"tags\": [\"a\", \"b\"]}}",
+                "{\"items\": [{\"qty\": 1, \"sku\": \"B\"}, {\"sku\": \"A\", \"qty\": 2.0}]}",
+                "{\"items\": [{\"sku\": \"A\", \"qty\": 2, \"note\": \"n\"}, {\"sku\": \"B\", \"qty\": 1}, {}]}",
+                "[3, 1, 2]",
+                "[1, 2, 3, 4]",
+                "{}"
+        };
+        boolean[] flags = {true, false};
+
+        for (String expected : expectations) {
+            for (boolean ignoreArrayOrder : flags) {
+                for (boolean ignoreExtraElements : flags) {
+                    RequestPattern viewPattern = pattern(
+                            new ViewEqualToJsonPattern(expected, ignoreArrayOrder, ignoreExtraElements));
+                    RequestPattern wireMockPattern = pattern(
+                            new EqualToJsonPattern(expected, ignoreArrayOrder, ignoreExtraElements));
+                    for (String body : bodies) {
+                        // 执行
+                        MatchResult viaView = view(body).match(viewPattern, Map.of());
+                        MatchResult viaWireMock = wireMockPattern.match(view(body));
+
+                        // 验证
+                        String message = expected + " / " + body + " / " + ignoreArrayOrder + ", " + ignoreExtraElements;
+                        assertEquals(viaWireMock.isExactMatch(), viaView.isExactMatch(), message);
+                        assertEquals(viaWireMock.getDistance(), viaView.getDistance(), 1e-9, message);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("不在视图匹配中时按原方式解析，名称仍为 equalToJson")
+    void testWithoutView() {
+        // 准备
+        ViewEqualToJsonPattern pattern = new ViewEqualToJsonPattern(EXPECTED, false, false);
+
+        // 验证
+        assertEquals("equalToJson", pattern.getName());
+        assertTrue(pattern.match(EXPECTED).isExactMatch());
+        assertFalse(pattern.match("{\"user\": {\"id\": 1, \"tags\": [\"b\", \"a\"]}}").isExactMatch());
+    }
+}
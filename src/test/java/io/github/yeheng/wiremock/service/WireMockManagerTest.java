@@ -16,8 +16,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.github.yeheng.wiremock.config.WireMockProperties;
 import io.github.yeheng.wiremock.entity.StubMapping;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -38,6 +40,21 @@ class WireMockManagerTest {
     @Mock(lenient = true)
     private StubMappingConverter stubMappingConverter;
 
+    @Mock(lenient = true)
+    private StubHitTracker stubHitTracker;
+
+    @Mock(lenient = true)
+    private NearMissSampler nearMissSampler;
+
+    @Mock(lenient = true)
+    private NamespaceResolver namespaceResolver;
+
+    @Mock(lenient = true)
+    private ProxyRecorder proxyRecorder;
+
+    @Spy
+    private WireMockProperties properties = new WireMockProperties();
+
     @InjectMocks
     private WireMockManager wireMockManager;
 
@@ -68,6 +85,8 @@ class WireMockManagerTest {
             throw new RuntimeException("Failed to initialize WireMockManager", e);
         }
 
+        when(stubMappingConverter.getScenarioStateStore()).thenReturn(new ScenarioStateStore());
+
         // 创建测试用的 StubMapping
         testStub = new StubMapping();
         testStub.setName("测试接口");
@@ -338,6 +357,63 @@ class WireMockManagerTest {
         assertEquals(testStub.getName(), stubs.get(0).getName());
     }
 
+    @Test
+    @DisplayName("测试命名空间隔离 - 重置一个命名空间不影响其他命名空间")
+    void testNamespaceIsolation() {
+        // 准备
+        when(stubMappingConverter.convert(any(StubMapping.class))).thenAnswer(invocation -> {
+            StubMapping stub = invocation.getArgument(0);
+            return com.github.tomakehurst.wiremock.client.WireMock.get(stub.getUrl())
+                .willReturn(com.github.tomakehurst.wiremock.client.WireMock.aResponse().withStatus(200));
+        });
+        StubMapping teamA = new StubMapping();
+        teamA.setName("团队A接口");
+        teamA.setMethod("GET");
+        teamA.setUrl("/api/test");
+        teamA.setEnabled(true);
+        teamA.setNamespace("team-a");
+
+        // 执行
+        wireMockManager.addStubMapping(testStub);
+        wireMockManager.addStubMapping(teamA);
+
+        // 验证
+        assertEquals(2, wireMockManager.getAllStubs().size());
+        assertEquals(1, wireMockManager.getAllStubs("team-a").size());
+        assertEquals(1, wireMockManager.getAllStubs(StubMapping.DEFAULT_NAMESPACE).size());
+
+        wireMockManager.reset("team-a");
+        assertTrue(wireMockManager.getAllStubs("team-a").isEmpty());
+        assertEquals(1, wireMockManager.getAllStubs(StubMapping.DEFAULT_NAMESPACE).size());
+        assertEquals(List.of(StubMapping.DEFAULT_NAMESPACE), wireMockManager.getNamespaceStats().stream()
+            .map(MockEngine.NamespaceStats::namespace).toList());
+    }
+
+    @Test
+    @DisplayName("测试 reloadAllStubs - 按命名空间分组并清空缺失的命名空间")
+    void testReloadAllStubs_GroupsByNamespace() {
+        // 准备
+        when(stubMappingConverter.convert(any(StubMapping.class))).thenAnswer(invocation -> {
+            StubMapping stub = invocation.getArgument(0);
+            return com.github.tomakehurst.wiremock.client.WireMock.get(stub.getUrl())
+                .willReturn(com.github.tomakehurst.wiremock.client.WireMock.aResponse().withStatus(200));
+        });
+        StubMapping teamA = new StubMapping();
+        teamA.setName("团队A接口");
+        teamA.setMethod("GET");
+        teamA.setUrl("/api/a");
+        teamA.setEnabled(true);
+        teamA.setNamespace("team-a");
+        wireMockManager.addStubMapping(teamA);
+
+        // 执行
+        wireMockManager.reloadAllStubs(List.of(testStub));
+
+        // 验证
+        assertTrue(wireMockManager.getAllStubs("team-a").isEmpty());
+        assertEquals(1, wireMockManager.getAllStubs(StubMapping.DEFAULT_NAMESPACE).size());
+    }
+
     // 注意：getWireMockHandler() 方法已被移除，现在使用 handleRequest() 直接处理
     // 如果需要测试处理器逻辑，请使用 handleRequest() 方法
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+// 测试用前端构建产物
+export const item0 = { id: 0, name: 'stub-0' };
+export const item1 = { id: 1, name: 'stub-1' };
+export const item2 = { id: 2, name: 'stub-2' };
+export const item3 = { id: 3, name: 'stub-3' };
+export const item4 = { id: 4, name: 'stub-4' };
+export const item5 = { id: 5, name: 'stub-5' };
+export const item6 = { id: 6, name: 'stub-6' };
+export const item7 = { id: 7, name: 'stub-7' };
+export const item8 = { id: 8, name: 'stub-8' };
+export const item9 = { id: 9, name: 'stub-9' };
+export const item10 = { id: 10, name: 'stub-10' };
+export const item11 = { id: 11, name: 'stub-11' };
+export const item12 = { id: 12, name: 'stub-12' };
+export const item13 = { id: 13, name: 'stub-13' };
+export const item14 = { id: 14, name: 'stub-14' };
+export const item15 = { id: 15, name: 'stub-15' };
+export const item16 = { id: 16, name: 'stub-16' };
+export const item17 = { id: 17, name: 'stub-17' };
+export const item18 = { id: 18, name: 'stub-18' };
+export const item19 = { id: 19, name: 'stub-19' };
+export const item20 = { id: 20, name: 'stub-20' };
+export const item21 = { id: 21, name: 'stub-21' };
+export const item22 = { id: 22, name: 'stub-22' };
+export const item23 = { id: 23, name: 'stub-23' };
+export const item24 = { id: 24, name: 'stub-24' };
+export const item25 = { id: 25, name: 'stub-25' };
+export const item26 = { id: 26, name: 'stub-26' };
+export const item27 = { id: 27, name: 'stub-27' };
+export const item28 = { id: 28, name: 'stub-28' };
+export const item29 = { id: 29, name: 'stub-29' };
+export const item30 = { id: 30, name: 'stub-30' };
+export const item31 = { id: 31, name: 'stub-31' };
+export const item32 = { id: 32, name: 'stub-32' };
+export const item33 = { id: 33, name: 'stub-33' };
+export const item34 = { id: 34, name: 'stub-34' };
+export const item35 = { id: 35, name: 'stub-35' };
+export const item36 = { id: 36, name: 'stub-36' };
+export const item37 = { id: 37, name: 'stub-37' };
+export const item38 = { id: 38, name: 'stub-38' };
+export const item39 = { id: 39, name: 'stub-39' };
+export const item40 = { id: 40, name: 'stub-40' };
+export const item41 = { id: 41, name: 'stub-41' };
+export const item42 = { id: 42, name: 'stub-42' };
+export const item43 = { id: 43, name: 'stub-43' };
+export const item44 = { id: 44, name: 'stub-44' };
+export const item45 = { id: 45, name: 'stub-45' };
+export const item46 = { id: 46, name: 'stub-46' };
+export const item47 = { id: 47, name: 'stub-47' };
+export const item48 = { id: 48, name: 'stub-48' };
+export const item49 = { id: 49, name: 'stub-49' };
+export const item50 = { id: 50, name: 'stub-50' };
+export const item51 = { id: 51, name: 'stub-51' };
+export const item52 = { id: 52, name: 'stub-52' };
+export const item53 = { id: 53, name: 'stub-53' };
+export const item54 = { id: 54, name: 'stub-54' };
+export const item55 = { id: 55, name: 'stub-55' };
+export const item56 = { id: 56, name: 'stub-56' };
+export const item57 = { id: 57, name: 'stub-57' };
+export const item58 = { id: 58, name: 'stub-58' };
+export const item59 = { id: 59, name: 'stub-59' };
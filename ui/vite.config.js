@@ -3,15 +3,59 @@ import { defineConfig } from 'vite'
 import vue from '@vitejs/plugin-vue'
 import tailwindcss from '@tailwindcss/vite'
 import path from 'node:path'
+import fs from 'node:fs'
+import zlib from 'node:zlib'
+
+// 构建后为文本资源生成 .gz / .br，由后端按 Accept-Encoding 直接返回，运行时不再压缩
+const COMPRESSIBLE = /\.(js|mjs|css|html|svg|json|txt)$/
+const MIN_COMPRESS_SIZE = 1024
+
+function precompress() {
+  let outDir
+  return {
+    name: 'precompress',
+    apply: 'build',
+    configResolved(config) {
+      outDir = path.resolve(config.root, config.build.outDir)
+    },
+    closeBundle() {
+      for (const file of fs.readdirSync(outDir, { recursive: true })) {
+        const full = path.join(outDir, file)
+        if (!COMPRESSIBLE.test(file) || !fs.statSync(full).isFile()) {
+          continue
+        }
+        const content = fs.readFileSync(full)
+        if (content.length < MIN_COMPRESS_SIZE) {
+          continue
+        }
+        fs.writeFileSync(`${full}.gz`, zlib.gzipSync(content, { level: 9 }))
+        fs.writeFileSync(`${full}.br`, zlib.brotliCompressSync(content, {
+          params: { [zlib.constants.BROTLI_PARAM_QUALITY]: 11 },
+        }))
+      }
+    },
+  }
+}
 
 // https://vite.dev/config/
 export default defineConfig({
-  plugins: [vue(), tailwindcss()],
+  plugins: [vue(), tailwindcss(), precompress()],
   resolve: {
     alias: {
       '@': path.resolve(__dirname, './src'),
     },
   },
+  build: {
+    // assets/ 下的文件名带内容哈希，后端按 immutable 长期缓存
+    assetsDir: 'assets',
+    rollupOptions: {
+      output: {
+        entryFileNames: 'assets/[name]-[hash].js',
+        chunkFileNames: 'assets/[name]-[hash].js',
+        assetFileNames: 'assets/[name]-[hash][extname]',
+      },
+    },
+  },
   server: {
     proxy: {
       '/__admin': {